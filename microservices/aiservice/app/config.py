@@ -36,7 +36,7 @@ class Settings(BaseSettings):
     STRONG_SELL_THRESHOLD: float = -10.0
 
     # Recommendation Cache
-    RECOMMENDATION_MAX_AGE_HOURS: int = 4  # Re-generate if older than this
+    RECOMMENDATION_MAX_AGE_HOURS: int = 24  # Re-generate if older than this (the prediction job runs daily)
 
     # Scheduling
     PREDICTION_CRON_SCHEDULE: str = "0 0 * * *"
@@ -1,6 +1,6 @@
 from motor.motor_asyncio import AsyncIOMotorClient
 from pymongo import ASCENDING, DESCENDING
-from typing import Optional, List
+from typing import Optional, List, Dict
 from datetime import datetime, timedelta
 from loguru import logger
 
@@ -149,6 +149,25 @@ class MongoDBService:
             logger.error(f"Error fetching recommendation: {e}")
             return None
 
+    async def get_latest_recommendations(self, symbols: List[str], written_after: datetime) -> Dict[str, dict]:
+        """Get the latest recommendation of each symbol written (created or updated) after the given time, in one query"""
+        try:
+            collection = self.db[settings.RECOMMENDATION_COLLECTION]
+
+            cursor = collection.aggregate([
+                {"$match": {
+                    "symbol": {"$in": symbols},
+                    "$or": [{"updated_at": {"$gte": written_after}}, {"created_at": {"$gte": written_after}}]
+                }},
+                {"$sort": {"symbol": ASCENDING, "period": DESCENDING}},
+                {"$group": {"_id": "$symbol", "doc": {"$first": "$$ROOT"}}}
+            ])
+
+            return {item["_id"]: item["doc"] async for item in cursor}
+        except Exception as e:
+            logger.error(f"Error fetching recommendations: {e}")
+            return {}
+
     async def get_all_symbols(self) -> List[str]:
         """Get all unique symbols from historical prices time series collection"""
         try:
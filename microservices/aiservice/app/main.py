@@ -12,6 +12,7 @@ from app.models import (
     PredictionRequest,
     PredictionResponse,
     BatchPredictionRequest,
+    RecommendationBatchRequest,
     HealthResponse,
     Recommendation,
     ForecastChartResponse,
@@ -376,6 +377,66 @@ async def generate_recommendation(request: PredictionRequest):
         raise HTTPException(status_code=500, detail=str(e))
 
 
+def _recommendation_response(recommendation: dict) -> dict:
+    """Stored recommendation document as the JSON returned by the recommendation endpoints"""
+    metadata = recommendation.get("metadata")
+    created_at = recommendation.get("created_at")
+    return {
+        "symbol": recommendation.get("symbol"),
+        "recommendation": recommendation.get("recommendation"),
+        "buy": recommendation.get("buy", 0),
+        "hold": recommendation.get("hold", 0),
+        "sell": recommendation.get("sell", 0),
+        "strongBuy": recommendation.get("strongBuy", 0),
+        "strongSell": recommendation.get("strongSell", 0),
+        "metadata": metadata if metadata else None,
+        "created_at": created_at.isoformat() if hasattr(created_at, 'isoformat') else str(created_at) if created_at else None
+    }
+
+
+# Fresh Prophet runs are CPU heavy, limit how many a batch request starts at once
+RECOMMENDATION_BATCH_CONCURRENCY = 3
+
+
+@app.post("/api/recommendation/batch", tags=["Recommendation"])
+async def get_recommendations_batch(request: RecommendationBatchRequest):
+    """
+    Get the latest recommendation of several symbols in one call.
+    Stored recommendations (refreshed daily by the prediction job) younger than
+    RECOMMENDATION_MAX_AGE_HOURS are returned as is; symbols without one, or whose
+    latest one is older, get a fresh prediction. Symbols that cannot be predicted
+    are left out of the response.
+    """
+    try:
+        symbols = list(dict.fromkeys(request.symbols))
+        written_after = datetime.utcnow() - timedelta(hours=settings.RECOMMENDATION_MAX_AGE_HOURS)
+        stored = await mongodb_service.get_latest_recommendations(symbols, written_after)
+        results = {symbol: _recommendation_response(doc) for symbol, doc in stored.items()}
+
+        missing = [symbol for symbol in symbols if symbol not in stored]
+        if missing:
+            logger.info(f"No recent stored recommendation for {missing}, generating fresh ones...")
+            semaphore = asyncio.Semaphore(RECOMMENDATION_BATCH_CONCURRENCY)
+
+            async def fresh(symbol: str):
+                async with semaphore:
+                    try:
+                        return await get_recommendation(symbol)
+                    except HTTPException as e:
+                        logger.warning(f"Skipping {symbol} in batch recommendation: {e.detail}")
+                        return None
+
+            for symbol, result in zip(missing, await asyncio.gather(*(fresh(s) for s in missing))):
+                if result is not None:
+                    results[symbol] = result
+
+        return [results[symbol] for symbol in symbols if symbol in results]
+
+    except Exception as e:
+        logger.error(f"Error in batch recommendation endpoint: {e}")
+        raise HTTPException(status_code=500, detail=str(e))
+
+
 @app.get("/api/recommendation/{symbol}", tags=["Recommendation"])
 async def get_recommendation(symbol: str):
     """
@@ -399,19 +460,7 @@ async def get_recommendation(symbol: str):
                 logger.warning(
                     f"Fresh prediction failed for {symbol}, using cached recommendation"
                 )
-                metadata = recommendation.get("metadata")
-                created_at = recommendation.get("created_at")
-                return {
-                    "symbol": recommendation.get("symbol"),
-                    "recommendation": recommendation.get("recommendation"),
-                    "buy": recommendation.get("buy", 0),
-                    "hold": recommendation.get("hold", 0),
-                    "sell": recommendation.get("sell", 0),
-                    "strongBuy": recommendation.get("strongBuy", 0),
-                    "strongSell": recommendation.get("strongSell", 0),
-                    "metadata": metadata if metadata else None,
-                    "created_at": created_at.isoformat() if hasattr(created_at, 'isoformat') else str(created_at) if created_at else None
-                }
+                return _recommendation_response(recommendation)
             raise HTTPException(
                 status_code=404,
                 detail=f"Unable to generate recommendation for {symbol}. "
@@ -84,6 +84,11 @@ class BatchPredictionRequest(BaseModel):
     forecast_days: Optional[int] = 14
 
 
+class RecommendationBatchRequest(BaseModel):
+    """Request model for fetching the latest recommendations of several symbols"""
+    symbols: List[str]
+
+
 class ForecastDataPoint(BaseModel):
     """Single data point for forecast chart"""
     date: str
@@ -1,6 +1,7 @@
 package com.stockapp.aitoolsservice.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import java.time.Duration;
 import java.util.List;
 import java.util.ArrayList;
 
@@ -15,9 +16,16 @@ public class ApplicationProperties {
 
     private Gemini gemini = new Gemini();
     private StockService stockService = new StockService();
+    private AiService aiService = new AiService();
     private Finnhub finnhub = new Finnhub();
     private List<String> symbols = new ArrayList<>();
     private Security security = new Security();
+    private InsightsCache insightsCache = new InsightsCache();
+    private Analytics analytics = new Analytics();
+    private MarketData marketData = new MarketData();
+    private Alerts alerts = new Alerts();
+    private ResearchCache researchCache = new ResearchCache();
+    private PromptContext promptContext = new PromptContext();
 
     public Gemini getGemini() {
         return gemini;
@@ -35,6 +43,14 @@ public class ApplicationProperties {
         this.stockService = stockService;
     }
 
+    public AiService getAiService() {
+        return aiService;
+    }
+
+    public void setAiService(AiService aiService) {
+        this.aiService = aiService;
+    }
+
     public Finnhub getFinnhub() {
         return finnhub;
     }
@@ -59,6 +75,54 @@ public class ApplicationProperties {
         this.security = security;
     }
 
+    public InsightsCache getInsightsCache() {
+        return insightsCache;
+    }
+
+    public void setInsightsCache(InsightsCache insightsCache) {
+        this.insightsCache = insightsCache;
+    }
+
+    public Analytics getAnalytics() {
+        return analytics;
+    }
+
+    public void setAnalytics(Analytics analytics) {
+        this.analytics = analytics;
+    }
+
+    public MarketData getMarketData() {
+        return marketData;
+    }
+
+    public void setMarketData(MarketData marketData) {
+        this.marketData = marketData;
+    }
+
+    public Alerts getAlerts() {
+        return alerts;
+    }
+
+    public void setAlerts(Alerts alerts) {
+        this.alerts = alerts;
+    }
+
+    public ResearchCache getResearchCache() {
+        return researchCache;
+    }
+
+    public void setResearchCache(ResearchCache researchCache) {
+        this.researchCache = researchCache;
+    }
+
+    public PromptContext getPromptContext() {
+        return promptContext;
+    }
+
+    public void setPromptContext(PromptContext promptContext) {
+        this.promptContext = promptContext;
+    }
+
     public static class Gemini {
         private String apiKey;
         private String baseUrl = "https://generativelanguage.googleapis.com/v1beta";
@@ -98,6 +162,8 @@ public class ApplicationProperties {
                 "gemini-2.0-flash",
                 "gemini-2.5-flash");
 
+        private final Gateway gateway = new Gateway();
+
         public String getApiKey() {
             return apiKey;
         }
@@ -180,6 +246,62 @@ public class ApplicationProperties {
         public void setResearchFallbackModels(List<String> researchFallbackModels) {
             this.researchFallbackModels = researchFallbackModels;
         }
+
+        public Gateway getGateway() {
+            return gateway;
+        }
+
+        public static class Gateway {
+            // Pooled connections shared by every AI feature
+            private int maxConnections = 50;
+            private Duration responseTimeout = Duration.ofSeconds(60);
+            // Also call the next model when the first has not answered by then (unset = no hedging)
+            private Duration hedgeAfter;
+            // How long a failing model is skipped before being probed again
+            private Duration openDuration = Duration.ofSeconds(60);
+            // How long a model whose daily quota is exhausted is skipped
+            private Duration quotaCooldown = Duration.ofHours(1);
+
+            public int getMaxConnections() {
+                return maxConnections;
+            }
+
+            public void setMaxConnections(int maxConnections) {
+                this.maxConnections = maxConnections;
+            }
+
+            public Duration getResponseTimeout() {
+                return responseTimeout;
+            }
+
+            public void setResponseTimeout(Duration responseTimeout) {
+                this.responseTimeout = responseTimeout;
+            }
+
+            public Duration getHedgeAfter() {
+                return hedgeAfter;
+            }
+
+            public void setHedgeAfter(Duration hedgeAfter) {
+                this.hedgeAfter = hedgeAfter;
+            }
+
+            public Duration getOpenDuration() {
+                return openDuration;
+            }
+
+            public void setOpenDuration(Duration openDuration) {
+                this.openDuration = openDuration;
+            }
+
+            public Duration getQuotaCooldown() {
+                return quotaCooldown;
+            }
+
+            public void setQuotaCooldown(Duration quotaCooldown) {
+                this.quotaCooldown = quotaCooldown;
+            }
+        }
     }
 
     public static class StockService {
@@ -194,6 +316,66 @@ public class ApplicationProperties {
         }
     }
 
+    public static class AiService {
+        private String url = "http://aiservice:8086";
+        private int maxConnections = 10;
+        // Symbols without a stored recommendation are predicted on the fly, which is slow
+        private Duration responseTimeout = Duration.ofSeconds(60);
+        // Predictions change daily; a cached one is re-fetched on read once older than this
+        private Duration predictionTtl = Duration.ofHours(2);
+        private Duration predictionRefreshInterval = Duration.ofMinutes(30);
+        // Stop refreshing watchlist symbols nobody requested for this long
+        private Duration predictionIdleTimeout = Duration.ofDays(1);
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public Duration getResponseTimeout() {
+            return responseTimeout;
+        }
+
+        public void setResponseTimeout(Duration responseTimeout) {
+            this.responseTimeout = responseTimeout;
+        }
+
+        public Duration getPredictionTtl() {
+            return predictionTtl;
+        }
+
+        public void setPredictionTtl(Duration predictionTtl) {
+            this.predictionTtl = predictionTtl;
+        }
+
+        public Duration getPredictionRefreshInterval() {
+            return predictionRefreshInterval;
+        }
+
+        public void setPredictionRefreshInterval(Duration predictionRefreshInterval) {
+            this.predictionRefreshInterval = predictionRefreshInterval;
+        }
+
+        public Duration getPredictionIdleTimeout() {
+            return predictionIdleTimeout;
+        }
+
+        public void setPredictionIdleTimeout(Duration predictionIdleTimeout) {
+            this.predictionIdleTimeout = predictionIdleTimeout;
+        }
+    }
+
     public static class Finnhub {
         private String baseUrl = "https://finnhub.io/api/v1";
         private String apiKey;
@@ -215,6 +397,243 @@ public class ApplicationProperties {
         }
     }
 
+    public static class InsightsCache {
+        // How long a quote snapshot, and the insights generated from it, are served
+        private Duration ttl = Duration.ofMinutes(2);
+        // Rebuild requested insights this long before the snapshot expires
+        private Duration refreshAhead = Duration.ofSeconds(20);
+        // Stop refreshing insight types nobody requested for this long
+        private Duration idleTimeout = Duration.ofMinutes(10);
+        private Duration refreshCheckInterval = Duration.ofSeconds(5);
+        // Re-read today's stored insight and sector analyses this often, to pick up runs of other instances
+        private Duration dailyReloadInterval = Duration.ofMinutes(5);
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getRefreshAhead() {
+            return refreshAhead;
+        }
+
+        public void setRefreshAhead(Duration refreshAhead) {
+            this.refreshAhead = refreshAhead;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+
+        public Duration getDailyReloadInterval() {
+            return dailyReloadInterval;
+        }
+
+        public void setDailyReloadInterval(Duration dailyReloadInterval) {
+            this.dailyReloadInterval = dailyReloadInterval;
+        }
+
+        public Duration getRefreshCheckInterval() {
+            return refreshCheckInterval;
+        }
+
+        public void setRefreshCheckInterval(Duration refreshCheckInterval) {
+            this.refreshCheckInterval = refreshCheckInterval;
+        }
+    }
+
+    public static class Analytics {
+        // Trading sessions of daily returns used for correlations
+        private int correlationWindow = 60;
+        // Symbols with fewer sessions of history are left out of correlations
+        private int minObservations = 20;
+
+        public int getCorrelationWindow() {
+            return correlationWindow;
+        }
+
+        public void setCorrelationWindow(int correlationWindow) {
+            this.correlationWindow = correlationWindow;
+        }
+
+        public int getMinObservations() {
+            return minObservations;
+        }
+
+        public void setMinObservations(int minObservations) {
+            this.minObservations = minObservations;
+        }
+    }
+
+    public static class MarketData {
+        // How often the quote snapshot is re-fetched from Finnhub
+        private Duration refreshInterval = Duration.ofMinutes(1);
+        // Stop refreshing watchlist symbols nobody requested for this long
+        private Duration idleTimeout = Duration.ofDays(1);
+        // Symbols refreshed in the background, the least recently requested beyond it are dropped
+        private int maxSymbols = 40;
+        // Finnhub calls made per minute at most, refreshes and request-path fetches together (free tier allows 60)
+        private int callsPerMinute = 55;
+        // Symbols without a valid Finnhub quote are answered as unknown for this long without calling Finnhub
+        private Duration unknownSymbolTtl = Duration.ofHours(1);
+
+        public Duration getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        public void setRefreshInterval(Duration refreshInterval) {
+            this.refreshInterval = refreshInterval;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+
+        public int getMaxSymbols() {
+            return maxSymbols;
+        }
+
+        public void setMaxSymbols(int maxSymbols) {
+            this.maxSymbols = maxSymbols;
+        }
+
+        public int getCallsPerMinute() {
+            return callsPerMinute;
+        }
+
+        public void setCallsPerMinute(int callsPerMinute) {
+            this.callsPerMinute = callsPerMinute;
+        }
+
+        public Duration getUnknownSymbolTtl() {
+            return unknownSymbolTtl;
+        }
+
+        public void setUnknownSymbolTtl(Duration unknownSymbolTtl) {
+            this.unknownSymbolTtl = unknownSymbolTtl;
+        }
+    }
+
+    public static class Alerts {
+        // Maximum stock updates sent to Gemini in one alert analysis
+        private int batchSize = 7;
+        // A batch is analysed at the latest this long after its first update arrived
+        private Duration batchWindow = Duration.ofSeconds(30);
+        // Alert analyses running at the same time
+        private int maxInFlight = 2;
+        // Stock updates waiting for a batch before the Kafka consumer is held back
+        private int bufferCapacity = 256;
+        // How long the Kafka consumer is held back before an update is dropped
+        private Duration offerTimeout = Duration.ofSeconds(10);
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getBatchWindow() {
+            return batchWindow;
+        }
+
+        public void setBatchWindow(Duration batchWindow) {
+            this.batchWindow = batchWindow;
+        }
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        public void setMaxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+
+        public int getBufferCapacity() {
+            return bufferCapacity;
+        }
+
+        public void setBufferCapacity(int bufferCapacity) {
+            this.bufferCapacity = bufferCapacity;
+        }
+
+        public Duration getOfferTimeout() {
+            return offerTimeout;
+        }
+
+        public void setOfferTimeout(Duration offerTimeout) {
+            this.offerTimeout = offerTimeout;
+        }
+    }
+
+    public static class ResearchCache {
+        // A stored research result is regenerated once it is older than this
+        private Duration maxAge = Duration.ofHours(4);
+        // Prices are rounded to this many significant digits before hashing
+        private int priceDigits = 3;
+
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+        }
+
+        public int getPriceDigits() {
+            return priceDigits;
+        }
+
+        public void setPriceDigits(int priceDigits) {
+            this.priceDigits = priceDigits;
+        }
+    }
+
+    public static class PromptContext {
+        // Estimated tokens of market data added to a chat question
+        private int chatTokenBudget = 600;
+        // Estimated tokens of stock lines in watchlist summary, alert and comparison prompts
+        private int researchTokenBudget = 1500;
+        // Estimated tokens of stock lines in market insight prompts
+        private int insightsTokenBudget = 1500;
+
+        public int getChatTokenBudget() {
+            return chatTokenBudget;
+        }
+
+        public void setChatTokenBudget(int chatTokenBudget) {
+            this.chatTokenBudget = chatTokenBudget;
+        }
+
+        public int getResearchTokenBudget() {
+            return researchTokenBudget;
+        }
+
+        public void setResearchTokenBudget(int researchTokenBudget) {
+            this.researchTokenBudget = researchTokenBudget;
+        }
+
+        public int getInsightsTokenBudget() {
+            return insightsTokenBudget;
+        }
+
+        public void setInsightsTokenBudget(int insightsTokenBudget) {
+            this.insightsTokenBudget = insightsTokenBudget;
+        }
+    }
+
     public static class Security {
         private Encryption encryption = new Encryption();
 
@@ -0,0 +1,55 @@
+package com.stockapp.aitoolsservice.config.dbmigrations;
+
+import com.mongodb.client.model.Filters;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import java.util.List;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Replaces the copy of the insight that sector analyses used to embed with a reference to it:
+ * {@code daily_insight_id} is taken from the embedded copy when missing, then the copy is removed.
+ */
+@ChangeUnit(id = "industry-analysis-insight-reference", order = "001", author = "stockapp", transactional = false)
+public class IndustryAnalysisReferenceMigration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IndustryAnalysisReferenceMigration.class);
+
+    private static final String COLLECTION = "industry_analysis";
+
+    private final MongoTemplate template;
+
+    public IndustryAnalysisReferenceMigration(MongoTemplate template) {
+        this.template = template;
+    }
+
+    @Execution
+    public void changeSet() {
+        long referenced = template
+            .getCollection(COLLECTION)
+            .updateMany(
+                Filters.exists("dailyInsight"),
+                List.of(
+                    new Document(
+                        "$set",
+                        new Document(
+                            "daily_insight_id",
+                            new Document("$ifNull", List.of("$daily_insight_id", new Document("$toString", "$dailyInsight._id")))
+                        )
+                    ),
+                    new Document("$unset", "dailyInsight")
+                )
+            )
+            .getModifiedCount();
+        LOG.info("Replaced the embedded insight of {} sector analyses with a reference", referenced);
+    }
+
+    @RollbackExecution
+    public void rollback() {
+        // The embedded copies are gone; sector analyses keep their reference to the insight.
+    }
+}
@@ -22,11 +22,11 @@ public class ChatHistory implements Serializable {
     private String id;
 
     @NotNull(message = "must not be null")
-    @Encrypted
+    @Encrypted(searchable = true)
     @Field("user_id")
     private String userId;
 
-    @Encrypted
+    @Encrypted(searchable = true)
     @Field("session_id")
     private String sessionId;
 
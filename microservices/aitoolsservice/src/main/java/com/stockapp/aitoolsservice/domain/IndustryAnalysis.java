@@ -7,6 +7,7 @@ import java.io.Serializable;
 import java.time.Instant;
 import java.time.LocalDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -45,7 +46,11 @@ public class IndustryAnalysis implements Serializable {
     @Field("created_at")
     private Instant createdAt;
 
-    @Field("dailyInsight")
+    // Reference to the insight instead of an embedded copy of it
+    @Field("daily_insight_id")
+    private String dailyInsightId;
+
+    @Transient
     @JsonIgnoreProperties(value = { "industries" }, allowSetters = true)
     private DailyMarketInsight dailyInsight;
 
@@ -142,12 +147,26 @@ public class IndustryAnalysis implements Serializable {
         this.createdAt = createdAt;
     }
 
+    public String getDailyInsightId() {
+        return this.dailyInsightId;
+    }
+
+    public IndustryAnalysis dailyInsightId(String dailyInsightId) {
+        this.setDailyInsightId(dailyInsightId);
+        return this;
+    }
+
+    public void setDailyInsightId(String dailyInsightId) {
+        this.dailyInsightId = dailyInsightId;
+    }
+
     public DailyMarketInsight getDailyInsight() {
         return this.dailyInsight;
     }
 
     public void setDailyInsight(DailyMarketInsight dailyMarketInsight) {
         this.dailyInsight = dailyMarketInsight;
+        this.dailyInsightId = dailyMarketInsight != null ? dailyMarketInsight.getId() : null;
     }
 
     public IndustryAnalysis dailyInsight(DailyMarketInsight dailyMarketInsight) {
@@ -185,6 +204,7 @@ public class IndustryAnalysis implements Serializable {
             ", summary='" + getSummary() + "'" +
             ", relatedStocks='" + getRelatedStocks() + "'" +
             ", createdAt='" + getCreatedAt() + "'" +
+            ", dailyInsightId='" + getDailyInsightId() + "'" +
             "}";
     }
 }
@@ -0,0 +1,141 @@
+package com.stockapp.aitoolsservice.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * Research Cache Entry - AI research output stored under the hash of its normalized inputs
+ */
+@Document(collection = "research_cache")
+public class ResearchCacheEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** SHA-256 of the normalized prompt inputs */
+    @Id
+    private String id;
+
+    @Field("feature")
+    private String feature;
+
+    @Field("payload")
+    private String payload;
+
+    @Field("prompt_tokens")
+    private Integer promptTokens;
+
+    @Field("output_tokens")
+    private Integer outputTokens;
+
+    @Field("created_date")
+    private Instant createdDate;
+
+    public String getId() {
+        return this.id;
+    }
+
+    public ResearchCacheEntry id(String id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFeature() {
+        return this.feature;
+    }
+
+    public ResearchCacheEntry feature(String feature) {
+        this.setFeature(feature);
+        return this;
+    }
+
+    public void setFeature(String feature) {
+        this.feature = feature;
+    }
+
+    public String getPayload() {
+        return this.payload;
+    }
+
+    public ResearchCacheEntry payload(String payload) {
+        this.setPayload(payload);
+        return this;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Integer getPromptTokens() {
+        return this.promptTokens;
+    }
+
+    public ResearchCacheEntry promptTokens(Integer promptTokens) {
+        this.setPromptTokens(promptTokens);
+        return this;
+    }
+
+    public void setPromptTokens(Integer promptTokens) {
+        this.promptTokens = promptTokens;
+    }
+
+    public Integer getOutputTokens() {
+        return this.outputTokens;
+    }
+
+    public ResearchCacheEntry outputTokens(Integer outputTokens) {
+        this.setOutputTokens(outputTokens);
+        return this;
+    }
+
+    public void setOutputTokens(Integer outputTokens) {
+        this.outputTokens = outputTokens;
+    }
+
+    public Instant getCreatedDate() {
+        return this.createdDate;
+    }
+
+    public ResearchCacheEntry createdDate(Instant createdDate) {
+        this.setCreatedDate(createdDate);
+        return this;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ResearchCacheEntry)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((ResearchCacheEntry) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ResearchCacheEntry{" +
+            "id=" + getId() +
+            ", feature='" + getFeature() + "'" +
+            ", promptTokens=" + getPromptTokens() +
+            ", outputTokens=" + getOutputTokens() +
+            ", createdDate='" + getCreatedDate() + "'" +
+            "}";
+    }
+}
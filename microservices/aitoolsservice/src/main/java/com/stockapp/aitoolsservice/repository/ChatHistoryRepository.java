@@ -2,6 +2,7 @@ package com.stockapp.aitoolsservice.repository;
 
 import com.stockapp.aitoolsservice.domain.ChatHistory;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
@@ -14,7 +15,15 @@ import reactor.core.publisher.Flux;
 public interface ChatHistoryRepository extends ReactiveMongoRepository<ChatHistory, String> {
     Flux<ChatHistory> findAllBy(Pageable pageable);
 
-    Flux<ChatHistory> findByUserIdOrderByTimestampDesc(String userId);
+    /**
+     * Find by the blind index of the (encrypted) user id, see FieldEncryptionService#blindIndex.
+     */
+    @Query(value = "{ 'user_id_bidx': ?0 }", sort = "{ 'timestamp': -1 }")
+    Flux<ChatHistory> findByUserIdIndexOrderByTimestampDesc(String userIdIndex);
 
-    Flux<ChatHistory> findBySessionIdOrderByTimestampAsc(String sessionId);
+    /**
+     * Find by the blind index of the (encrypted) session id, see FieldEncryptionService#blindIndex.
+     */
+    @Query(value = "{ 'session_id_bidx': ?0 }", sort = "{ 'timestamp': 1 }")
+    Flux<ChatHistory> findBySessionIdIndexOrderByTimestampAsc(String sessionIdIndex);
 }
@@ -16,5 +16,7 @@ public interface DailyMarketInsightRepository extends ReactiveMongoRepository<Da
 
     Mono<DailyMarketInsight> findByReportDate(LocalDate reportDate);
 
+    Mono<DailyMarketInsight> findFirstByReportDateOrderByCreatedAtDesc(LocalDate reportDate);
+
     Flux<DailyMarketInsight> findAllByOrderByReportDateDesc();
 }
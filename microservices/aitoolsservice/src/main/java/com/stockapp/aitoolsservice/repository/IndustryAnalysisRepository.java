@@ -35,6 +35,11 @@ public interface IndustryAnalysisRepository extends ReactiveMongoRepository<Indu
      */
     Flux<IndustryAnalysis> findByReportDate(LocalDate reportDate);
 
+    /**
+     * Find industry analyses of a daily insight
+     */
+    Flux<IndustryAnalysis> findByDailyInsightId(String dailyInsightId);
+
     /**
      * Find industry analyses by industry name
      */
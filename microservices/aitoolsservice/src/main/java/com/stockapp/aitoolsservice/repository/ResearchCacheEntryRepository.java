@@ -0,0 +1,15 @@
+package com.stockapp.aitoolsservice.repository;
+
+import com.stockapp.aitoolsservice.domain.ResearchCacheEntry;
+import java.time.Instant;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Spring Data MongoDB reactive repository for the ResearchCacheEntry entity.
+ */
+@Repository
+public interface ResearchCacheEntryRepository extends ReactiveMongoRepository<ResearchCacheEntry, String> {
+    Mono<Long> deleteByCreatedDateBefore(Instant createdDate);
+}
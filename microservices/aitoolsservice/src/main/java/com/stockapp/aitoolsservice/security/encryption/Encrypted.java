@@ -14,4 +14,9 @@ public @interface Encrypted {
     String reason() default "";
 
     boolean maskInLogs() default true;
+
+    /**
+     * Also store an HMAC blind index in {@code <field>_bidx} for equality lookups.
+     */
+    boolean searchable() default false;
 }
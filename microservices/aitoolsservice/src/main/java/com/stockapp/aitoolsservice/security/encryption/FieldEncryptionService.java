@@ -2,9 +2,12 @@ package com.stockapp.aitoolsservice.security.encryption;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Base64;
 import javax.crypto.Cipher;
+import javax.crypto.Mac;
 import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.GCMParameterSpec;
@@ -28,7 +31,18 @@ public class FieldEncryptionService {
     private static final String PBKDF2_ALGORITHM = "PBKDF2WithHmacSHA256";
     private static final String ENCRYPTED_PREFIX = "ENC:";
 
+    /** Cipher instances are not thread-safe: reuse one per thread instead of a provider lookup per value. */
+    private static final ThreadLocal<Cipher> CIPHER = ThreadLocal.withInitial(FieldEncryptionService::newCipher);
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String BLIND_INDEX_PREFIX = "BIDX:";
+    private static final String BLIND_INDEX_SALT_SUFFIX = ":blind-index";
+    private static final int BLIND_INDEX_LENGTH = 16;
+
+    public static final String BLIND_INDEX_SUFFIX = "_bidx";
+
     private final SecretKey secretKey;
+    private final SecretKey blindIndexKey;
+    private final ThreadLocal<Mac> blindIndexMac = ThreadLocal.withInitial(this::newBlindIndexMac);
     private final SecureRandom secureRandom;
 
     public FieldEncryptionService(
@@ -39,6 +53,7 @@ public class FieldEncryptionService {
             masterKey = generateRandomMasterKey();
         }
         this.secretKey = deriveKey(masterKey, salt);
+        this.blindIndexKey = new SecretKeySpec(deriveKey(masterKey, salt + BLIND_INDEX_SALT_SUFFIX).getEncoded(), HMAC_ALGORITHM);
         this.secureRandom = new SecureRandom();
         LOG.info("✓ Field encryption service initialized");
     }
@@ -50,7 +65,7 @@ public class FieldEncryptionService {
         try {
             byte[] iv = new byte[GCM_IV_LENGTH];
             secureRandom.nextBytes(iv);
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            Cipher cipher = CIPHER.get();
             cipher.init(Cipher.ENCRYPT_MODE, secretKey, new GCMParameterSpec(GCM_TAG_LENGTH, iv));
             byte[] ciphertext = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
             ByteBuffer buffer = ByteBuffer.allocate(iv.length + ciphertext.length);
@@ -72,7 +87,7 @@ public class FieldEncryptionService {
             buffer.get(iv);
             byte[] encrypted = new byte[buffer.remaining()];
             buffer.get(encrypted);
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            Cipher cipher = CIPHER.get();
             cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(GCM_TAG_LENGTH, iv));
             return new String(cipher.doFinal(encrypted), StandardCharsets.UTF_8);
         } catch (Exception e) {
@@ -80,6 +95,49 @@ public class FieldEncryptionService {
         }
     }
 
+    /**
+     * Deterministic keyed hash (truncated HMAC-SHA256) of a plaintext value. Stored next to the
+     * ciphertext of searchable fields so equality lookups can use an index; uses a key derived
+     * separately from the encryption key.
+     */
+    public String blindIndex(String plaintext) {
+        if (plaintext == null) {
+            return null;
+        }
+
+        try {
+            byte[] digest = Arrays.copyOf(blindIndexMac.get().doFinal(plaintext.getBytes(StandardCharsets.UTF_8)), BLIND_INDEX_LENGTH);
+            return BLIND_INDEX_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (Exception e) {
+            throw new EncryptionException("Blind index computation failed", e);
+        }
+    }
+
+    private Mac newBlindIndexMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(blindIndexKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new EncryptionException("Blind index initialization failed", e);
+        }
+    }
+
+    /**
+     * Name of the document field holding the blind index of a searchable field.
+     */
+    public static String blindIndexField(String fieldName) {
+        return fieldName + BLIND_INDEX_SUFFIX;
+    }
+
+    private static Cipher newCipher() {
+        try {
+            return Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException e) {
+            throw new EncryptionException("Cipher initialization failed", e);
+        }
+    }
+
     public boolean isEncrypted(String value) {
         return value != null && value.startsWith(ENCRYPTED_PREFIX);
     }
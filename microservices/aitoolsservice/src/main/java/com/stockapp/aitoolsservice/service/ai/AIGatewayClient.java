@@ -0,0 +1,569 @@
+package com.stockapp.aitoolsservice.service.ai;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockapp.aitoolsservice.config.ApplicationProperties;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.circuitbreaker.IllegalStateTransitionException;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ChannelOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Single client for Gemini {@code generateContent} calls shared by the chat, insights and
+ * research services.
+ * <p>
+ * Requests go through one pooled connector. Every model has its own resilience4j circuit breaker
+ * ({@code gemini-<model>}), so a model that keeps failing is skipped without a network round trip
+ * until its breaker half-opens; a model that reports an exhausted daily quota is skipped for
+ * {@code application.gemini.gateway.quota-cooldown}. When {@code hedge-after} is set and the first
+ * model has not answered by then, the next model is called as well and the first answer wins.
+ * <p>
+ * Answers are either returned whole ({@link #generate(Request)}) or streamed as the model produces
+ * them ({@link #stream(Request)}).
+ * <p>
+ * Latency ({@code ai.gateway.requests}), time to the first streamed token
+ * ({@code ai.gateway.first-token}), token usage ({@code ai.gateway.tokens}), skipped models and
+ * hedged requests are exported per model; breaker states are exported by resilience4j.
+ */
+@Service
+public class AIGatewayClient {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AIGatewayClient.class);
+
+    public static final String REQUESTS_METER_NAME = "ai.gateway.requests";
+    public static final String TOKENS_METER_NAME = "ai.gateway.tokens";
+    public static final String SKIPPED_METER_NAME = "ai.gateway.skipped";
+    public static final String HEDGED_METER_NAME = "ai.gateway.hedged";
+    public static final String FIRST_TOKEN_METER_NAME = "ai.gateway.first-token";
+
+    private static final String CIRCUIT_BREAKER_PREFIX = "gemini-";
+    private static final int MAX_IN_MEMORY_SIZE = 10 * 1024 * 1024;
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+    private static final Duration MAX_IDLE_TIME = Duration.ofSeconds(30);
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE = new ParameterizedTypeReference<>() {
+    };
+    private static final Pattern RETRY_DELAY = Pattern.compile("\"retryDelay\"\\s*:\\s*\"(\\d+)(?:\\.\\d+)?s\"");
+
+    /**
+     * One generation request.
+     *
+     * @param feature         caller name used as metric tag (chat, insights, research...)
+     * @param models          models to try, in order of preference
+     * @param prompt          the prompt text
+     * @param temperature     sampling temperature
+     * @param maxOutputTokens output token limit
+     */
+    public record Request(String feature, List<String> models, String prompt, double temperature, int maxOutputTokens) {
+    }
+
+    private final WebClient webClient;
+    private final ApplicationProperties properties;
+    private final ObjectMapper objectMapper;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final CircuitBreakerConfig circuitBreakerConfig;
+    private final MeterRegistry meterRegistry;
+    private final Duration hedgeAfter;
+    private final Duration quotaCooldown;
+
+    @Autowired
+    public AIGatewayClient(
+            ApplicationProperties properties,
+            ObjectMapper objectMapper,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            MeterRegistry meterRegistry) {
+        this(properties, objectMapper, circuitBreakerRegistry, meterRegistry, pooledWebClient(properties));
+    }
+
+    AIGatewayClient(
+            ApplicationProperties properties,
+            ObjectMapper objectMapper,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            MeterRegistry meterRegistry,
+            WebClient webClient) {
+        this.webClient = webClient;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.meterRegistry = meterRegistry;
+        ApplicationProperties.Gemini.Gateway gateway = properties.getGemini().getGateway();
+        this.hedgeAfter = gateway.getHedgeAfter() != null && !gateway.getHedgeAfter().isZero() ? gateway.getHedgeAfter() : null;
+        this.quotaCooldown = gateway.getQuotaCooldown();
+        this.circuitBreakerConfig = CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(10)
+                .minimumNumberOfCalls(3)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(gateway.getOpenDuration())
+                .permittedNumberOfCallsInHalfOpenState(1)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .recordException(AIGatewayClient::isModelFailure)
+                .build();
+        LOG.info("AI gateway initialized (pool {} connections, hedging {})", gateway.getMaxConnections(),
+                hedgeAfter != null ? "after " + hedgeAfter : "disabled");
+    }
+
+    private static WebClient pooledWebClient(ApplicationProperties properties) {
+        ApplicationProperties.Gemini.Gateway gateway = properties.getGemini().getGateway();
+        ConnectionProvider provider = ConnectionProvider.builder("ai-gateway")
+                .maxConnections(gateway.getMaxConnections())
+                .pendingAcquireMaxCount(gateway.getMaxConnections() * 4)
+                .maxIdleTime(MAX_IDLE_TIME)
+                .evictInBackground(MAX_IDLE_TIME)
+                .build();
+        HttpClient httpClient = HttpClient.create(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, CONNECT_TIMEOUT_MILLIS)
+                .responseTimeout(gateway.getResponseTimeout())
+                .compress(true);
+        return WebClient.builder()
+                .baseUrl(properties.getGemini().getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(MAX_IN_MEMORY_SIZE))
+                .build();
+    }
+
+    /**
+     * Generate content with the first model that answers.
+     *
+     * @param request the generation request
+     * @return the text of the first candidate; errors when the API key is missing, on a
+     *         non-recoverable error, or when every model failed or was skipped
+     */
+    public Mono<String> generate(Request request) {
+        String apiKey = properties.getGemini().getApiKey();
+        if (apiKey == null || apiKey.isBlank()) {
+            LOG.warn("Gemini API key not configured");
+            return Mono.error(new IllegalStateException("Gemini API key not configured"));
+        }
+        if (hedgeAfter == null || request.models().size() < 2) {
+            return attempt(request, apiKey, 0);
+        }
+
+        AtomicBoolean primaryFailed = new AtomicBoolean();
+        AtomicBoolean hedged = new AtomicBoolean();
+        Mono<String> primary = call(request, apiKey, 0)
+                .onErrorResume(e -> {
+                    primaryFailed.set(true);
+                    // Once hedged, the hedge already covers the remaining models
+                    return hedged.get() ? Mono.error(e) : fallback(request, apiKey, 0, e);
+                });
+        Mono<String> hedge = Mono.delay(hedgeAfter)
+                .filter(tick -> !primaryFailed.get())
+                .flatMap(tick -> {
+                    hedged.set(true);
+                    meterRegistry.counter(HEDGED_METER_NAME, "feature", request.feature()).increment();
+                    LOG.debug("No answer from {} after {}, hedging", request.models().get(0), hedgeAfter);
+                    return attempt(request, apiKey, 1);
+                });
+        return Mono.firstWithValue(primary, hedge)
+                .onErrorMap(e -> e.getSuppressed().length > 0 ? e.getSuppressed()[0] : e);
+    }
+
+    /**
+     * Stream a plain-text answer from the first model that starts answering, as
+     * {@code streamGenerateContent} produces it. Falling back to the next model only happens
+     * before the first text chunk; time to that chunk is recorded as {@code ai.gateway.first-token}.
+     *
+     * @param request the generation request
+     * @return the text chunks; errors like {@link #generate(Request)}
+     */
+    public Flux<String> stream(Request request) {
+        String apiKey = properties.getGemini().getApiKey();
+        if (apiKey == null || apiKey.isBlank()) {
+            LOG.warn("Gemini API key not configured");
+            return Flux.error(new IllegalStateException("Gemini API key not configured"));
+        }
+        return streamAttempt(request, apiKey, 0);
+    }
+
+    /**
+     * Parse a model answer into {@code type}, dropping Markdown code fences and any text around
+     * the JSON value.
+     *
+     * @throws IllegalStateException when the answer is not valid JSON for {@code type}
+     */
+    public <T> T parseJson(String content, Class<T> type) {
+        try {
+            return objectMapper.readValue(extractJson(content), type);
+        } catch (JsonProcessingException e) {
+            LOG.error("Error parsing JSON to {}: {}", type.getSimpleName(), e.getMessage());
+            throw new IllegalStateException("Failed to parse AI response", e);
+        }
+    }
+
+    /**
+     * Parse a model answer holding a JSON array, see {@link #parseJson(String, Class)}.
+     *
+     * @return the elements, or an empty list when the answer is not a valid array
+     */
+    public <T> List<T> parseJsonList(String content, Class<T> type) {
+        try {
+            var listType = objectMapper.getTypeFactory().constructCollectionType(List.class, type);
+            return objectMapper.readValue(extractJson(content), listType);
+        } catch (JsonProcessingException e) {
+            LOG.error("Error parsing JSON list: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Remove a surrounding Markdown code fence (Gemma models wrap answers in ```json ... ```).
+     */
+    public static String stripCodeFence(String content) {
+        if (content == null || content.isBlank()) {
+            return content;
+        }
+        String trimmed = content.trim();
+        if (trimmed.startsWith("```")) {
+            int firstNewline = trimmed.indexOf('\n');
+            if (firstNewline > 0) {
+                trimmed = trimmed.substring(firstNewline + 1);
+            }
+            if (trimmed.endsWith("```")) {
+                trimmed = trimmed.substring(0, trimmed.length() - 3).trim();
+            }
+        }
+        return trimmed;
+    }
+
+    /**
+     * Whether the breaker of {@code model} currently lets calls through.
+     */
+    public boolean isAvailable(String model) {
+        CircuitBreaker.State state = circuitBreaker(model).getState();
+        return state != CircuitBreaker.State.OPEN && state != CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    private Mono<String> attempt(Request request, String apiKey, int index) {
+        if (index >= request.models().size()) {
+            return Mono.error(allModelsExhausted(request));
+        }
+        return call(request, apiKey, index).onErrorResume(e -> fallback(request, apiKey, index, e));
+    }
+
+    private Mono<String> fallback(Request request, String apiKey, int index, Throwable e) {
+        return shouldTryNextModel(request, index, e) ? attempt(request, apiKey, index + 1) : Mono.error(e);
+    }
+
+    private Flux<String> streamAttempt(Request request, String apiKey, int index) {
+        if (index >= request.models().size()) {
+            return Flux.error(allModelsExhausted(request));
+        }
+        AtomicBoolean answering = new AtomicBoolean();
+        return streamCall(request, apiKey, index)
+                .doOnNext(text -> answering.set(true))
+                .onErrorResume(e -> {
+                    // Part of the answer is already with the caller, another model would start over
+                    if (answering.get() || !shouldTryNextModel(request, index, e)) {
+                        return Flux.error(e);
+                    }
+                    return streamAttempt(request, apiKey, index + 1);
+                });
+    }
+
+    private IllegalStateException allModelsExhausted(Request request) {
+        LOG.error("All {} AI models exhausted", request.feature());
+        return new IllegalStateException("All AI models are currently unavailable. Please try again later.");
+    }
+
+    private boolean shouldTryNextModel(Request request, int index, Throwable e) {
+        String model = request.models().get(index);
+        if (e instanceof CallNotPermittedException) {
+            LOG.debug("Skipping {} model {}: circuit open", request.feature(), model);
+            return true;
+        }
+        if (isModelFailure(e)) {
+            LOG.warn("{} model {} failed: {}, trying next...", request.feature(), model, errorReason(e));
+            return true;
+        }
+        LOG.error("Non-recoverable error from {}: {}", model, e.getMessage());
+        return false;
+    }
+
+    private Mono<String> call(Request request, String apiKey, int index) {
+        String model = request.models().get(index);
+        CircuitBreaker circuitBreaker = circuitBreaker(model);
+        Map<String, Object> requestBody = requestBody(request, model, true);
+
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            LOG.debug("{} calling model {} (attempt {}/{})", request.feature(), model, index + 1, request.models().size());
+            return webClient.post()
+                    .uri("/models/{model}:generateContent?key={key}", model, apiKey)
+                    .bodyValue(requestBody)
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .map(response -> extractContent(request.feature(), model, response))
+                    .doOnSuccess(content -> record(request.feature(), model, "success", start))
+                    .doOnError(e -> {
+                        if (e instanceof CallNotPermittedException) {
+                            meterRegistry.counter(SKIPPED_METER_NAME, "model", model).increment();
+                            return;
+                        }
+                        record(request.feature(), model, "error", start);
+                        coolDownIfQuotaExhausted(circuitBreaker, model, e);
+                    });
+        }).transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+
+    private Flux<String> streamCall(Request request, String apiKey, int index) {
+        String model = request.models().get(index);
+        CircuitBreaker circuitBreaker = circuitBreaker(model);
+        Map<String, Object> requestBody = requestBody(request, model, false);
+
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicBoolean first = new AtomicBoolean(true);
+            // Every chunk repeats the running usage totals, only the last one counts
+            AtomicReference<JsonNode> usage = new AtomicReference<>();
+            LOG.debug("{} streaming from model {} (attempt {}/{})", request.feature(), model, index + 1, request.models().size());
+            return webClient.post()
+                    .uri("/models/{model}:streamGenerateContent?alt=sse&key={key}", model, apiKey)
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .bodyValue(requestBody)
+                    .retrieve()
+                    .bodyToFlux(SSE_TYPE)
+                    .mapNotNull(ServerSentEvent::data)
+                    .handle((String data, SynchronousSink<String> sink) -> {
+                        JsonNode chunk = parseChunk(data);
+                        if (chunk.has("usageMetadata")) {
+                            usage.set(chunk.get("usageMetadata"));
+                        }
+                        String text = chunk.path("candidates").path(0).path("content").path("parts").path(0).path("text").asText();
+                        if (!text.isEmpty()) {
+                            sink.next(text);
+                        }
+                    })
+                    .doOnNext(text -> {
+                        if (first.compareAndSet(true, false)) {
+                            Timer.builder(FIRST_TOKEN_METER_NAME)
+                                    .description("Time until the first streamed Gemini token")
+                                    .tags("feature", request.feature(), "model", model)
+                                    .register(meterRegistry)
+                                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        record(request.feature(), model, "success", start);
+                        countUsage(request.feature(), model, usage.get());
+                    })
+                    .doOnError(e -> {
+                        if (e instanceof CallNotPermittedException) {
+                            meterRegistry.counter(SKIPPED_METER_NAME, "model", model).increment();
+                            return;
+                        }
+                        record(request.feature(), model, "error", start);
+                        coolDownIfQuotaExhausted(circuitBreaker, model, e);
+                    });
+        }).transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+
+    private JsonNode parseChunk(String data) {
+        try {
+            return objectMapper.readTree(data);
+        } catch (JsonProcessingException e) {
+            LOG.warn("Skipping unreadable Gemini stream chunk: {}", e.getMessage());
+            return objectMapper.createObjectNode();
+        }
+    }
+
+    private static Map<String, Object> requestBody(Request request, String model, boolean json) {
+        return Map.of(
+                "contents", List.of(Map.of(
+                        "parts", List.of(Map.of("text", request.prompt())))),
+                "generationConfig", buildGenerationConfig(model, request.temperature(), request.maxOutputTokens(), json));
+    }
+
+    private void record(String feature, String model, String outcome, long start) {
+        Timer.builder(REQUESTS_METER_NAME)
+                .description("Gemini generateContent latency")
+                .tags("feature", feature, "model", model, "outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private String extractContent(String feature, String model, String response) {
+        try {
+            JsonNode root = objectMapper.readTree(response);
+            countUsage(feature, model, root.get("usageMetadata"));
+            return root.path("candidates").path(0).path("content").path("parts").path(0).path("text").asText();
+        } catch (JsonProcessingException e) {
+            LOG.error("Error parsing Gemini response: {}", e.getMessage());
+            return "{}";
+        }
+    }
+
+    private void countUsage(String feature, String model, JsonNode usage) {
+        if (usage != null) {
+            countTokens(feature, model, "prompt", usage.path("promptTokenCount").asLong());
+            countTokens(feature, model, "output", usage.path("candidatesTokenCount").asLong());
+        }
+    }
+
+    private void countTokens(String feature, String model, String type, long tokens) {
+        if (tokens > 0) {
+            Counter.builder(TOKENS_METER_NAME)
+                    .tags("feature", feature, "model", model, "type", type)
+                    .register(meterRegistry)
+                    .increment(tokens);
+        }
+    }
+
+    /**
+     * A 429 for a daily quota will not clear for hours, so skip the model for the quota cooldown;
+     * per-minute limits carry a retry delay that is honored instead.
+     */
+    private void coolDownIfQuotaExhausted(CircuitBreaker circuitBreaker, String model, Throwable e) {
+        if (!(e instanceof WebClientResponseException wcre) || wcre.getStatusCode().value() != 429) {
+            return;
+        }
+        String body = wcre.getResponseBodyAsString();
+        Duration cooldown = null;
+        if (body.contains("PerDay")) {
+            cooldown = quotaCooldown;
+        } else {
+            Matcher retryDelay = RETRY_DELAY.matcher(body);
+            if (retryDelay.find()) {
+                cooldown = Duration.ofSeconds(Long.parseLong(retryDelay.group(1)));
+            }
+        }
+        if (cooldown == null || cooldown.isZero()) {
+            return;
+        }
+        try {
+            circuitBreaker.transitionToOpenStateFor(cooldown);
+            LOG.warn("Model {} rate limited, skipping it for {}", model, cooldown);
+        } catch (IllegalStateTransitionException ignored) {
+            // Already opened by a concurrent call
+        }
+    }
+
+    private CircuitBreaker circuitBreaker(String model) {
+        return circuitBreakerRegistry.circuitBreaker(CIRCUIT_BREAKER_PREFIX + model, circuitBreakerConfig);
+    }
+
+    /**
+     * Errors after which another model may succeed: rejected model/config, quota, server errors
+     * and transport failures.
+     */
+    static boolean isModelFailure(Throwable e) {
+        if (e instanceof WebClientResponseException wcre) {
+            int status = wcre.getStatusCode().value();
+            // 400 = Bad Request (model doesn't support config), 403 = Forbidden (model
+            // unavailable), 404 = Model not found, 429 = Rate Limit, 5xx = Server Error
+            return status == 400 || status == 403 || status == 404 || status == 429 || status >= 500;
+        }
+        if (e instanceof WebClientRequestException || e instanceof TimeoutException) {
+            return true;
+        }
+        return e.getMessage() != null && (e.getMessage().contains("quota") ||
+                e.getMessage().contains("rate") ||
+                e.getMessage().contains("limit") ||
+                e.getMessage().contains("exhausted") ||
+                e.getMessage().contains("timeout") ||
+                e.getMessage().contains("Connection"));
+    }
+
+    private static String errorReason(Throwable e) {
+        if (e instanceof WebClientResponseException wcre) {
+            return "HTTP " + wcre.getStatusCode().value();
+        }
+        return e.getMessage();
+    }
+
+    /**
+     * Build generation config based on model type.
+     * Gemma models don't support responseMimeType, only Gemini models do.
+     */
+    private static Map<String, Object> buildGenerationConfig(String modelName, double temperature, int maxOutputTokens,
+            boolean json) {
+        boolean isGemmaModel = modelName.toLowerCase().startsWith("gemma");
+        if (isGemmaModel || !json) {
+            return Map.of(
+                    "temperature", temperature,
+                    "maxOutputTokens", maxOutputTokens);
+        }
+        // Gemini models support responseMimeType for structured JSON output
+        return Map.of(
+                "temperature", temperature,
+                "maxOutputTokens", maxOutputTokens,
+                "responseMimeType", "application/json");
+    }
+
+    /**
+     * Code fences removed and, when the answer has text around the JSON value (Gemma models
+     * often add a sentence before it), the first balanced object or array.
+     */
+    private static String extractJson(String content) {
+        String trimmed = stripCodeFence(content);
+        if (trimmed == null || trimmed.isBlank()) {
+            return "{}";
+        }
+        if (trimmed.startsWith("{") || trimmed.startsWith("[")) {
+            return trimmed;
+        }
+
+        int braceIndex = trimmed.indexOf('{');
+        int bracketIndex = trimmed.indexOf('[');
+        int jsonStart;
+        char openChar;
+        char closeChar;
+        if (braceIndex >= 0 && (bracketIndex < 0 || braceIndex < bracketIndex)) {
+            jsonStart = braceIndex;
+            openChar = '{';
+            closeChar = '}';
+        } else if (bracketIndex >= 0) {
+            jsonStart = bracketIndex;
+            openChar = '[';
+            closeChar = ']';
+        } else {
+            LOG.warn("No JSON found in response, returning empty object");
+            return "{}";
+        }
+
+        int depth = 0;
+        for (int i = jsonStart; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c == openChar) {
+                depth++;
+            } else if (c == closeChar && --depth == 0) {
+                return trimmed.substring(jsonStart, i + 1);
+            }
+        }
+        LOG.warn("Could not find matching closing brace, attempting best effort extraction");
+        return trimmed.substring(jsonStart);
+    }
+}
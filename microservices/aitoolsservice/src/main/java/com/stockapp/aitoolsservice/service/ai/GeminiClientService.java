@@ -4,20 +4,17 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.stockapp.aitoolsservice.config.ApplicationProperties;
+import com.stockapp.aitoolsservice.service.client.PredictionClient;
 import com.stockapp.aitoolsservice.service.client.StockServiceClient.PredictionResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.util.retry.Retry;
 
-import java.time.Duration;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Set;
 
 /**
  * Service for interacting with Google Gemini API
@@ -48,21 +45,20 @@ public class GeminiClientService {
             "gemini-2.0-flash" // Backup 4: Stable Gemini fallback
     );
 
-    private final WebClient webClient;
-    private final ApplicationProperties properties;
+    private final AIGatewayClient aiGatewayClient;
     private final ObjectMapper objectMapper;
+    private final ResearchCacheService researchCacheService;
+    private final PredictionClient predictionClient;
     private final List<String> chatModels;
+    private final ApplicationProperties.PromptContext promptContext;
 
-    // Track current model index for fallback
-    private final AtomicInteger currentModelIndex = new AtomicInteger(0);
-
-    public GeminiClientService(ApplicationProperties properties, ObjectMapper objectMapper) {
-        this.properties = properties;
+    public GeminiClientService(ApplicationProperties properties, ObjectMapper objectMapper, AIGatewayClient aiGatewayClient,
+            ResearchCacheService researchCacheService, PredictionClient predictionClient) {
+        this.aiGatewayClient = aiGatewayClient;
         this.objectMapper = objectMapper;
-        this.webClient = WebClient.builder()
-                .baseUrl(properties.getGemini().getBaseUrl())
-                .defaultHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
-                .build();
+        this.researchCacheService = researchCacheService;
+        this.predictionClient = predictionClient;
+        this.promptContext = properties.getPromptContext();
 
         // Load chat models from configuration or use defaults
         List<String> configuredModels = properties.getGemini().getChatFallbackModels();
@@ -91,13 +87,17 @@ public class GeminiClientService {
      * Generate research report for a specific stock
      * Returns JSON with scores, recommendation, and analysis
      * Uses Prophet AI prediction to ensure recommendation consistency
+     * Reuses the stored report while quote and prediction are unchanged
      */
     public Mono<ResearchReportResponse> generateResearchReport(String symbol, StockData stockData,
             PredictionResponse prophetPrediction) {
         String prompt = buildResearchReportPrompt(symbol, stockData, prophetPrediction);
-        return callGemini(prompt)
-                .map(response -> parseJsonResponse(response, ResearchReportResponse.class))
-                .map(response -> overrideResearchReportWithProphet(response, prophetPrediction))
+        String key = researchCacheService.key("research-report", List.of(stockData),
+                prophetPrediction != null ? Map.of(symbol, prophetPrediction) : null);
+        return researchCacheService.getOrGenerate("research-report", key, prompt, ResearchReportResponse.class,
+                () -> callGemini(prompt)
+                        .map(response -> parseJsonResponse(response, ResearchReportResponse.class))
+                        .map(response -> overrideResearchReportWithProphet(response, prophetPrediction)))
                 .onErrorResume(e -> {
                     LOG.error("Error generating research report for {}: {}", symbol, e.getMessage());
                     return Mono.empty();
@@ -150,6 +150,15 @@ public class GeminiClientService {
                 });
     }
 
+    /**
+     * AI Chat with context, answer streamed as plain text chunks while the model generates it.
+     * Errors are left to the caller, which may already have forwarded part of the answer.
+     */
+    public Flux<String> streamChat(String context, String userQuestion) {
+        String prompt = buildStreamingChatPrompt(context, userQuestion);
+        return aiGatewayClient.stream(new AIGatewayClient.Request("chat", chatModels, prompt, 0.7, 1024));
+    }
+
     /**
      * Analyze stock batch for anomalies/alerts
      */
@@ -164,122 +173,20 @@ public class GeminiClientService {
     }
 
     private Mono<String> callGemini(String prompt) {
-        String apiKey = properties.getGemini().getApiKey();
-
-        if (apiKey == null || apiKey.isBlank()) {
-            LOG.warn("Gemini API key not configured");
-            return Mono.error(new IllegalStateException("Gemini API key not configured"));
-        }
-
         // AI_CHAT uses configured chat models with gemma-3-12b as primary
-        return callGeminiWithFallback(prompt, apiKey, chatModels, 0);
-    }
-
-    /**
-     * Call Gemini API with automatic model fallback on quota/rate limit errors
-     */
-    private Mono<String> callGeminiWithFallback(String prompt, String apiKey, List<String> models, int modelIndex) {
-        if (modelIndex >= models.size()) {
-            LOG.error("All Gemini models exhausted, no fallback available");
-            return Mono.error(
-                    new IllegalStateException("All AI models are currently unavailable. Please try again later."));
-        }
-
-        String currentModel = models.get(modelIndex);
-        LOG.info("Calling Gemini with model: {} (attempt {}/{})", currentModel, modelIndex + 1, models.size());
-
-        // Build generation config - Gemma models don't support responseMimeType
         // Use smaller maxOutputTokens for chat (1024) for faster responses
-        Map<String, Object> generationConfig = buildGenerationConfig(currentModel, 0.7, 1024);
-
-        Map<String, Object> requestBody = Map.of(
-                "contents", List.of(Map.of(
-                        "parts", List.of(Map.of("text", prompt)))),
-                "generationConfig", generationConfig);
-
-        return webClient.post()
-                .uri("/models/{model}:generateContent?key={key}", currentModel, apiKey)
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(String.class)
-                .doOnNext(response -> {
-                    LOG.debug("Gemini response from {}: {}", currentModel,
-                            response.substring(0, Math.min(200, response.length())));
-                    // Update current model index on success
-                    currentModelIndex.set(modelIndex);
-                })
-                .map(this::extractContentFromResponse)
-                .onErrorResume(e -> {
-                    if (shouldFallback(e)) {
-                        LOG.warn("Model {} failed with {}, trying next model...",
-                                currentModel, getErrorReason(e));
-                        return callGeminiWithFallback(prompt, apiKey, models, modelIndex + 1);
-                    }
-                    // Non-recoverable error, don't fallback
-                    LOG.error("Non-recoverable error from {}: {}", currentModel, e.getMessage());
-                    return Mono.error(e);
-                });
+        return aiGatewayClient.generate(new AIGatewayClient.Request("chat", chatModels, prompt, 0.7, 1024));
     }
 
     /**
-     * Determine if we should fallback to next model based on error type
-     */
-    private boolean shouldFallback(Throwable e) {
-        if (e instanceof WebClientResponseException wcre) {
-            int status = wcre.getStatusCode().value();
-            // 400 = Bad Request (model doesn't support config), 403 = Forbidden (model
-            // unavailable),
-            // 429 = Rate Limit, 503 = Service Unavailable, 500 = Server Error, 404 = Model
-            // not found
-            return status == 400 || status == 403 || status == 429 || status == 503 || status == 500 || status == 502
-                    || status == 404;
-        }
-        // Fallback for connection/timeout errors
-        return e.getMessage() != null && (e.getMessage().contains("quota") ||
-                e.getMessage().contains("rate") ||
-                e.getMessage().contains("limit") ||
-                e.getMessage().contains("exhausted") ||
-                e.getMessage().contains("timeout") ||
-                e.getMessage().contains("Connection"));
-    }
-
-    private String getErrorReason(Throwable e) {
-        if (e instanceof WebClientResponseException wcre) {
-            return "HTTP " + wcre.getStatusCode().value() + ": " + wcre.getStatusText();
-        }
-        return e.getMessage();
-    }
-
-    /**
-     * Build generation config based on model type.
-     * Gemma models don't support responseMimeType, only Gemini models do.
-     */
-    private Map<String, Object> buildGenerationConfig(String modelName, double temperature, int maxOutputTokens) {
-        // Gemma models (gemma-*) don't support responseMimeType
-        boolean isGemmaModel = modelName.toLowerCase().startsWith("gemma");
-
-        if (isGemmaModel) {
-            return Map.of(
-                    "temperature", temperature,
-                    "maxOutputTokens", maxOutputTokens);
-        } else {
-            // Gemini models support responseMimeType for structured JSON output
-            return Map.of(
-                    "temperature", temperature,
-                    "maxOutputTokens", maxOutputTokens,
-                    "responseMimeType", "application/json");
-        }
-    }
-
-    /**
-     * Get current active model name (for monitoring)
+     * Get current active model name (for monitoring): the first chat model whose circuit is
+     * not open
      */
     public String getCurrentModel() {
-        int index = currentModelIndex.get();
-        if (index < chatModels.size()) {
-            return chatModels.get(index);
-        }
-        return chatModels.get(0); // Default to primary model
+        return chatModels.stream()
+                .filter(aiGatewayClient::isAvailable)
+                .findFirst()
+                .orElse(chatModels.get(0));
     }
 
     /**
@@ -289,20 +196,10 @@ public class GeminiClientService {
         return chatModels;
     }
 
-    private String extractContentFromResponse(String response) {
-        try {
-            JsonNode root = objectMapper.readTree(response);
-            return root.path("candidates").path(0).path("content").path("parts").path(0).path("text").asText();
-        } catch (JsonProcessingException e) {
-            LOG.error("Error parsing Gemini response: {}", e.getMessage());
-            return "{}";
-        }
-    }
-
     private String extractTextResponse(String jsonContent) {
+        // Clean markdown code blocks if present (Gemma models return ```json ... ```)
+        String cleanedJson = AIGatewayClient.stripCodeFence(jsonContent);
         try {
-            // Clean markdown code blocks if present (Gemma models return ```json ... ```)
-            String cleanedJson = cleanMarkdownCodeBlock(jsonContent);
             JsonNode root = objectMapper.readTree(cleanedJson);
             if (root.has("response")) {
                 return root.get("response").asText();
@@ -310,56 +207,50 @@ public class GeminiClientService {
             return cleanedJson;
         } catch (JsonProcessingException e) {
             // If can't parse as JSON, return cleaned content directly
-            return cleanMarkdownCodeBlock(jsonContent);
-        }
-    }
-
-    /**
-     * Clean markdown code blocks from Gemma model responses.
-     * Gemma models often wrap JSON in ```json ... ``` blocks.
-     */
-    private String cleanMarkdownCodeBlock(String content) {
-        if (content == null || content.isBlank()) {
-            return content;
-        }
-        String trimmed = content.trim();
-        // Handle ```json ... ``` or ``` ... ``` blocks
-        if (trimmed.startsWith("```")) {
-            // Find first newline after opening ```
-            int firstNewline = trimmed.indexOf('\n');
-            if (firstNewline > 0) {
-                // Remove opening ``` line
-                trimmed = trimmed.substring(firstNewline + 1);
-            }
-            // Remove closing ```
-            if (trimmed.endsWith("```")) {
-                trimmed = trimmed.substring(0, trimmed.length() - 3).trim();
-            }
+            return cleanedJson;
         }
-        return trimmed;
     }
 
     private <T> T parseJsonResponse(String json, Class<T> clazz) {
-        try {
-            // Clean markdown code blocks if present (Gemma models)
-            String cleanedJson = cleanMarkdownCodeBlock(json);
-            return objectMapper.readValue(cleanedJson, clazz);
-        } catch (JsonProcessingException e) {
-            LOG.error("Error parsing JSON to {}: {}", clazz.getSimpleName(), e.getMessage());
-            throw new RuntimeException("Failed to parse Gemini response", e);
-        }
+        return aiGatewayClient.parseJson(json, clazz);
     }
 
     private <T> List<T> parseJsonListResponse(String json, Class<T> clazz) {
-        try {
-            // Clean markdown code blocks if present (Gemma models)
-            String cleanedJson = cleanMarkdownCodeBlock(json);
-            var type = objectMapper.getTypeFactory().constructCollectionType(List.class, clazz);
-            return objectMapper.readValue(cleanedJson, type);
-        } catch (JsonProcessingException e) {
-            LOG.error("Error parsing JSON list: {}", e.getMessage());
-            return List.of();
+        return aiGatewayClient.parseJsonList(json, clazz);
+    }
+
+    /**
+     * Market data context for a chat question, within the chat token budget: quotes ranked by the
+     * size of their move, with the symbols the question mentions (and their Prophet predictions)
+     * first
+     */
+    public Mono<String> buildMarketContext(List<StockData> stocks, String question) {
+        Set<String> mentioned = PromptContextBuilder.mentionedSymbols(question,
+                stocks.stream().map(StockData::symbol).toList());
+        Mono<Map<String, PredictionResponse>> predictions = mentioned.isEmpty()
+                ? Mono.just(Map.of())
+                : predictionClient.getPredictions(mentioned).onErrorReturn(Map.of());
+        return predictions.map(found -> buildMarketContext(stocks, found, mentioned));
+    }
+
+    String buildMarketContext(List<StockData> stocks, Map<String, PredictionResponse> predictions,
+            Set<String> focus) {
+        PromptContextBuilder context = PromptContextBuilder.withBudget(promptContext.getChatTokenBudget())
+                .section("quotes", "Thông tin thị trường hiện tại:")
+                .section("predictions", "Dự báo Prophet AI:")
+                .focus(focus);
+        for (StockData stock : stocks) {
+            context.add("quotes", stock.symbol(), String.format("- %s: $%.2f (%+.2f%%)",
+                    stock.symbol(), stock.price(), stock.percentChange()), Math.abs(stock.percentChange()));
         }
+        predictions.forEach((symbol, prediction) -> {
+            String line = String.format("- %s: %s", symbol, prediction.getDominantSignal());
+            if (prediction.change_percent() != null) {
+                line += String.format(" (%+.2f%%)", prediction.change_percent());
+            }
+            context.add("predictions", symbol, line, 0);
+        });
+        return context.build();
     }
 
     // Prompt builders
@@ -369,10 +260,13 @@ public class GeminiClientService {
         sb.append(
                 "Bạn là chuyên gia phân tích thị trường chứng khoán. Dựa trên dữ liệu sau, hãy viết báo cáo thị trường:\n\n");
 
+        PromptContextBuilder context = PromptContextBuilder.withBudget(promptContext.getInsightsTokenBudget())
+                .section("quotes", null);
         for (StockData stock : stocks) {
-            sb.append(String.format("- %s: Giá %.2f, Thay đổi %.2f%%\n",
-                    stock.symbol(), stock.price(), stock.percentChange()));
+            context.add("quotes", stock.symbol(), String.format("- %s: Giá %.2f, Thay đổi %.2f%%",
+                    stock.symbol(), stock.price(), stock.percentChange()), Math.abs(stock.percentChange()));
         }
+        sb.append(context.build());
 
         sb.append("\nTrả về JSON với format:\n");
         sb.append(
@@ -452,6 +346,21 @@ public class GeminiClientService {
                 """, context, question);
     }
 
+    private String buildStreamingChatPrompt(String context, String question) {
+        return String.format("""
+                Bạn là trợ lý AI chuyên về chứng khoán và đầu tư.
+
+                CONTEXT (thông tin thị trường hiện tại):
+                %s
+
+                CÂU HỎI CỦA NGƯỜI DÙNG:
+                %s
+
+                Trả lời bằng tiếng Việt, ngắn gọn và hữu ích. Trả lời trực tiếp bằng văn bản thường,
+                không dùng JSON hay khối code.
+                """, context, question);
+    }
+
     private String buildAlertPrompt(List<StockData> stocks) {
         StringBuilder sb = new StringBuilder();
         sb.append("Phân tích và tìm các cổ phiếu có dấu hiệu bất thường:\n\n");
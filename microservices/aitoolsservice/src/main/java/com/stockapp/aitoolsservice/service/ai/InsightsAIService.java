@@ -1,20 +1,19 @@
 package com.stockapp.aitoolsservice.service.ai;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.stockapp.aitoolsservice.config.ApplicationProperties;
+import com.stockapp.aitoolsservice.service.analytics.MarketAnalyticsService;
+import com.stockapp.aitoolsservice.service.analytics.MarketAnalyticsService.CorrelationMatrix;
+import com.stockapp.aitoolsservice.service.analytics.MarketAnalyticsService.PairCorrelation;
 import com.stockapp.aitoolsservice.service.client.StockServiceClient.PredictionResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -46,19 +45,24 @@ public class InsightsAIService {
             "gemini-2.5-flash" // Backup 4: Latest Gemini
     );
 
-    private final WebClient webClient;
-    private final ApplicationProperties properties;
-    private final ObjectMapper objectMapper;
+    private static final int DEFAULT_MAX_OUTPUT_TOKENS = 4096;
+    // Narrating precomputed numbers needs far fewer output tokens than producing the analysis
+    private static final int NARRATION_MAX_OUTPUT_TOKENS = 1024;
+
+    private static final int TOP_MOVERS_LIMIT = 3;
+    private static final int CORRELATION_PAIRS_LIMIT = 3;
+    private static final int SECTOR_LEADERS_LIMIT = 2;
+
+    private final AIGatewayClient aiGatewayClient;
+    private final MarketAnalyticsService marketAnalyticsService;
     private final List<String> insightsModels;
+    private final int contextTokenBudget;
 
-    public InsightsAIService(ApplicationProperties properties, ObjectMapper objectMapper) {
-        this.properties = properties;
-        this.objectMapper = objectMapper;
-        this.webClient = WebClient.builder()
-                .baseUrl(properties.getGemini().getBaseUrl())
-                .defaultHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(10 * 1024 * 1024))
-                .build();
+    public InsightsAIService(ApplicationProperties properties, AIGatewayClient aiGatewayClient,
+            MarketAnalyticsService marketAnalyticsService) {
+        this.aiGatewayClient = aiGatewayClient;
+        this.marketAnalyticsService = marketAnalyticsService;
+        this.contextTokenBudget = properties.getPromptContext().getInsightsTokenBudget();
 
         // Load insights models from configuration or use defaults
         List<String> configuredModels = properties.getGemini().getInsightsFallbackModels();
@@ -70,16 +74,46 @@ public class InsightsAIService {
     }
 
     /**
-     * Generate Top Movers analysis for 7 tracked stocks
+     * Generate Top Movers analysis for 7 tracked stocks.
+     * Movers are ranked locally; the model only adds company names, reasons and the
+     * market mood. Without a model answer the ranked movers are returned as is.
      */
     public Mono<TopMoversResponse> generateTopMovers(List<GeminiClientService.StockData> stocks) {
-        String prompt = buildTopMoversPrompt(stocks);
-        return callAI(prompt)
-                .map(response -> parseJsonResponse(response, TopMoversResponse.class))
+        MarketAnalyticsService.Movers movers = marketAnalyticsService.movers(stocks, TOP_MOVERS_LIMIT);
+        String prompt = buildTopMoversPrompt(stocks, movers);
+        return callAI(prompt, NARRATION_MAX_OUTPUT_TOKENS)
+                .map(response -> parseJsonResponse(response, MoversNarration.class))
                 .onErrorResume(e -> {
-                    LOG.error("Error generating top movers: {}", e.getMessage());
-                    return Mono.empty();
-                });
+                    LOG.error("Error narrating top movers: {}", e.getMessage());
+                    return Mono.just(new MoversNarration(Map.of(), null, null));
+                })
+                .map(narration -> toTopMoversResponse(stocks, movers, narration));
+    }
+
+    private TopMoversResponse toTopMoversResponse(List<GeminiClientService.StockData> stocks,
+            MarketAnalyticsService.Movers movers, MoversNarration narration) {
+        Map<String, MoverNote> notes = narration.movers() != null ? narration.movers() : Map.of();
+        String mood = narration.market_mood();
+        if (mood == null || mood.isBlank()) {
+            double average = stocks.stream().mapToDouble(GeminiClientService.StockData::percentChange).average().orElse(0);
+            mood = average > 0.5 ? "bullish" : average < -0.5 ? "bearish" : "neutral";
+        }
+        return new TopMoversResponse(
+                toStockMovers(movers.gainers(), notes),
+                toStockMovers(movers.losers(), notes),
+                mood,
+                narration.summary());
+    }
+
+    private static List<StockMover> toStockMovers(List<GeminiClientService.StockData> stocks,
+            Map<String, MoverNote> notes) {
+        return stocks.stream()
+                .map(stock -> {
+                    MoverNote note = notes.get(stock.symbol());
+                    return new StockMover(stock.symbol(), note != null ? note.name() : null,
+                            round(stock.percentChange()), note != null ? note.reason() : null);
+                })
+                .toList();
     }
 
     /**
@@ -167,170 +201,105 @@ public class InsightsAIService {
     }
 
     /**
-     * Generate Stock Correlation analysis
+     * Generate Stock Correlation analysis.
+     * Correlations of daily returns are computed locally from stockservice history and
+     * the model only explains the selected pairs. Without enough history, the model
+     * estimates correlations from the current quotes as before.
      */
     public Mono<CorrelationResponse> generateCorrelationAnalysis(List<GeminiClientService.StockData> stocks) {
-        String prompt = buildCorrelationPrompt(stocks);
-        return callAI(prompt)
-                .map(response -> parseJsonResponse(response, CorrelationResponse.class))
+        List<String> symbols = stocks.stream().map(GeminiClientService.StockData::symbol).toList();
+        return marketAnalyticsService.correlations(symbols)
+                .flatMap(this::narrateCorrelations)
+                .switchIfEmpty(Mono.defer(() -> {
+                    LOG.warn("Not enough price history to correlate {}, asking the model to estimate", symbols);
+                    return estimateCorrelations(stocks);
+                }));
+    }
+
+    private Mono<CorrelationResponse> narrateCorrelations(CorrelationMatrix matrix) {
+        List<PairCorrelation> pairs = matrix.pairs();
+        List<PairCorrelation> high = pairs.subList(0, Math.min(CORRELATION_PAIRS_LIMIT, (pairs.size() + 1) / 2));
+        List<PairCorrelation> low = new ArrayList<>(
+                pairs.subList(pairs.size() - Math.min(CORRELATION_PAIRS_LIMIT, pairs.size() / 2), pairs.size()));
+        Collections.reverse(low);
+        List<String> leaders = matrix.leaders().subList(0, Math.min(SECTOR_LEADERS_LIMIT, matrix.symbols().size()));
+
+        String prompt = buildCorrelationNarrationPrompt(matrix.observations(), high, low, leaders);
+        return callAI(prompt, NARRATION_MAX_OUTPUT_TOKENS)
+                .map(response -> parseJsonResponse(response, CorrelationNarration.class))
                 .onErrorResume(e -> {
-                    LOG.error("Error generating correlation analysis: {}", e.getMessage());
-                    return Mono.empty();
+                    LOG.error("Error narrating correlation analysis: {}", e.getMessage());
+                    return Mono.just(new CorrelationNarration(Map.of(), null));
+                })
+                .map(narration -> {
+                    Map<String, String> insights = narration.insights() != null ? narration.insights() : Map.of();
+                    return new CorrelationResponse(
+                            toCorrelationPairs(high, insights),
+                            toCorrelationPairs(low, insights),
+                            leaders,
+                            narration.diversification_tip());
                 });
     }
 
-    private Mono<String> callAI(String prompt) {
-        String apiKey = properties.getGemini().getApiKey();
-        if (apiKey == null || apiKey.isBlank()) {
-            return Mono.error(new IllegalStateException("API key not configured"));
-        }
-        // AI_INSIGHTS uses configured insights models with gemma-3-27b as primary
-        return callAIWithFallback(prompt, apiKey, insightsModels, 0);
+    private static List<CorrelationPair> toCorrelationPairs(List<PairCorrelation> pairs, Map<String, String> insights) {
+        return pairs.stream()
+                .map(pair -> new CorrelationPair(
+                        List.of(pair.first(), pair.second()),
+                        round(pair.pearson()),
+                        insights.get(pairKey(pair)),
+                        round(pair.spearman())))
+                .toList();
     }
 
-    private Mono<String> callAIWithFallback(String prompt, String apiKey, List<String> models, int modelIndex) {
-        if (modelIndex >= models.size()) {
-            LOG.error("All Insights AI models exhausted");
-            return Mono.error(new IllegalStateException("All AI models unavailable"));
-        }
-
-        String currentModel = models.get(modelIndex);
-        LOG.info("Insights AI calling model: {} (attempt {}/{})", currentModel, modelIndex + 1, models.size());
-
-        // Build generation config - Gemma models don't support responseMimeType
-        Map<String, Object> generationConfig = buildGenerationConfig(currentModel, 0.7, 4096);
-
-        Map<String, Object> requestBody = Map.of(
-                "contents", List.of(Map.of(
-                        "parts", List.of(Map.of("text", prompt)))),
-                "generationConfig", generationConfig);
+    private static String pairKey(PairCorrelation pair) {
+        return pair.first() + "-" + pair.second();
+    }
 
-        return webClient.post()
-                .uri("/models/{model}:generateContent?key={key}", currentModel, apiKey)
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(String.class)
-                .map(this::extractContentFromResponse)
+    private Mono<CorrelationResponse> estimateCorrelations(List<GeminiClientService.StockData> stocks) {
+        String prompt = buildCorrelationPrompt(stocks);
+        return callAI(prompt)
+                .map(response -> parseJsonResponse(response, CorrelationResponse.class))
                 .onErrorResume(e -> {
-                    if (shouldFallback(e)) {
-                        LOG.warn("Insights model {} failed: {}, trying next...", currentModel, getErrorReason(e));
-                        return callAIWithFallback(prompt, apiKey, models, modelIndex + 1);
-                    }
-                    return Mono.error(e);
+                    LOG.error("Error generating correlation analysis: {}", e.getMessage());
+                    return Mono.empty();
                 });
     }
 
-    private boolean shouldFallback(Throwable e) {
-        if (e instanceof WebClientResponseException wcre) {
-            int status = wcre.getStatusCode().value();
-            // 400 = Bad Request (model doesn't support config), 403 = Forbidden (model
-            // unavailable),
-            // 429 = Rate Limit, 503 = Service Unavailable, 500 = Server Error, 404 = Model
-            // not found
-            return status == 400 || status == 403 || status == 429 || status == 503 || status == 500 || status == 502
-                    || status == 404;
-        }
-        return e.getMessage() != null && (e.getMessage().contains("quota") ||
-                e.getMessage().contains("rate") ||
-                e.getMessage().contains("limit"));
-    }
-
-    private String getErrorReason(Throwable e) {
-        if (e instanceof WebClientResponseException wcre) {
-            return "HTTP " + wcre.getStatusCode().value();
-        }
-        return e.getMessage();
+    private static Double round(double value) {
+        return Math.round(value * 100) / 100.0;
     }
 
-    /**
-     * Build generation config based on model type.
-     * Gemma models don't support responseMimeType, only Gemini models do.
-     */
-    private Map<String, Object> buildGenerationConfig(String modelName, double temperature, int maxOutputTokens) {
-        // Gemma models (gemma-*) don't support responseMimeType
-        boolean isGemmaModel = modelName.toLowerCase().startsWith("gemma");
-
-        if (isGemmaModel) {
-            return Map.of(
-                    "temperature", temperature,
-                    "maxOutputTokens", maxOutputTokens);
-        } else {
-            // Gemini models support responseMimeType for structured JSON output
-            return Map.of(
-                    "temperature", temperature,
-                    "maxOutputTokens", maxOutputTokens,
-                    "responseMimeType", "application/json");
-        }
+    private Mono<String> callAI(String prompt) {
+        return callAI(prompt, DEFAULT_MAX_OUTPUT_TOKENS);
     }
 
-    private String extractContentFromResponse(String response) {
-        try {
-            JsonNode root = objectMapper.readTree(response);
-            return root.path("candidates").path(0).path("content").path("parts").path(0).path("text").asText();
-        } catch (JsonProcessingException e) {
-            LOG.error("Error parsing response: {}", e.getMessage());
-            return "{}";
-        }
+    private Mono<String> callAI(String prompt, int maxOutputTokens) {
+        // AI_INSIGHTS uses configured insights models with gemma-3-27b as primary
+        return aiGatewayClient.generate(new AIGatewayClient.Request("insights", insightsModels, prompt, 0.7, maxOutputTokens));
     }
 
     private <T> T parseJsonResponse(String json, Class<T> clazz) {
-        try {
-            // Clean markdown code blocks if present (Gemma models)
-            String cleanedJson = cleanMarkdownCodeBlock(json);
-            return objectMapper.readValue(cleanedJson, clazz);
-        } catch (JsonProcessingException e) {
-            LOG.error("Error parsing JSON to {}: {}", clazz.getSimpleName(), e.getMessage());
-            throw new RuntimeException("Failed to parse AI response", e);
-        }
-    }
-
-    /**
-     * Clean markdown code blocks from Gemma model responses.
-     * Gemma models often wrap JSON in ```json ... ``` blocks.
-     */
-    private String cleanMarkdownCodeBlock(String content) {
-        if (content == null || content.isBlank()) {
-            return content;
-        }
-        String trimmed = content.trim();
-        // Handle ```json ... ``` or ``` ... ``` blocks
-        if (trimmed.startsWith("```")) {
-            // Find first newline after opening ```
-            int firstNewline = trimmed.indexOf('\n');
-            if (firstNewline > 0) {
-                // Remove opening ``` line
-                trimmed = trimmed.substring(firstNewline + 1);
-            }
-            // Remove closing ```
-            if (trimmed.endsWith("```")) {
-                trimmed = trimmed.substring(0, trimmed.length() - 3).trim();
-            }
-        }
-        return trimmed;
+        return aiGatewayClient.parseJson(json, clazz);
     }
 
     // ==================== Prompt Builders ====================
 
-    private String buildTopMoversPrompt(List<GeminiClientService.StockData> stocks) {
+    private String buildTopMoversPrompt(List<GeminiClientService.StockData> stocks,
+            MarketAnalyticsService.Movers movers) {
         StringBuilder sb = new StringBuilder();
-        sb.append("Bạn là chuyên gia phân tích 7 cổ phiếu tech US: AAPL, NVDA, MSFT, AMZN, TSLA, META, GOOGL.\n\n");
-        sb.append("Dữ liệu hiện tại:\n");
-
-        for (GeminiClientService.StockData stock : stocks) {
-            sb.append(String.format("- %s: $%.2f, thay đổi %.2f%%, volume %d\n",
-                    stock.symbol(), stock.price(), stock.percentChange(), stock.volume()));
-        }
-
-        sb.append("\nPhân tích top movers (tăng/giảm mạnh nhất) và giải thích LÝ DO cụ thể.\n");
-        sb.append("Trả về JSON:\n");
+        sb.append("Bạn là chuyên gia phân tích cổ phiếu tech US.\n\n");
+        sb.append("Top movers hôm nay đã được tính sẵn từ dữ liệu giá, KHÔNG thay đổi các con số:\n");
+        appendMovers(sb, "Tăng mạnh nhất", movers.gainers());
+        appendMovers(sb, "Giảm mạnh nhất", movers.losers());
+        double average = stocks.stream().mapToDouble(GeminiClientService.StockData::percentChange).average().orElse(0);
+        sb.append(String.format("Trung bình %d mã theo dõi: %+.2f%%\n", stocks.size(), average));
+
+        sb.append("\nViết tên công ty và LÝ DO cụ thể cho từng mã trên. Trả về JSON:\n");
         sb.append("""
                 {
-                    "gainers": [
-                        {"symbol": "NVDA", "name": "NVIDIA Corp", "change": 3.81, "reason": "Lý do tăng chi tiết..."}
-                    ],
-                    "losers": [
-                        {"symbol": "AMZN", "name": "Amazon.com", "change": -0.80, "reason": "Lý do giảm chi tiết..."}
-                    ],
+                    "movers": {
+                        "NVDA": {"name": "NVIDIA Corp", "reason": "Lý do tăng/giảm chi tiết..."}
+                    },
                     "market_mood": "bullish/bearish/neutral",
                     "summary": "Tóm tắt ngắn về thị trường hôm nay"
                 }
@@ -338,18 +307,37 @@ public class InsightsAIService {
         return sb.toString();
     }
 
+    private static void appendMovers(StringBuilder sb, String title, List<GeminiClientService.StockData> stocks) {
+        if (stocks.isEmpty()) {
+            return;
+        }
+        sb.append(title).append(":\n");
+        for (GeminiClientService.StockData stock : stocks) {
+            sb.append(String.format("- %s: %+.2f%%, $%.2f, volume %d\n",
+                    stock.symbol(), stock.percentChange(), stock.price(), stock.volume()));
+        }
+    }
+
+    /**
+     * One line per stock, within the insights token budget; the biggest moves are kept first
+     */
+    private String buildQuotesContext(String header, List<GeminiClientService.StockData> stocks) {
+        PromptContextBuilder context = PromptContextBuilder.withBudget(contextTokenBudget)
+                .section("quotes", header);
+        for (GeminiClientService.StockData stock : stocks) {
+            context.add("quotes", stock.symbol(), String.format("- %s: $%.2f (%.2f%%)",
+                    stock.symbol(), stock.price(), stock.percentChange()), Math.abs(stock.percentChange()));
+        }
+        return context.build();
+    }
+
     private String buildWeeklyOutlookPrompt(List<GeminiClientService.StockData> stocks) {
         String today = LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
 
         StringBuilder sb = new StringBuilder();
         sb.append("Bạn là chuyên gia dự báo thị trường US tech. Hôm nay là " + today + ".\n\n");
         sb.append("7 mã theo dõi: AAPL, NVDA, MSFT, AMZN, TSLA, META, GOOGL\n\n");
-        sb.append("Dữ liệu hiện tại:\n");
-
-        for (GeminiClientService.StockData stock : stocks) {
-            sb.append(String.format("- %s: $%.2f (%.2f%%)\n",
-                    stock.symbol(), stock.price(), stock.percentChange()));
-        }
+        sb.append(buildQuotesContext("Dữ liệu hiện tại:", stocks));
 
         sb.append("\nHãy dự báo triển vọng TUẦN TỚI. Trả về JSON:\n");
         sb.append("""
@@ -377,34 +365,32 @@ public class InsightsAIService {
         StringBuilder sb = new StringBuilder();
         sb.append("Bạn là technical analyst chuyên nghiệp. Phân tích 7 mã US tech:\n\n");
 
-        sb.append("=== DỮ LIỆU THỊ TRƯỜNG HIỆN TẠI ===\n");
+        PromptContextBuilder context = PromptContextBuilder.withBudget(contextTokenBudget)
+                .section("quotes", "=== DỮ LIỆU THỊ TRƯỜNG HIỆN TẠI ===")
+                // Show Prophet predictions as context for AI to generate better supporting
+                // content
+                .section("predictions", "=== KẾT QUẢ DỰ ĐOÁN TỪ MÔ HÌNH PROPHET AI (THAM KHẢO) ===\n"
+                        + "LƯU Ý: Khuyến nghị BUY/SELL/HOLD đã được hệ thống xác định từ Prophet AI.\n"
+                        + "Bạn chỉ cần tập trung viết phân tích lý do, và đưa ra entry_price, stop_loss, take_profit hợp lý.\n");
         for (GeminiClientService.StockData stock : stocks) {
-            sb.append(String.format("- %s: $%.2f, biến động %.2f%%\n",
-                    stock.symbol(), stock.price(), stock.percentChange()));
-        }
-
-        // Show Prophet predictions as context for AI to generate better supporting
-        // content
-        if (prophetPredictions != null && !prophetPredictions.isEmpty()) {
-            sb.append("\n=== KẾT QUẢ DỰ ĐOÁN TỪ MÔ HÌNH PROPHET AI (THAM KHẢO) ===\n");
-            sb.append("LƯU Ý: Khuyến nghị BUY/SELL/HOLD đã được hệ thống xác định từ Prophet AI.\n");
-            sb.append(
-                    "Bạn chỉ cần tập trung viết phân tích lý do, và đưa ra entry_price, stop_loss, take_profit hợp lý.\n\n");
-
-            for (GeminiClientService.StockData stock : stocks) {
-                PredictionResponse pred = prophetPredictions.get(stock.symbol());
-                if (pred != null) {
-                    String signal = pred.getDominantSignal();
-                    sb.append(String.format("- %s: Prophet khuyến nghị = %s\n", stock.symbol(), signal));
-                    if (pred.change_percent() != null) {
-                        sb.append(String.format("  → Giá dự đoán thay đổi: %+.2f%%\n", pred.change_percent()));
-                    }
-                    if (pred.predicted_price() != null) {
-                        sb.append(String.format("  → Giá mục tiêu Prophet: $%.2f\n", pred.predicted_price()));
-                    }
+            context.add("quotes", stock.symbol(), String.format("- %s: $%.2f, biến động %.2f%%",
+                    stock.symbol(), stock.price(), stock.percentChange()), Math.abs(stock.percentChange()));
+
+            PredictionResponse pred = prophetPredictions != null ? prophetPredictions.get(stock.symbol()) : null;
+            if (pred != null) {
+                StringBuilder line = new StringBuilder(
+                        String.format("- %s: Prophet khuyến nghị = %s", stock.symbol(), pred.getDominantSignal()));
+                if (pred.change_percent() != null) {
+                    line.append(String.format("\n  → Giá dự đoán thay đổi: %+.2f%%", pred.change_percent()));
+                }
+                if (pred.predicted_price() != null) {
+                    line.append(String.format("\n  → Giá mục tiêu Prophet: $%.2f", pred.predicted_price()));
                 }
+                context.add("predictions", stock.symbol(), line.toString(),
+                        pred.change_percent() != null ? Math.abs(pred.change_percent()) : 0);
             }
         }
+        sb.append(context.build());
 
         sb.append(
                 "\nĐưa ra TRADING SIGNALS. Tập trung vào reason, entry_price, stop_loss, take_profit. Trả về JSON:\n");
@@ -430,14 +416,44 @@ public class InsightsAIService {
         return sb.toString();
     }
 
-    private String buildCorrelationPrompt(List<GeminiClientService.StockData> stocks) {
+    private String buildCorrelationNarrationPrompt(int observations, List<PairCorrelation> high,
+            List<PairCorrelation> low, List<String> leaders) {
         StringBuilder sb = new StringBuilder();
-        sb.append("Phân tích mối tương quan giữa 7 mã US tech:\n\n");
+        sb.append("Bạn là chuyên gia phân tích danh mục cổ phiếu tech US.\n\n");
+        sb.append(String.format(
+                "Hệ số tương quan lợi suất ngày (%d phiên) đã được tính sẵn, KHÔNG thay đổi các con số:\n",
+                observations));
+        appendPairs(sb, "Tương quan cao", high);
+        appendPairs(sb, "Tương quan thấp", low);
+        sb.append("Mã dẫn dắt nhóm: ").append(String.join(", ", leaders)).append("\n");
+
+        sb.append("\nGiải thích ngắn gọn từng cặp và đưa ra gợi ý đa dạng hóa. Trả về JSON:\n");
+        sb.append("""
+                {
+                    "insights": {
+                        "AAPL-MSFT": "Cả hai đều hưởng lợi từ AI..."
+                    },
+                    "diversification_tip": "Để đa dạng hóa, nên kết hợp NVDA với AMZN..."
+                }
+                """);
+        return sb.toString();
+    }
 
-        for (GeminiClientService.StockData stock : stocks) {
-            sb.append(String.format("- %s: $%.2f (%.2f%%)\n",
-                    stock.symbol(), stock.price(), stock.percentChange()));
+    private static void appendPairs(StringBuilder sb, String title, List<PairCorrelation> pairs) {
+        if (pairs.isEmpty()) {
+            return;
         }
+        sb.append(title).append(":\n");
+        for (PairCorrelation pair : pairs) {
+            sb.append(String.format("- %s: Pearson %.2f, Spearman %.2f\n",
+                    pairKey(pair), pair.pearson(), pair.spearman()));
+        }
+    }
+
+    private String buildCorrelationPrompt(List<GeminiClientService.StockData> stocks) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Phân tích mối tương quan giữa 7 mã US tech:\n\n");
+        sb.append(buildQuotesContext(null, stocks));
 
         sb.append("\nXác định các cặp cổ phiếu có tương quan cao/thấp. Trả về JSON:\n");
         sb.append("""
@@ -513,6 +529,23 @@ public class InsightsAIService {
     public record CorrelationPair(
             List<String> pair,
             Double correlation,
-            String insight) {
+            String insight,
+            Double rank_correlation) {
+    }
+
+    // Model output when it only narrates locally computed numbers
+
+    private record MoversNarration(
+            Map<String, MoverNote> movers,
+            String market_mood,
+            String summary) {
+    }
+
+    private record MoverNote(String name, String reason) {
+    }
+
+    private record CorrelationNarration(
+            Map<String, String> insights,
+            String diversification_tip) {
     }
 }
@@ -0,0 +1,256 @@
+package com.stockapp.aitoolsservice.service.ai;
+
+import com.stockapp.aitoolsservice.config.ApplicationProperties;
+import com.stockapp.aitoolsservice.service.ai.GeminiClientService.StockData;
+import com.stockapp.aitoolsservice.service.client.StockServiceClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Memoized AI insights for the public GET /insights/* endpoints.
+ * <p>
+ * Results are cached per (insight type, market-data snapshot hash), so viewers of the same quotes
+ * share one Gemini call. The quote snapshot itself is fetched at most once per
+ * {@code application.insights-cache.ttl}; concurrent misses on either the snapshot or an insight
+ * join the generation already in flight. Shortly before the snapshot expires, a background
+ * refresh fetches new quotes and regenerates the recently requested insights, then swaps the new
+ * snapshot in, so readers are not left waiting on Gemini. Empty results (generation failed) are
+ * not cached.
+ */
+@Service
+public class InsightsCacheService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(InsightsCacheService.class);
+
+    public static final String CACHE_METER_NAME = "ai.insights.cache";
+
+    public enum InsightType {
+        TOP_MOVERS,
+        WEEKLY_OUTLOOK,
+        TRADING_SIGNALS,
+        CORRELATION,
+    }
+
+    private record Snapshot(List<StockData> stocks, String hash, long fetchedAt) {
+    }
+
+    private record Key(InsightType type, String snapshotHash) {
+    }
+
+    private static final class Entry {
+
+        private volatile long expiresAt;
+        private Mono<Object> result;
+
+        private Entry(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final StockServiceClient stockServiceClient;
+    private final InsightsAIService insightsAIService;
+    private final Clock clock;
+    private final long ttlMillis;
+    private final long refreshAheadMillis;
+    private final long idleTimeoutMillis;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<InsightType, Long> lastRequested = new ConcurrentHashMap<>();
+    private final AtomicReference<Mono<Snapshot>> snapshotFetch = new AtomicReference<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+
+    private final Map<InsightType, Counter> hits = new EnumMap<>(InsightType.class);
+    private final Map<InsightType, Counter> misses = new EnumMap<>(InsightType.class);
+
+    @Autowired
+    public InsightsCacheService(
+            StockServiceClient stockServiceClient,
+            InsightsAIService insightsAIService,
+            ApplicationProperties properties,
+            MeterRegistry registry) {
+        this(stockServiceClient, insightsAIService, properties, registry, Clock.systemUTC());
+    }
+
+    InsightsCacheService(
+            StockServiceClient stockServiceClient,
+            InsightsAIService insightsAIService,
+            ApplicationProperties properties,
+            MeterRegistry registry,
+            Clock clock) {
+        this.stockServiceClient = stockServiceClient;
+        this.insightsAIService = insightsAIService;
+        this.clock = clock;
+        ApplicationProperties.InsightsCache cacheProperties = properties.getInsightsCache();
+        this.ttlMillis = cacheProperties.getTtl().toMillis();
+        this.refreshAheadMillis = Math.min(cacheProperties.getRefreshAhead().toMillis(), ttlMillis / 2);
+        this.idleTimeoutMillis = cacheProperties.getIdleTimeout().toMillis();
+
+        for (InsightType type : InsightType.values()) {
+            String tag = type.name().toLowerCase();
+            hits.put(type, Counter.builder(CACHE_METER_NAME).tag("type", tag).tag("result", "hit").register(registry));
+            misses.put(type, Counter.builder(CACHE_METER_NAME).tag("type", tag).tag("result", "miss").register(registry));
+        }
+    }
+
+    public Mono<InsightsAIService.TopMoversResponse> getTopMovers() {
+        return get(InsightType.TOP_MOVERS);
+    }
+
+    public Mono<InsightsAIService.WeeklyOutlookResponse> getWeeklyOutlook() {
+        return get(InsightType.WEEKLY_OUTLOOK);
+    }
+
+    public Mono<InsightsAIService.TradingSignalsResponse> getTradingSignals() {
+        return get(InsightType.TRADING_SIGNALS);
+    }
+
+    public Mono<InsightsAIService.CorrelationResponse> getCorrelationAnalysis() {
+        return get(InsightType.CORRELATION);
+    }
+
+    /**
+     * The quote snapshot insights are currently generated from, fetched at most once per
+     * {@code ttl}; used as market context where fresh quotes are not worth a stockservice round trip.
+     *
+     * @return the quotes sorted by symbol, or empty when no quotes are available
+     */
+    public Mono<List<StockData>> getQuotes() {
+        return currentSnapshot().map(Snapshot::stocks);
+    }
+
+    /**
+     * Evict expired entries and, when the current snapshot is about to expire, rebuild the
+     * insights requested within {@code idle-timeout} against fresh quotes.
+     */
+    @Scheduled(fixedDelayString = "${application.insights-cache.refresh-check-interval:PT5S}")
+    public void refresh() {
+        long now = clock.millis();
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+
+        Snapshot current = snapshot;
+        if (current == null || now - current.fetchedAt() < ttlMillis - refreshAheadMillis) {
+            return;
+        }
+        List<InsightType> active = lastRequested.entrySet().stream()
+                .filter(requested -> now - requested.getValue() < idleTimeoutMillis)
+                .map(Map.Entry::getKey)
+                .toList();
+        if (active.isEmpty() || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        LOG.debug("Refreshing insights {} ahead of snapshot expiry", active);
+        loadSnapshot()
+                .flatMap(next -> Flux.fromIterable(active)
+                        .flatMap(type -> entryFor(type, next, false).result)
+                        .then(Mono.fromRunnable(() -> snapshot = next)))
+                .doFinally(signal -> refreshing.set(false))
+                .subscribe(null, e -> LOG.warn("Failed to refresh insights: {}", e.getMessage()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Mono<T> get(InsightType type) {
+        lastRequested.put(type, clock.millis());
+        return currentSnapshot().flatMap(current -> (Mono<T>) entryFor(type, current, true).result);
+    }
+
+    private Entry entryFor(InsightType type, Snapshot current, boolean countAccess) {
+        long expiresAt = current.fetchedAt() + ttlMillis;
+        Key key = new Key(type, current.hash());
+        boolean[] created = new boolean[1];
+        Entry entry = entries.compute(key, (k, existing) -> {
+            if (existing != null) {
+                // Same inputs as a newer snapshot: the result stays valid as long as that snapshot
+                existing.expiresAt = Math.max(existing.expiresAt, expiresAt);
+                return existing;
+            }
+            created[0] = true;
+            return newEntry(k, current, expiresAt);
+        });
+        if (countAccess) {
+            (created[0] ? misses : hits).get(type).increment();
+        }
+        return entry;
+    }
+
+    private Entry newEntry(Key key, Snapshot current, long expiresAt) {
+        Entry entry = new Entry(expiresAt);
+        entry.result = generate(key.type(), current.stocks())
+                .switchIfEmpty(Mono.<Object>fromRunnable(() -> entries.remove(key, entry)))
+                .doOnError(e -> entries.remove(key, entry))
+                .cache();
+        return entry;
+    }
+
+    private Mono<Object> generate(InsightType type, List<StockData> stocks) {
+        LOG.debug("Generating {} insight for {} stocks", type, stocks.size());
+        return switch (type) {
+            case TOP_MOVERS -> insightsAIService.generateTopMovers(stocks).cast(Object.class);
+            case WEEKLY_OUTLOOK -> insightsAIService.generateWeeklyOutlook(stocks).cast(Object.class);
+            case TRADING_SIGNALS -> stockServiceClient.getAllPredictions()
+                    .defaultIfEmpty(Map.of())
+                    .flatMap(predictions -> insightsAIService.generateTradingSignals(stocks, predictions))
+                    .cast(Object.class);
+            case CORRELATION -> insightsAIService.generateCorrelationAnalysis(stocks).cast(Object.class);
+        };
+    }
+
+    private Mono<Snapshot> currentSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null && clock.millis() - current.fetchedAt() < ttlMillis) {
+            return Mono.just(current);
+        }
+        return snapshotFetch.updateAndGet(inFlight -> inFlight != null ? inFlight
+                : loadSnapshot()
+                        .doOnNext(next -> snapshot = next)
+                        .doFinally(signal -> snapshotFetch.set(null))
+                        .cache());
+    }
+
+    private Mono<Snapshot> loadSnapshot() {
+        return stockServiceClient.getStockData()
+                .filter(stocks -> !stocks.isEmpty())
+                .map(stocks -> {
+                    // Sorted so the hash (and the prompt) do not depend on quote arrival order
+                    List<StockData> sorted = stocks.stream().sorted(Comparator.comparing(StockData::symbol)).toList();
+                    return new Snapshot(sorted, hash(sorted, LocalDate.now(clock)), clock.millis());
+                });
+    }
+
+    private static String hash(List<StockData> stocks, LocalDate date) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // Prompts mention the date and predictions change daily, so results never outlive the day
+            digest.update(date.toString().getBytes(StandardCharsets.UTF_8));
+            for (StockData stock : stocks) {
+                digest.update((stock.symbol() + '|' + stock.price() + '|' + stock.percentChange() + '|' + stock.volume() + ';')
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.stockapp.aitoolsservice.service.ai;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Assembles the data part of a prompt under a token budget.
+ * <p>
+ * Callers declare sections (a header line each) and add candidate lines with a relevance score,
+ * typically the size of a move or the strength of a signal. Lines about a focus symbol, one the
+ * user asked about or the subject of the prompt, always rank first. {@link #build()} keeps the
+ * best ranked lines whose {@link TokenEstimator estimated} tokens, headers included, fit the
+ * budget and renders them section by section, so a prompt stays bounded however many symbols
+ * are tracked.
+ */
+public class PromptContextBuilder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PromptContextBuilder.class);
+
+    private static final double FOCUS_BOOST = 1_000_000;
+
+    private record Item(String section, String symbol, String text, double relevance, int order) {
+    }
+
+    private final int tokenBudget;
+    private final Map<String, String> headers = new LinkedHashMap<>();
+    private final Set<String> focus = new HashSet<>();
+    private final List<Item> items = new ArrayList<>();
+
+    private PromptContextBuilder(int tokenBudget) {
+        this.tokenBudget = tokenBudget;
+    }
+
+    public static PromptContextBuilder withBudget(int tokenBudget) {
+        return new PromptContextBuilder(tokenBudget);
+    }
+
+    /**
+     * Symbols of {@code candidates} that {@code text} mentions, ignoring case. Dots are kept inside
+     * words (BRK.B) but not at their ends, so a symbol ending a sentence still counts.
+     */
+    public static Set<String> mentionedSymbols(String text, Collection<String> candidates) {
+        Set<String> words = new HashSet<>();
+        if (text != null) {
+            for (String word : text.toUpperCase(Locale.ROOT).split("[^A-Z0-9.]+")) {
+                words.add(word.replaceAll("^\\.+|\\.+$", ""));
+            }
+        }
+        Set<String> mentioned = new HashSet<>();
+        for (String candidate : candidates) {
+            if (words.contains(candidate.toUpperCase(Locale.ROOT))) {
+                mentioned.add(candidate);
+            }
+        }
+        return mentioned;
+    }
+
+    /**
+     * Declare a section; sections are rendered in declaration order.
+     *
+     * @param header line above the section's lines, or null for none
+     */
+    public PromptContextBuilder section(String section, String header) {
+        headers.put(section, header);
+        return this;
+    }
+
+    public PromptContextBuilder focus(Collection<String> symbols) {
+        focus.addAll(symbols);
+        return this;
+    }
+
+    /**
+     * Add a candidate line to a declared section.
+     *
+     * @param symbol    the symbol the line is about, or null
+     * @param relevance higher ranks first
+     */
+    public PromptContextBuilder add(String section, String symbol, String text, double relevance) {
+        if (!headers.containsKey(section)) {
+            throw new IllegalArgumentException("Undeclared prompt context section: " + section);
+        }
+        items.add(new Item(section, symbol, text, relevance, items.size()));
+        return this;
+    }
+
+    /**
+     * Render the best ranked lines that fit the budget; empty if none fits.
+     */
+    public String build() {
+        List<Item> ranked = new ArrayList<>(items);
+        ranked.sort(Comparator.comparingDouble(this::score).reversed().thenComparingInt(Item::order));
+
+        Map<String, List<Item>> selected = new LinkedHashMap<>();
+        headers.keySet().forEach(section -> selected.put(section, new ArrayList<>()));
+        int used = 0;
+        int kept = 0;
+        for (Item item : ranked) {
+            List<Item> sectionItems = selected.get(item.section());
+            int cost = TokenEstimator.estimate(item.text())
+                    + (sectionItems.isEmpty() ? TokenEstimator.estimate(headers.get(item.section())) : 0);
+            if (used + cost <= tokenBudget) {
+                sectionItems.add(item);
+                used += cost;
+                kept++;
+            }
+        }
+        if (kept < items.size()) {
+            LOG.debug("Prompt context kept {}/{} lines (~{} of {} tokens)", kept, items.size(), used, tokenBudget);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        selected.forEach((section, sectionItems) -> {
+            if (sectionItems.isEmpty()) {
+                return;
+            }
+            if (!sb.isEmpty()) {
+                sb.append('\n');
+            }
+            if (headers.get(section) != null) {
+                sb.append(headers.get(section)).append('\n');
+            }
+            sectionItems.forEach(item -> sb.append(item.text()).append('\n'));
+        });
+        return sb.toString();
+    }
+
+    private double score(Item item) {
+        return item.symbol() != null && focus.contains(item.symbol()) ? item.relevance() + FOCUS_BOOST : item.relevance();
+    }
+}
@@ -1,16 +1,10 @@
 package com.stockapp.aitoolsservice.service.ai;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.stockapp.aitoolsservice.config.ApplicationProperties;
 import com.stockapp.aitoolsservice.service.client.StockServiceClient.PredictionResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
@@ -46,19 +40,16 @@ public class ResearchAIService {
             "gemini-2.5-flash" // Backup 4: Latest Gemini
     );
 
-    private final WebClient webClient;
-    private final ApplicationProperties properties;
-    private final ObjectMapper objectMapper;
+    private final AIGatewayClient aiGatewayClient;
+    private final ResearchCacheService researchCacheService;
     private final List<String> researchModels;
+    private final int contextTokenBudget;
 
-    public ResearchAIService(ApplicationProperties properties, ObjectMapper objectMapper) {
-        this.properties = properties;
-        this.objectMapper = objectMapper;
-        this.webClient = WebClient.builder()
-                .baseUrl(properties.getGemini().getBaseUrl())
-                .defaultHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(10 * 1024 * 1024))
-                .build();
+    public ResearchAIService(ApplicationProperties properties, AIGatewayClient aiGatewayClient,
+            ResearchCacheService researchCacheService) {
+        this.aiGatewayClient = aiGatewayClient;
+        this.researchCacheService = researchCacheService;
+        this.contextTokenBudget = properties.getPromptContext().getResearchTokenBudget();
 
         // Load research models from configuration or use defaults
         List<String> configuredModels = properties.getGemini().getResearchFallbackModels();
@@ -72,15 +63,19 @@ public class ResearchAIService {
     /**
      * Generate comprehensive research report for a watchlist stock
      * Uses Prophet AI prediction to ensure recommendation consistency
+     * Reuses the stored research while quote and prediction are unchanged
      */
     public Mono<WatchlistStockResearch> generateWatchlistStockResearch(
             String symbol,
             GeminiClientService.StockData stockData,
             PredictionResponse prophetPrediction) {
         String prompt = buildStockResearchPrompt(symbol, stockData, prophetPrediction);
-        return callAI(prompt)
-                .map(response -> parseJsonResponse(response, WatchlistStockResearch.class))
-                .map(response -> overrideWatchlistResearchWithProphet(response, prophetPrediction))
+        String key = researchCacheService.key("watchlist-research", List.of(stockData),
+                prophetPrediction != null ? Map.of(symbol, prophetPrediction) : null);
+        return researchCacheService.getOrGenerate("watchlist-research", key, prompt, WatchlistStockResearch.class,
+                () -> callAI(prompt)
+                        .map(response -> parseJsonResponse(response, WatchlistStockResearch.class))
+                        .map(response -> overrideWatchlistResearchWithProphet(response, prophetPrediction)))
                 .onErrorResume(e -> {
                     LOG.error("Error generating research for {}: {}", symbol, e.getMessage());
                     return Mono.empty();
@@ -204,13 +199,16 @@ public class ResearchAIService {
     /**
      * Generate quick comparison between watchlist stocks.
      * Integrates Prophet AI predictions for context.
+     * Reuses the stored comparison while quotes and predictions are unchanged
      */
     public Mono<StockComparison> generateStockComparison(
             List<GeminiClientService.StockData> stocks,
             Map<String, PredictionResponse> prophetPredictions) {
         String prompt = buildComparisonPrompt(stocks, prophetPredictions);
-        return callAI(prompt)
-                .map(response -> parseJsonResponse(response, StockComparison.class))
+        String key = researchCacheService.key("comparison", stocks, prophetPredictions);
+        return researchCacheService.getOrGenerate("comparison", key, prompt, StockComparison.class,
+                () -> callAI(prompt)
+                        .map(response -> parseJsonResponse(response, StockComparison.class)))
                 .onErrorResume(e -> {
                     LOG.error("Error generating comparison: {}", e.getMessage());
                     return Mono.empty();
@@ -218,201 +216,12 @@ public class ResearchAIService {
     }
 
     private Mono<String> callAI(String prompt) {
-        String apiKey = properties.getGemini().getApiKey();
-        if (apiKey == null || apiKey.isBlank()) {
-            return Mono.error(new IllegalStateException("API key not configured"));
-        }
         // AI_RESEARCH uses configured research models with gemma-3-27b as primary
-        return callAIWithFallback(prompt, apiKey, researchModels, 0);
-    }
-
-    private Mono<String> callAIWithFallback(String prompt, String apiKey, List<String> models, int modelIndex) {
-        if (modelIndex >= models.size()) {
-            LOG.error("All Research AI models exhausted");
-            return Mono.error(new IllegalStateException("All AI models unavailable"));
-        }
-
-        String currentModel = models.get(modelIndex);
-        LOG.info("Research AI calling model: {} (attempt {}/{})", currentModel, modelIndex + 1, models.size());
-
-        // Build generation config - Gemma models don't support responseMimeType
-        Map<String, Object> generationConfig = buildGenerationConfig(currentModel, 0.6, 8192);
-
-        Map<String, Object> requestBody = Map.of(
-                "contents", List.of(Map.of(
-                        "parts", List.of(Map.of("text", prompt)))),
-                "generationConfig", generationConfig);
-
-        return webClient.post()
-                .uri("/models/{model}:generateContent?key={key}", currentModel, apiKey)
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(String.class)
-                .map(this::extractContentFromResponse)
-                .onErrorResume(e -> {
-                    if (shouldFallback(e)) {
-                        LOG.warn("Research model {} failed: {}, trying next...", currentModel, getErrorReason(e));
-                        return callAIWithFallback(prompt, apiKey, models, modelIndex + 1);
-                    }
-                    return Mono.error(e);
-                });
-    }
-
-    private boolean shouldFallback(Throwable e) {
-        if (e instanceof WebClientResponseException wcre) {
-            int status = wcre.getStatusCode().value();
-            // 400 = Bad Request (model doesn't support config), 403 = Forbidden (model
-            // unavailable),
-            // 429 = Rate Limit, 503 = Service Unavailable, 500 = Server Error, 404 = Model
-            // not found
-            return status == 400 || status == 403 || status == 429 || status == 503 || status == 500 || status == 502
-                    || status == 404;
-        }
-        return e.getMessage() != null && (e.getMessage().contains("quota") ||
-                e.getMessage().contains("rate") ||
-                e.getMessage().contains("limit"));
-    }
-
-    private String getErrorReason(Throwable e) {
-        if (e instanceof WebClientResponseException wcre) {
-            return "HTTP " + wcre.getStatusCode().value();
-        }
-        return e.getMessage();
-    }
-
-    /**
-     * Build generation config based on model type.
-     * Gemma models don't support responseMimeType, only Gemini models do.
-     */
-    private Map<String, Object> buildGenerationConfig(String modelName, double temperature, int maxOutputTokens) {
-        // Gemma models (gemma-*) don't support responseMimeType
-        boolean isGemmaModel = modelName.toLowerCase().startsWith("gemma");
-
-        if (isGemmaModel) {
-            return Map.of(
-                    "temperature", temperature,
-                    "maxOutputTokens", maxOutputTokens);
-        } else {
-            // Gemini models support responseMimeType for structured JSON output
-            return Map.of(
-                    "temperature", temperature,
-                    "maxOutputTokens", maxOutputTokens,
-                    "responseMimeType", "application/json");
-        }
-    }
-
-    private String extractContentFromResponse(String response) {
-        try {
-            JsonNode root = objectMapper.readTree(response);
-            return root.path("candidates").path(0).path("content").path("parts").path(0).path("text").asText();
-        } catch (JsonProcessingException e) {
-            LOG.error("Error parsing response: {}", e.getMessage());
-            return "{}";
-        }
+        return aiGatewayClient.generate(new AIGatewayClient.Request("research", researchModels, prompt, 0.6, 8192));
     }
 
     private <T> T parseJsonResponse(String json, Class<T> clazz) {
-        try {
-            // Clean markdown code blocks if present (Gemma models)
-            String cleanedJson = cleanMarkdownCodeBlock(json);
-            return objectMapper.readValue(cleanedJson, clazz);
-        } catch (JsonProcessingException e) {
-            LOG.error("Error parsing JSON to {}: {}", clazz.getSimpleName(), e.getMessage());
-            throw new RuntimeException("Failed to parse AI response", e);
-        }
-    }
-
-    /**
-     * Clean markdown code blocks and extract JSON from Gemma model responses.
-     * Gemma models often wrap JSON in ```json ... ``` blocks or add conversational
-     * text.
-     */
-    private String cleanMarkdownCodeBlock(String content) {
-        if (content == null || content.isBlank()) {
-            return "{}";
-        }
-        String trimmed = content.trim();
-
-        // Handle ```json ... ``` or ``` ... ``` blocks
-        if (trimmed.startsWith("```")) {
-            // Find first newline after opening ```
-            int firstNewline = trimmed.indexOf('\n');
-            if (firstNewline > 0) {
-                // Remove opening ``` line
-                trimmed = trimmed.substring(firstNewline + 1);
-            }
-            // Remove closing ```
-            if (trimmed.endsWith("```")) {
-                trimmed = trimmed.substring(0, trimmed.length() - 3).trim();
-            }
-        }
-
-        // If result doesn't start with { or [, try to extract JSON from mixed text
-        if (!trimmed.startsWith("{") && !trimmed.startsWith("[")) {
-            trimmed = extractJsonFromText(trimmed);
-        }
-
-        return trimmed;
-    }
-
-    /**
-     * Extract JSON object or array from text that may contain conversational
-     * content.
-     * Handles cases where AI returns text like "Tuyệt! Đây là phân tích: {...}"
-     */
-    private String extractJsonFromText(String text) {
-        if (text == null || text.isBlank()) {
-            return "{}";
-        }
-
-        // Find the first { or [
-        int jsonStart = -1;
-        char openChar = ' ';
-        char closeChar = ' ';
-
-        int braceIndex = text.indexOf('{');
-        int bracketIndex = text.indexOf('[');
-
-        if (braceIndex >= 0 && (bracketIndex < 0 || braceIndex < bracketIndex)) {
-            jsonStart = braceIndex;
-            openChar = '{';
-            closeChar = '}';
-        } else if (bracketIndex >= 0) {
-            jsonStart = bracketIndex;
-            openChar = '[';
-            closeChar = ']';
-        }
-
-        if (jsonStart < 0) {
-            LOG.warn("No JSON found in response, returning empty object");
-            return "{}";
-        }
-
-        // Find matching closing brace/bracket
-        int depth = 0;
-        int jsonEnd = -1;
-        for (int i = jsonStart; i < text.length(); i++) {
-            char c = text.charAt(i);
-            if (c == openChar) {
-                depth++;
-            } else if (c == closeChar) {
-                depth--;
-                if (depth == 0) {
-                    jsonEnd = i + 1;
-                    break;
-                }
-            }
-        }
-
-        if (jsonEnd > jsonStart) {
-            String extracted = text.substring(jsonStart, jsonEnd);
-            LOG.debug("Extracted JSON from position {} to {}", jsonStart, jsonEnd);
-            return extracted;
-        }
-
-        // Fallback: return from first { to end
-        LOG.warn("Could not find matching closing brace, attempting best effort extraction");
-        return text.substring(jsonStart);
+        return aiGatewayClient.parseJson(json, clazz);
     }
 
     // ==================== Prompt Builders ====================
@@ -498,6 +307,37 @@ public class ResearchAIService {
         };
     }
 
+    /**
+     * One line per watchlist stock with its Prophet prediction, within the research token budget;
+     * the biggest actual and predicted moves are kept first
+     */
+    private String buildWatchlistContext(
+            List<GeminiClientService.StockData> stocks,
+            Map<String, PredictionResponse> prophetPredictions,
+            boolean withVolume) {
+        PromptContextBuilder context = PromptContextBuilder.withBudget(contextTokenBudget)
+                .section("stocks", null);
+        for (GeminiClientService.StockData stock : stocks) {
+            StringBuilder line = new StringBuilder(String.format("- %s: $%.2f, biến động %.2f%%",
+                    stock.symbol(), stock.price(), stock.percentChange()));
+            if (withVolume) {
+                line.append(String.format(", volume %d", stock.volume()));
+            }
+            double relevance = Math.abs(stock.percentChange());
+            // Append Prophet prediction context per stock
+            PredictionResponse pred = prophetPredictions != null ? prophetPredictions.get(stock.symbol()) : null;
+            if (pred != null) {
+                line.append(String.format(" | Prophet AI: %s", mapSignalToRecommendation(pred.getDominantSignal())));
+                if (pred.change_percent() != null) {
+                    line.append(String.format(" (%+.2f%%)", pred.change_percent()));
+                    relevance += Math.abs(pred.change_percent());
+                }
+            }
+            context.add("stocks", stock.symbol(), line.toString(), relevance);
+        }
+        return context.build();
+    }
+
     private String buildWatchlistSummaryPrompt(
             List<GeminiClientService.StockData> stocks,
             Map<String, PredictionResponse> prophetPredictions) {
@@ -508,23 +348,7 @@ public class ResearchAIService {
                 "QUAN TRỌNG: Chỉ trả về JSON thuần túy. KHÔNG có bất kỳ text, giải thích, hay lời chào nào trước hoặc sau JSON.\n\n");
         sb.append("Bạn là chuyên gia phân tích danh mục đầu tư. Hôm nay là " + today + ".\n\n");
         sb.append("Phân tích danh sách watchlist sau:\n\n");
-
-        for (GeminiClientService.StockData stock : stocks) {
-            sb.append(String.format("- %s: $%.2f, biến động %.2f%%, volume %d",
-                    stock.symbol(), stock.price(), stock.percentChange(), stock.volume()));
-            // Append Prophet prediction context per stock
-            if (prophetPredictions != null) {
-                PredictionResponse pred = prophetPredictions.get(stock.symbol());
-                if (pred != null) {
-                    String action = mapSignalToRecommendation(pred.getDominantSignal());
-                    sb.append(String.format(" | Prophet AI: %s", action));
-                    if (pred.change_percent() != null) {
-                        sb.append(String.format(" (%+.2f%%)", pred.change_percent()));
-                    }
-                }
-            }
-            sb.append("\n");
-        }
+        sb.append(buildWatchlistContext(stocks, prophetPredictions, true));
 
         sb.append("\n=== QUAN TRỌNG ===\n");
         sb.append(
@@ -563,21 +387,7 @@ public class ResearchAIService {
         sb.append(
                 "QUAN TRỌNG: Chỉ trả về JSON thuần túy. KHÔNG có bất kỳ text, giải thích, hay lời chào nào trước hoặc sau JSON.\n\n");
         sb.append("Phân tích các cổ phiếu sau và tạo CẢNH BÁO quan trọng:\n\n");
-
-        for (GeminiClientService.StockData stock : stocks) {
-            sb.append(String.format("- %s: $%.2f, biến động %.2f%%",
-                    stock.symbol(), stock.price(), stock.percentChange()));
-            if (prophetPredictions != null) {
-                PredictionResponse pred = prophetPredictions.get(stock.symbol());
-                if (pred != null) {
-                    sb.append(String.format(" | Prophet AI: %s", mapSignalToRecommendation(pred.getDominantSignal())));
-                    if (pred.change_percent() != null) {
-                        sb.append(String.format(" (%+.2f%%)", pred.change_percent()));
-                    }
-                }
-            }
-            sb.append("\n");
-        }
+        sb.append(buildWatchlistContext(stocks, prophetPredictions, false));
 
         sb.append("""
 
@@ -615,21 +425,7 @@ public class ResearchAIService {
         sb.append(
                 "QUAN TRỌNG: Chỉ trả về JSON thuần túy. KHÔNG có bất kỳ text, giải thích, hay lời chào nào trước hoặc sau JSON.\n\n");
         sb.append("So sánh các cổ phiếu sau trong watchlist:\n\n");
-
-        for (GeminiClientService.StockData stock : stocks) {
-            sb.append(String.format("- %s: $%.2f, biến động %.2f%%",
-                    stock.symbol(), stock.price(), stock.percentChange()));
-            if (prophetPredictions != null) {
-                PredictionResponse pred = prophetPredictions.get(stock.symbol());
-                if (pred != null) {
-                    sb.append(String.format(" | Prophet AI: %s", mapSignalToRecommendation(pred.getDominantSignal())));
-                    if (pred.change_percent() != null) {
-                        sb.append(String.format(" (%+.2f%%)", pred.change_percent()));
-                    }
-                }
-            }
-            sb.append("\n");
-        }
+        sb.append(buildWatchlistContext(stocks, prophetPredictions, false));
 
         sb.append("""
 
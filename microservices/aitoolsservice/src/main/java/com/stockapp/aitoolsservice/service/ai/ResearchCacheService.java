@@ -0,0 +1,192 @@
+package com.stockapp.aitoolsservice.service.ai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockapp.aitoolsservice.config.ApplicationProperties;
+import com.stockapp.aitoolsservice.domain.ResearchCacheEntry;
+import com.stockapp.aitoolsservice.repository.ResearchCacheEntryRepository;
+import com.stockapp.aitoolsservice.service.ai.GeminiClientService.StockData;
+import com.stockapp.aitoolsservice.service.client.StockServiceClient.PredictionResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Content-addressed cache for research results.
+ * <p>
+ * Research prompts are built from quotes, Prophet predictions and the date, so a result is stored
+ * in the {@code research_cache} collection under a SHA-256 of those inputs, normalized: prices
+ * rounded to {@code application.research-cache.price-digits} significant digits, changes to whole
+ * percents, the Prophet signal and the day. As long as the inputs hash the same and the entry is
+ * younger than {@code max-age}, the stored result is returned without calling the model.
+ * <p>
+ * Lookups are counted per feature in {@code ai.research.cache} (hit/miss) and the estimated tokens
+ * a hit did not spend in {@code ai.research.cache.saved-tokens}.
+ */
+@Service
+public class ResearchCacheService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResearchCacheService.class);
+
+    public static final String LOOKUP_METER_NAME = "ai.research.cache";
+    public static final String SAVED_TOKENS_METER_NAME = "ai.research.cache.saved-tokens";
+
+    /** Bump when a prompt changes so results of the old prompt are not reused. */
+    private static final int KEY_VERSION = 2;
+
+    private final ResearchCacheEntryRepository repository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry registry;
+    private final Clock clock;
+    private final Duration maxAge;
+    private final MathContext priceContext;
+
+    @Autowired
+    public ResearchCacheService(
+            ResearchCacheEntryRepository repository,
+            ObjectMapper objectMapper,
+            ApplicationProperties properties,
+            MeterRegistry registry) {
+        this(repository, objectMapper, properties, registry, Clock.systemDefaultZone());
+    }
+
+    ResearchCacheService(
+            ResearchCacheEntryRepository repository,
+            ObjectMapper objectMapper,
+            ApplicationProperties properties,
+            MeterRegistry registry,
+            Clock clock) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.registry = registry;
+        this.clock = clock;
+        this.maxAge = properties.getResearchCache().getMaxAge();
+        this.priceContext = new MathContext(properties.getResearchCache().getPriceDigits());
+    }
+
+    /**
+     * Hash of the normalized inputs of a research prompt.
+     *
+     * @param feature     the kind of research, part of the key
+     * @param stocks      the quotes the prompt is built from; their order does not matter
+     * @param predictions Prophet predictions by symbol, may be null or incomplete
+     */
+    public String key(String feature, List<StockData> stocks, Map<String, PredictionResponse> predictions) {
+        StringBuilder inputs = new StringBuilder()
+                .append(KEY_VERSION).append('|')
+                .append(feature).append('|')
+                .append(LocalDate.now(clock));
+        stocks.stream()
+                .sorted(Comparator.comparing(StockData::symbol))
+                .forEach(stock -> {
+                    inputs.append('|').append(stock.symbol())
+                            .append(':').append(roundPrice(stock.price()))
+                            .append(':').append(Math.round(stock.percentChange()));
+                    PredictionResponse prediction = predictions != null ? predictions.get(stock.symbol()) : null;
+                    if (prediction != null) {
+                        inputs.append(':').append(prediction.getDominantSignal())
+                                .append(':').append(prediction.predicted_price() != null
+                                        ? roundPrice(prediction.predicted_price())
+                                        : "-")
+                                .append(':').append(prediction.change_percent() != null
+                                        ? Math.round(prediction.change_percent())
+                                        : "-");
+                    }
+                });
+        return sha256(inputs.toString());
+    }
+
+    /**
+     * Stored result for {@code key}, or the result of {@code generate} which is then stored.
+     *
+     * @param prompt only used to estimate the tokens a later hit saves
+     */
+    public <T> Mono<T> getOrGenerate(String feature, String key, String prompt, Class<T> type, Supplier<Mono<T>> generate) {
+        return repository.findById(key)
+                .filter(entry -> entry.getCreatedDate().isAfter(clock.instant().minus(maxAge)))
+                .flatMap(entry -> Mono.fromCallable(() -> objectMapper.readValue(entry.getPayload(), type))
+                        .doOnNext(value -> recordHit(feature, entry)))
+                .onErrorResume(e -> {
+                    LOG.warn("Research cache lookup failed for {}: {}", feature, e.getMessage());
+                    return Mono.empty();
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    counter(LOOKUP_METER_NAME, feature, "result", "miss").increment();
+                    return generate.get().flatMap(value -> store(feature, key, prompt, value).thenReturn(value));
+                }));
+    }
+
+    /**
+     * Drop entries no lookup can use anymore.
+     */
+    @Scheduled(cron = "0 30 3 * * *")
+    public void evictStale() {
+        repository.deleteByCreatedDateBefore(clock.instant().minus(maxAge))
+                .subscribe(
+                        deleted -> LOG.debug("Evicted {} stale research cache entries", deleted),
+                        e -> LOG.warn("Failed to evict research cache entries: {}", e.getMessage()));
+    }
+
+    private Mono<Void> store(String feature, String key, String prompt, Object value) {
+        return Mono.fromCallable(() -> objectMapper.writeValueAsString(value))
+                .map(payload -> new ResearchCacheEntry()
+                        .id(key)
+                        .feature(feature)
+                        .payload(payload)
+                        .promptTokens(TokenEstimator.estimate(prompt))
+                        .outputTokens(TokenEstimator.estimate(payload))
+                        .createdDate(clock.instant()))
+                .flatMap(repository::save)
+                .then()
+                .onErrorResume(e -> {
+                    LOG.warn("Failed to store research cache entry for {}: {}", feature, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private void recordHit(String feature, ResearchCacheEntry entry) {
+        counter(LOOKUP_METER_NAME, feature, "result", "hit").increment();
+        if (entry.getPromptTokens() != null) {
+            counter(SAVED_TOKENS_METER_NAME, feature, "type", "prompt").increment(entry.getPromptTokens());
+        }
+        if (entry.getOutputTokens() != null) {
+            counter(SAVED_TOKENS_METER_NAME, feature, "type", "output").increment(entry.getOutputTokens());
+        }
+    }
+
+    private Counter counter(String name, String feature, String tag, String value) {
+        return Counter.builder(name).tag("feature", feature).tag(tag, value).register(registry);
+    }
+
+    private String roundPrice(double price) {
+        return new BigDecimal(price).round(priceContext).stripTrailingZeros().toPlainString();
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.stockapp.aitoolsservice.service.ai;
+
+/**
+ * Fast approximation of the Gemini/Gemma tokenizer, used to keep prompts under a token budget
+ * without calling {@code countTokens}.
+ * <p>
+ * One pass, no allocation: each word costs one token per 4 characters (rounded up), a non-ASCII
+ * letter such as a Vietnamese diacritic counts double, every punctuation or symbol character is a
+ * token of its own and whitespace is free. This slightly overestimates mixed Vietnamese/English
+ * prompts, which is the safe side for a budget.
+ */
+public final class TokenEstimator {
+
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private TokenEstimator() {
+    }
+
+    public static int estimate(CharSequence text) {
+        if (text == null) {
+            return 0;
+        }
+        int tokens = 0;
+        int word = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                word += c < 128 ? 1 : 2;
+                continue;
+            }
+            tokens += (word + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+            word = 0;
+            if (!Character.isWhitespace(c)) {
+                tokens++;
+            }
+        }
+        return tokens + (word + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+}
@@ -0,0 +1,165 @@
+package com.stockapp.aitoolsservice.service.analytics;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Pearson and Spearman correlation over primitive series.
+ * <p>
+ * Series are standardized once ({@code (x - mean) / ||x - mean||}), after which the Pearson
+ * coefficient of two series is their dot product; Spearman is Pearson over average ranks. A matrix
+ * over n series therefore costs n standardizations plus n(n-1)/2 dot products.
+ */
+public final class Correlation {
+
+    /** Below this many series a matrix is filled on the calling thread. */
+    static final int PARALLEL_THRESHOLD = 32;
+
+    private Correlation() {
+        // Utility class
+    }
+
+    public static double pearson(double[] x, double[] y) {
+        requireSameLength(x, y);
+        return dot(standardize(x), standardize(y));
+    }
+
+    public static double spearman(double[] x, double[] y) {
+        requireSameLength(x, y);
+        return dot(standardize(ranks(x)), standardize(ranks(y)));
+    }
+
+    /**
+     * Pairwise Pearson matrix; rows are computed in parallel for large inputs.
+     *
+     * @param series equally long series, one per row
+     * @return symmetric matrix with 1 on the diagonal (0 when a series is constant)
+     */
+    public static double[][] pearsonMatrix(double[][] series) {
+        double[][] standardized = new double[series.length][];
+        for (int i = 0; i < series.length; i++) {
+            standardized[i] = standardize(series[i]);
+        }
+        return matrix(standardized);
+    }
+
+    /**
+     * Pairwise Spearman matrix, see {@link #pearsonMatrix(double[][])}.
+     */
+    public static double[][] spearmanMatrix(double[][] series) {
+        double[][] standardized = new double[series.length][];
+        for (int i = 0; i < series.length; i++) {
+            standardized[i] = standardize(ranks(series[i]));
+        }
+        return matrix(standardized);
+    }
+
+    /**
+     * Log returns {@code ln(p[i] / p[i - 1])} of a price series.
+     */
+    public static double[] logReturns(double[] prices) {
+        if (prices.length < 2) {
+            return new double[0];
+        }
+        double[] returns = new double[prices.length - 1];
+        for (int i = 1; i < prices.length; i++) {
+            returns[i - 1] = Math.log(prices[i] / prices[i - 1]);
+        }
+        return returns;
+    }
+
+    /**
+     * 1-based ranks; tied values share the average of their ranks.
+     */
+    static double[] ranks(double[] values) {
+        int n = values.length;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+        double[] ranks = new double[n];
+        int i = 0;
+        while (i < n) {
+            int j = i;
+            while (j + 1 < n && values[order[j + 1]] == values[order[i]]) {
+                j++;
+            }
+            double rank = (i + j) / 2.0 + 1;
+            for (int k = i; k <= j; k++) {
+                ranks[order[k]] = rank;
+            }
+            i = j + 1;
+        }
+        return ranks;
+    }
+
+    private static double[][] matrix(double[][] standardized) {
+        int n = standardized.length;
+        double[][] matrix = new double[n][n];
+        IntStream rows = IntStream.range(0, n);
+        if (n >= PARALLEL_THRESHOLD) {
+            rows = rows.parallel();
+        }
+        // Row i owns cells (i, j) and (j, i) for j > i, so rows never write the same cell
+        rows.forEach(i -> {
+            matrix[i][i] = isZero(standardized[i]) ? 0 : 1;
+            for (int j = i + 1; j < n; j++) {
+                double value = dot(standardized[i], standardized[j]);
+                matrix[i][j] = value;
+                matrix[j][i] = value;
+            }
+        });
+        return matrix;
+    }
+
+    private static double[] standardize(double[] values) {
+        int n = values.length;
+        double mean = 0;
+        for (double value : values) {
+            mean += value;
+        }
+        mean /= Math.max(n, 1);
+
+        double[] centered = new double[n];
+        double sumSquares = 0;
+        for (int i = 0; i < n; i++) {
+            centered[i] = values[i] - mean;
+            sumSquares += centered[i] * centered[i];
+        }
+        if (sumSquares == 0) {
+            // Constant series: correlation is undefined, report 0
+            return new double[n];
+        }
+        double norm = Math.sqrt(sumSquares);
+        for (int i = 0; i < n; i++) {
+            centered[i] /= norm;
+        }
+        return centered;
+    }
+
+    private static double dot(double[] x, double[] y) {
+        double sum = 0;
+        for (int i = 0; i < x.length; i++) {
+            sum += x[i] * y[i];
+        }
+        // Rounding can push perfectly correlated series just past 1
+        return Math.max(-1, Math.min(1, sum));
+    }
+
+    private static boolean isZero(double[] values) {
+        for (double value : values) {
+            if (value != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void requireSameLength(double[] x, double[] y) {
+        if (x.length != y.length) {
+            throw new IllegalArgumentException("Series lengths differ: " + x.length + " vs " + y.length);
+        }
+    }
+}
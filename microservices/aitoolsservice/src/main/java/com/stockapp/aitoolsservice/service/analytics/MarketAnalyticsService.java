@@ -0,0 +1,167 @@
+package com.stockapp.aitoolsservice.service.analytics;
+
+import com.stockapp.aitoolsservice.config.ApplicationProperties;
+import com.stockapp.aitoolsservice.service.ai.GeminiClientService.StockData;
+import com.stockapp.aitoolsservice.service.client.StockServiceClient;
+import com.stockapp.aitoolsservice.service.client.StockServiceClient.HistoricalPriceResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Numeric market analytics computed locally: top movers from a quote snapshot and rolling
+ * correlation matrices of daily log returns from stockservice history. AI prompts only narrate
+ * these numbers.
+ */
+@Service
+public class MarketAnalyticsService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MarketAnalyticsService.class);
+
+    private static final int HISTORY_CONCURRENCY = 4;
+
+    /** Extra days requested so that symbols with a few missing sessions still cover the window. */
+    private static final int HISTORY_SLACK = 10;
+
+    private final StockServiceClient stockServiceClient;
+    private final int window;
+    private final int minObservations;
+
+    public MarketAnalyticsService(StockServiceClient stockServiceClient, ApplicationProperties properties) {
+        this.stockServiceClient = stockServiceClient;
+        this.window = properties.getAnalytics().getCorrelationWindow();
+        this.minObservations = properties.getAnalytics().getMinObservations();
+    }
+
+    /**
+     * Biggest gainers and losers of a snapshot.
+     *
+     * @param stocks the quote snapshot
+     * @param limit  maximum number of gainers and of losers
+     * @return gainers by descending change, losers by ascending change; unchanged stocks are in neither
+     */
+    public Movers movers(List<StockData> stocks, int limit) {
+        List<StockData> gainers = stocks.stream()
+                .filter(stock -> stock.percentChange() > 0)
+                .sorted(Comparator.comparingDouble(StockData::percentChange).reversed())
+                .limit(limit)
+                .toList();
+        List<StockData> losers = stocks.stream()
+                .filter(stock -> stock.percentChange() < 0)
+                .sorted(Comparator.comparingDouble(StockData::percentChange))
+                .limit(limit)
+                .toList();
+        return new Movers(gainers, losers);
+    }
+
+    /**
+     * Pearson and Spearman correlation of daily log returns over the last
+     * {@code application.analytics.correlation-window} sessions the symbols have in common.
+     *
+     * @param symbols the symbols to correlate
+     * @return the matrices, or empty when fewer than two symbols have enough history
+     */
+    public Mono<CorrelationMatrix> correlations(List<String> symbols) {
+        return Flux.fromIterable(symbols)
+                .flatMap(symbol -> stockServiceClient.getHistoricalPrices(symbol, window + 1 + HISTORY_SLACK)
+                        .filter(price -> price.datetime() != null && price.close() != null && price.close() > 0)
+                        .collectMap(HistoricalPriceResponse::datetime, HistoricalPriceResponse::close)
+                        .map(closes -> Map.entry(symbol, closes)), HISTORY_CONCURRENCY)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                // Large universes fill the matrix on a fork-join pool, keep that off the event loop
+                .publishOn(Schedulers.boundedElastic())
+                .flatMap(history -> Mono.justOrEmpty(compute(symbols, history)));
+    }
+
+    CorrelationMatrix compute(List<String> requested, Map<String, Map<String, Double>> history) {
+        List<String> symbols = new ArrayList<>();
+        for (String symbol : requested) {
+            Map<String, Double> closes = history.get(symbol);
+            if (closes != null && closes.size() > minObservations) {
+                symbols.add(symbol);
+            } else {
+                LOG.debug("Not enough history to correlate {}", symbol);
+            }
+        }
+        if (symbols.size() < 2) {
+            return null;
+        }
+
+        // Sessions every symbol traded, most recent window + 1 of them
+        TreeSet<String> common = new TreeSet<>(history.get(symbols.get(0)).keySet());
+        for (String symbol : symbols) {
+            common.retainAll(history.get(symbol).keySet());
+        }
+        List<String> dates = new ArrayList<>(common);
+        dates = dates.subList(Math.max(0, dates.size() - window - 1), dates.size());
+        if (dates.size() <= minObservations) {
+            LOG.debug("Only {} common sessions for {}", dates.size(), symbols);
+            return null;
+        }
+
+        double[][] returns = new double[symbols.size()][];
+        for (int i = 0; i < symbols.size(); i++) {
+            Map<String, Double> closes = history.get(symbols.get(i));
+            double[] prices = new double[dates.size()];
+            for (int d = 0; d < prices.length; d++) {
+                prices[d] = closes.get(dates.get(d));
+            }
+            returns[i] = Correlation.logReturns(prices);
+        }
+        return new CorrelationMatrix(List.copyOf(symbols), Correlation.pearsonMatrix(returns),
+                Correlation.spearmanMatrix(returns), dates.size() - 1);
+    }
+
+    public record Movers(List<StockData> gainers, List<StockData> losers) {
+    }
+
+    public record PairCorrelation(String first, String second, double pearson, double spearman) {
+    }
+
+    public record CorrelationMatrix(List<String> symbols, double[][] pearson, double[][] spearman, int observations) {
+
+        /**
+         * Every pair once, most correlated (Pearson) first.
+         */
+        public List<PairCorrelation> pairs() {
+            List<PairCorrelation> pairs = new ArrayList<>(symbols.size() * (symbols.size() - 1) / 2);
+            for (int i = 0; i < symbols.size(); i++) {
+                for (int j = i + 1; j < symbols.size(); j++) {
+                    pairs.add(new PairCorrelation(symbols.get(i), symbols.get(j), pearson[i][j], spearman[i][j]));
+                }
+            }
+            pairs.sort(Comparator.comparingDouble(PairCorrelation::pearson).reversed());
+            return pairs;
+        }
+
+        /**
+         * Symbols by descending mean Pearson correlation to the others, i.e. the ones that best
+         * represent how the group moves.
+         */
+        public List<String> leaders() {
+            Map<String, Double> meanCorrelation = new HashMap<>();
+            for (int i = 0; i < symbols.size(); i++) {
+                double sum = 0;
+                for (int j = 0; j < symbols.size(); j++) {
+                    if (i != j) {
+                        sum += pearson[i][j];
+                    }
+                }
+                meanCorrelation.put(symbols.get(i), sum / (symbols.size() - 1));
+            }
+            return symbols.stream()
+                    .sorted(Comparator.comparing(meanCorrelation::get, Comparator.reverseOrder()))
+                    .toList();
+        }
+    }
+}
@@ -34,13 +34,13 @@ public class FinnhubClient {
      * Fetch real-time quote for a stock symbol from Finnhub
      * 
      * @param symbol Stock symbol (e.g., AAPL, NVDA, MSFT)
-     * @return Mono of FinnhubQuoteResponse
+     * @return Mono of FinnhubQuoteResponse, an error when Finnhub could not be asked (no API key,
+     *         timeout, rate limited after retries, server error)
      */
     public Mono<FinnhubQuoteResponse> getQuote(String symbol) {
         String apiKey = properties.getFinnhub().getApiKey();
         if (apiKey == null || apiKey.isBlank()) {
-            LOG.warn("Finnhub API key not configured, skipping quote fetch for {}", symbol);
-            return Mono.empty();
+            return Mono.error(new IllegalStateException("Finnhub API key not configured"));
         }
 
         LOG.debug("Fetching quote from Finnhub for symbol: {}", symbol);
@@ -64,8 +64,7 @@ public class FinnhubClient {
                         LOG.warn("Empty or invalid response from Finnhub for {}", symbol);
                     }
                 })
-                .doOnError(error -> LOG.error("Error fetching Finnhub quote for {}: {}", symbol, error.getMessage()))
-                .onErrorResume(e -> Mono.empty());
+                .doOnError(error -> LOG.error("Error fetching Finnhub quote for {}: {}", symbol, error.getMessage()));
     }
 
     /**
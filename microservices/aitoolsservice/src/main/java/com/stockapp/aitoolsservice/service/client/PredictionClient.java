@@ -0,0 +1,170 @@
+package com.stockapp.aitoolsservice.service.client;
+
+import com.stockapp.aitoolsservice.config.ApplicationProperties;
+import com.stockapp.aitoolsservice.service.client.StockServiceClient.PredictionResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Client for Prophet recommendations from aiservice.
+ * <p>
+ * Predictions only change once a day, so they are kept per symbol and served locally. The
+ * configured symbols and recently requested watchlist symbols are re-fetched every
+ * {@code application.ai-service.prediction-refresh-interval} in one
+ * {@code POST /api/recommendation/batch} call; a lookup only goes to aiservice for symbols that
+ * are not cached or older than {@code prediction-ttl}, again in a single batch. If aiservice
+ * fails, the last known prediction is served.
+ */
+@Service
+public class PredictionClient {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PredictionClient.class);
+
+    public static final String CACHE_METER_NAME = "ai.predictions.cache";
+
+    /** {@code prediction} is null when aiservice could not predict the symbol. */
+    private record CachedPrediction(PredictionResponse prediction, long fetchedAt) {
+    }
+
+    private record BatchRequest(Collection<String> symbols) {
+    }
+
+    private final WebClient webClient;
+    private final ApplicationProperties properties;
+    private final Clock clock;
+    private final long ttlMillis;
+    private final long idleTimeoutMillis;
+
+    private final Map<String, CachedPrediction> predictions = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastRequested = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public PredictionClient(ApplicationProperties properties, MeterRegistry registry) {
+        this(properties, registry, pooledWebClient(properties.getAiService()), Clock.systemUTC());
+    }
+
+    PredictionClient(ApplicationProperties properties, MeterRegistry registry, WebClient webClient, Clock clock) {
+        this.webClient = webClient;
+        this.properties = properties;
+        this.clock = clock;
+        this.ttlMillis = properties.getAiService().getPredictionTtl().toMillis();
+        this.idleTimeoutMillis = properties.getAiService().getPredictionIdleTimeout().toMillis();
+        this.hits = Counter.builder(CACHE_METER_NAME).tag("result", "hit").register(registry);
+        this.misses = Counter.builder(CACHE_METER_NAME).tag("result", "miss").register(registry);
+    }
+
+    private static WebClient pooledWebClient(ApplicationProperties.AiService aiService) {
+        ConnectionProvider provider = ConnectionProvider.builder("aiservice")
+                .maxConnections(aiService.getMaxConnections())
+                .maxIdleTime(Duration.ofSeconds(30))
+                .evictInBackground(Duration.ofSeconds(30))
+                .build();
+        return WebClient.builder()
+                .baseUrl(aiService.getUrl())
+                .clientConnector(new ReactorClientHttpConnector(
+                        HttpClient.create(provider).responseTimeout(aiService.getResponseTimeout())))
+                .build();
+    }
+
+    /**
+     * Latest prediction of each symbol.
+     *
+     * @param symbols the symbols to look up
+     * @return predictions by symbol; symbols aiservice has no prediction for are left out
+     */
+    public Mono<Map<String, PredictionResponse>> getPredictions(Collection<String> symbols) {
+        long now = clock.millis();
+        Map<String, PredictionResponse> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        Set<String> requested = new LinkedHashSet<>(symbols);
+        for (String symbol : requested) {
+            lastRequested.put(symbol, now);
+            CachedPrediction cached = predictions.get(symbol);
+            if (cached == null || now - cached.fetchedAt() >= ttlMillis) {
+                missing.add(symbol);
+            } else if (cached.prediction() != null) {
+                found.put(symbol, cached.prediction());
+            }
+        }
+        hits.increment(requested.size() - missing.size());
+        if (missing.isEmpty()) {
+            return Mono.just(found);
+        }
+
+        misses.increment(missing.size());
+        return fetch(missing).map(fetched -> {
+            for (String symbol : missing) {
+                PredictionResponse prediction = fetched.get(symbol);
+                CachedPrediction stale = predictions.get(symbol);
+                if (prediction != null) {
+                    found.put(symbol, prediction);
+                } else if (stale != null && stale.prediction() != null) {
+                    found.put(symbol, stale.prediction());
+                }
+            }
+            return found;
+        });
+    }
+
+    /**
+     * Re-fetch the configured symbols and those requested within {@code prediction-idle-timeout}
+     * in one batch; forget the others.
+     */
+    @Scheduled(fixedDelayString = "${application.ai-service.prediction-refresh-interval:PT30M}")
+    public void refresh() {
+        long now = clock.millis();
+        lastRequested.values().removeIf(requestedAt -> now - requestedAt >= idleTimeoutMillis);
+        Set<String> symbols = new LinkedHashSet<>(properties.getSymbols());
+        symbols.addAll(lastRequested.keySet());
+        predictions.keySet().retainAll(symbols);
+        if (symbols.isEmpty()) {
+            return;
+        }
+        fetch(List.copyOf(symbols))
+                .subscribe(fetched -> LOG.info("Refreshed Prophet predictions for {}/{} symbols", fetched.size(), symbols.size()));
+    }
+
+    private Mono<Map<String, PredictionResponse>> fetch(List<String> symbols) {
+        LOG.debug("Fetching Prophet predictions for {}", symbols);
+        return webClient.post()
+                .uri("/api/recommendation/batch")
+                .bodyValue(new BatchRequest(symbols))
+                .retrieve()
+                .bodyToFlux(PredictionResponse.class)
+                .filter(prediction -> prediction.symbol() != null)
+                .collectMap(PredictionResponse::symbol)
+                .doOnNext(fetched -> {
+                    long fetchedAt = clock.millis();
+                    // Symbols left out could not be predicted, remember that instead of asking again on every read
+                    symbols.forEach(symbol -> predictions.put(symbol, new CachedPrediction(fetched.get(symbol), fetchedAt)));
+                })
+                .onErrorResume(e -> {
+                    LOG.warn("Failed to get Prophet predictions for {}: {}", symbols, e.getMessage());
+                    return Mono.just(Map.of());
+                });
+    }
+}
@@ -3,6 +3,7 @@ package com.stockapp.aitoolsservice.service.client;
 import com.fasterxml.jackson.annotation.JsonAlias;
 import com.stockapp.aitoolsservice.config.ApplicationProperties;
 import com.stockapp.aitoolsservice.service.ai.GeminiClientService.StockData;
+import com.stockapp.aitoolsservice.service.marketdata.MarketDataSnapshotService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -10,10 +11,8 @@ import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.time.Duration;
-
 /**
- * Client to fetch stock data from stockservice and Finnhub
+ * Client to fetch stock data from stockservice and the local market-data snapshot
  */
 @Service
 public class StockServiceClient {
@@ -22,56 +21,33 @@ public class StockServiceClient {
 
         private final WebClient webClient;
         private final ApplicationProperties properties;
-        private final FinnhubClient finnhubClient;
+        private final MarketDataSnapshotService marketDataSnapshotService;
+        private final PredictionClient predictionClient;
 
-        public StockServiceClient(ApplicationProperties properties, FinnhubClient finnhubClient) {
+        public StockServiceClient(ApplicationProperties properties, MarketDataSnapshotService marketDataSnapshotService,
+                        PredictionClient predictionClient) {
                 this.properties = properties;
-                this.finnhubClient = finnhubClient;
+                this.marketDataSnapshotService = marketDataSnapshotService;
+                this.predictionClient = predictionClient;
                 this.webClient = WebClient.builder()
                                 .baseUrl(properties.getStockService().getUrl())
                                 .build();
         }
 
         /**
-         * Get quote for a symbol using Finnhub API for real-time data
+         * Get quote for a symbol from the local market-data snapshot (real-time Finnhub data
+         * refreshed in the background)
          */
         public Mono<QuoteResponse> getQuote(String symbol) {
-                return finnhubClient.getQuote(symbol)
-                                .filter(FinnhubClient.FinnhubQuoteResponse::isValid)
-                                .map(finnhubQuote -> new QuoteResponse(
-                                                symbol,
-                                                null, // name not available from Finnhub quote
-                                                finnhubQuote.o(),
-                                                finnhubQuote.h(),
-                                                finnhubQuote.l(),
-                                                finnhubQuote.c(),
-                                                null, // volume not available from Finnhub quote endpoint
-                                                finnhubQuote.pc(),
-                                                finnhubQuote.d(),
-                                                finnhubQuote.dp()))
-                                .doOnSuccess(quote -> {
-                                        if (quote != null) {
-                                                LOG.info("Got Finnhub quote for {}: ${}",
-                                                                symbol, quote.close());
-                                        }
-                                })
-                                .doOnError(e -> LOG.warn("Failed to get Finnhub quote for {}: {}",
-                                                symbol, e.getMessage()))
-                                .onErrorResume(e -> Mono.empty());
+                return marketDataSnapshotService.getQuote(symbol);
         }
 
         /**
          * Get all quotes for configured symbols
          */
         public Flux<StockData> getAllQuotes() {
-                return Flux.fromIterable(properties.getSymbols())
-                                .flatMap(symbol -> getQuote(symbol)
-                                                .map(quote -> new StockData(
-                                                                symbol,
-                                                                quote.close() != null ? quote.close() : 0.0,
-                                                                quote.percentChange() != null ? quote.percentChange()
-                                                                                : 0.0,
-                                                                quote.volume() != null ? quote.volume() : 0L)));
+                return getStockDataForSymbols(properties.getSymbols())
+                                .flatMapMany(Flux::fromIterable);
         }
 
         /**
@@ -85,19 +61,15 @@ public class StockServiceClient {
          * Get stock data for specific symbols (watchlist)
          */
         public Mono<java.util.List<StockData>> getStockDataForSymbols(java.util.List<String> symbols) {
-                return Flux.fromIterable(symbols)
-                                .flatMap(symbol -> getQuote(symbol)
+                return marketDataSnapshotService.getQuotes(symbols)
+                                .map(quotes -> quotes.stream()
                                                 .map(quote -> new StockData(
-                                                                symbol,
+                                                                quote.symbol(),
                                                                 quote.close() != null ? quote.close() : 0.0,
                                                                 quote.percentChange() != null ? quote.percentChange()
                                                                                 : 0.0,
-                                                                quote.volume() != null ? quote.volume() : 0L)))
-                                .collectList()
-                                .map(list -> {
-                                        LOG.info("Fetched data for {} watchlist symbols", list.size());
-                                        return list;
-                                });
+                                                                quote.volume() != null ? quote.volume() : 0L))
+                                                .toList());
         }
 
         /**
@@ -127,25 +99,18 @@ public class StockServiceClient {
         }
 
         /**
-         * Get AI predictions for a symbol (from existing aiservice Prophet model)
+         * Get AI predictions for a symbol (from existing aiservice Prophet model, cached by
+         * {@link PredictionClient})
          */
         public Mono<PredictionResponse> getPrediction(String symbol) {
-                return WebClient.create("http://aiservice:8086")
-                                .get()
-                                .uri("/api/recommendation/{symbol}", symbol)
-                                .retrieve()
-                                .bodyToMono(PredictionResponse.class)
-                                .timeout(Duration.ofSeconds(60))
+                return predictionClient.getPredictions(java.util.List.of(symbol))
+                                .mapNotNull(predictions -> predictions.get(symbol))
                                 .doOnSuccess(p -> {
                                         if (p != null) {
-                                                LOG.info("Got Prophet prediction for {}: {} (buy={}, sell={}, hold={})",
+                                                LOG.debug("Got Prophet prediction for {}: {} (buy={}, sell={}, hold={})",
                                                                 symbol, p.recommendation(), p.buy(), p.sell(),
                                                                 p.hold());
                                         }
-                                })
-                                .onErrorResume(e -> {
-                                        LOG.warn("Failed to get Prophet prediction for {}: {}", symbol, e.getMessage());
-                                        return Mono.empty();
                                 });
         }
 
@@ -153,10 +118,7 @@ public class StockServiceClient {
          * Get AI predictions for all configured symbols
          */
         public Mono<java.util.Map<String, PredictionResponse>> getAllPredictions() {
-                return Flux.fromIterable(properties.getSymbols())
-                                .flatMap(symbol -> getPrediction(symbol)
-                                                .map(pred -> java.util.Map.entry(symbol, pred)), 3)
-                                .collectMap(java.util.Map.Entry::getKey, java.util.Map.Entry::getValue)
+                return predictionClient.getPredictions(properties.getSymbols())
                                 .doOnSuccess(map -> {
                                         if (map.isEmpty()) {
                                                 LOG.warn("Prophet predictions map is EMPTY — override will be skipped!");
@@ -172,10 +134,7 @@ public class StockServiceClient {
          */
         public Mono<java.util.Map<String, PredictionResponse>> getPredictionsForSymbols(
                         java.util.List<String> symbols) {
-                return Flux.fromIterable(symbols)
-                                .flatMap(symbol -> getPrediction(symbol)
-                                                .map(pred -> java.util.Map.entry(symbol, pred)), 3)
-                                .collectMap(java.util.Map.Entry::getKey, java.util.Map.Entry::getValue)
+                return predictionClient.getPredictions(symbols)
                                 .doOnSuccess(map -> {
                                         if (map.isEmpty()) {
                                                 LOG.warn("Prophet predictions map is EMPTY for watchlist — override will be skipped!");
@@ -2,8 +2,11 @@ package com.stockapp.aitoolsservice.service.kafka;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockapp.aitoolsservice.config.ApplicationProperties;
 import com.stockapp.aitoolsservice.service.ai.GeminiClientService;
 import com.stockapp.aitoolsservice.service.ai.GeminiClientService.StockData;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.stream.function.StreamBridge;
@@ -13,9 +16,7 @@ import org.springframework.messaging.Message;
 import org.springframework.messaging.support.MessageBuilder;
 import reactor.core.publisher.Mono;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Consumer;
 
 /**
@@ -26,41 +27,43 @@ import java.util.function.Consumer;
 public class StockAlertKafkaService {
 
     private static final Logger LOG = LoggerFactory.getLogger(StockAlertKafkaService.class);
-    private static final int BATCH_SIZE = 7;
 
     private final GeminiClientService geminiClientService;
     private final StreamBridge streamBridge;
     private final ObjectMapper objectMapper;
 
-    // Buffer for batching stock updates
-    private final ConcurrentLinkedQueue<StockData> stockBuffer = new ConcurrentLinkedQueue<>();
+    // Size-or-time batches of stock updates, coalesced per symbol
+    private final StockUpdateBatcher batcher;
 
     public StockAlertKafkaService(
             GeminiClientService geminiClientService,
             StreamBridge streamBridge,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            ApplicationProperties applicationProperties,
+            MeterRegistry meterRegistry) {
         this.geminiClientService = geminiClientService;
         this.streamBridge = streamBridge;
         this.objectMapper = objectMapper;
+        this.batcher = new StockUpdateBatcher(applicationProperties.getAlerts(), meterRegistry, this::processBatch);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batcher.dispose();
     }
 
     /**
      * Kafka consumer for stock-updates topic
-     * Buffers messages and triggers batch analysis with Gemini
+     * Hands messages to the batcher, which triggers batch analysis with Gemini; blocks while
+     * the batcher is full so the binder stops polling
      */
     @Bean
     public Consumer<String> stockUpdatesConsumer() {
         return message -> {
             try {
                 StockData stockData = parseStockUpdate(message);
-                if (stockData != null) {
-                    stockBuffer.add(stockData);
+                if (stockData != null && batcher.offer(stockData)) {
                     LOG.debug("Buffered stock update: {}", stockData.symbol());
-
-                    // Process batch when buffer reaches threshold
-                    if (stockBuffer.size() >= BATCH_SIZE) {
-                        processBatch();
-                    }
                 }
             } catch (Exception e) {
                 LOG.error("Error processing stock update: {}", e.getMessage());
@@ -69,30 +72,11 @@ public class StockAlertKafkaService {
     }
 
     /**
-     * Process buffered stocks with Gemini for anomaly detection
+     * Analyse one batch of stocks with Gemini for anomaly detection
      */
-    private void processBatch() {
-        List<StockData> batch = new ArrayList<>();
-        while (!stockBuffer.isEmpty() && batch.size() < BATCH_SIZE) {
-            StockData data = stockBuffer.poll();
-            if (data != null) {
-                batch.add(data);
-            }
-        }
-
-        if (batch.isEmpty())
-            return;
-
-        LOG.info("Processing batch of {} stocks for alert analysis", batch.size());
-
-        geminiClientService.analyzeStockAlerts(batch)
-                .doOnNext(alerts -> {
-                    if (!alerts.isEmpty()) {
-                        alerts.forEach(this::publishAlert);
-                    }
-                })
-                .doOnError(e -> LOG.error("Error analyzing alerts: {}", e.getMessage()))
-                .subscribe();
+    private Mono<List<GeminiClientService.AlertResponse>> processBatch(List<StockData> batch) {
+        return geminiClientService.analyzeStockAlerts(batch)
+                .doOnNext(alerts -> alerts.forEach(this::publishAlert));
     }
 
     /**
@@ -115,13 +99,6 @@ public class StockAlertKafkaService {
         }
     }
 
-    /**
-     * Manual trigger for batch processing (testing)
-     */
-    public void triggerBatchProcess() {
-        processBatch();
-    }
-
     /**
      * Parse stock update message from Kafka
      */
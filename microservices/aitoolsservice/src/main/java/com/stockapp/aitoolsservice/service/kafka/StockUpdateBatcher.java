@@ -0,0 +1,128 @@
+package com.stockapp.aitoolsservice.service.kafka;
+
+import com.stockapp.aitoolsservice.config.ApplicationProperties;
+import com.stockapp.aitoolsservice.service.ai.GeminiClientService.StockData;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Groups stock updates into batches for alert analysis.
+ * <p>
+ * A batch is closed when {@code application.alerts.batch-size} updates arrived or
+ * {@code batch-window} elapsed since its first update, whichever comes first. Within a batch only
+ * the latest update of each symbol is kept. At most {@code max-in-flight} batches are analysed at
+ * once; while they run, updates wait in a buffer of {@code buffer-capacity}. When that buffer is
+ * full {@link #offer(StockData)} blocks the calling Kafka consumer thread, so the binder stops
+ * polling, and only drops the update after {@code offer-timeout}.
+ */
+class StockUpdateBatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StockUpdateBatcher.class);
+
+    static final String UPDATES_METER_NAME = "ai.alerts.updates";
+    static final String BATCH_SIZE_METER_NAME = "ai.alerts.batch.size";
+    static final String BATCH_LATENCY_METER_NAME = "ai.alerts.batch.latency";
+
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private record Pending(StockData data, long receivedAt) {
+    }
+
+    private final Sinks.Many<Pending> sink;
+    private final Disposable subscription;
+    private final long offerTimeoutNanos;
+
+    private final Counter received;
+    private final Counter coalesced;
+    private final Counter dropped;
+    private final DistributionSummary batchSize;
+    private final Timer batchLatency;
+
+    /**
+     * @param analyzer analyses one batch of distinct symbols; errors are logged and the batch is
+     *                 skipped
+     */
+    StockUpdateBatcher(ApplicationProperties.Alerts alerts, MeterRegistry registry, Function<List<StockData>, Mono<?>> analyzer) {
+        this.offerTimeoutNanos = alerts.getOfferTimeout().toNanos();
+        this.received = Counter.builder(UPDATES_METER_NAME).tag("result", "received").register(registry);
+        this.coalesced = Counter.builder(UPDATES_METER_NAME).tag("result", "coalesced").register(registry);
+        this.dropped = Counter.builder(UPDATES_METER_NAME).tag("result", "dropped").register(registry);
+        this.batchSize = DistributionSummary.builder(BATCH_SIZE_METER_NAME).register(registry);
+        // From the oldest update of a batch arriving to its analysis completing
+        this.batchLatency = Timer.builder(BATCH_LATENCY_METER_NAME).register(registry);
+
+        this.sink = Sinks.many().unicast().onBackpressureBuffer(Queues.<Pending>get(alerts.getBufferCapacity()).get());
+        this.subscription = sink.asFlux()
+                // fair backpressure: only collect the next batch when an analysis slot is free
+                .bufferTimeout(alerts.getBatchSize(), alerts.getBatchWindow(), true)
+                .flatMap(buffer -> analyze(buffer, analyzer), alerts.getMaxInFlight(), 1)
+                .subscribe();
+    }
+
+    /**
+     * Queue an update for the next batch, waiting up to {@code offer-timeout} for buffer space.
+     *
+     * @return false when the update was dropped
+     */
+    boolean offer(StockData data) {
+        received.increment();
+        Pending pending = new Pending(data, System.nanoTime());
+        long deadline = pending.receivedAt() + offerTimeoutNanos;
+        while (true) {
+            Sinks.EmitResult result = sink.tryEmitNext(pending);
+            if (result.isSuccess()) {
+                return true;
+            }
+            boolean retryable = result == Sinks.EmitResult.FAIL_OVERFLOW || result == Sinks.EmitResult.FAIL_NON_SERIALIZED;
+            if (!retryable || System.nanoTime() - deadline >= 0) {
+                dropped.increment();
+                LOG.warn("Dropped stock update for {}: {}", data.symbol(), result);
+                return false;
+            }
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+
+    void dispose() {
+        sink.tryEmitComplete();
+        subscription.dispose();
+    }
+
+    private Mono<Void> analyze(List<Pending> buffer, Function<List<StockData>, Mono<?>> analyzer) {
+        // Last value wins, in the order symbols first appeared
+        Map<String, StockData> latest = new LinkedHashMap<>();
+        long oldest = buffer.get(0).receivedAt();
+        for (Pending pending : buffer) {
+            latest.put(pending.data().symbol(), pending.data());
+            oldest = Math.min(oldest, pending.receivedAt());
+        }
+        coalesced.increment(buffer.size() - latest.size());
+        batchSize.record(latest.size());
+        List<StockData> batch = new ArrayList<>(latest.values());
+        long batchStart = oldest;
+
+        LOG.info("Processing batch of {} stocks for alert analysis", batch.size());
+        return Mono.defer(() -> analyzer.apply(batch))
+                .doOnError(e -> LOG.error("Error analyzing alerts: {}", e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .doFinally(signal -> batchLatency.record(Duration.ofNanos(System.nanoTime() - batchStart)))
+                .then();
+    }
+}
@@ -1,6 +1,5 @@
 package com.stockapp.aitoolsservice.service.mapper;
 
-import com.stockapp.aitoolsservice.domain.DailyMarketInsight;
 import com.stockapp.aitoolsservice.domain.IndustryAnalysis;
 import com.stockapp.aitoolsservice.service.dto.DailyMarketInsightDTO;
 import com.stockapp.aitoolsservice.service.dto.IndustryAnalysisDTO;
@@ -11,12 +10,16 @@ import org.mapstruct.*;
  */
 @Mapper(componentModel = "spring")
 public interface IndustryAnalysisMapper extends EntityMapper<IndustryAnalysisDTO, IndustryAnalysis> {
-    @Mapping(target = "dailyInsight", source = "dailyInsight", qualifiedByName = "dailyMarketInsightReportDate")
+    @Mapping(target = "dailyInsight", source = "dailyInsightId", qualifiedByName = "dailyMarketInsightId")
     IndustryAnalysisDTO toDto(IndustryAnalysis s);
 
-    @Named("dailyMarketInsightReportDate")
-    @BeanMapping(ignoreByDefault = true)
-    @Mapping(target = "id", source = "id")
-    @Mapping(target = "reportDate", source = "reportDate")
-    DailyMarketInsightDTO toDtoDailyMarketInsightReportDate(DailyMarketInsight dailyMarketInsight);
+    @Named("dailyMarketInsightId")
+    default DailyMarketInsightDTO toDtoDailyMarketInsightId(String dailyInsightId) {
+        if (dailyInsightId == null) {
+            return null;
+        }
+        DailyMarketInsightDTO dailyMarketInsightDTO = new DailyMarketInsightDTO();
+        dailyMarketInsightDTO.setId(dailyInsightId);
+        return dailyMarketInsightDTO;
+    }
 }
@@ -0,0 +1,208 @@
+package com.stockapp.aitoolsservice.service.marketdata;
+
+import com.stockapp.aitoolsservice.config.ApplicationProperties;
+import com.stockapp.aitoolsservice.service.client.FinnhubClient;
+import com.stockapp.aitoolsservice.service.client.StockServiceClient.QuoteResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory quote snapshot that AI prompts read market data from.
+ * <p>
+ * A background job re-fetches the configured symbols and the watchlist symbols requested within
+ * {@code application.market-data.idle-timeout} every {@code refresh-interval}, so Finnhub sees a
+ * fixed number of calls per interval however many users ask questions. Only the {@code max-symbols}
+ * most recently requested symbols are refreshed. Only a symbol that has never been seen is fetched on
+ * the request path (once, shared by concurrent requests); a symbol Finnhub answers without a valid
+ * quote is then answered as unknown for {@code unknown-symbol-ttl}, while a failed call is not. All calls share a budget of
+ * {@code calls-per-minute}, calls beyond it are skipped. When a refresh fails the last good quote is kept.
+ */
+@Service
+public class MarketDataSnapshotService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MarketDataSnapshotService.class);
+
+    public static final String LOOKUP_METER_NAME = "ai.market-data.lookups";
+
+    /** Finnhub free tier allows 60 calls per minute, keep bursts small. */
+    private static final int FETCH_CONCURRENCY = 4;
+
+    private final FinnhubClient finnhubClient;
+    private final ApplicationProperties properties;
+    private final Clock clock;
+    private final long idleTimeoutMillis;
+    private final long unknownSymbolTtlMillis;
+
+    private final Map<String, QuoteResponse> quotes = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastRequested = new ConcurrentHashMap<>();
+    private final Map<String, Mono<QuoteResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Long> unknownUntil = new ConcurrentHashMap<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    // Finnhub calls made in the current minute, guarded by this
+    private long callWindow = -1;
+    private int callsInWindow;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter unknown;
+
+    @Autowired
+    public MarketDataSnapshotService(FinnhubClient finnhubClient, ApplicationProperties properties, MeterRegistry registry) {
+        this(finnhubClient, properties, registry, Clock.systemUTC());
+    }
+
+    MarketDataSnapshotService(FinnhubClient finnhubClient, ApplicationProperties properties, MeterRegistry registry, Clock clock) {
+        this.finnhubClient = finnhubClient;
+        this.properties = properties;
+        this.clock = clock;
+        this.idleTimeoutMillis = properties.getMarketData().getIdleTimeout().toMillis();
+        this.unknownSymbolTtlMillis = properties.getMarketData().getUnknownSymbolTtl().toMillis();
+        this.hits = Counter.builder(LOOKUP_METER_NAME).tag("result", "hit").register(registry);
+        this.misses = Counter.builder(LOOKUP_METER_NAME).tag("result", "miss").register(registry);
+        this.unknown = Counter.builder(LOOKUP_METER_NAME).tag("result", "unknown").register(registry);
+    }
+
+    /**
+     * Latest quote of a symbol.
+     *
+     * @return the quote, or empty when Finnhub has no valid quote for the symbol
+     */
+    public Mono<QuoteResponse> getQuote(String symbol) {
+        return getQuotes(List.of(symbol)).flatMap(found -> Mono.justOrEmpty(found.stream().findFirst()));
+    }
+
+    /**
+     * Latest quotes of several symbols.
+     *
+     * @return the quotes in the order of {@code symbols}, without symbols that have no valid quote
+     */
+    public Mono<List<QuoteResponse>> getQuotes(Collection<String> symbols) {
+        long now = clock.millis();
+        return Flux.fromIterable(new LinkedHashSet<>(symbols))
+                .flatMapSequential(symbol -> {
+                    QuoteResponse quote = quotes.get(symbol);
+                    if (quote != null) {
+                        lastRequested.put(symbol, now);
+                        hits.increment();
+                        return Mono.just(quote);
+                    }
+                    Long unknownExpiry = unknownUntil.get(symbol);
+                    if (unknownExpiry != null && unknownExpiry > now) {
+                        unknown.increment();
+                        return Mono.empty();
+                    }
+                    lastRequested.put(symbol, now);
+                    misses.increment();
+                    return inFlight.computeIfAbsent(symbol, key -> fetch(key)
+                            .doFinally(signal -> inFlight.remove(key))
+                            .cache());
+                }, FETCH_CONCURRENCY)
+                .collectList();
+    }
+
+    /**
+     * Re-fetch the configured symbols and the {@code max-symbols} most recently requested within
+     * {@code idle-timeout}; forget the others.
+     */
+    @Scheduled(fixedDelayString = "${application.market-data.refresh-interval:PT1M}")
+    public void refresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        long now = clock.millis();
+        lastRequested.values().removeIf(requestedAt -> now - requestedAt >= idleTimeoutMillis);
+        unknownUntil.values().removeIf(expiry -> expiry <= now);
+        Set<String> symbols = new LinkedHashSet<>(properties.getSymbols());
+        int maxSymbols = properties.getMarketData().getMaxSymbols();
+        List<String> mostRecentFirst = lastRequested.entrySet().stream()
+                .sorted(Entry.<String, Long>comparingByValue().reversed())
+                .map(Entry::getKey)
+                .toList();
+        for (String symbol : mostRecentFirst) {
+            if (symbols.size() < maxSymbols || symbols.contains(symbol)) {
+                symbols.add(symbol);
+            } else {
+                lastRequested.remove(symbol);
+            }
+        }
+        quotes.keySet().retainAll(symbols);
+
+        Flux.fromIterable(symbols)
+                .flatMap(this::fetch, FETCH_CONCURRENCY)
+                .count()
+                .doFinally(signal -> refreshing.set(false))
+                .subscribe(refreshed -> LOG.debug("Refreshed {}/{} quotes", refreshed, symbols.size()));
+    }
+
+    private Mono<QuoteResponse> fetch(String symbol) {
+        if (!tryAcquireCall()) {
+            LOG.debug("Finnhub call budget exhausted, skipping quote fetch for {}", symbol);
+            return Mono.empty();
+        }
+        return finnhubClient.getQuote(symbol)
+                .doOnNext(finnhubQuote -> {
+                    // Finnhub answered without a price: the symbol is unknown to it
+                    if (!finnhubQuote.isValid() && !quotes.containsKey(symbol)) {
+                        unknownUntil.put(symbol, clock.millis() + unknownSymbolTtlMillis);
+                        lastRequested.remove(symbol);
+                    }
+                })
+                .filter(FinnhubClient.FinnhubQuoteResponse::isValid)
+                .map(finnhubQuote -> new QuoteResponse(
+                        symbol,
+                        null, // name not available from Finnhub quote
+                        finnhubQuote.o(),
+                        finnhubQuote.h(),
+                        finnhubQuote.l(),
+                        finnhubQuote.c(),
+                        null, // volume not available from Finnhub quote endpoint
+                        finnhubQuote.pc(),
+                        finnhubQuote.d(),
+                        finnhubQuote.dp()))
+                .doOnNext(quote -> {
+                    quotes.put(symbol, quote);
+                    unknownUntil.remove(symbol);
+                })
+                .onErrorResume(e -> {
+                    // A failed call is not an answer about the symbol: keep the last good quote, retry on the next refresh
+                    LOG.warn("Failed to get Finnhub quote for {}: {}", symbol, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Take one call from the per-minute Finnhub budget.
+     *
+     * @return false when the budget of the current minute is used up
+     */
+    private synchronized boolean tryAcquireCall() {
+        long window = clock.millis() / 60_000;
+        if (window != callWindow) {
+            callWindow = window;
+            callsInWindow = 0;
+        }
+        if (callsInWindow >= properties.getMarketData().getCallsPerMinute()) {
+            return false;
+        }
+        callsInWindow++;
+        return true;
+    }
+}
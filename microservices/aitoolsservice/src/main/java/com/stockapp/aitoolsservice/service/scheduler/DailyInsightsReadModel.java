@@ -0,0 +1,115 @@
+package com.stockapp.aitoolsservice.service.scheduler;
+
+import com.stockapp.aitoolsservice.config.ApplicationProperties;
+import com.stockapp.aitoolsservice.domain.DailyMarketInsight;
+import com.stockapp.aitoolsservice.domain.IndustryAnalysis;
+import com.stockapp.aitoolsservice.repository.DailyMarketInsightRepository;
+import com.stockapp.aitoolsservice.repository.IndustryAnalysisRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Today's market insight and its sector analyses, kept in memory for
+ * {@code /insights/today} and {@code /industries/today}.
+ * <p>
+ * {@link DailyInsightsScheduler} publishes what it just stored; otherwise the stored documents are
+ * re-read once per {@code application.insights-cache.daily-reload-interval} (shared by concurrent
+ * requests), which also picks up insights generated by another instance.
+ */
+@Service
+public class DailyInsightsReadModel {
+
+    /** {@code insight} is null when none was generated yet for {@code date}. */
+    private record Today(LocalDate date, DailyMarketInsight insight, List<IndustryAnalysis> industries, long loadedAt) {
+    }
+
+    private final DailyMarketInsightRepository insightRepository;
+    private final IndustryAnalysisRepository industryRepository;
+    private final Clock clock;
+    private final long reloadMillis;
+
+    private final AtomicReference<Today> today = new AtomicReference<>();
+    private final Map<LocalDate, Mono<Today>> loading = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DailyInsightsReadModel(
+            DailyMarketInsightRepository insightRepository,
+            IndustryAnalysisRepository industryRepository,
+            ApplicationProperties properties) {
+        this(insightRepository, industryRepository, properties, Clock.systemDefaultZone());
+    }
+
+    DailyInsightsReadModel(
+            DailyMarketInsightRepository insightRepository,
+            IndustryAnalysisRepository industryRepository,
+            ApplicationProperties properties,
+            Clock clock) {
+        this.insightRepository = insightRepository;
+        this.industryRepository = industryRepository;
+        this.clock = clock;
+        this.reloadMillis = properties.getInsightsCache().getDailyReloadInterval().toMillis();
+    }
+
+    /**
+     * Latest insight generated today, empty if there is none yet.
+     */
+    public Mono<DailyMarketInsight> getTodayInsight() {
+        return today().flatMap(current -> Mono.justOrEmpty(current.insight()));
+    }
+
+    /**
+     * Sector analyses of today's latest insight.
+     */
+    public Flux<IndustryAnalysis> getTodayIndustries() {
+        return today().flatMapIterable(Today::industries);
+    }
+
+    /**
+     * Serve a freshly stored insight and its sector analyses without reading them back.
+     */
+    void publish(DailyMarketInsight insight, List<IndustryAnalysis> industries) {
+        today.set(new Today(insight.getReportDate(), insight, List.copyOf(industries), clock.millis()));
+    }
+
+    private Mono<Today> today() {
+        LocalDate date = LocalDate.now(clock);
+        Today current = today.get();
+        if (current != null && current.date().equals(date) && clock.millis() - current.loadedAt() < reloadMillis) {
+            return Mono.just(current);
+        }
+        return loading.computeIfAbsent(date, key -> load(key)
+                .doOnNext(today::set)
+                .doFinally(signal -> loading.remove(key))
+                .cache());
+    }
+
+    private Mono<Today> load(LocalDate date) {
+        long loadedAt = clock.millis();
+        return insightRepository.findFirstByReportDateOrderByCreatedAtDesc(date)
+                .flatMap(insight -> industryRepository.findByDailyInsightId(insight.getId())
+                        .collectList()
+                        .filter(industries -> !industries.isEmpty())
+                        .switchIfEmpty(industryRepository.findByReportDate(date).collectList().map(DailyInsightsReadModel::legacyOnly))
+                        .map(industries -> new Today(date, insight, industries, loadedAt)))
+                .switchIfEmpty(industryRepository.findByReportDate(date)
+                        .collectList()
+                        .map(industries -> new Today(date, null, industries, loadedAt)));
+    }
+
+    /**
+     * Sector analyses stored before they referenced their insight, only when that is all the date has:
+     * analyses of another run of the same day must not be served for an insight that has none.
+     */
+    private static List<IndustryAnalysis> legacyOnly(List<IndustryAnalysis> industries) {
+        return industries.stream().allMatch(industry -> industry.getDailyInsightId() == null) ? industries : List.of();
+    }
+}
@@ -1,5 +1,6 @@
 package com.stockapp.aitoolsservice.service.scheduler;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.stockapp.aitoolsservice.domain.DailyMarketInsight;
 import com.stockapp.aitoolsservice.domain.IndustryAnalysis;
 import com.stockapp.aitoolsservice.domain.enumeration.Sentiment;
@@ -8,11 +9,11 @@ import com.stockapp.aitoolsservice.repository.IndustryAnalysisRepository;
 import com.stockapp.aitoolsservice.service.ai.GeminiClientService;
 import com.stockapp.aitoolsservice.service.ai.GeminiClientService.StockData;
 import com.stockapp.aitoolsservice.service.client.StockServiceClient;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Instant;
@@ -32,16 +33,22 @@ public class DailyInsightsScheduler {
     private final GeminiClientService geminiClientService;
     private final DailyMarketInsightRepository insightRepository;
     private final IndustryAnalysisRepository industryRepository;
+    private final DailyInsightsReadModel readModel;
+    private final ObjectMapper objectMapper;
 
     public DailyInsightsScheduler(
             StockServiceClient stockServiceClient,
             GeminiClientService geminiClientService,
             DailyMarketInsightRepository insightRepository,
-            IndustryAnalysisRepository industryRepository) {
+            IndustryAnalysisRepository industryRepository,
+            DailyInsightsReadModel readModel,
+            ObjectMapper objectMapper) {
         this.stockServiceClient = stockServiceClient;
         this.geminiClientService = geminiClientService;
         this.insightRepository = insightRepository;
         this.industryRepository = industryRepository;
+        this.readModel = readModel;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -67,9 +74,11 @@ public class DailyInsightsScheduler {
     private Mono<DailyMarketInsight> saveInsights(List<StockData> stocks,
             GeminiClientService.MarketInsightsResponse response) {
         LocalDate today = LocalDate.now();
+        Instant now = Instant.now();
 
-        // Create main insight
+        // Create main insight; its id is assigned up front so sector analyses can reference it
         DailyMarketInsight insight = new DailyMarketInsight();
+        insight.setId(new ObjectId().toHexString());
         insight.setReportDate(today);
         insight.setMarketTrend(response.market_trend());
         insight.setSummaryTitle(response.summary_title());
@@ -78,35 +87,33 @@ public class DailyInsightsScheduler {
         // Convert highlights to JSON
         if (response.highlights() != null) {
             try {
-                insight.setHighlightsJson(new com.fasterxml.jackson.databind.ObjectMapper()
-                        .writeValueAsString(response.highlights()));
+                insight.setHighlightsJson(objectMapper.writeValueAsString(response.highlights()));
             } catch (Exception e) {
                 insight.setHighlightsJson("[]");
             }
         }
-        insight.setCreatedAt(Instant.now());
+        insight.setCreatedAt(now);
 
-        // Save insight first, then save industry analyses reactively
-        return insightRepository.save(insight)
-                .flatMap(savedInsight -> {
-                    if (response.sector_analysis() != null && !response.sector_analysis().isEmpty()) {
-                        return Flux.fromIterable(response.sector_analysis())
-                                .map(sector -> {
-                                    IndustryAnalysis industry = new IndustryAnalysis();
-                                    industry.setReportDate(today);
-                                    industry.setIndustryName(sector.industry());
-                                    industry.setSentiment(parseSentiment(sector.sentiment()));
-                                    industry.setSummary(sector.summary());
-                                    industry.setRelatedStocks(sector.stocks());
-                                    industry.setCreatedAt(Instant.now());
-                                    industry.setDailyInsight(savedInsight);
-                                    return industry;
-                                })
-                                .flatMap(industryRepository::save)
-                                .then(Mono.just(savedInsight));
-                    }
-                    return Mono.just(savedInsight);
-                });
+        List<IndustryAnalysis> industries = response.sector_analysis() == null
+                ? List.of()
+                : response.sector_analysis().stream()
+                        .map(sector -> new IndustryAnalysis()
+                                .reportDate(today)
+                                .industryName(sector.industry())
+                                .sentiment(parseSentiment(sector.sentiment()))
+                                .summary(sector.summary())
+                                .relatedStocks(sector.stocks())
+                                .createdAt(now)
+                                .dailyInsightId(insight.getId()))
+                        .toList();
+
+        // Insert the insight and all sector analyses (one bulk insert) in parallel
+        Mono<List<IndustryAnalysis>> savedIndustries = industries.isEmpty()
+                ? Mono.just(List.of())
+                : industryRepository.insert(industries).collectList();
+        return Mono.zip(insightRepository.insert(insight), savedIndustries)
+                .doOnNext(saved -> readModel.publish(saved.getT1(), saved.getT2()))
+                .map(saved -> saved.getT1());
     }
 
     private Sentiment parseSentiment(String sentiment) {
@@ -12,14 +12,18 @@ import com.stockapp.aitoolsservice.repository.StockResearchReportRepository;
 import com.stockapp.aitoolsservice.service.ai.GeminiClientService;
 import com.stockapp.aitoolsservice.service.ai.GeminiClientService.StockData;
 import com.stockapp.aitoolsservice.service.ai.InsightsAIService;
+import com.stockapp.aitoolsservice.service.ai.InsightsCacheService;
 import com.stockapp.aitoolsservice.service.ai.ResearchAIService;
 import com.stockapp.aitoolsservice.service.client.StockServiceClient;
+import com.stockapp.aitoolsservice.service.scheduler.DailyInsightsReadModel;
 import com.stockapp.aitoolsservice.service.scheduler.DailyInsightsScheduler;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
@@ -28,7 +32,6 @@ import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.time.Instant;
-import java.time.LocalDate;
 import java.util.UUID;
 
 /**
@@ -42,8 +45,10 @@ public class AIToolsPublicResource {
 
     private static final Logger LOG = LoggerFactory.getLogger(AIToolsPublicResource.class);
 
+    private static final String NO_MARKET_DATA_CONTEXT = "Không có dữ liệu thị trường hiện tại.";
+    private static final String AI_UNAVAILABLE_MESSAGE = "Xin lỗi, dịch vụ AI đang tạm thời không khả dụng. Vui lòng thử lại sau.";
+
     private final GeminiClientService geminiClientService;
-    private final InsightsAIService insightsAIService;
     private final ResearchAIService researchAIService;
     private final StockServiceClient stockServiceClient;
     private final StockResearchReportRepository researchReportRepository;
@@ -51,19 +56,21 @@ public class AIToolsPublicResource {
     private final DailyMarketInsightRepository insightRepository;
     private final IndustryAnalysisRepository industryAnalysisRepository;
     private final DailyInsightsScheduler dailyInsightsScheduler;
+    private final InsightsCacheService insightsCacheService;
+    private final DailyInsightsReadModel dailyInsightsReadModel;
 
     public AIToolsPublicResource(
             GeminiClientService geminiClientService,
-            InsightsAIService insightsAIService,
             ResearchAIService researchAIService,
             StockServiceClient stockServiceClient,
             StockResearchReportRepository researchReportRepository,
             ChatHistoryRepository chatHistoryRepository,
             DailyMarketInsightRepository insightRepository,
             IndustryAnalysisRepository industryAnalysisRepository,
-            DailyInsightsScheduler dailyInsightsScheduler) {
+            DailyInsightsScheduler dailyInsightsScheduler,
+            InsightsCacheService insightsCacheService,
+            DailyInsightsReadModel dailyInsightsReadModel) {
         this.geminiClientService = geminiClientService;
-        this.insightsAIService = insightsAIService;
         this.researchAIService = researchAIService;
         this.stockServiceClient = stockServiceClient;
         this.researchReportRepository = researchReportRepository;
@@ -71,6 +78,8 @@ public class AIToolsPublicResource {
         this.insightRepository = insightRepository;
         this.industryAnalysisRepository = industryAnalysisRepository;
         this.dailyInsightsScheduler = dailyInsightsScheduler;
+        this.insightsCacheService = insightsCacheService;
+        this.dailyInsightsReadModel = dailyInsightsReadModel;
     }
 
     // ========== FEATURE A: Market Insights (Public Read) ==========
@@ -82,7 +91,7 @@ public class AIToolsPublicResource {
     @Operation(summary = "Get today's market insights (public)")
     public Mono<ResponseEntity<DailyMarketInsight>> getTodayInsights() {
         LOG.info("Public request for today's market insights");
-        return insightRepository.findByReportDate(LocalDate.now())
+        return dailyInsightsReadModel.getTodayInsight()
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
@@ -116,7 +125,7 @@ public class AIToolsPublicResource {
     @Operation(summary = "Get today's industry analyses (public)")
     public Flux<IndustryAnalysis> getTodayIndustryAnalyses() {
         LOG.info("Public request for today's industry analyses");
-        return industryAnalysisRepository.findByReportDate(LocalDate.now());
+        return dailyInsightsReadModel.getTodayIndustries();
     }
 
     // ========== FEATURE B: Research Reports (Public Read) ==========
@@ -157,12 +166,12 @@ public class AIToolsPublicResource {
 
         LOG.info("Public chat request: {}", request.question());
 
-        // Build context from recent market data (with fallback if stock service
+        // Build context from the cached quote snapshot (with fallback if stock service
         // unavailable)
-        return stockServiceClient.getAllQuotes()
-                .collectList()
-                .map(this::buildContext)
-                .defaultIfEmpty("Không có dữ liệu thị trường hiện tại.")
+        return insightsCacheService.getQuotes()
+                .flatMap(stocks -> geminiClientService.buildMarketContext(stocks, request.question()))
+                .filter(context -> !context.isEmpty())
+                .defaultIfEmpty(NO_MARKET_DATA_CONTEXT)
                 .flatMap(context -> geminiClientService.chat(context, request.question())
                         .flatMap(response -> saveChatHistoryAsync(userId, sessionId, request.question(), response,
                                 context))
@@ -175,12 +184,50 @@ public class AIToolsPublicResource {
                             // Return a fallback response when Gemini is unavailable
                             Instant now = Instant.now();
                             return Mono.just(ResponseEntity.ok(new ChatResponse(
-                                    "Xin lỗi, dịch vụ AI đang tạm thời không khả dụng. Vui lòng thử lại sau.",
+                                    AI_UNAVAILABLE_MESSAGE,
                                     sessionId,
                                     now)));
                         }));
     }
 
+    /**
+     * POST /api/public/ai/chat/stream : Send a question to AI and receive the answer as
+     * Server-Sent Events while it is generated (for anonymous users).
+     * <p>
+     * Events: {@code session} (the session id), one {@code token} per text chunk, then
+     * {@code done}; {@code error} carries a fallback message if the AI fails. The exchange is
+     * saved to the chat history once the answer is complete, without delaying the stream.
+     */
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Ask AI a financial question, streaming the answer (public)")
+    public Flux<ServerSentEvent<String>> chatStream(@RequestBody ChatRequest request) {
+        String sessionId = request.sessionId() != null ? request.sessionId() : UUID.randomUUID().toString();
+        String userId = "anonymous";
+
+        LOG.info("Public streaming chat request: {}", request.question());
+
+        StringBuilder answer = new StringBuilder();
+        Flux<ServerSentEvent<String>> answerEvents = insightsCacheService.getQuotes()
+                .flatMap(stocks -> geminiClientService.buildMarketContext(stocks, request.question()))
+                .filter(context -> !context.isEmpty())
+                .defaultIfEmpty(NO_MARKET_DATA_CONTEXT)
+                .flatMapMany(context -> geminiClientService.streamChat(context, request.question())
+                        .doOnNext(answer::append)
+                        .map(token -> chatEvent("token", token))
+                        .doOnComplete(() -> {
+                            if (!answer.isEmpty()) {
+                                saveChatHistoryAsync(userId, sessionId, request.question(), answer.toString(), context)
+                                        .subscribe(null, e -> LOG.warn("Failed to save chat history: {}", e.getMessage()));
+                            }
+                        }))
+                .concatWith(Mono.fromSupplier(() -> chatEvent("done", sessionId)))
+                .onErrorResume(e -> {
+                    LOG.error("Gemini streaming error: {}", e.getMessage());
+                    return Mono.just(chatEvent("error", AI_UNAVAILABLE_MESSAGE));
+                });
+        return Flux.concat(Mono.just(chatEvent("session", sessionId)), answerEvents);
+    }
+
     // ========== FEATURE D: Generate Operations (require rate limiting in
     // production) ==========
 
@@ -270,13 +317,8 @@ public class AIToolsPublicResource {
         };
     }
 
-    private String buildContext(java.util.List<StockData> stocks) {
-        StringBuilder sb = new StringBuilder("Thông tin thị trường hiện tại:\n");
-        for (StockData stock : stocks) {
-            sb.append(String.format("- %s: $%.2f (%+.2f%%)\n",
-                    stock.symbol(), stock.price(), stock.percentChange()));
-        }
-        return sb.toString();
+    private static ServerSentEvent<String> chatEvent(String event, String data) {
+        return ServerSentEvent.builder(data).event(event).build();
     }
 
     private Mono<ChatHistory> saveChatHistoryAsync(String userId, String sessionId, String question, String response,
@@ -300,8 +342,7 @@ public class AIToolsPublicResource {
     @Operation(summary = "Get AI-analyzed top gainers and losers")
     public Mono<ResponseEntity<InsightsAIService.TopMoversResponse>> getTopMovers() {
         LOG.info("Public request for top movers analysis");
-        return stockServiceClient.getStockData()
-                .flatMap(stocks -> insightsAIService.generateTopMovers(stocks))
+        return insightsCacheService.getTopMovers()
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
@@ -313,8 +354,7 @@ public class AIToolsPublicResource {
     @Operation(summary = "Get AI weekly market outlook and predictions")
     public Mono<ResponseEntity<InsightsAIService.WeeklyOutlookResponse>> getWeeklyOutlook() {
         LOG.info("Public request for weekly outlook");
-        return stockServiceClient.getStockData()
-                .flatMap(stocks -> insightsAIService.generateWeeklyOutlook(stocks))
+        return insightsCacheService.getWeeklyOutlook()
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
@@ -327,13 +367,7 @@ public class AIToolsPublicResource {
     @Operation(summary = "Get AI-generated trading signals with entry/exit points")
     public Mono<ResponseEntity<InsightsAIService.TradingSignalsResponse>> getTradingSignals() {
         LOG.info("Public request for trading signals (with Prophet AI integration)");
-        return stockServiceClient.getStockData()
-                .flatMap(stocks -> stockServiceClient.getAllPredictions()
-                        .defaultIfEmpty(java.util.Map.of())
-                        .flatMap(predictions -> {
-                            LOG.info("Fetched Prophet predictions for {} symbols", predictions.size());
-                            return insightsAIService.generateTradingSignals(stocks, predictions);
-                        }))
+        return insightsCacheService.getTradingSignals()
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
@@ -345,8 +379,7 @@ public class AIToolsPublicResource {
     @Operation(summary = "Get AI stock correlation and diversification analysis")
     public Mono<ResponseEntity<InsightsAIService.CorrelationResponse>> getCorrelationAnalysis() {
         LOG.info("Public request for correlation analysis");
-        return stockServiceClient.getStockData()
-                .flatMap(stocks -> insightsAIService.generateCorrelationAnalysis(stocks))
+        return insightsCacheService.getCorrelationAnalysis()
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
@@ -7,9 +7,11 @@ import com.stockapp.aitoolsservice.domain.enumeration.StockRecommendation;
 import com.stockapp.aitoolsservice.repository.ChatHistoryRepository;
 import com.stockapp.aitoolsservice.repository.DailyMarketInsightRepository;
 import com.stockapp.aitoolsservice.repository.StockResearchReportRepository;
+import com.stockapp.aitoolsservice.security.encryption.FieldEncryptionService;
 import com.stockapp.aitoolsservice.service.ai.GeminiClientService;
 import com.stockapp.aitoolsservice.service.ai.GeminiClientService.StockData;
 import com.stockapp.aitoolsservice.service.client.StockServiceClient;
+import com.stockapp.aitoolsservice.service.scheduler.DailyInsightsReadModel;
 import com.stockapp.aitoolsservice.service.scheduler.DailyInsightsScheduler;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -24,7 +26,6 @@ import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.time.Instant;
-import java.time.LocalDate;
 import java.util.UUID;
 
 /**
@@ -43,6 +44,8 @@ public class AIToolsResource {
     private final ChatHistoryRepository chatHistoryRepository;
     private final DailyMarketInsightRepository insightRepository;
     private final DailyInsightsScheduler dailyInsightsScheduler;
+    private final DailyInsightsReadModel dailyInsightsReadModel;
+    private final FieldEncryptionService encryptionService;
 
     public AIToolsResource(
             GeminiClientService geminiClientService,
@@ -50,13 +53,17 @@ public class AIToolsResource {
             StockResearchReportRepository researchReportRepository,
             ChatHistoryRepository chatHistoryRepository,
             DailyMarketInsightRepository insightRepository,
-            DailyInsightsScheduler dailyInsightsScheduler) {
+            DailyInsightsScheduler dailyInsightsScheduler,
+            DailyInsightsReadModel dailyInsightsReadModel,
+            FieldEncryptionService encryptionService) {
         this.geminiClientService = geminiClientService;
         this.stockServiceClient = stockServiceClient;
         this.researchReportRepository = researchReportRepository;
         this.chatHistoryRepository = chatHistoryRepository;
         this.insightRepository = insightRepository;
         this.dailyInsightsScheduler = dailyInsightsScheduler;
+        this.dailyInsightsReadModel = dailyInsightsReadModel;
+        this.encryptionService = encryptionService;
     }
 
     // ========== FEATURE A: Market Insights ==========
@@ -67,7 +74,7 @@ public class AIToolsResource {
     @GetMapping("/insights/today")
     @Operation(summary = "Get today's market insights")
     public Mono<ResponseEntity<DailyMarketInsight>> getTodayInsights() {
-        return insightRepository.findByReportDate(LocalDate.now())
+        return dailyInsightsReadModel.getTodayInsight()
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
@@ -164,7 +171,7 @@ public class AIToolsResource {
         // Build context from recent market data
         return stockServiceClient.getAllQuotes()
                 .collectList()
-                .map(this::buildContext)
+                .flatMap(stocks -> geminiClientService.buildMarketContext(stocks, request.question()))
                 .flatMap(context -> geminiClientService.chat(context, request.question())
                         .flatMap(response -> saveChatHistoryAsync(userId, sessionId, request.question(), response,
                                 context)))
@@ -181,7 +188,7 @@ public class AIToolsResource {
     @Operation(summary = "Get user's chat history")
     public Flux<ChatHistory> getChatHistory(@AuthenticationPrincipal Jwt jwt) {
         String userId = jwt != null ? jwt.getSubject() : "anonymous";
-        return chatHistoryRepository.findByUserIdOrderByTimestampDesc(userId)
+        return chatHistoryRepository.findByUserIdIndexOrderByTimestampDesc(encryptionService.blindIndex(userId))
                 .take(50);
     }
 
@@ -229,15 +236,6 @@ public class AIToolsResource {
         };
     }
 
-    private String buildContext(java.util.List<StockData> stocks) {
-        StringBuilder sb = new StringBuilder("Thông tin thị trường hiện tại:\n");
-        for (StockData stock : stocks) {
-            sb.append(String.format("- %s: $%.2f (%+.2f%%)\n",
-                    stock.symbol(), stock.price(), stock.percentChange()));
-        }
-        return sb.toString();
-    }
-
     private Mono<ChatHistory> saveChatHistoryAsync(String userId, String sessionId, String question, String response,
             String context) {
         ChatHistory chat = new ChatHistory();
@@ -0,0 +1,148 @@
+package com.stockapp.aitoolsservice.service.ai;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockapp.aitoolsservice.config.ApplicationProperties;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+class AIGatewayClientTest {
+
+    private static final List<String> MODELS = List.of("gemma-a", "gemma-b");
+
+    private final ApplicationProperties properties = new ApplicationProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+    private final Map<String, Function<String, Mono<ClientResponse>>> responses = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        properties.getGemini().setApiKey("test-key");
+    }
+
+    @Test
+    void fallsBackToNextModel() {
+        responses.put("gemma-a", model -> error(HttpStatus.SERVICE_UNAVAILABLE, "{}"));
+        responses.put("gemma-b", model -> answer("{\"ok\":true}"));
+
+        assertThat(gateway().generate(request()).block()).isEqualTo("{\"ok\":true}");
+        assertThat(calls.get("gemma-a")).hasValue(1);
+        assertThat(meterRegistry.get(AIGatewayClient.TOKENS_METER_NAME).tag("model", "gemma-b").tag("type", "output").counter().count())
+            .isEqualTo(7);
+    }
+
+    @Test
+    void skipsModelWithExhaustedDailyQuota() {
+        responses.put("gemma-a", model -> error(HttpStatus.TOO_MANY_REQUESTS, "{\"quotaId\":\"GenerateRequestsPerDayPerProjectPerModel\"}"));
+        responses.put("gemma-b", model -> answer("second"));
+        AIGatewayClient gateway = gateway();
+
+        assertThat(gateway.generate(request()).block()).isEqualTo("second");
+        assertThat(gateway.isAvailable("gemma-a")).isFalse();
+
+        assertThat(gateway.generate(request()).block()).isEqualTo("second");
+        assertThat(calls.get("gemma-a")).hasValue(1);
+        assertThat(calls.get("gemma-b")).hasValue(2);
+    }
+
+    @Test
+    void doesNotFallBackOnClientError() {
+        responses.put("gemma-a", model -> error(HttpStatus.UNAUTHORIZED, "{}"));
+        responses.put("gemma-b", model -> answer("second"));
+
+        assertThat(gateway().generate(request()).onErrorReturn("failed").block()).isEqualTo("failed");
+        assertThat(calls).doesNotContainKey("gemma-b");
+    }
+
+    @Test
+    void hedgesSlowModel() {
+        properties.getGemini().getGateway().setHedgeAfter(Duration.ofMillis(50));
+        responses.put("gemma-a", model -> answer("slow").delayElement(Duration.ofSeconds(5)));
+        responses.put("gemma-b", model -> answer("fast"));
+
+        assertThat(gateway().generate(request()).block(Duration.ofSeconds(2))).isEqualTo("fast");
+        assertThat(meterRegistry.get(AIGatewayClient.HEDGED_METER_NAME).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void streamsChunksAndFallsBackBeforeFirstChunk() {
+        responses.put("gemma-a", model -> error(HttpStatus.SERVICE_UNAVAILABLE, "{}"));
+        responses.put("gemma-b", model -> events(chunk("Xin ", false), chunk("chào", true)));
+
+        assertThat(gateway().stream(request()).collectList().block()).containsExactly("Xin ", "chào");
+        assertThat(meterRegistry.get(AIGatewayClient.FIRST_TOKEN_METER_NAME).tag("model", "gemma-b").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(AIGatewayClient.TOKENS_METER_NAME).tag("model", "gemma-b").tag("type", "output").counter().count())
+            .isEqualTo(7);
+    }
+
+    @Test
+    void parsesJsonSurroundedByText() {
+        AIGatewayClient gateway = gateway();
+
+        assertThat(gateway.parseJson("```json\n{\"market_mood\":\"neutral\"}\n```", Map.class)).containsEntry("market_mood", "neutral");
+        assertThat(gateway.parseJson("Đây là phân tích: {\"a\":{\"b\":1}} Chúc bạn may mắn!", Map.class)).containsKey("a");
+        assertThat(gateway.parseJsonList("not json", Map.class)).isEmpty();
+    }
+
+    private AIGatewayClient gateway() {
+        WebClient webClient = WebClient.builder()
+            .exchangeFunction(request -> {
+                String path = request.url().getPath();
+                String model = path.substring(path.lastIndexOf('/') + 1, path.indexOf(':'));
+                calls.computeIfAbsent(model, key -> new AtomicInteger()).incrementAndGet();
+                return responses.get(model).apply(model);
+            })
+            .build();
+        return new AIGatewayClient(properties, new ObjectMapper(), CircuitBreakerRegistry.ofDefaults(), meterRegistry, webClient);
+    }
+
+    private static AIGatewayClient.Request request() {
+        return new AIGatewayClient.Request("test", MODELS, "prompt", 0.7, 256);
+    }
+
+    private static Mono<ClientResponse> answer(String text) {
+        String body =
+            "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":" +
+            quote(text) +
+            "}]}}],\"usageMetadata\":{\"promptTokenCount\":12,\"candidatesTokenCount\":7}}";
+        return Mono.just(ClientResponse.create(HttpStatus.OK).header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE).body(body).build());
+    }
+
+    private static String chunk(String text, boolean last) {
+        String usage = last ? ",\"usageMetadata\":{\"promptTokenCount\":12,\"candidatesTokenCount\":7}" : "";
+        return "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":" + quote(text) + "}]}}]" + usage + "}";
+    }
+
+    private static Mono<ClientResponse> events(String... chunks) {
+        StringBuilder body = new StringBuilder();
+        for (String chunk : chunks) {
+            body.append("data: ").append(chunk).append("\r\n\r\n");
+        }
+        return Mono.just(
+            ClientResponse.create(HttpStatus.OK).header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_EVENT_STREAM_VALUE).body(body.toString()).build()
+        );
+    }
+
+    private static Mono<ClientResponse> error(HttpStatus status, String body) {
+        return Mono.just(ClientResponse.create(status).header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE).body(body).build());
+    }
+
+    private static String quote(String text) {
+        return '"' + text.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+}
@@ -0,0 +1,150 @@
+package com.stockapp.aitoolsservice.service.ai;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.stockapp.aitoolsservice.config.ApplicationProperties;
+import com.stockapp.aitoolsservice.service.ai.GeminiClientService.StockData;
+import com.stockapp.aitoolsservice.service.client.StockServiceClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class InsightsCacheServiceTest {
+
+    private final StockServiceClient stockServiceClient = mock(StockServiceClient.class);
+    private final InsightsAIService insightsAIService = mock(InsightsAIService.class);
+    private final MutableClock clock = new MutableClock();
+    private final AtomicInteger quoteFetches = new AtomicInteger();
+    private final AtomicInteger generations = new AtomicInteger();
+
+    private List<StockData> quotes = List.of(new StockData("AAPL", 190.5, 1.2, 1000), new StockData("NVDA", 900.0, -0.5, 2000));
+    private InsightsCacheService cache;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getInsightsCache().setTtl(Duration.ofMinutes(2));
+        properties.getInsightsCache().setRefreshAhead(Duration.ofSeconds(20));
+        when(stockServiceClient.getStockData()).thenAnswer(invocation ->
+            Mono.fromCallable(() -> {
+                quoteFetches.incrementAndGet();
+                return quotes;
+            })
+        );
+        cache = new InsightsCacheService(stockServiceClient, insightsAIService, properties, new SimpleMeterRegistry(), clock);
+    }
+
+    @Test
+    void coalescesConcurrentMisses() {
+        Sinks.One<InsightsAIService.TopMoversResponse> result = Sinks.one();
+        when(insightsAIService.generateTopMovers(anyList())).thenAnswer(invocation -> {
+            generations.incrementAndGet();
+            return result.asMono();
+        });
+
+        Mono<InsightsAIService.TopMoversResponse> first = cache.getTopMovers().cache();
+        Mono<InsightsAIService.TopMoversResponse> second = cache.getTopMovers().cache();
+        first.subscribe();
+        second.subscribe();
+        result.tryEmitValue(topMovers("first"));
+
+        assertThat(first.block()).isEqualTo(second.block());
+        assertThat(cache.getTopMovers().block()).isEqualTo(topMovers("first"));
+        assertThat(generations).hasValue(1);
+        assertThat(quoteFetches).hasValue(1);
+    }
+
+    @Test
+    void regeneratesWhenQuotesChange() {
+        when(insightsAIService.generateTopMovers(anyList())).thenAnswer(invocation ->
+            Mono.just(topMovers("run " + generations.incrementAndGet()))
+        );
+
+        assertThat(cache.getTopMovers().block()).isEqualTo(topMovers("run 1"));
+
+        clock.advance(Duration.ofMinutes(3));
+        assertThat(cache.getTopMovers().block()).isEqualTo(topMovers("run 1"));
+        assertThat(quoteFetches).hasValue(2);
+
+        quotes = List.of(new StockData("AAPL", 191.0, 1.5, 1100), new StockData("NVDA", 900.0, -0.5, 2000));
+        clock.advance(Duration.ofMinutes(3));
+        assertThat(cache.getTopMovers().block()).isEqualTo(topMovers("run 2"));
+    }
+
+    @Test
+    void doesNotCacheEmptyResults() {
+        when(insightsAIService.generateWeeklyOutlook(anyList())).thenAnswer(invocation ->
+            generations.incrementAndGet() == 1 ? Mono.empty() : Mono.just(weeklyOutlook())
+        );
+
+        assertThat(cache.getWeeklyOutlook().blockOptional()).isEmpty();
+        assertThat(cache.getWeeklyOutlook().block()).isEqualTo(weeklyOutlook());
+        assertThat(generations).hasValue(2);
+    }
+
+    @Test
+    void refreshesRequestedInsightsBeforeExpiry() {
+        when(insightsAIService.generateTopMovers(anyList())).thenAnswer(invocation ->
+            Mono.just(topMovers("run " + generations.incrementAndGet()))
+        );
+        cache.getTopMovers().block();
+
+        clock.advance(Duration.ofSeconds(60));
+        cache.refresh();
+        assertThat(quoteFetches).hasValue(1);
+
+        quotes = List.of(new StockData("AAPL", 189.0, 0.4, 1200), new StockData("NVDA", 905.0, 0.1, 2100));
+        clock.advance(Duration.ofSeconds(45));
+        cache.refresh();
+        assertThat(quoteFetches).hasValue(2);
+        assertThat(generations).hasValue(2);
+
+        assertThat(cache.getTopMovers().block()).isEqualTo(topMovers("run 2"));
+        assertThat(quoteFetches).hasValue(2);
+        assertThat(generations).hasValue(2);
+    }
+
+    private static InsightsAIService.TopMoversResponse topMovers(String summary) {
+        return new InsightsAIService.TopMoversResponse(List.of(), List.of(), "neutral", summary);
+    }
+
+    private static InsightsAIService.WeeklyOutlookResponse weeklyOutlook() {
+        return new InsightsAIService.WeeklyOutlookResponse("flat week", List.of(), List.of(), List.of(), List.of(), null);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-05T14:30:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.stockapp.aitoolsservice.service.ai;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PromptContextBuilderTest {
+
+    @Test
+    void estimatesTokensPerWordAndPunctuation() {
+        assertThat(TokenEstimator.estimate("")).isZero();
+        assertThat(TokenEstimator.estimate("- AAPL: $182.34")).isEqualTo(7);
+        assertThat(TokenEstimator.estimate("ước")).isGreaterThan(TokenEstimator.estimate("uoc"));
+    }
+
+    @Test
+    void keepsMostRelevantLinesWithinBudget() {
+        PromptContextBuilder builder = PromptContextBuilder.withBudget(20).section("quotes", "Quotes:");
+        builder.add("quotes", "AAPL", "- AAPL: +0.50%", 0.5);
+        builder.add("quotes", "TSLA", "- TSLA: -6.20%", 6.2);
+        builder.add("quotes", "NVDA", "- NVDA: +3.10%", 3.1);
+
+        assertThat(builder.build()).isEqualTo("Quotes:\n- TSLA: -6.20%\n- NVDA: +3.10%\n");
+    }
+
+    @Test
+    void ranksFocusedSymbolsFirstAcrossSections() {
+        PromptContextBuilder builder = PromptContextBuilder.withBudget(20)
+            .section("quotes", "Quotes:")
+            .section("predictions", "Prophet:")
+            .focus(PromptContextBuilder.mentionedSymbols("Có nên mua aapl không?", List.of("AAPL", "TSLA")));
+        builder.add("quotes", "TSLA", "- TSLA: -6.20%", 6.2);
+        builder.add("quotes", "AAPL", "- AAPL: +0.50%", 0.5);
+        builder.add("predictions", "AAPL", "- AAPL: BUY", 0);
+
+        assertThat(builder.build()).isEqualTo("Quotes:\n- AAPL: +0.50%\n\nProphet:\n- AAPL: BUY\n");
+    }
+
+    @Test
+    void findsSymbolsEndingASentence() {
+        assertThat(PromptContextBuilder.mentionedSymbols("Phân tích NVDA.", List.of("NVDA", "AAPL"))).containsExactly("NVDA");
+        assertThat(PromptContextBuilder.mentionedSymbols("what about AAPL...", List.of("AAPL"))).containsExactly("AAPL");
+        assertThat(PromptContextBuilder.mentionedSymbols("BRK.B or BRK?", List.of("BRK.B", "BRK.A"))).containsExactly("BRK.B");
+    }
+}
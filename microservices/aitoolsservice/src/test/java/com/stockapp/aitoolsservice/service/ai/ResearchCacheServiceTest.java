@@ -0,0 +1,95 @@
+package com.stockapp.aitoolsservice.service.ai;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockapp.aitoolsservice.config.ApplicationProperties;
+import com.stockapp.aitoolsservice.domain.ResearchCacheEntry;
+import com.stockapp.aitoolsservice.repository.ResearchCacheEntryRepository;
+import com.stockapp.aitoolsservice.service.ai.GeminiClientService.StockData;
+import com.stockapp.aitoolsservice.service.client.StockServiceClient.PredictionResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+class ResearchCacheServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-05T14:30:00Z");
+
+    private final ResearchCacheEntryRepository repository = mock(ResearchCacheEntryRepository.class);
+    private final Map<String, ResearchCacheEntry> entries = new ConcurrentHashMap<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger generated = new AtomicInteger();
+    private ResearchCacheService service;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findById(anyString())).thenAnswer(invocation -> Mono.justOrEmpty(entries.get(invocation.<String>getArgument(0))));
+        when(repository.save(any(ResearchCacheEntry.class))).thenAnswer(invocation -> {
+            ResearchCacheEntry entry = invocation.getArgument(0);
+            entries.put(entry.getId(), entry);
+            return Mono.just(entry);
+        });
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getResearchCache().setMaxAge(Duration.ofHours(4));
+        service = new ResearchCacheService(repository, new ObjectMapper(), properties, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void keyIgnoresSmallPriceMovesAndOrderButNotSignal() {
+        String key = service.key("comparison", List.of(stock("AAPL", 182.34), stock("NVDA", 120.1)), Map.of("AAPL", prediction("BUY")));
+
+        assertThat(service.key("comparison", List.of(stock("NVDA", 120.2), stock("AAPL", 182.41)), Map.of("AAPL", prediction("BUY")))).isEqualTo(
+            key
+        );
+        assertThat(service.key("comparison", List.of(stock("AAPL", 182.34), stock("NVDA", 120.1)), Map.of("AAPL", prediction("SELL")))).isNotEqualTo(
+            key
+        );
+        assertThat(service.key("comparison", List.of(stock("AAPL", 190.0), stock("NVDA", 120.1)), Map.of("AAPL", prediction("BUY")))).isNotEqualTo(
+            key
+        );
+    }
+
+    @Test
+    void returnsStoredResultForSameInputs() {
+        assertThat(service.getOrGenerate("research-report", "k", "prompt text", Map.class, this::generate).block()).containsEntry("n", 1);
+        assertThat(service.getOrGenerate("research-report", "k", "prompt text", Map.class, this::generate).block()).containsEntry("n", 1);
+
+        assertThat(generated).hasValue(1);
+        assertThat(meterRegistry.get(ResearchCacheService.LOOKUP_METER_NAME).tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(ResearchCacheService.SAVED_TOKENS_METER_NAME).tag("type", "prompt").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void regeneratesStaleResult() {
+        entries.put("k", new ResearchCacheEntry().id("k").payload("{\"n\":0}").createdDate(NOW.minus(Duration.ofHours(5))));
+
+        assertThat(service.getOrGenerate("research-report", "k", "prompt", Map.class, this::generate).block()).containsEntry("n", 1);
+        assertThat(entries.get("k").getCreatedDate()).isEqualTo(NOW);
+    }
+
+    private Mono<Map> generate() {
+        return Mono.just(Map.of("n", generated.incrementAndGet()));
+    }
+
+    private static StockData stock(String symbol, double price) {
+        return new StockData(symbol, price, 1.2, 0L);
+    }
+
+    private static PredictionResponse prediction(String recommendation) {
+        return new PredictionResponse("AAPL", recommendation, null, null, null, null, null, null, null);
+    }
+}
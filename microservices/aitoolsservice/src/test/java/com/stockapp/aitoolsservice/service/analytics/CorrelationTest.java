@@ -0,0 +1,61 @@
+package com.stockapp.aitoolsservice.service.analytics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CorrelationTest {
+
+    @Test
+    void computesPearson() {
+        double[] x = { 1, 2, 3, 4, 5 };
+        assertThat(Correlation.pearson(x, new double[] { 2, 4, 6, 8, 10 })).isCloseTo(1, within(1e-12));
+        assertThat(Correlation.pearson(x, new double[] { 5, 4, 3, 2, 1 })).isCloseTo(-1, within(1e-12));
+        // statistics.correlation([1, 2, 3, 4, 5], [2, 1, 4, 3, 7])
+        assertThat(Correlation.pearson(x, new double[] { 2, 1, 4, 3, 7 })).isCloseTo(0.8241633836921342, within(1e-12));
+        assertThat(Correlation.pearson(x, new double[] { 3, 3, 3, 3, 3 })).isZero();
+    }
+
+    @Test
+    void computesSpearmanWithTies() {
+        double[] x = { 1, 2, 3, 4, 5 };
+        // Monotonic but not linear
+        assertThat(Correlation.spearman(x, new double[] { 1, 8, 27, 64, 125 })).isCloseTo(1, within(1e-12));
+        assertThat(Correlation.ranks(new double[] { 10, 20, 20, 5 })).containsExactly(2, 3.5, 3.5, 1);
+        // scipy.stats.spearmanr([1, 2, 3, 4, 5], [1, 2, 2, 3, 1]).statistic
+        assertThat(Correlation.spearman(x, new double[] { 1, 2, 2, 3, 1 })).isCloseTo(0.15811388300841897, within(1e-12));
+    }
+
+    @Test
+    void matrixMatchesPairwiseCoefficients() {
+        Random random = new Random(42);
+        int symbols = Correlation.PARALLEL_THRESHOLD + 8;
+        double[][] series = new double[symbols][60];
+        for (double[] row : series) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = random.nextGaussian();
+            }
+        }
+
+        double[][] pearson = Correlation.pearsonMatrix(series);
+        double[][] spearman = Correlation.spearmanMatrix(series);
+        for (int i = 0; i < symbols; i++) {
+            assertThat(pearson[i][i]).isEqualTo(1);
+            for (int j = 0; j < symbols; j++) {
+                assertThat(pearson[i][j]).isEqualTo(pearson[j][i]).isCloseTo(Correlation.pearson(series[i], series[j]), within(1e-12));
+                assertThat(spearman[i][j]).isCloseTo(Correlation.spearman(series[i], series[j]), within(1e-12));
+            }
+        }
+    }
+
+    @Test
+    void computesLogReturns() {
+        assertThat(Correlation.logReturns(new double[] { 100, 110, 99 })).containsExactly(
+            new double[] { Math.log(1.1), Math.log(0.9) },
+            within(1e-12)
+        );
+        assertThat(Correlation.logReturns(new double[] { 100 })).isEmpty();
+    }
+}
@@ -0,0 +1,101 @@
+package com.stockapp.aitoolsservice.service.analytics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.stockapp.aitoolsservice.config.ApplicationProperties;
+import com.stockapp.aitoolsservice.service.ai.GeminiClientService.StockData;
+import com.stockapp.aitoolsservice.service.client.StockServiceClient;
+import com.stockapp.aitoolsservice.service.client.StockServiceClient.HistoricalPriceResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+class MarketAnalyticsServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 1, 5);
+
+    private final StockServiceClient stockServiceClient = mock(StockServiceClient.class);
+    private MarketAnalyticsService analytics;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getAnalytics().setCorrelationWindow(30);
+        properties.getAnalytics().setMinObservations(10);
+        analytics = new MarketAnalyticsService(stockServiceClient, properties);
+    }
+
+    @Test
+    void ranksMovers() {
+        List<StockData> stocks = List.of(
+            new StockData("AAPL", 190, 1.2, 0),
+            new StockData("NVDA", 900, 3.8, 0),
+            new StockData("TSLA", 170, -2.5, 0),
+            new StockData("MSFT", 420, 0, 0),
+            new StockData("AMZN", 180, -0.8, 0)
+        );
+
+        MarketAnalyticsService.Movers movers = analytics.movers(stocks, 1);
+
+        assertThat(movers.gainers()).extracting(StockData::symbol).containsExactly("NVDA");
+        assertThat(movers.losers()).extracting(StockData::symbol).containsExactly("TSLA");
+        assertThat(analytics.movers(stocks, 5).losers()).extracting(StockData::symbol).containsExactly("TSLA", "AMZN");
+    }
+
+    @Test
+    void correlatesReturnsOnCommonSessions() {
+        // Newest first, like stockservice. BBB doubles AAA's daily moves, CCC mirrors them and
+        // BBB is missing one session
+        List<HistoricalPriceResponse> aaa = new ArrayList<>();
+        List<HistoricalPriceResponse> bbb = new ArrayList<>();
+        List<HistoricalPriceResponse> ccc = new ArrayList<>();
+        double a = 100, b = 100, c = 100;
+        for (int day = 0; day < 40; day++) {
+            double move = Math.sin(day) / 100;
+            a *= Math.exp(move);
+            b *= Math.exp(2 * move);
+            c *= Math.exp(-move);
+            String date = START.plusDays(day).toString();
+            aaa.add(0, price(date, a));
+            if (day != 35) {
+                bbb.add(0, price(date, b));
+            }
+            ccc.add(0, price(date, c));
+        }
+        when(stockServiceClient.getHistoricalPrices(eq("AAA"), anyInt())).thenReturn(Flux.fromIterable(aaa));
+        when(stockServiceClient.getHistoricalPrices(eq("BBB"), anyInt())).thenReturn(Flux.fromIterable(bbb));
+        when(stockServiceClient.getHistoricalPrices(eq("CCC"), anyInt())).thenReturn(Flux.fromIterable(ccc));
+        when(stockServiceClient.getHistoricalPrices(eq("NEW"), anyInt())).thenReturn(Flux.fromIterable(aaa.subList(0, 5)));
+
+        MarketAnalyticsService.CorrelationMatrix matrix = analytics.correlations(List.of("AAA", "BBB", "CCC", "NEW")).block();
+
+        assertThat(matrix.symbols()).containsExactly("AAA", "BBB", "CCC");
+        assertThat(matrix.observations()).isEqualTo(30);
+        List<MarketAnalyticsService.PairCorrelation> pairs = matrix.pairs();
+        assertThat(pairs.get(0).first()).isEqualTo("AAA");
+        assertThat(pairs.get(0).second()).isEqualTo("BBB");
+        assertThat(pairs.get(0).pearson()).isCloseTo(1, within(1e-9));
+        assertThat(pairs.get(2).pearson()).isCloseTo(-1, within(1e-9));
+        assertThat(pairs.get(2).spearman()).isCloseTo(-1, within(1e-9));
+    }
+
+    @Test
+    void returnsEmptyWithoutEnoughHistory() {
+        when(stockServiceClient.getHistoricalPrices(eq("AAA"), anyInt())).thenReturn(Flux.just(price("2026-01-05", 100)));
+        when(stockServiceClient.getHistoricalPrices(eq("BBB"), anyInt())).thenReturn(Flux.empty());
+
+        assertThat(analytics.correlations(List.of("AAA", "BBB")).blockOptional()).isEmpty();
+    }
+
+    private static HistoricalPriceResponse price(String date, double close) {
+        return new HistoricalPriceResponse(date, close, close, close, close, 1000L);
+    }
+}
@@ -0,0 +1,112 @@
+package com.stockapp.aitoolsservice.service.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.stockapp.aitoolsservice.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+class PredictionClientTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final List<String> requests = new ArrayList<>();
+
+    private String recommendation = "BUY";
+    private boolean failing;
+    private PredictionClient client;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.setSymbols(List.of("AAPL", "NVDA"));
+        properties.getAiService().setPredictionTtl(Duration.ofHours(2));
+        WebClient webClient = WebClient.builder()
+            .exchangeFunction(request -> {
+                requests.add(request.url().getPath());
+                if (failing) {
+                    return Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+                }
+                // aiservice cannot predict UNKNOWN, so it is left out of the answer
+                String body =
+                    "[{\"symbol\":\"AAPL\",\"recommendation\":\"" +
+                    recommendation +
+                    "\"},{\"symbol\":\"NVDA\",\"recommendation\":\"HOLD\"}]";
+                return Mono.just(
+                    ClientResponse.create(HttpStatus.OK).header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE).body(body).build()
+                );
+            })
+            .build();
+        client = new PredictionClient(properties, new SimpleMeterRegistry(), webClient, clock);
+    }
+
+    @Test
+    void fetchesMissingSymbolsInOneBatch() {
+        Map<String, StockServiceClient.PredictionResponse> predictions = client.getPredictions(List.of("AAPL", "NVDA", "UNKNOWN")).block();
+
+        assertThat(predictions).containsOnlyKeys("AAPL", "NVDA");
+        assertThat(requests).containsExactly("/api/recommendation/batch");
+
+        assertThat(client.getPredictions(List.of("NVDA", "UNKNOWN")).block()).containsOnlyKeys("NVDA");
+        assertThat(requests).hasSize(1);
+    }
+
+    @Test
+    void refreshReplacesCachedPredictions() {
+        client.getPredictions(List.of("AAPL")).block();
+        recommendation = "SELL";
+
+        client.refresh();
+
+        assertThat(client.getPredictions(List.of("AAPL")).block().get("AAPL").recommendation()).isEqualTo("SELL");
+        assertThat(requests).hasSize(2);
+    }
+
+    @Test
+    void servesStalePredictionWhenAiServiceFails() {
+        client.getPredictions(List.of("AAPL")).block();
+        failing = true;
+        clock.advance(Duration.ofHours(3));
+
+        assertThat(client.getPredictions(List.of("AAPL")).block().get("AAPL").recommendation()).isEqualTo("BUY");
+        assertThat(requests).hasSize(2);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-05T14:30:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.stockapp.aitoolsservice.service.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.stockapp.aitoolsservice.config.ApplicationProperties;
+import com.stockapp.aitoolsservice.service.ai.GeminiClientService.StockData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class StockUpdateBatcherTest {
+
+    private final ApplicationProperties.Alerts alerts = new ApplicationProperties.Alerts();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BlockingQueue<List<StockData>> batches = new LinkedBlockingQueue<>();
+    private StockUpdateBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        alerts.setBatchSize(3);
+        alerts.setBatchWindow(Duration.ofMillis(100));
+        alerts.setMaxInFlight(1);
+        alerts.setBufferCapacity(4);
+        alerts.setOfferTimeout(Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.dispose();
+    }
+
+    @Test
+    void closesBatchWhenFullAndKeepsLatestUpdatePerSymbol() throws InterruptedException {
+        batcher = new StockUpdateBatcher(alerts, meterRegistry, batch -> {
+            batches.add(batch);
+            return Mono.empty();
+        });
+
+        batcher.offer(stock("AAPL", 1));
+        batcher.offer(stock("NVDA", 2));
+        batcher.offer(stock("AAPL", 3));
+
+        assertThat(batches.poll(1, TimeUnit.SECONDS)).containsExactly(stock("AAPL", 3), stock("NVDA", 2));
+        assertThat(meterRegistry.get(StockUpdateBatcher.UPDATES_METER_NAME).tag("result", "coalesced").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void closesBatchAfterWindow() throws InterruptedException {
+        batcher = new StockUpdateBatcher(alerts, meterRegistry, batch -> {
+            batches.add(batch);
+            return Mono.empty();
+        });
+
+        batcher.offer(stock("TSLA", 1));
+
+        assertThat(batches.poll(1, TimeUnit.SECONDS)).containsExactly(stock("TSLA", 1));
+        assertThat(meterRegistry.get(StockUpdateBatcher.BATCH_LATENCY_METER_NAME).timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void dropsUpdatesWhenAnalysisCannotKeepUp() {
+        Sinks.Empty<Void> analysis = Sinks.empty();
+        batcher = new StockUpdateBatcher(alerts, meterRegistry, batch -> analysis.asMono());
+
+        boolean accepted = true;
+        for (int i = 0; i < 100 && accepted; i++) {
+            accepted = batcher.offer(stock("S" + i, i));
+        }
+
+        assertThat(accepted).isFalse();
+        assertThat(meterRegistry.get(StockUpdateBatcher.UPDATES_METER_NAME).tag("result", "dropped").counter().count()).isEqualTo(1);
+        analysis.tryEmitEmpty();
+    }
+
+    private static StockData stock(String symbol, double price) {
+        return new StockData(symbol, price, 0.0, 0L);
+    }
+}
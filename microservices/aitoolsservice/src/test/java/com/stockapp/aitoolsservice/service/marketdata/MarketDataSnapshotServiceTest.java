@@ -0,0 +1,140 @@
+package com.stockapp.aitoolsservice.service.marketdata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.stockapp.aitoolsservice.config.ApplicationProperties;
+import com.stockapp.aitoolsservice.service.client.FinnhubClient;
+import com.stockapp.aitoolsservice.service.client.FinnhubClient.FinnhubQuoteResponse;
+import com.stockapp.aitoolsservice.service.client.StockServiceClient.QuoteResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+class MarketDataSnapshotServiceTest {
+
+    private final FinnhubClient finnhubClient = mock(FinnhubClient.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ApplicationProperties properties = new ApplicationProperties();
+    private MarketDataSnapshotService service;
+
+    @BeforeEach
+    void setUp() {
+        properties.setSymbols(List.of("AAPL"));
+        when(finnhubClient.getQuote(anyString())).thenAnswer(invocation -> Mono.just(quote(invocation.getArgument(0), 100.0)));
+        when(finnhubClient.getQuote("UNKNOWN")).thenReturn(Mono.just(quote("UNKNOWN", 0.0)));
+        service = new MarketDataSnapshotService(
+            finnhubClient,
+            properties,
+            meterRegistry,
+            Clock.fixed(Instant.parse("2026-01-05T14:30:00Z"), ZoneOffset.UTC)
+        );
+    }
+
+    @Test
+    void fetchesUnseenSymbolsOnceAndServesThemFromSnapshot() {
+        assertThat(service.getQuotes(List.of("NVDA", "AAPL", "UNKNOWN")).block()).extracting(QuoteResponse::symbol).containsExactly(
+            "NVDA",
+            "AAPL"
+        );
+        assertThat(service.getQuote("NVDA").block().close()).isEqualTo(100.0);
+
+        verify(finnhubClient, times(1)).getQuote("NVDA");
+        assertThat(meterRegistry.get(MarketDataSnapshotService.LOOKUP_METER_NAME).tag("result", "hit").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void refreshUpdatesRequestedSymbolsInBackground() {
+        service.getQuote("NVDA").block();
+        when(finnhubClient.getQuote("NVDA")).thenReturn(Mono.just(quote("NVDA", 120.0)));
+
+        service.refresh();
+
+        assertThat(service.getQuote("NVDA").block().close()).isEqualTo(120.0);
+        verify(finnhubClient).getQuote("AAPL");
+    }
+
+    @Test
+    void keepsLastQuoteWhenRefreshFails() {
+        service.getQuote("NVDA").block();
+        when(finnhubClient.getQuote("NVDA")).thenReturn(Mono.error(new IllegalStateException("rate limited")));
+
+        service.refresh();
+
+        assertThat(service.getQuote("NVDA").block().close()).isEqualTo(100.0);
+    }
+
+    @Test
+    void answersUnknownSymbolsWithoutCallingFinnhubAgain() {
+        service.getQuote("UNKNOWN").block();
+        assertThat(service.getQuote("UNKNOWN").block()).isNull();
+        service.refresh();
+
+        verify(finnhubClient, times(1)).getQuote("UNKNOWN");
+        assertThat(meterRegistry.get(MarketDataSnapshotService.LOOKUP_METER_NAME).tag("result", "unknown").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotTreatFailedCallsAsUnknownSymbols() {
+        when(finnhubClient.getQuote("NVDA")).thenReturn(Mono.error(new IllegalStateException("timeout")));
+        when(finnhubClient.getQuote("AAPL")).thenReturn(Mono.error(new IllegalStateException("timeout")));
+        assertThat(service.getQuotes(List.of("NVDA", "AAPL")).block()).isEmpty();
+
+        when(finnhubClient.getQuote("NVDA")).thenReturn(Mono.just(quote("NVDA", 120.0)));
+        when(finnhubClient.getQuote("AAPL")).thenReturn(Mono.just(quote("AAPL", 200.0)));
+        assertThat(service.getQuote("NVDA").block().close()).isEqualTo(120.0);
+        service.refresh();
+
+        assertThat(service.getQuote("AAPL").block().close()).isEqualTo(200.0);
+        assertThat(meterRegistry.get(MarketDataSnapshotService.LOOKUP_METER_NAME).tag("result", "unknown").counter().count()).isZero();
+    }
+
+    @Test
+    void servesSymbolsThatGetAValidQuoteAgain() {
+        properties.setSymbols(List.of("UNKNOWN"));
+        service.getQuote("UNKNOWN").block();
+        when(finnhubClient.getQuote("UNKNOWN")).thenReturn(Mono.just(quote("UNKNOWN", 5.0)));
+
+        service.refresh();
+
+        assertThat(service.getQuote("UNKNOWN").block().close()).isEqualTo(5.0);
+    }
+
+    @Test
+    void capsTheNumberOfRefreshedSymbols() {
+        properties.getMarketData().setMaxSymbols(2);
+        service.getQuotes(List.of("NVDA", "MSFT", "TSLA")).block();
+        clearInvocations(finnhubClient);
+
+        service.refresh();
+
+        verify(finnhubClient).getQuote("AAPL");
+        verify(finnhubClient, times(2)).getQuote(anyString());
+    }
+
+    @Test
+    void skipsFinnhubCallsBeyondTheBudget() {
+        properties.getMarketData().setCallsPerMinute(2);
+
+        assertThat(service.getQuotes(List.of("NVDA", "MSFT", "TSLA")).block()).extracting(QuoteResponse::symbol).containsExactly(
+            "NVDA",
+            "MSFT"
+        );
+        verify(finnhubClient, never()).getQuote("TSLA");
+    }
+
+    private static FinnhubQuoteResponse quote(String symbol, double price) {
+        return new FinnhubQuoteResponse(price, 1.0, 1.0, price, price, price, price, 1L);
+    }
+}
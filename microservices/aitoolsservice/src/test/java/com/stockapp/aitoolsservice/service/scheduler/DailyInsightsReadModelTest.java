@@ -0,0 +1,91 @@
+package com.stockapp.aitoolsservice.service.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.stockapp.aitoolsservice.config.ApplicationProperties;
+import com.stockapp.aitoolsservice.domain.DailyMarketInsight;
+import com.stockapp.aitoolsservice.domain.IndustryAnalysis;
+import com.stockapp.aitoolsservice.repository.DailyMarketInsightRepository;
+import com.stockapp.aitoolsservice.repository.IndustryAnalysisRepository;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class DailyInsightsReadModelTest {
+
+    private static final LocalDate TODAY = LocalDate.parse("2026-01-05");
+
+    private final DailyMarketInsightRepository insightRepository = mock(DailyMarketInsightRepository.class);
+    private final IndustryAnalysisRepository industryRepository = mock(IndustryAnalysisRepository.class);
+    private final DailyMarketInsight insight = new DailyMarketInsight().id("insight-1").reportDate(TODAY);
+    private DailyInsightsReadModel readModel;
+
+    @BeforeEach
+    void setUp() {
+        readModel = new DailyInsightsReadModel(
+            insightRepository,
+            industryRepository,
+            new ApplicationProperties(),
+            Clock.fixed(Instant.parse("2026-01-05T14:30:00Z"), ZoneOffset.UTC)
+        );
+    }
+
+    @Test
+    void readsTodayOnceAndFollowsInsightReference() {
+        when(insightRepository.findFirstByReportDateOrderByCreatedAtDesc(TODAY)).thenReturn(Mono.just(insight));
+        when(industryRepository.findByDailyInsightId("insight-1")).thenReturn(Flux.just(industry("Technology")));
+        when(industryRepository.findByReportDate(TODAY)).thenReturn(Flux.empty());
+
+        assertThat(readModel.getTodayInsight().block()).isSameAs(insight);
+        assertThat(readModel.getTodayIndustries().map(IndustryAnalysis::getIndustryName).collectList().block()).containsExactly("Technology");
+
+        verify(insightRepository, times(1)).findFirstByReportDateOrderByCreatedAtDesc(TODAY);
+        verify(industryRepository, times(1)).findByDailyInsightId("insight-1");
+    }
+
+    @Test
+    void fallsBackToReportDateForIndustriesWithoutReference() {
+        when(insightRepository.findFirstByReportDateOrderByCreatedAtDesc(TODAY)).thenReturn(Mono.just(insight));
+        when(industryRepository.findByDailyInsightId("insight-1")).thenReturn(Flux.empty());
+        when(industryRepository.findByReportDate(TODAY)).thenReturn(Flux.just(industry("Energy").dailyInsightId(null)));
+
+        assertThat(readModel.getTodayIndustries().map(IndustryAnalysis::getIndustryName).collectList().block()).containsExactly("Energy");
+    }
+
+    @Test
+    void doesNotServeIndustriesOfAnotherRun() {
+        when(insightRepository.findFirstByReportDateOrderByCreatedAtDesc(TODAY)).thenReturn(Mono.just(insight));
+        when(industryRepository.findByDailyInsightId("insight-1")).thenReturn(Flux.empty());
+        when(industryRepository.findByReportDate(TODAY)).thenReturn(
+            Flux.just(industry("Energy").dailyInsightId("insight-0"), industry("Finance").dailyInsightId(null))
+        );
+
+        assertThat(readModel.getTodayInsight().block()).isSameAs(insight);
+        assertThat(readModel.getTodayIndustries().collectList().block()).isEmpty();
+    }
+
+    @Test
+    void servesPublishedInsightWithoutQuerying() {
+        readModel.publish(insight, List.of(industry("Finance")));
+
+        assertThat(readModel.getTodayInsight().block()).isSameAs(insight);
+        assertThat(readModel.getTodayIndustries().collectList().block()).hasSize(1);
+        verify(insightRepository, never()).findFirstByReportDateOrderByCreatedAtDesc(any());
+    }
+
+    private static IndustryAnalysis industry(String name) {
+        return new IndustryAnalysis().industryName(name).reportDate(TODAY).dailyInsightId("insight-1");
+    }
+}
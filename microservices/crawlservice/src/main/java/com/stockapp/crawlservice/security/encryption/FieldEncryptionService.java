@@ -2,6 +2,7 @@ package com.stockapp.crawlservice.security.encryption;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
 import java.util.Base64;
 import javax.crypto.Cipher;
@@ -28,6 +29,9 @@ public class FieldEncryptionService {
     private static final String PBKDF2_ALGORITHM = "PBKDF2WithHmacSHA256";
     private static final String ENCRYPTED_PREFIX = "ENC:";
 
+    /** Cipher instances are not thread-safe: reuse one per thread instead of a provider lookup per value. */
+    private static final ThreadLocal<Cipher> CIPHER = ThreadLocal.withInitial(FieldEncryptionService::newCipher);
+
     private final SecretKey secretKey;
     private final SecureRandom secureRandom;
 
@@ -50,7 +54,7 @@ public class FieldEncryptionService {
         try {
             byte[] iv = new byte[GCM_IV_LENGTH];
             secureRandom.nextBytes(iv);
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            Cipher cipher = CIPHER.get();
             cipher.init(Cipher.ENCRYPT_MODE, secretKey, new GCMParameterSpec(GCM_TAG_LENGTH, iv));
             byte[] ciphertext = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
             ByteBuffer buffer = ByteBuffer.allocate(iv.length + ciphertext.length);
@@ -72,7 +76,7 @@ public class FieldEncryptionService {
             buffer.get(iv);
             byte[] encrypted = new byte[buffer.remaining()];
             buffer.get(encrypted);
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            Cipher cipher = CIPHER.get();
             cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(GCM_TAG_LENGTH, iv));
             return new String(cipher.doFinal(encrypted), StandardCharsets.UTF_8);
         } catch (Exception e) {
@@ -80,6 +84,14 @@ public class FieldEncryptionService {
         }
     }
 
+    private static Cipher newCipher() {
+        try {
+            return Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException e) {
+            throw new EncryptionException("Cipher initialization failed", e);
+        }
+    }
+
     public boolean isEncrypted(String value) {
         return value != null && value.startsWith(ENCRYPTED_PREFIX);
     }
@@ -7,6 +7,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 /**
  * REST client for NewsService internal APIs
  * Sends crawled news data to NewsService for persistence
@@ -29,8 +31,11 @@ public class NewsServiceClient {
     /**
      * Save news articles to NewsService
      * POST /api/internal/news/bulk
+     *
+     * @return UUIDs of newly stored articles that start a new story (near-duplicates and
+     *         already stored articles excluded); empty if NewsService did not report them
      */
-    public Mono<Void> saveNews(Object newsData) {
+    public Mono<List<String>> saveNews(Object newsData) {
         log.info("Sending news articles to NewsService");
 
         return webClient.post()
@@ -45,13 +50,12 @@ public class NewsServiceClient {
                     } else {
                         log.warn("Received null response from NewsService");
                     }
-                    return Mono.empty();
+                    return Mono.justOrEmpty(response != null ? response.storyUuids() : null);
                 })
-                .then()
                 .doOnError(error -> log.error("Failed to save news articles to NewsService: {}", error.getMessage()));
     }
 
     // Response DTO
-    private record BulkNewsResponse(Integer processedCount, String message) {
+    private record BulkNewsResponse(Integer processedCount, String message, List<String> storyUuids) {
     }
 }
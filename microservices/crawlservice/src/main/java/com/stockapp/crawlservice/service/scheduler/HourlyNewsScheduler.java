@@ -19,7 +19,9 @@ import reactor.core.publisher.Mono;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -80,9 +82,11 @@ public class HourlyNewsScheduler {
                         100 // Max articles per fetch (300/day total)
                 ))
                 .flatMap(newsResponse -> {
-                    // Send to NewsService for persistence
+                    // Send to NewsService for persistence, then notify only about new stories
                     return newsServiceClient.saveNews(new NewsRequest(newsResponse))
-                            .then(sendNewsNotifications(newsResponse))
+                            .map(storyUuids -> onlyNewStories(newsResponse, storyUuids))
+                            .defaultIfEmpty(newsResponse)
+                            .flatMap(this::sendNewsNotifications)
                             .then(updateJobState("NEWS_ALL", JobStatus.SUCCEEDED, null));
                 })
                 .onErrorResume(error -> {
@@ -94,6 +98,27 @@ public class HourlyNewsScheduler {
                 .subscribe();
     }
 
+    /**
+     * Keep only articles NewsService stored as new stories, dropping near-duplicates of the
+     * same story from other sources and articles already stored by an earlier run
+     */
+    private NewsResponse onlyNewStories(NewsResponse newsResponse, List<String> storyUuids) {
+        if (newsResponse.getData() == null) {
+            return newsResponse;
+        }
+        Set<String> stories = new HashSet<>(storyUuids);
+        List<NewsResponse.NewsData> storyArticles = newsResponse.getData().stream()
+                .filter(article -> article.getUuid() != null && stories.contains(article.getUuid()))
+                .toList();
+        log.info("Notifying about {} new stories out of {} fetched articles",
+                storyArticles.size(), newsResponse.getData().size());
+
+        NewsResponse filtered = new NewsResponse();
+        filtered.setMeta(newsResponse.getMeta());
+        filtered.setData(storyArticles);
+        return filtered;
+    }
+
     /**
      * Send news notifications to users watching the relevant symbols
      */
@@ -0,0 +1,43 @@
+package com.stockapp.gateway.broker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockapp.gateway.security.jwt.TokenRevocationRegistry;
+import java.time.Instant;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumer for access-token revocations published by userservice.
+ * Topic: security.token-revocation (anonymous group, so every instance receives every event)
+ */
+@Component
+public class TokenRevocationConsumer implements Consumer<String> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TokenRevocationConsumer.class);
+
+    private final TokenRevocationRegistry revocationRegistry;
+    private final ObjectMapper objectMapper;
+
+    public TokenRevocationConsumer(TokenRevocationRegistry revocationRegistry, ObjectMapper objectMapper) {
+        this.revocationRegistry = revocationRegistry;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void accept(String message) {
+        try {
+            TokenRevocationMessage revocation = objectMapper.readValue(message, TokenRevocationMessage.class);
+            revocationRegistry.revoke(revocation.tokenDigest(), Instant.ofEpochMilli(revocation.expiresAt()));
+        } catch (Exception e) {
+            LOG.error("Failed to process token revocation message: {}", message, e);
+        }
+    }
+
+    /**
+     * @param tokenDigest SHA-256 digest of the revoked token
+     * @param expiresAt   token expiry in epoch milliseconds
+     */
+    record TokenRevocationMessage(String tokenDigest, long expiresAt) {}
+}
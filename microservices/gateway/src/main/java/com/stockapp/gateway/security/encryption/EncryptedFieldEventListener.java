@@ -1,14 +1,12 @@
 package com.stockapp.gateway.security.encryption;
 
-import java.lang.reflect.Field;
+import com.stockapp.gateway.security.encryption.EncryptedFieldMetadata.EncryptedProperty;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.data.mongodb.core.mapping.event.ReactiveBeforeConvertCallback;
 import org.springframework.data.mongodb.core.mapping.event.ReactiveAfterConvertCallback;
 import org.springframework.stereotype.Component;
-import org.springframework.util.ReflectionUtils;
 import reactor.core.publisher.Mono;
 
 /**
@@ -45,50 +43,26 @@ public class EncryptedFieldEventListener
     }
 
     private void processFieldsForEncryption(Object entity) {
-        ReflectionUtils.doWithFields(entity.getClass(), field -> {
-            if (AnnotationUtils.findAnnotation(field, Encrypted.class) != null) {
-                encryptField(field, entity);
+        for (EncryptedProperty property : EncryptedFieldMetadata.of(entity.getClass())) {
+            String value = property.get(entity);
+            if (value != null && !value.isEmpty() && !encryptionService.isEncrypted(value)) {
+                property.set(entity, encryptionService.encrypt(value));
             }
-        });
-    }
-
-    private void processFieldsForDecryption(Object entity) {
-        ReflectionUtils.doWithFields(entity.getClass(), field -> {
-            if (AnnotationUtils.findAnnotation(field, Encrypted.class) != null) {
-                decryptField(field, entity);
-            }
-        });
-    }
-
-    private void encryptField(Field field, Object entity) {
-        try {
-            field.setAccessible(true);
-            Object value = field.get(entity);
-            if (value instanceof String stringValue && !stringValue.isEmpty()) {
-                if (!encryptionService.isEncrypted(stringValue)) {
-                    field.set(entity, encryptionService.encrypt(stringValue));
-                }
-            }
-        } catch (IllegalAccessException e) {
-            LOG.error("Failed to encrypt field: {}", field.getName(), e);
         }
     }
 
-    private void decryptField(Field field, Object entity) {
-        try {
-            field.setAccessible(true);
-            Object value = field.get(entity);
-            if (value instanceof String stringValue && encryptionService.isEncrypted(stringValue)) {
+    private void processFieldsForDecryption(Object entity) {
+        for (EncryptedProperty property : EncryptedFieldMetadata.of(entity.getClass())) {
+            String value = property.get(entity);
+            if (encryptionService.isEncrypted(value)) {
                 try {
-                    field.set(entity, encryptionService.decrypt(stringValue));
+                    property.set(entity, encryptionService.decrypt(value));
                 } catch (Exception e) {
-                    LOG.warn("Failed to decrypt field '{}' — clearing value. Cause: {}", field.getName(),
+                    LOG.warn("Failed to decrypt field '{}' — clearing value. Cause: {}", property.name(),
                             e.getMessage());
-                    field.set(entity, null);
+                    property.set(entity, null);
                 }
             }
-        } catch (IllegalAccessException e) {
-            LOG.error("Failed to decrypt field: {}", field.getName(), e);
         }
     }
 }
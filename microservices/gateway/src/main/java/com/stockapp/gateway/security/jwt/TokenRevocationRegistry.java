@@ -0,0 +1,50 @@
+package com.stockapp.gateway.security.jwt;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory set of revoked access tokens, keyed by {@link TokenDigest}.
+ * <p>
+ * Entries are only needed until the token would have expired anyway, so the set stays as small
+ * as the number of revoked-but-unexpired tokens. It is fed from the
+ * {@code security.token-revocation} topic published by userservice when a session is revoked
+ * or logged out.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TokenRevocationRegistry.class);
+
+    /** Token digest to token expiry, in epoch milliseconds. */
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    public void revoke(String tokenDigest, Instant expiresAt) {
+        if (expiresAt != null && expiresAt.isAfter(Instant.now())) {
+            revoked.put(tokenDigest, expiresAt.toEpochMilli());
+        }
+    }
+
+    public boolean isRevoked(String tokenDigest) {
+        return revoked.containsKey(tokenDigest);
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        int before = revoked.size();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        if (before != revoked.size()) {
+            LOG.debug("Purged {} expired token revocations", before - revoked.size());
+        }
+    }
+}
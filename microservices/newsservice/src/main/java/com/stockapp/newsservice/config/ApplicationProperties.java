@@ -12,6 +12,7 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 public class ApplicationProperties {
 
     private Security security = new Security();
+    private News news = new News();
 
     public Security getSecurity() {
         return security;
@@ -21,6 +22,14 @@ public class ApplicationProperties {
         this.security = security;
     }
 
+    public News getNews() {
+        return news;
+    }
+
+    public void setNews(News news) {
+        this.news = news;
+    }
+
     public static class Security {
         private Encryption encryption = new Encryption();
 
@@ -54,6 +63,100 @@ public class ApplicationProperties {
         }
     }
 
+    public static class News {
+        private Dedup dedup = new Dedup();
+        private Retention retention = new Retention();
+
+        public Dedup getDedup() {
+            return dedup;
+        }
+
+        public void setDedup(Dedup dedup) {
+            this.dedup = dedup;
+        }
+
+        public Retention getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Retention retention) {
+            this.retention = retention;
+        }
+
+        public static class Retention {
+            /** Total retention; hot and archived articles expire through TTL indexes after this many days. */
+            private int days = 30;
+            /** Articles older than this are moved from the hot collection to the archive collection, which removes them from the hot one. */
+            private int hotDays = 7;
+            private boolean archiveEnabled = true;
+            private int archiveBatchSize = 500;
+
+            public int getDays() {
+                return days;
+            }
+
+            public void setDays(int days) {
+                this.days = days;
+            }
+
+            public int getHotDays() {
+                return hotDays;
+            }
+
+            public void setHotDays(int hotDays) {
+                this.hotDays = hotDays;
+            }
+
+            public boolean isArchiveEnabled() {
+                return archiveEnabled;
+            }
+
+            public void setArchiveEnabled(boolean archiveEnabled) {
+                this.archiveEnabled = archiveEnabled;
+            }
+
+            public int getArchiveBatchSize() {
+                return archiveBatchSize;
+            }
+
+            public void setArchiveBatchSize(int archiveBatchSize) {
+                this.archiveBatchSize = archiveBatchSize;
+            }
+        }
+
+        public static class Dedup {
+            private boolean enabled = true;
+            /** Maximum SimHash Hamming distance (out of 64 bits, at most 15) for two articles to be the same story. */
+            private int maxDistance = 3;
+            /** How long a story stays in the in-memory index and can absorb duplicates. */
+            private int windowHours = 72;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMaxDistance() {
+                return maxDistance;
+            }
+
+            public void setMaxDistance(int maxDistance) {
+                this.maxDistance = maxDistance;
+            }
+
+            public int getWindowHours() {
+                return windowHours;
+            }
+
+            public void setWindowHours(int windowHours) {
+                this.windowHours = windowHours;
+            }
+        }
+    }
+
     // jhipster-needle-application-properties-property
 
     // jhipster-needle-application-properties-property-getter
@@ -0,0 +1,126 @@
+package com.stockapp.newsservice.config;
+
+import com.stockapp.newsservice.domain.ArchivedNews;
+import com.stockapp.newsservice.domain.CompanyNews;
+import com.stockapp.newsservice.domain.NewsEntity;
+import com.mongodb.MongoException;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * News retention through MongoDB TTL indexes on {@code published_at}.
+ * <p>
+ * Both the hot and the archive collection expire after the full retention period. With archiving
+ * enabled, the nightly archive pass moves articles older than {@code hot-days} to the compact archive
+ * collection and only then removes them from the hot collection, so articles the pass has not
+ * reached yet (for instance while it is failing) stay in the hot collection instead of being
+ * deleted before they were archived. Entities are embedded in their article and expire with it.
+ */
+@Configuration
+public class NewsRetentionConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NewsRetentionConfiguration.class);
+
+    private static final String TTL_FIELD = "published_at";
+    private static final String TTL_INDEX_NAME = "published_at_ttl";
+    private static final String ARCHIVE_SYMBOLS_INDEX_NAME = "symbols_published_at";
+    /** Server error code when an index with the same name exists with other options. */
+    private static final int INDEX_OPTIONS_CONFLICT = 85;
+    private static final int INDEX_NOT_FOUND = 27;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ApplicationProperties.News.Retention retention;
+
+    public NewsRetentionConfiguration(ReactiveMongoTemplate mongoTemplate, ApplicationProperties applicationProperties) {
+        this.mongoTemplate = mongoTemplate;
+        this.retention = applicationProperties.getNews().getRetention();
+    }
+
+    @PostConstruct
+    public void ensureTtlIndexes() {
+        Duration retentionPeriod = Duration.ofDays(retention.getDays());
+
+        Flux.concat(
+            ensureTtlIndex(CompanyNews.COLLECTION, retentionPeriod),
+            ensureTtlIndex(ArchivedNews.COLLECTION, retentionPeriod),
+            ensureArchiveSymbolsIndex(),
+            dropEntityTtlIndex()
+        ).subscribe();
+    }
+
+    /**
+     * Symbol lookups fall back to the archive, newest first.
+     */
+    private Mono<Void> ensureArchiveSymbolsIndex() {
+        Index index = new Index()
+            .on("symbols", Sort.Direction.ASC)
+            .on(TTL_FIELD, Sort.Direction.DESC)
+            .named(ARCHIVE_SYMBOLS_INDEX_NAME);
+
+        return mongoTemplate
+            .indexOps(ArchivedNews.COLLECTION)
+            .ensureIndex(index)
+            .then()
+            .doOnError(error -> LOG.error("Failed to ensure symbols index on {}: {}", ArchivedNews.COLLECTION, error.getMessage(), error))
+            .onErrorResume(error -> Mono.empty());
+    }
+
+    /**
+     * Entity rows are not written by ingestion (entities are embedded in the article), so an
+     * earlier TTL index on them never expired anything.
+     */
+    private Mono<Void> dropEntityTtlIndex() {
+        return mongoTemplate
+            .indexOps(NewsEntity.COLLECTION)
+            .dropIndex(TTL_INDEX_NAME)
+            .doOnSuccess(ignored -> LOG.info("Dropped unused TTL index on {}", NewsEntity.COLLECTION))
+            .onErrorResume(error -> {
+                if (!hasErrorCode(error, INDEX_NOT_FOUND)) {
+                    LOG.warn("Failed to drop TTL index on {}: {}", NewsEntity.COLLECTION, error.getMessage());
+                }
+                return Mono.empty();
+            });
+    }
+
+    /**
+     * Create the TTL index, or adjust its expiry with {@code collMod} when it already exists
+     * with a different {@code expireAfterSeconds}.
+     */
+    private Mono<Void> ensureTtlIndex(String collection, Duration expireAfter) {
+        Index index = new Index().on(TTL_FIELD, Sort.Direction.ASC).named(TTL_INDEX_NAME).expire(expireAfter);
+
+        return mongoTemplate
+            .indexOps(collection)
+            .ensureIndex(index)
+            .doOnSuccess(name -> LOG.info("TTL index on {}.{} expires after {} days", collection, TTL_FIELD, expireAfter.toDays()))
+            .then()
+            .onErrorResume(error -> hasErrorCode(error, INDEX_OPTIONS_CONFLICT), error -> {
+                LOG.info("Updating TTL of index {} on {} to {} days ({})", TTL_INDEX_NAME, collection, expireAfter.toDays(), error.getMessage());
+                Document collMod = new Document("collMod", collection).append(
+                    "index",
+                    new Document("name", TTL_INDEX_NAME).append("expireAfterSeconds", expireAfter.toSeconds())
+                );
+                return mongoTemplate.executeCommand(collMod).then();
+            })
+            .doOnError(error -> LOG.error("Failed to ensure TTL index on {}: {}", collection, error.getMessage(), error))
+            .onErrorResume(error -> Mono.empty());
+    }
+
+    private static boolean hasErrorCode(Throwable error, int code) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoException && mongoException.getCode() == code) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,150 @@
+package com.stockapp.newsservice.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * Compact copy of a {@link CompanyNews} article that aged out of the hot collection.
+ * Keeps only what is needed to resolve old links and symbol lookups; body text,
+ * images and embedded entities are dropped.
+ */
+@Document(collection = ArchivedNews.COLLECTION)
+public class ArchivedNews implements Serializable {
+
+    public static final String COLLECTION = "company_news_archive";
+
+    private static final long serialVersionUID = 1L;
+
+    /** Same id as the hot document, so re-running an interrupted archive pass is idempotent. */
+    @Id
+    private String id;
+
+    @Field("uuid")
+    private String uuid;
+
+    @Field("title")
+    private String title;
+
+    @Field("url")
+    private String url;
+
+    @Field("source")
+    private String source;
+
+    @Field("published_at")
+    private Instant publishedAt;
+
+    @Field("symbols")
+    private List<String> symbols = new ArrayList<>();
+
+    @Field("story_id")
+    private String storyId;
+
+    @Field("is_duplicate")
+    private Boolean duplicate;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public void setUuid(String uuid) {
+        this.uuid = uuid;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public Instant getPublishedAt() {
+        return publishedAt;
+    }
+
+    public void setPublishedAt(Instant publishedAt) {
+        this.publishedAt = publishedAt;
+    }
+
+    public List<String> getSymbols() {
+        return symbols;
+    }
+
+    public void setSymbols(List<String> symbols) {
+        this.symbols = symbols;
+    }
+
+    public String getStoryId() {
+        return storyId;
+    }
+
+    public void setStoryId(String storyId) {
+        this.storyId = storyId;
+    }
+
+    public Boolean getDuplicate() {
+        return duplicate;
+    }
+
+    public void setDuplicate(Boolean duplicate) {
+        this.duplicate = duplicate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ArchivedNews)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((ArchivedNews) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ArchivedNews{" +
+            "id=" + getId() +
+            ", uuid='" + getUuid() + "'" +
+            ", title='" + getTitle() + "'" +
+            ", publishedAt='" + getPublishedAt() + "'" +
+            ", storyId='" + getStoryId() + "'" +
+            "}";
+    }
+}
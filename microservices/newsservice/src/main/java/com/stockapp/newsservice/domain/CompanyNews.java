@@ -14,10 +14,12 @@ import org.springframework.data.mongodb.core.mapping.Field;
 /**
  * A CompanyNews.
  */
-@Document(collection = "company_news")
+@Document(collection = CompanyNews.COLLECTION)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class CompanyNews implements Serializable {
 
+    public static final String COLLECTION = "company_news";
+
     private static final long serialVersionUID = 1L;
 
     @Id
@@ -71,6 +73,21 @@ public class CompanyNews implements Serializable {
     @JsonIgnoreProperties(value = { "companyNews" }, allowSetters = true)
     private CompanyRef company;
 
+    /**
+     * 64-bit SimHash of title + snippet, used to detect near-duplicate stories.
+     */
+    @Field("simhash")
+    private Long simhash;
+
+    /**
+     * UUID of the first article seen for this story; equals {@code uuid} for the story itself.
+     */
+    @Field("story_id")
+    private String storyId;
+
+    @Field("is_duplicate")
+    private Boolean duplicate;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public String getId() {
@@ -273,6 +290,30 @@ public class CompanyNews implements Serializable {
         return this;
     }
 
+    public Long getSimhash() {
+        return this.simhash;
+    }
+
+    public void setSimhash(Long simhash) {
+        this.simhash = simhash;
+    }
+
+    public String getStoryId() {
+        return this.storyId;
+    }
+
+    public void setStoryId(String storyId) {
+        this.storyId = storyId;
+    }
+
+    public Boolean getDuplicate() {
+        return this.duplicate;
+    }
+
+    public void setDuplicate(Boolean duplicate) {
+        this.duplicate = duplicate;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -308,6 +349,8 @@ public class CompanyNews implements Serializable {
             ", source='" + getSource() + "'" +
             ", keywords='" + getKeywords() + "'" +
             ", relevanceScore=" + getRelevanceScore() +
+            ", storyId='" + getStoryId() + "'" +
+            ", duplicate='" + getDuplicate() + "'" +
             "}";
     }
 }
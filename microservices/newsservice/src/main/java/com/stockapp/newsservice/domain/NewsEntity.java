@@ -11,10 +11,12 @@ import org.springframework.data.mongodb.core.mapping.Field;
 /**
  * A NewsEntity.
  */
-@Document(collection = "news_entity")
+@Document(collection = NewsEntity.COLLECTION)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class NewsEntity implements Serializable {
 
+    public static final String COLLECTION = "news_entity";
+
     private static final long serialVersionUID = 1L;
 
     @Id
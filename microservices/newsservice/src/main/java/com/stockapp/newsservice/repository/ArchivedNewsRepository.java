@@ -0,0 +1,25 @@
+package com.stockapp.newsservice.repository;
+
+import com.stockapp.newsservice.domain.ArchivedNews;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Spring Data MongoDB reactive repository for the archived (cold) news collection.
+ */
+@Repository
+public interface ArchivedNewsRepository extends ReactiveMongoRepository<ArchivedNews, String> {
+    /**
+     * Find archived news by UUID
+     */
+    Mono<ArchivedNews> findByUuid(String uuid);
+
+    /**
+     * Find archived stories mentioning a symbol, newest first (served by the symbols index)
+     */
+    @Query(value = "{ 'symbols': ?0, 'is_duplicate': { $ne: true } }", sort = "{ 'published_at': -1 }")
+    Flux<ArchivedNews> findStoriesBySymbol(String symbol);
+}
@@ -37,6 +37,26 @@ public interface CompanyNewsRepository extends ReactiveMongoRepository<CompanyNe
      */
     Flux<CompanyNews> findAllByOrderByPublishedAtDesc();
 
+    /**
+     * Find news stories (near-duplicates excluded) ordered by published date descending
+     */
+    @Query(value = "{ 'is_duplicate': { $ne: true } }", sort = "{ 'published_at': -1 }")
+    Flux<CompanyNews> findStoriesOrderByPublishedAtDesc();
+
+    /**
+     * Load SimHash signatures of articles published after the given date (projection only)
+     */
+    @Query(
+        value = "{ 'published_at': { $gt: ?0 }, 'simhash': { $exists: true } }",
+        fields = "{ 'uuid': 1, 'simhash': 1, 'story_id': 1, 'published_at': 1 }"
+    )
+    Flux<CompanyNews> findSignaturesPublishedAfter(Instant since);
+
+    /**
+     * Find news published before the specified date (served by the published_at TTL index)
+     */
+    Flux<CompanyNews> findByPublishedAtBefore(Instant cutoffDate);
+
     /**
      * Delete news older than specified date
      */
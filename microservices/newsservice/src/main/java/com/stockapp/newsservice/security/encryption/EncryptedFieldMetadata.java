@@ -0,0 +1,77 @@
+package com.stockapp.newsservice.security.encryption;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link Encrypted} string fields of an entity class, resolved once per class with a
+ * {@link VarHandle} accessor each. Classes without encrypted fields resolve to an empty list,
+ * so saves and loads of those entities skip reflection entirely.
+ */
+final class EncryptedFieldMetadata {
+
+    private static final ClassValue<List<EncryptedProperty>> PROPERTIES = new ClassValue<>() {
+        @Override
+        protected List<EncryptedProperty> computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
+
+    private EncryptedFieldMetadata() {}
+
+    static List<EncryptedProperty> of(Class<?> type) {
+        return PROPERTIES.get(type);
+    }
+
+    private static List<EncryptedProperty> resolve(Class<?> type) {
+        List<EncryptedProperty> properties = new ArrayList<>();
+        ReflectionUtils.doWithFields(type, field -> {
+            Encrypted encrypted = AnnotationUtils.findAnnotation(field, Encrypted.class);
+            if (encrypted != null && isAccessible(field)) {
+                properties.add(new EncryptedProperty(
+                        field.getName(),
+                        mongoFieldName(field),
+                        encrypted.maskInLogs(),
+                        varHandle(field)));
+            }
+        });
+        return properties.isEmpty() ? List.of() : List.copyOf(properties);
+    }
+
+    private static boolean isAccessible(Field field) {
+        int modifiers = field.getModifiers();
+        return field.getType() == String.class && !Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers);
+    }
+
+    private static String mongoFieldName(Field field) {
+        org.springframework.data.mongodb.core.mapping.Field fieldAnnotation = field.getAnnotation(
+                org.springframework.data.mongodb.core.mapping.Field.class);
+        return fieldAnnotation != null && StringUtils.hasText(fieldAnnotation.value()) ? fieldAnnotation.value() : field.getName();
+    }
+
+    private static VarHandle varHandle(Field field) {
+        try {
+            return MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup()).unreflectVarHandle(field);
+        } catch (IllegalAccessException e) {
+            throw new EncryptionException("Cannot access encrypted field " + field.getName(), e);
+        }
+    }
+
+    record EncryptedProperty(String name, String mongoFieldName, boolean maskInLogs, VarHandle handle) {
+
+        String get(Object entity) {
+            return (String) handle.get(entity);
+        }
+
+        void set(Object entity, String value) {
+            handle.set(entity, value);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.stockapp.newsservice.service;
+
+import com.stockapp.newsservice.config.ApplicationProperties;
+import com.stockapp.newsservice.domain.ArchivedNews;
+import com.stockapp.newsservice.domain.CompanyNews;
+import com.stockapp.newsservice.domain.NewsEntity;
+import com.stockapp.newsservice.repository.ArchivedNewsRepository;
+import com.stockapp.newsservice.repository.CompanyNewsRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Moves articles that aged out of the hot window into the compact archive collection,
+ * keeping {@code company_news} and its indexes small. This is the only way articles leave the
+ * hot collection before the end of the retention period; deletion of expired articles is left
+ * to the TTL indexes (see {@code NewsRetentionConfiguration}).
+ */
+@Service
+public class NewsArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(NewsArchiveService.class);
+
+    private final CompanyNewsRepository companyNewsRepository;
+    private final ArchivedNewsRepository archivedNewsRepository;
+    private final ApplicationProperties.News.Retention retention;
+
+    public NewsArchiveService(
+            CompanyNewsRepository companyNewsRepository,
+            ArchivedNewsRepository archivedNewsRepository,
+            ApplicationProperties applicationProperties) {
+        this.companyNewsRepository = companyNewsRepository;
+        this.archivedNewsRepository = archivedNewsRepository;
+        this.retention = applicationProperties.getNews().getRetention();
+    }
+
+    public boolean isArchiveEnabled() {
+        return retention.isArchiveEnabled();
+    }
+
+    /**
+     * Archive articles published before the hot window, batch by batch: each batch is written
+     * to the archive before it is removed from the hot collection.
+     *
+     * @return Mono of archived count
+     */
+    public Mono<Long> archiveColdNews() {
+        Instant cutoff = Instant.now().minus(Duration.ofDays(retention.getHotDays()));
+        log.info("Archiving news articles published before {}", cutoff);
+
+        return companyNewsRepository.findByPublishedAtBefore(cutoff)
+                .map(this::toArchived)
+                .buffer(retention.getArchiveBatchSize())
+                .concatMap(batch -> archivedNewsRepository.saveAll(batch)
+                        .then(companyNewsRepository.deleteAllById(batch.stream().map(ArchivedNews::getId).toList()))
+                        .thenReturn((long) batch.size()))
+                .reduce(0L, Long::sum)
+                .doOnSuccess(count -> log.info("Archived {} news articles", count));
+    }
+
+    /**
+     * Find an archived article by UUID, shaped as a {@link CompanyNews} for read endpoints
+     */
+    public Mono<CompanyNews> findByUuid(String uuid) {
+        return archivedNewsRepository.findByUuid(uuid).map(this::fromArchived);
+    }
+
+    /**
+     * Find archived stories mentioning a symbol, newest first, shaped as {@link CompanyNews}
+     */
+    public Flux<CompanyNews> findBySymbol(String symbol, int limit) {
+        return archivedNewsRepository.findStoriesBySymbol(symbol).take(limit).map(this::fromArchived);
+    }
+
+    private ArchivedNews toArchived(CompanyNews news) {
+        ArchivedNews archived = new ArchivedNews();
+        archived.setId(news.getId());
+        archived.setUuid(news.getUuid());
+        archived.setTitle(news.getTitle());
+        archived.setUrl(news.getUrl());
+        archived.setSource(news.getSource());
+        archived.setPublishedAt(news.getPublishedAt());
+        archived.setStoryId(news.getStoryId());
+        archived.setDuplicate(news.getDuplicate());
+        if (news.getEntities() != null) {
+            archived.setSymbols(news.getEntities().stream().map(NewsEntity::getSymbol).filter(Objects::nonNull).distinct().toList());
+        }
+        return archived;
+    }
+
+    private CompanyNews fromArchived(ArchivedNews archived) {
+        CompanyNews news = new CompanyNews();
+        news.setId(archived.getId());
+        news.setUuid(archived.getUuid());
+        news.setTitle(archived.getTitle());
+        news.setUrl(archived.getUrl());
+        news.setSource(archived.getSource());
+        news.setPublishedAt(archived.getPublishedAt());
+        news.setStoryId(archived.getStoryId());
+        news.setDuplicate(archived.getDuplicate());
+        List<String> symbols = archived.getSymbols() != null ? archived.getSymbols() : List.of();
+        symbols.forEach(symbol -> {
+            NewsEntity entity = new NewsEntity();
+            entity.setNewsUuid(archived.getUuid());
+            entity.setSymbol(symbol);
+            news.addEntities(entity);
+        });
+        return news;
+    }
+}
@@ -5,6 +5,8 @@ import com.stockapp.newsservice.domain.CompanyNews;
 import com.stockapp.newsservice.domain.NewsEntity;
 import com.stockapp.newsservice.repository.CompanyNewsRepository;
 import com.stockapp.newsservice.repository.NewsEntityRepository;
+import com.stockapp.newsservice.service.dedup.NewsDeduplicationService;
+import com.stockapp.newsservice.service.dedup.SimHash;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -15,6 +17,7 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -30,24 +33,30 @@ public class NewsIngestionService {
 
     private final CompanyNewsRepository companyNewsRepository;
     private final NewsEntityRepository newsEntityRepository;
+    private final NewsDeduplicationService newsDeduplicationService;
+    private final NewsArchiveService newsArchiveService;
 
     public NewsIngestionService(
             CompanyNewsRepository companyNewsRepository,
-            NewsEntityRepository newsEntityRepository) {
+            NewsEntityRepository newsEntityRepository,
+            NewsDeduplicationService newsDeduplicationService,
+            NewsArchiveService newsArchiveService) {
         this.companyNewsRepository = companyNewsRepository;
         this.newsEntityRepository = newsEntityRepository;
+        this.newsDeduplicationService = newsDeduplicationService;
+        this.newsArchiveService = newsArchiveService;
     }
 
     /**
      * Process and save news data from crawl service
      * 
      * @param newsResponse News response from external API
-     * @return Mono of saved count
+     * @return Mono of the ingestion result (saved count and UUIDs of new stories)
      */
-    public Mono<Integer> ingestNews(NewsResponse newsResponse) {
+    public Mono<IngestionResult> ingestNews(NewsResponse newsResponse) {
         if (newsResponse == null || newsResponse.getData() == null || newsResponse.getData().isEmpty()) {
             log.warn("Received empty news response, nothing to process");
-            return Mono.just(0);
+            return Mono.just(new IngestionResult(0, 0, List.of()));
         }
 
         int totalArticles = newsResponse.getData().size();
@@ -59,15 +68,21 @@ public class NewsIngestionService {
                 .map(savedList -> {
                     int savedCount = savedList.size();
                     int skippedCount = totalArticles - savedCount;
-                    log.info("Ingestion complete: {} saved, {} skipped (duplicates), {} total",
-                            savedCount, skippedCount, totalArticles);
-                    return savedCount;
+                    List<String> newStoryUuids = savedList.stream()
+                            .filter(news -> !Boolean.TRUE.equals(news.getDuplicate()))
+                            .map(CompanyNews::getUuid)
+                            .toList();
+                    int duplicateCount = savedCount - newStoryUuids.size();
+                    log.info("Ingestion complete: {} saved ({} new stories, {} near-duplicates), {} skipped (already stored), {} total",
+                            savedCount, newStoryUuids.size(), duplicateCount, skippedCount, totalArticles);
+                    return new IngestionResult(savedCount, duplicateCount, newStoryUuids);
                 })
                 .doOnError(error -> log.error("Error during news ingestion: {}", error.getMessage(), error));
     }
 
     /**
-     * Process a single news article with its entities
+     * Process a single news article with its entities.
+     * Emits only newly saved articles; articles already stored under the same UUID complete empty.
      */
     private Mono<CompanyNews> processNewsArticle(NewsResponse.NewsData newsData) {
         try {
@@ -75,7 +90,7 @@ public class NewsIngestionService {
             return companyNewsRepository.findByUuid(newsData.getUuid())
                     .flatMap(existing -> {
                         log.debug("News article {} already exists, skipping", newsData.getUuid());
-                        return Mono.just(existing);
+                        return Mono.<CompanyNews>empty();
                     })
                     .switchIfEmpty(Mono.defer(() -> saveNewArticle(newsData)));
         } catch (Exception e) {
@@ -127,11 +142,29 @@ public class NewsIngestionService {
 
         companyNews.setEntities(entities);
 
+        // Attach the article to a story cluster (near-duplicates share the first article's UUID)
+        long signature = SimHash.of(joinNonNull(newsData.getTitle(), newsData.getSnippet()));
+        String storyId = newsDeduplicationService.assignStory(newsData.getUuid(), signature, companyNews.getPublishedAt());
+        companyNews.setSimhash(signature);
+        companyNews.setStoryId(storyId);
+        companyNews.setDuplicate(!storyId.equals(newsData.getUuid()));
+
         // Save the news article
         return companyNewsRepository.save(companyNews)
                 .doOnSuccess(saved -> log.debug("Saved news article: {}", saved.getUuid()))
-                .doOnError(error -> log.error("Failed to save news article {}: {}",
-                        newsData.getUuid(), error.getMessage()));
+                .doOnError(error -> {
+                    log.error("Failed to save news article {}: {}", newsData.getUuid(), error.getMessage());
+                    if (!companyNews.getDuplicate()) {
+                        newsDeduplicationService.release(storyId);
+                    }
+                });
+    }
+
+    private static String joinNonNull(String title, String snippet) {
+        if (snippet == null) {
+            return title;
+        }
+        return title == null ? snippet : title + ' ' + snippet;
     }
 
     /**
@@ -158,24 +191,49 @@ public class NewsIngestionService {
     }
 
     /**
-     * Get news by symbol
+     * Get news by symbol, topped up from the archive when the hot collection has fewer than {@code limit}
      */
     public Flux<CompanyNews> getNewsBySymbol(String symbol, int limit) {
         return newsEntityRepository.findBySymbol(symbol)
                 .flatMap(entity -> companyNewsRepository.findByUuid(entity.getNewsUuid()))
                 .distinct(CompanyNews::getUuid)
+                .filter(news -> !Boolean.TRUE.equals(news.getDuplicate()))
                 .sort((a, b) -> b.getPublishedAt().compareTo(a.getPublishedAt()))
+                .take(limit)
+                .collectList()
+                .flatMapMany(recent -> recent.size() >= limit
+                        ? Flux.fromIterable(recent)
+                        : Flux.fromIterable(recent).concatWith(newsArchiveService.findBySymbol(symbol, limit)))
+                .distinct(CompanyNews::getUuid)
                 .take(limit);
     }
 
     /**
-     * Get latest news across all symbols
+     * Get latest news across all symbols, one article per story
      */
     public Flux<CompanyNews> getLatestNews(int limit) {
-        return companyNewsRepository.findAllByOrderByPublishedAtDesc()
+        return companyNewsRepository.findStoriesOrderByPublishedAtDesc()
                 .take(limit);
     }
 
+    /**
+     * Get a news article by UUID, including near-duplicates of a story and archived articles
+     */
+    public Mono<CompanyNews> getNewsByUuid(String uuid) {
+        return companyNewsRepository.findByUuid(uuid)
+                .switchIfEmpty(Mono.defer(() -> newsArchiveService.findByUuid(uuid)));
+    }
+
+    /**
+     * Outcome of a bulk ingestion.
+     *
+     * @param savedCount     newly stored articles
+     * @param duplicateCount newly stored articles attached to an existing story
+     * @param newStoryUuids  UUIDs of newly stored articles that started a new story
+     */
+    public record IngestionResult(int savedCount, int duplicateCount, List<String> newStoryUuids) {
+    }
+
     /**
      * Delete old news articles (older than specified days)
      */
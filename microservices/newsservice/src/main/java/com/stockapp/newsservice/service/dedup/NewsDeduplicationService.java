@@ -0,0 +1,196 @@
+package com.stockapp.newsservice.service.dedup;
+
+import com.stockapp.newsservice.config.ApplicationProperties;
+import com.stockapp.newsservice.repository.CompanyNewsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Groups near-duplicate news articles into stories.
+ * Marketaux returns the same story from several sources under different UUIDs; each article's
+ * SimHash is looked up in an in-memory LSH index (signature split into bands, one bucket map per
+ * band) and attached to the first story within the configured Hamming distance.
+ * With {@code maxDistance + 1} or more bands, two signatures within that distance always share
+ * at least one band, so the banded lookup never misses a match. The index has at most 16 bands,
+ * so {@code maxDistance} is limited to 15.
+ */
+@Service
+public class NewsDeduplicationService {
+
+    private static final Logger log = LoggerFactory.getLogger(NewsDeduplicationService.class);
+    private static final int MAX_BANDS = 16;
+    static final int MAX_DISTANCE = MAX_BANDS - 1;
+
+    private final CompanyNewsRepository companyNewsRepository;
+    private final boolean enabled;
+    private final int maxDistance;
+    private final int bands;
+    private final int bandBits;
+    private final Duration window;
+    private final Counter duplicateCounter;
+
+    /** Band bucket key -> stories whose signature has that band value. Guarded by {@code this}. */
+    private final Map<Long, List<Story>> buckets = new HashMap<>();
+    /** Story id -> story, to drop entries on eviction or failed saves. Guarded by {@code this}. */
+    private final Map<String, Story> stories = new HashMap<>();
+
+    public NewsDeduplicationService(
+            CompanyNewsRepository companyNewsRepository,
+            ApplicationProperties applicationProperties,
+            MeterRegistry meterRegistry) {
+        ApplicationProperties.News.Dedup dedup = applicationProperties.getNews().getDedup();
+        if (dedup.getMaxDistance() < 0 || dedup.getMaxDistance() > MAX_DISTANCE) {
+            throw new IllegalArgumentException(
+                    "application.news.dedup.max-distance must be between 0 and " + MAX_DISTANCE + ", was " + dedup.getMaxDistance());
+        }
+        this.companyNewsRepository = companyNewsRepository;
+        this.enabled = dedup.isEnabled();
+        this.maxDistance = dedup.getMaxDistance();
+        this.bands = Math.min(MAX_BANDS, Math.max(1, Integer.highestOneBit(this.maxDistance) * 2));
+        this.bandBits = 64 / this.bands;
+        this.window = Duration.ofHours(dedup.getWindowHours());
+        this.duplicateCounter = Counter.builder("news.dedup.duplicates")
+                .description("News articles attached to an existing story instead of creating a new one")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Resolve the story an article belongs to, registering it as a new story when no
+     * near-duplicate is indexed.
+     *
+     * @param uuid        article UUID
+     * @param signature   SimHash of title + snippet
+     * @param publishedAt article publication date
+     * @return story id: the article's own UUID for a new story, otherwise the UUID of the story it duplicates
+     */
+    public synchronized String assignStory(String uuid, long signature, Instant publishedAt) {
+        if (!enabled || signature == 0L) {
+            return uuid;
+        }
+
+        Story match = findMatch(signature);
+        if (match != null) {
+            duplicateCounter.increment();
+            log.debug("Article {} is a near-duplicate of story {}", uuid, match.id());
+            return match.id();
+        }
+
+        index(new Story(uuid, signature, publishedAt));
+        return uuid;
+    }
+
+    /**
+     * Remove a story from the index, e.g. when persisting its first article failed.
+     */
+    public synchronized void release(String storyId) {
+        Story story = stories.remove(storyId);
+        if (story != null) {
+            unindex(story);
+        }
+    }
+
+    /**
+     * Rebuild the index from recently published articles so duplicates keep clustering after a restart.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        if (!enabled) {
+            return;
+        }
+        companyNewsRepository.findSignaturesPublishedAfter(Instant.now().minus(window))
+                .filter(news -> news.getSimhash() != null && news.getUuid().equals(storyIdOf(news.getUuid(), news.getStoryId())))
+                .doOnNext(news -> {
+                    synchronized (this) {
+                        if (!stories.containsKey(news.getUuid())) {
+                            index(new Story(news.getUuid(), news.getSimhash(), news.getPublishedAt()));
+                        }
+                    }
+                })
+                .count()
+                .subscribe(
+                        count -> log.info("News dedup index bootstrapped with {} stories", count),
+                        error -> log.warn("Could not bootstrap news dedup index: {}", error.getMessage()));
+    }
+
+    /**
+     * Drop stories that fell out of the dedup window.
+     */
+    @Scheduled(fixedDelay = 3600000, initialDelay = 3600000)
+    public synchronized void evictExpired() {
+        Instant cutoff = Instant.now().minus(window);
+        List<Story> expired = stories.values().stream()
+                .filter(story -> story.publishedAt() == null || story.publishedAt().isBefore(cutoff))
+                .toList();
+        expired.forEach(story -> {
+            stories.remove(story.id());
+            unindex(story);
+        });
+        if (!expired.isEmpty()) {
+            log.debug("Evicted {} stories from news dedup index, {} remaining", expired.size(), stories.size());
+        }
+    }
+
+    private Story findMatch(long signature) {
+        Story best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int band = 0; band < bands; band++) {
+            List<Story> candidates = buckets.get(bucketKey(band, signature));
+            if (candidates == null) {
+                continue;
+            }
+            for (Story candidate : candidates) {
+                int distance = SimHash.distance(signature, candidate.signature());
+                if (distance <= maxDistance && distance < bestDistance) {
+                    best = candidate;
+                    bestDistance = distance;
+                }
+            }
+        }
+        return best;
+    }
+
+    private void index(Story story) {
+        stories.put(story.id(), story);
+        for (int band = 0; band < bands; band++) {
+            buckets.computeIfAbsent(bucketKey(band, story.signature()), key -> new ArrayList<>(2)).add(story);
+        }
+    }
+
+    private void unindex(Story story) {
+        for (int band = 0; band < bands; band++) {
+            long key = bucketKey(band, story.signature());
+            List<Story> bucket = buckets.get(key);
+            if (bucket != null) {
+                bucket.remove(story);
+                if (bucket.isEmpty()) {
+                    buckets.remove(key);
+                }
+            }
+        }
+    }
+
+    private long bucketKey(int band, long signature) {
+        long mask = bandBits == 64 ? -1L : (1L << bandBits) - 1;
+        long value = (signature >>> (band * bandBits)) & mask;
+        // band index in the top bits keeps buckets of different bands apart
+        return ((long) band << 58) ^ value;
+    }
+
+    private static String storyIdOf(String uuid, String storyId) {
+        return storyId != null ? storyId : uuid;
+    }
+
+    private record Story(String id, long signature, Instant publishedAt) {}
+}
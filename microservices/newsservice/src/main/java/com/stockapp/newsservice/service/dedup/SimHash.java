@@ -0,0 +1,93 @@
+package com.stockapp.newsservice.service.dedup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 64-bit SimHash over word unigrams and bigrams.
+ * Texts that share most of their wording end up a few bits apart, so near-duplicate
+ * stories can be found by Hamming distance instead of exact comparison.
+ */
+public final class SimHash {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    private SimHash() {}
+
+    /**
+     * Compute the signature of the given text.
+     *
+     * @param text free text (title + snippet)
+     * @return 64-bit signature, or 0 when the text has no usable tokens
+     */
+    public static long of(String text) {
+        List<String> tokens = tokenize(text);
+        if (tokens.isEmpty()) {
+            return 0L;
+        }
+
+        int[] weights = new int[64];
+        String previous = null;
+        for (String token : tokens) {
+            accumulate(weights, hash(token));
+            if (previous != null) {
+                accumulate(weights, hash(previous + ' ' + token));
+            }
+            previous = token;
+        }
+
+        long signature = 0L;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                signature |= 1L << bit;
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Number of differing bits between two signatures.
+     */
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    private static void accumulate(int[] weights, long hash) {
+        for (int bit = 0; bit < 64; bit++) {
+            weights[bit] += ((hash >>> bit) & 1L) == 1L ? 1 : -1;
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() >= MIN_TOKEN_LENGTH) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * FNV-1a followed by the MurmurHash3 finalizer so that short tokens spread over all 64 bits.
+     */
+    private static long hash(String token) {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < token.length(); i++) {
+            h ^= token.charAt(i);
+            h *= FNV_PRIME;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -1,44 +1,48 @@
 package com.stockapp.newsservice.service.scheduler;
 
-import com.stockapp.newsservice.service.NewsIngestionService;
+import com.stockapp.newsservice.service.NewsArchiveService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 /**
- * Scheduled task to cleanup old news articles
- * Runs daily at midnight to remove news older than 30 days
+ * Scheduled task to move cold news articles into the archive collection
+ * Runs daily at midnight; expired articles are removed by MongoDB TTL indexes, not by this job
  */
 @Service
 public class NewsCleanupScheduler {
 
     private static final Logger log = LoggerFactory.getLogger(NewsCleanupScheduler.class);
-    private static final int DAYS_TO_KEEP = 30;
 
-    private final NewsIngestionService newsIngestionService;
+    private final NewsArchiveService newsArchiveService;
 
-    public NewsCleanupScheduler(NewsIngestionService newsIngestionService) {
-        this.newsIngestionService = newsIngestionService;
+    public NewsCleanupScheduler(NewsArchiveService newsArchiveService) {
+        this.newsArchiveService = newsArchiveService;
     }
 
     /**
-     * Scheduled job: Daily cleanup at midnight
+     * Scheduled job: Daily archive pass at midnight
      * Cron: 0 0 0 * * ?
      */
     @Scheduled(cron = "0 0 0 * * ?")
-    public void cleanupOldNews() {
-        log.info("Starting daily news cleanup job");
+    public void archiveColdNews() {
+        if (!newsArchiveService.isArchiveEnabled()) {
+            log.debug("News archiving disabled, retention handled by TTL index only");
+            return;
+        }
 
-        newsIngestionService.deleteOldNews(DAYS_TO_KEEP)
+        log.info("Starting daily news archive job");
+
+        newsArchiveService.archiveColdNews()
                 .doOnSuccess(count -> {
                     if (count > 0) {
-                        log.info("Successfully deleted {} old news articles", count);
+                        log.info("Successfully archived {} news articles", count);
                     } else {
-                        log.info("No old news articles to delete");
+                        log.info("No news articles to archive");
                     }
                 })
-                .doOnError(error -> log.error("Error during news cleanup: {}", error.getMessage()))
+                .doOnError(error -> log.error("Error during news archiving: {}", error.getMessage()))
                 .subscribe();
     }
 }
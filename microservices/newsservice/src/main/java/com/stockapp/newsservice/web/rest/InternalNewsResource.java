@@ -11,6 +11,8 @@ import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 /**
  * REST controller for internal API endpoints
  * Used for communication between microservices
@@ -48,15 +50,15 @@ public class InternalNewsResource {
         }
 
         return newsIngestionService.ingestNews(newsRequest.newsResponse())
-                .map(count -> {
-                    LOG.info("Successfully processed and saved {} news articles", count);
-                    return ResponseEntity.ok(new BulkNewsResponse(count, "Success"));
+                .map(result -> {
+                    LOG.info("Successfully processed and saved {} news articles", result.savedCount());
+                    return ResponseEntity.ok(new BulkNewsResponse(result.savedCount(), "Success", result.newStoryUuids()));
                 })
                 .onErrorResume(error -> {
                     LOG.error("Error processing bulk news: {}", error.getMessage(), error);
                     return Mono.just(ResponseEntity
                             .status(HttpStatus.INTERNAL_SERVER_ERROR)
-                            .body(new BulkNewsResponse(0, "Error: " + error.getMessage())));
+                            .body(new BulkNewsResponse(0, "Error: " + error.getMessage(), List.of())));
                 });
     }
 
@@ -118,7 +120,11 @@ public class InternalNewsResource {
     public record BulkNewsRequest(NewsResponse newsResponse) {
     }
 
-    public record BulkNewsResponse(Integer processedCount, String message) {
+    /**
+     * @param storyUuids UUIDs of newly stored articles that are not near-duplicates of an existing story;
+     *                   callers notify users about these only
+     */
+    public record BulkNewsResponse(Integer processedCount, String message, List<String> storyUuids) {
     }
 
     public record CleanupResponse(Long deletedCount, String message) {
@@ -64,9 +64,7 @@ public class PublicNewsResource {
     public Mono<ResponseEntity<NewsDetailVM>> getNewsDetail(@PathVariable String id) {
         LOG.debug("Public API request to get news detail: {}", id);
 
-        return newsIngestionService.getLatestNews(10000) // Get all to search by UUID
-                .filter(news -> news.getUuid().equals(id))
-                .next()
+        return newsIngestionService.getNewsByUuid(id)
                 .map(this::toNewsDetailVM)
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
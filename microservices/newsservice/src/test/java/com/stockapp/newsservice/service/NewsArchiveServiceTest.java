@@ -0,0 +1,90 @@
+package com.stockapp.newsservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.stockapp.newsservice.config.ApplicationProperties;
+import com.stockapp.newsservice.domain.ArchivedNews;
+import com.stockapp.newsservice.domain.CompanyNews;
+import com.stockapp.newsservice.domain.NewsEntity;
+import com.stockapp.newsservice.repository.ArchivedNewsRepository;
+import com.stockapp.newsservice.repository.CompanyNewsRepository;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class NewsArchiveServiceTest {
+
+    private CompanyNewsRepository companyNewsRepository;
+    private ArchivedNewsRepository archivedNewsRepository;
+    private NewsArchiveService service;
+
+    @BeforeEach
+    void setUp() {
+        companyNewsRepository = mock(CompanyNewsRepository.class);
+        archivedNewsRepository = mock(ArchivedNewsRepository.class);
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getNews().getRetention().setArchiveBatchSize(2);
+        service = new NewsArchiveService(companyNewsRepository, archivedNewsRepository, properties);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void archivesEachBatchBeforeDeletingIt() {
+        when(companyNewsRepository.findByPublishedAtBefore(any())).thenReturn(Flux.just(article("1", "AAPL"), article("2"), article("3")));
+        when(archivedNewsRepository.saveAll(anyIterable())).thenAnswer(call -> Flux.fromIterable(call.getArgument(0)));
+        when(companyNewsRepository.deleteAllById(anyIterable())).thenReturn(Mono.empty());
+
+        assertThat(service.archiveColdNews().block()).isEqualTo(3L);
+
+        ArgumentCaptor<Iterable<ArchivedNews>> saved = ArgumentCaptor.forClass(Iterable.class);
+        ArgumentCaptor<Iterable<String>> deleted = ArgumentCaptor.forClass(Iterable.class);
+        InOrder order = inOrder(archivedNewsRepository, companyNewsRepository);
+        order.verify(archivedNewsRepository).saveAll(saved.capture());
+        order.verify(companyNewsRepository).deleteAllById(deleted.capture());
+        order.verify(archivedNewsRepository).saveAll(saved.capture());
+        order.verify(companyNewsRepository).deleteAllById(deleted.capture());
+
+        ArchivedNews first = saved.getAllValues().get(0).iterator().next();
+        assertThat(first.getId()).isEqualTo("1");
+        assertThat(first.getSymbols()).containsExactly("AAPL");
+        assertThat(deleted.getAllValues()).containsExactly(List.of("1", "2"), List.of("3"));
+    }
+
+    @Test
+    void servesArchivedStoriesBySymbolAsArticles() {
+        ArchivedNews archived = new ArchivedNews();
+        archived.setId("1");
+        archived.setUuid("uuid-1");
+        archived.setTitle("Old story");
+        archived.setSymbols(List.of("AAPL", "MSFT"));
+        when(archivedNewsRepository.findStoriesBySymbol("AAPL")).thenReturn(Flux.just(archived));
+
+        List<CompanyNews> news = service.findBySymbol("AAPL", 5).collectList().block();
+
+        assertThat(news).singleElement().satisfies(article -> {
+            assertThat(article.getUuid()).isEqualTo("uuid-1");
+            assertThat(article.getTitle()).isEqualTo("Old story");
+            assertThat(article.getEntities()).extracting(NewsEntity::getSymbol).containsExactlyInAnyOrder("AAPL", "MSFT");
+        });
+    }
+
+    private static CompanyNews article(String id, String... symbols) {
+        CompanyNews news = new CompanyNews().uuid("uuid-" + id);
+        news.setId(id);
+        news.setPublishedAt(Instant.parse("2026-01-01T00:00:00Z"));
+        for (String symbol : symbols) {
+            news.addEntities(new NewsEntity().symbol(symbol));
+        }
+        return news;
+    }
+}
@@ -0,0 +1,60 @@
+package com.stockapp.newsservice.service.dedup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import com.stockapp.newsservice.config.ApplicationProperties;
+import com.stockapp.newsservice.repository.CompanyNewsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class NewsDeduplicationServiceTest {
+
+    private static final long SIGNATURE = 0x5a3c_96f0_1e87_d24bL;
+    private static final Instant NOW = Instant.parse("2026-01-05T10:00:00Z");
+
+    @Test
+    void attachesNearDuplicatesToTheFirstStory() {
+        NewsDeduplicationService service = service(3);
+
+        assertThat(service.assignStory("a", SIGNATURE, NOW)).isEqualTo("a");
+        assertThat(service.assignStory("b", flip(SIGNATURE, 0, 21, 63), NOW)).isEqualTo("a");
+        assertThat(service.assignStory("c", flip(SIGNATURE, 0, 10, 21, 63), NOW)).isEqualTo("c");
+    }
+
+    @Test
+    void findsMatchesUpToMaxDistanceWhateverTheBandsHit() {
+        NewsDeduplicationService service = service(NewsDeduplicationService.MAX_DISTANCE);
+        service.assignStory("a", SIGNATURE, NOW);
+
+        // one flipped bit in each of 15 of the 16 bands: only the last band still matches
+        int[] fifteenBands = new int[15];
+        for (int band = 0; band < fifteenBands.length; band++) {
+            fifteenBands[band] = band * 4;
+        }
+        assertThat(service.assignStory("b", flip(SIGNATURE, fifteenBands), NOW)).isEqualTo("a");
+
+        service.release("a");
+        assertThat(service.assignStory("c", flip(SIGNATURE, fifteenBands), NOW)).isEqualTo("c");
+    }
+
+    @Test
+    void rejectsMaxDistanceTheBandsCannotGuarantee() {
+        assertThatThrownBy(() -> service(NewsDeduplicationService.MAX_DISTANCE + 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static NewsDeduplicationService service(int maxDistance) {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getNews().getDedup().setMaxDistance(maxDistance);
+        return new NewsDeduplicationService(mock(CompanyNewsRepository.class), properties, new SimpleMeterRegistry());
+    }
+
+    private static long flip(long signature, int... bits) {
+        for (int bit : bits) {
+            signature ^= 1L << bit;
+        }
+        return signature;
+    }
+}
@@ -0,0 +1,36 @@
+package com.stockapp.newsservice.service.dedup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class SimHashTest {
+
+    private static final String ORIGINAL =
+        "Apple shares rise after the company reports record iPhone sales in the holiday quarter, beating analyst estimates";
+
+    @Test
+    void ignoresCaseAndPunctuation() {
+        assertThat(SimHash.of("Apple shares RISE, after record sales!")).isEqualTo(SimHash.of("apple shares rise after record sales"));
+        assertThat(SimHash.of("  ")).isZero();
+        assertThat(SimHash.of(null)).isZero();
+    }
+
+    @Test
+    void nearDuplicatesAreCloserThanUnrelatedTexts() {
+        long original = SimHash.of(ORIGINAL);
+        long reworded = SimHash.of(
+            "Apple shares rise after the company reports record iPhone sales in the holiday quarter, beating estimates"
+        );
+        long unrelated = SimHash.of("Oil prices slip as OPEC members weigh output increase ahead of the Vienna meeting next week");
+
+        assertThat(SimHash.distance(original, reworded)).isLessThan(SimHash.distance(original, unrelated));
+        assertThat(SimHash.distance(original, unrelated)).isGreaterThan(10);
+    }
+
+    @Test
+    void distanceCountsDifferingBits() {
+        assertThat(SimHash.distance(0b1011L, 0b0001L)).isEqualTo(2);
+        assertThat(SimHash.distance(-1L, 0L)).isEqualTo(64);
+    }
+}
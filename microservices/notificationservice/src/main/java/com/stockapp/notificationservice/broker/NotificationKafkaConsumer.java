@@ -1,39 +1,87 @@
 package com.stockapp.notificationservice.broker;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
 import com.stockapp.notificationservice.domain.Notification;
+import com.stockapp.notificationservice.domain.TopicNotification;
 import com.stockapp.notificationservice.domain.enumeration.NotificationCategory;
 import com.stockapp.notificationservice.domain.enumeration.NotificationStatus;
 import com.stockapp.notificationservice.domain.enumeration.NotificationType;
-import com.stockapp.notificationservice.repository.NotificationRepository;
+import com.stockapp.notificationservice.service.NotificationPushService;
+import com.stockapp.notificationservice.service.TopicNotificationService;
+import com.stockapp.notificationservice.service.UnreadCountCache;
 import com.stockapp.notificationservice.service.dto.kafka.AIPredictionMessage;
 import com.stockapp.notificationservice.service.dto.kafka.NewsUpdateMessage;
+import com.stockapp.notificationservice.service.dto.kafka.NotificationPushMessage;
 import com.stockapp.notificationservice.service.dto.kafka.PriceUpdateMessage;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.util.function.ThrowingFunction;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * Kafka consumers for notification events from multiple topics.
  * Consumes messages and creates Notification entities in MongoDB.
  * 
  * Supports AI, News, and Price notifications.
+ * <p>
+ * The topic consumers run in batch mode: each poll (bounded by {@code max.poll.records} and
+ * {@code fetch.max.wait.ms}) is mapped to notifications and written with a single unordered bulk
+ * insert. The listener thread waits for the insert, so the binder commits offsets only after the
+ * batch is durable and does not poll further while it is being written; a failed insert is retried
+ * by the container error handler instead of being lost. Notification ids are derived from the
+ * message, so documents already written by an earlier delivery of the batch are skipped as
+ * duplicate keys instead of being inserted twice.
+ * <p>
+ * Price updates concern every watcher of a symbol, so they are stored once per symbol as topic
+ * notifications (see {@link TopicNotificationService}) rather than copied per user. Their id is
+ * derived from the symbol, date and close price, so a redelivered update is not published twice.
  */
 @Configuration
 public class NotificationKafkaConsumer {
 
     private static final Logger LOG = LoggerFactory.getLogger(NotificationKafkaConsumer.class);
+    private static final Duration PERSIST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int DUPLICATE_KEY = 11000;
 
-    private final NotificationRepository notificationRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
     private final ObjectMapper objectMapper;
+    private final NotificationPushService notificationPushService;
+    private final TopicNotificationService topicNotificationService;
+    private final UnreadCountCache unreadCountCache;
+    private final MeterRegistry meterRegistry;
 
-    public NotificationKafkaConsumer(NotificationRepository notificationRepository, ObjectMapper objectMapper) {
-        this.notificationRepository = notificationRepository;
+    public NotificationKafkaConsumer(
+            ReactiveMongoTemplate mongoTemplate,
+            ObjectMapper objectMapper,
+            NotificationPushService notificationPushService,
+            TopicNotificationService topicNotificationService,
+            UnreadCountCache unreadCountCache,
+            MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
         this.objectMapper = objectMapper;
+        this.notificationPushService = notificationPushService;
+        this.topicNotificationService = topicNotificationService;
+        this.unreadCountCache = unreadCountCache;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -41,137 +89,253 @@ public class NotificationKafkaConsumer {
      * Topic: stock.news.updates
      */
     @Bean
-    public Consumer<String> newsUpdateConsumer() {
-        return message -> {
-            LOG.debug("Received news update message: {}", message);
-            try {
-                NewsUpdateMessage news = objectMapper.readValue(message, NewsUpdateMessage.class);
+    public Consumer<List<String>> newsUpdateConsumer() {
+        return messages -> persistBatch("news", messages, this::toNewsNotifications);
+    }
 
-                String symbol = news.symbol() != null ? news.symbol() : "";
-                String title = String.format("📰 Tin mới về %s", symbol.isEmpty() ? "thị trường" : symbol);
-                String content = news.title();
-                if (news.source() != null && !news.source().isEmpty()) {
-                    content += String.format(" (Nguồn: %s)", news.source());
-                }
+    /**
+     * Consumer for AI prediction messages.
+     * Topic: ai.prediction.completed
+     */
+    @Bean
+    public Consumer<List<String>> aiPredictionConsumer() {
+        return messages -> persistBatch("ai-prediction", messages, this::toAiPredictionNotifications);
+    }
 
-                String metadata = String.format(
-                        "{\"symbol\":\"%s\",\"newsId\":\"%s\",\"source\":\"%s\",\"url\":\"%s\"}",
-                        symbol,
-                        news.newsId() != null ? news.newsId() : "",
-                        news.source() != null ? news.source() : "",
-                        news.url() != null ? news.url() : "");
-
-                Notification notification = new Notification()
-                        .userId(news.userId())
-                        .title(title)
-                        .content(content)
-                        .category(NotificationCategory.NEWS)
-                        .type(NotificationType.IN_APP)
-                        .status(NotificationStatus.PENDING)
-                        .createdAt(Instant.now())
-                        .isRead(false)
-                        .metadata(metadata);
-
-                notificationRepository.save(notification)
-                        .doOnSuccess(saved -> LOG.info("Saved news notification for {}: {}", symbol, saved.getId()))
-                        .doOnError(e -> LOG.error("Failed to save news notification", e))
-                        .subscribe();
-            } catch (Exception e) {
-                LOG.error("Failed to process news update message: {}", message, e);
+    /**
+     * Consumer for price update messages.
+     * Topic: stock.price.updates
+     * Publishes one topic notification per symbol, read by all users watching it.
+     */
+    @Bean
+    public Consumer<List<String>> priceUpdateConsumer() {
+        return messages -> {
+            recordBatchSize("price", messages.size());
+
+            List<PriceUpdateMessage> updates = new ArrayList<>();
+            for (String message : messages) {
+                try {
+                    LOG.debug("Received price update message: {}", message);
+                    updates.add(objectMapper.readValue(message, PriceUpdateMessage.class));
+                } catch (Exception e) {
+                    LOG.error("Failed to process price message: {}", message, e);
+                }
             }
+
+            Timer.Sample sample = Timer.start(meterRegistry);
+            Long published = Flux.fromIterable(updates)
+                    .filter(update -> {
+                        if (update.userIds() == null || update.userIds().isEmpty()) {
+                            LOG.info("No users watching symbol {}, skipping price notification", update.symbol());
+                            return false;
+                        }
+                        return true;
+                    })
+                    .concatMap(update -> topicNotificationService.publish(toPriceNotification(update), update.userIds()))
+                    .count()
+                    .block(PERSIST_TIMEOUT);
+            sample.stop(persistTimer("price"));
+
+            LOG.info("Published {} price topic notifications from {} messages", published, messages.size());
         };
     }
 
     /**
-     * Consumer for AI prediction messages.
-     * Topic: ai.prediction.completed
+     * Consumer for notification push events relayed between instances.
+     * Topic: notification.push (anonymous group, so every instance receives every event)
      */
     @Bean
-    public Consumer<String> aiPredictionConsumer() {
+    public Consumer<String> notificationPushConsumer() {
         return message -> {
-            LOG.debug("Received AI prediction message: {}", message);
             try {
-                AIPredictionMessage prediction = objectMapper.readValue(message, AIPredictionMessage.class);
-
-                Notification notification = new Notification()
-                        .userId(prediction.userId())
-                        .title(String.format("AI Insight: %s", prediction.symbol()))
-                        .content(prediction.details() != null ? prediction.details()
-                                : String.format("Dự đoán %s cho %s (Độ tin cậy: %.0f%%)",
-                                        prediction.prediction(), prediction.symbol(), prediction.confidence() * 100))
-                        .category(NotificationCategory.AI_INSIGHT)
-                        .type(NotificationType.IN_APP)
-                        .status(NotificationStatus.PENDING)
-                        .createdAt(Instant.now())
-                        .isRead(false)
-                        .metadata(message);
-
-                notificationRepository.save(notification)
-                        .doOnSuccess(saved -> LOG.info("Saved AI insight notification: {}", saved.getId()))
-                        .doOnError(e -> LOG.error("Failed to save AI insight notification", e))
-                        .subscribe();
+                notificationPushService.deliver(objectMapper.readValue(message, NotificationPushMessage.class));
             } catch (Exception e) {
-                LOG.error("Failed to process AI prediction message: {}", message, e);
+                LOG.error("Failed to process notification push message: {}", message, e);
             }
         };
     }
 
     /**
-     * Consumer for price update messages.
-     * Topic: stock.price.updates
-     * Creates notifications for all users watching the stock symbol.
+     * Map a polled batch to notifications and bulk insert them, blocking the listener thread
+     * until the write is acknowledged. Unparseable messages are logged and skipped; persistence
+     * errors propagate so the batch is redelivered.
      */
-    @Bean
-    public Consumer<String> priceUpdateConsumer() {
-        return message -> {
-            LOG.debug("Received price update message: {}", message);
-            try {
-                PriceUpdateMessage priceUpdate = objectMapper.readValue(message, PriceUpdateMessage.class);
+    private void persistBatch(String consumer, List<String> messages, ThrowingFunction<String, List<Notification>> mapper) {
+        recordBatchSize(consumer, messages.size());
 
-                if (priceUpdate.userIds() == null || priceUpdate.userIds().isEmpty()) {
-                    LOG.info("No users watching symbol {}, skipping price notification", priceUpdate.symbol());
-                    return;
+        List<Notification> notifications = new ArrayList<>();
+        for (String message : messages) {
+            try {
+                List<Notification> mapped = mapper.applyWithException(message);
+                for (int i = 0; i < mapped.size(); i++) {
+                    mapped.get(i).setId(notificationId(consumer, message, i));
                 }
-
-                String changeEmoji = priceUpdate.percentChange() >= 0 ? "📈" : "📉";
-                String changeDirection = priceUpdate.percentChange() >= 0 ? "tăng" : "giảm";
-                String changeColor = priceUpdate.percentChange() >= 0 ? "🟢" : "🔴";
-
-                String title = String.format("%s Giá %s hôm nay: %s %.2f%%",
-                        changeEmoji, priceUpdate.symbol(), changeColor, Math.abs(priceUpdate.percentChange()));
-                String content = String.format(
-                        "Cổ phiếu %s đã %s %.2f%% trong phiên giao dịch. " +
-                                "Giá mở cửa: %s | Giá đóng cửa: %s | Cao nhất: %s | Thấp nhất: %s | Khối lượng: %s",
-                        priceUpdate.symbol(), changeDirection, Math.abs(priceUpdate.percentChange()),
-                        priceUpdate.openPrice(), priceUpdate.closePrice(),
-                        priceUpdate.highPrice(), priceUpdate.lowPrice(), priceUpdate.volume());
-
-                String metadata = String.format(
-                        "{\"symbol\":\"%s\",\"percentChange\":%.2f,\"closePrice\":\"%s\",\"date\":\"%s\"}",
-                        priceUpdate.symbol(), priceUpdate.percentChange(), priceUpdate.closePrice(),
-                        priceUpdate.date());
-
-                Flux.fromIterable(priceUpdate.userIds())
-                        .flatMap(userId -> {
-                            Notification notification = new Notification()
-                                    .userId(userId)
-                                    .title(title)
-                                    .content(content)
-                                    .category(NotificationCategory.PRICE)
-                                    .type(NotificationType.IN_APP)
-                                    .status(NotificationStatus.PENDING)
-                                    .createdAt(Instant.now())
-                                    .isRead(false)
-                                    .metadata(metadata);
-                            return notificationRepository.save(notification);
-                        })
-                        .doOnComplete(() -> LOG.info("Created {} price notifications for symbol {}",
-                                priceUpdate.userIds().size(), priceUpdate.symbol()))
-                        .doOnError(e -> LOG.error("Failed to save price notifications", e))
-                        .subscribe();
+                notifications.addAll(mapped);
             } catch (Exception e) {
-                LOG.error("Failed to process price update message: {}", message, e);
+                LOG.error("Failed to process {} message: {}", consumer, message, e);
             }
-        };
+        }
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<Notification> inserted = insertNew(notifications).block(PERSIST_TIMEOUT);
+        sample.stop(persistTimer(consumer));
+
+        LOG.info("Inserted {} {} notifications from {} messages", inserted != null ? inserted.size() : 0, consumer, messages.size());
+        if (inserted != null) {
+            inserted.forEach(notification -> {
+                unreadCountCache.recordCreated(notification);
+                notificationPushService.publishCreated(notification);
+            });
+        }
+    }
+
+    /**
+     * Unordered bulk insert that tolerates documents already stored by an earlier delivery.
+     *
+     * @return the notifications this call inserted
+     */
+    private Mono<List<Notification>> insertNew(List<Notification> notifications) {
+        return mongoTemplate.bulkOps(BulkMode.UNORDERED, Notification.class)
+                .insert(notifications)
+                .execute()
+                .thenReturn(notifications)
+                .onErrorResume(error -> duplicatesOnly(error) != null, error -> {
+                    Set<Integer> duplicates = duplicatesOnly(error);
+                    List<Notification> inserted = new ArrayList<>();
+                    for (int i = 0; i < notifications.size(); i++) {
+                        if (duplicates.contains(i)) {
+                            // Written by a failed earlier attempt whose count update never happened
+                            unreadCountCache.invalidate(notifications.get(i).getUserId());
+                        } else {
+                            inserted.add(notifications.get(i));
+                        }
+                    }
+                    LOG.info("Skipped {} notifications already stored by an earlier delivery", duplicates.size());
+                    return Mono.just(inserted);
+                });
+    }
+
+    /**
+     * Indexes of the documents rejected as duplicate keys, or null when the error is not a bulk
+     * write error or has any other cause.
+     */
+    private static Set<Integer> duplicatesOnly(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoBulkWriteException bulkError) {
+                Set<Integer> duplicates = new HashSet<>();
+                for (BulkWriteError writeError : bulkError.getWriteErrors()) {
+                    if (writeError.getCode() != DUPLICATE_KEY) {
+                        return null;
+                    }
+                    duplicates.add(writeError.getIndex());
+                }
+                return bulkError.getWriteConcernError() == null ? duplicates : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stable id for the {@code index}-th notification produced from a message, so a redelivered
+     * message maps to the same documents.
+     */
+    static String notificationId(String consumer, String message, int index) {
+        return UUID.nameUUIDFromBytes((consumer + '\n' + index + '\n' + message).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    private void recordBatchSize(String consumer, int size) {
+        DistributionSummary.builder("notifications.consumer.batch.size")
+                .description("Kafka records per consumed batch")
+                .tag("consumer", consumer)
+                .register(meterRegistry)
+                .record(size);
+    }
+
+    private Timer persistTimer(String consumer) {
+        return Timer.builder("notifications.consumer.batch.persist")
+                .description("Time to persist a consumed batch")
+                .tag("consumer", consumer)
+                .register(meterRegistry);
+    }
+
+    private List<Notification> toNewsNotifications(String message) throws Exception {
+        LOG.debug("Received news update message: {}", message);
+        NewsUpdateMessage news = objectMapper.readValue(message, NewsUpdateMessage.class);
+
+        String symbol = news.symbol() != null ? news.symbol() : "";
+        String title = String.format("📰 Tin mới về %s", symbol.isEmpty() ? "thị trường" : symbol);
+        String content = news.title();
+        if (news.source() != null && !news.source().isEmpty()) {
+            content += String.format(" (Nguồn: %s)", news.source());
+        }
+
+        String metadata = String.format(
+                "{\"symbol\":\"%s\",\"newsId\":\"%s\",\"source\":\"%s\",\"url\":\"%s\"}",
+                symbol,
+                news.newsId() != null ? news.newsId() : "",
+                news.source() != null ? news.source() : "",
+                news.url() != null ? news.url() : "");
+
+        return List.of(new Notification()
+                .userId(news.userId())
+                .title(title)
+                .content(content)
+                .category(NotificationCategory.NEWS)
+                .type(NotificationType.IN_APP)
+                .status(NotificationStatus.PENDING)
+                .createdAt(Instant.now())
+                .isRead(false)
+                .metadata(metadata));
+    }
+
+    private List<Notification> toAiPredictionNotifications(String message) throws Exception {
+        LOG.debug("Received AI prediction message: {}", message);
+        AIPredictionMessage prediction = objectMapper.readValue(message, AIPredictionMessage.class);
+
+        return List.of(new Notification()
+                .userId(prediction.userId())
+                .title(String.format("AI Insight: %s", prediction.symbol()))
+                .content(prediction.details() != null ? prediction.details()
+                        : String.format("Dự đoán %s cho %s (Độ tin cậy: %.0f%%)",
+                                prediction.prediction(), prediction.symbol(), prediction.confidence() * 100))
+                .category(NotificationCategory.AI_INSIGHT)
+                .type(NotificationType.IN_APP)
+                .status(NotificationStatus.PENDING)
+                .createdAt(Instant.now())
+                .isRead(false)
+                .metadata(message));
+    }
+
+    private TopicNotification toPriceNotification(PriceUpdateMessage priceUpdate) {
+        String changeEmoji = priceUpdate.percentChange() >= 0 ? "📈" : "📉";
+        String changeDirection = priceUpdate.percentChange() >= 0 ? "tăng" : "giảm";
+        String changeColor = priceUpdate.percentChange() >= 0 ? "🟢" : "🔴";
+
+        String title = String.format("%s Giá %s hôm nay: %s %.2f%%",
+                changeEmoji, priceUpdate.symbol(), changeColor, Math.abs(priceUpdate.percentChange()));
+        String content = String.format(
+                "Cổ phiếu %s đã %s %.2f%% trong phiên giao dịch. " +
+                        "Giá mở cửa: %s | Giá đóng cửa: %s | Cao nhất: %s | Thấp nhất: %s | Khối lượng: %s",
+                priceUpdate.symbol(), changeDirection, Math.abs(priceUpdate.percentChange()),
+                priceUpdate.openPrice(), priceUpdate.closePrice(),
+                priceUpdate.highPrice(), priceUpdate.lowPrice(), priceUpdate.volume());
+
+        String metadata = String.format(
+                "{\"symbol\":\"%s\",\"percentChange\":%.2f,\"closePrice\":\"%s\",\"date\":\"%s\"}",
+                priceUpdate.symbol(), priceUpdate.percentChange(), priceUpdate.closePrice(),
+                priceUpdate.date());
+
+        TopicNotification notification = new TopicNotification();
+        notification.setId(notificationId(
+                "price", priceUpdate.symbol() + '\n' + priceUpdate.date() + '\n' + priceUpdate.closePrice(), 0));
+        notification.setTopic(TopicNotification.topicOf(NotificationCategory.PRICE, priceUpdate.symbol()));
+        notification.setTitle(title);
+        notification.setContent(content);
+        notification.setCategory(NotificationCategory.PRICE);
+        notification.setMetadata(metadata);
+        return notification;
     }
 }
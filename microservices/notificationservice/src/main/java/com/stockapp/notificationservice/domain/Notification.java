@@ -28,8 +28,7 @@ public class Notification implements Serializable {
      * User identifier for the notification recipient
      */
     @NotNull(message = "must not be null")
-    @Indexed
-    @Encrypted
+    @Encrypted(searchable = true)
     @Field("user_id")
     private String userId;
 
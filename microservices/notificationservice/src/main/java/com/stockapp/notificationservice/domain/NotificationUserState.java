@@ -0,0 +1,174 @@
+package com.stockapp.notificationservice.domain;
+
+import com.stockapp.notificationservice.domain.enumeration.NotificationCategory;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * Compact per-user state for topic notifications: subscribed topics and the periods they were
+ * subscribed, a read cursor (every topic notification created at or before it is read), the ids
+ * read individually after the cursor, and muted categories.
+ */
+@Document(collection = NotificationUserState.COLLECTION)
+public class NotificationUserState implements Serializable {
+
+    public static final String COLLECTION = "notification_user_state";
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Blind index of the user identifier, so the plaintext user id is not stored
+     */
+    @Id
+    private String id;
+
+    /**
+     * Topics currently subscribed, each with an open period in {@link #subscriptions}
+     */
+    @Indexed
+    @Field("topics")
+    private Set<String> topics = new HashSet<>();
+
+    /**
+     * Subscription periods, current and past; a user sees the topic notifications created during them
+     */
+    @Field("subscriptions")
+    private List<Subscription> subscriptions = new ArrayList<>();
+
+    @Field("read_cursor")
+    private Instant readCursor;
+
+    @Field("read_ids")
+    private Set<String> readIds = new HashSet<>();
+
+    @Field("muted_categories")
+    private Set<NotificationCategory> mutedCategories = new HashSet<>();
+
+    public static NotificationUserState empty(String userIndex) {
+        NotificationUserState state = new NotificationUserState();
+        state.setId(userIndex);
+        return state;
+    }
+
+    /**
+     * Whether a topic notification is read according to the cursor and individual read ids.
+     */
+    public boolean isRead(TopicNotification notification) {
+        return (readCursor != null && !notification.getCreatedAt().isAfter(readCursor)) || readIds.contains(notification.getId());
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Set<String> getTopics() {
+        return topics;
+    }
+
+    public void setTopics(Set<String> topics) {
+        this.topics = topics != null ? topics : new HashSet<>();
+    }
+
+    public List<Subscription> getSubscriptions() {
+        return subscriptions;
+    }
+
+    public void setSubscriptions(List<Subscription> subscriptions) {
+        this.subscriptions = subscriptions != null ? subscriptions : new ArrayList<>();
+    }
+
+    public Instant getReadCursor() {
+        return readCursor;
+    }
+
+    public void setReadCursor(Instant readCursor) {
+        this.readCursor = readCursor;
+    }
+
+    public Set<String> getReadIds() {
+        return readIds;
+    }
+
+    public void setReadIds(Set<String> readIds) {
+        this.readIds = readIds != null ? readIds : new HashSet<>();
+    }
+
+    public Set<NotificationCategory> getMutedCategories() {
+        return mutedCategories;
+    }
+
+    public void setMutedCategories(Set<NotificationCategory> mutedCategories) {
+        this.mutedCategories = mutedCategories != null ? mutedCategories : new HashSet<>();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "NotificationUserState{" +
+            "id=" + getId() +
+            ", topics=" + getTopics() +
+            ", readCursor='" + getReadCursor() + "'" +
+            ", mutedCategories=" + getMutedCategories() +
+            "}";
+    }
+
+    /**
+     * A period during which the user was subscribed to a topic; {@code until} is null while subscribed.
+     */
+    public static class Subscription implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        @Field("topic")
+        private String topic;
+
+        @Field("since")
+        private Instant since;
+
+        @Field("until")
+        private Instant until;
+
+        public Subscription() {}
+
+        public Subscription(String topic, Instant since) {
+            this.topic = topic;
+            this.since = since;
+        }
+
+        public String getTopic() {
+            return topic;
+        }
+
+        public void setTopic(String topic) {
+            this.topic = topic;
+        }
+
+        public Instant getSince() {
+            return since;
+        }
+
+        public void setSince(Instant since) {
+            this.since = since;
+        }
+
+        public Instant getUntil() {
+            return until;
+        }
+
+        public void setUntil(Instant until) {
+            this.until = until;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.stockapp.notificationservice.domain;
+
+import com.stockapp.notificationservice.domain.enumeration.NotificationCategory;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * A notification published once to a topic (e.g. {@code PRICE:AAPL}) and read by every
+ * subscriber of that topic, instead of one {@link Notification} document per watcher.
+ * Per-user read state lives in {@link NotificationUserState}.
+ */
+@Document(collection = TopicNotification.COLLECTION)
+@CompoundIndex(name = "topic_created_at", def = "{ 'topic': 1, 'created_at': -1 }")
+public class TopicNotification implements Serializable {
+
+    public static final String COLLECTION = "topic_notification";
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private String id;
+
+    /**
+     * Topic key, e.g. PRICE:AAPL
+     */
+    @NotNull(message = "must not be null")
+    @Field("topic")
+    private String topic;
+
+    @NotNull(message = "must not be null")
+    @Field("title")
+    private String title;
+
+    @Field("content")
+    private String content;
+
+    @NotNull(message = "must not be null")
+    @Field("category")
+    private NotificationCategory category;
+
+    @NotNull(message = "must not be null")
+    @Field("created_at")
+    private Instant createdAt;
+
+    /**
+     * Additional metadata as JSON string
+     */
+    @Field("metadata")
+    private String metadata;
+
+    public static String topicOf(NotificationCategory category, String key) {
+        return category.name() + ":" + key;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public NotificationCategory getCategory() {
+        return category;
+    }
+
+    public void setCategory(NotificationCategory category) {
+        this.category = category;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getMetadata() {
+        return metadata;
+    }
+
+    public void setMetadata(String metadata) {
+        this.metadata = metadata;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TopicNotification)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((TopicNotification) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TopicNotification{" +
+            "id=" + getId() +
+            ", topic='" + getTopic() + "'" +
+            ", title='" + getTitle() + "'" +
+            ", category='" + getCategory() + "'" +
+            ", createdAt='" + getCreatedAt() + "'" +
+            "}";
+    }
+}
@@ -26,86 +26,73 @@ public interface NotificationRepository extends ReactiveMongoRepository<Notifica
      */
     Flux<Notification> findByRecipient(String recipient, Pageable pageable);
 
+    // The userIdIndex parameters are blind indexes of the user id
+    // (FieldEncryptionService#blindIndex), matched against user_id_bidx since user_id is encrypted.
+
     /**
      * Find notifications by userId ordered by createdAt desc
      */
-    Flux<Notification> findByUserIdOrderByCreatedAtDesc(String userId, Pageable pageable);
+    @Query(value = "{ 'user_id_bidx': ?0 }", sort = "{ 'created_at': -1 }")
+    Flux<Notification> findByUserIdIndex(String userIdIndex, Pageable pageable);
 
     /**
      * Find notifications by userId and category ordered by createdAt desc
      */
-    Flux<Notification> findByUserIdAndCategoryOrderByCreatedAtDesc(
-            String userId,
-            NotificationCategory category,
-            Pageable pageable);
-
-    /**
-     * Find unread notifications by userId ordered by createdAt desc
-     */
-    Flux<Notification> findByUserIdAndIsReadFalseOrderByCreatedAtDesc(String userId, Pageable pageable);
+    @Query(value = "{ 'user_id_bidx': ?0, 'category': ?1 }", sort = "{ 'created_at': -1 }")
+    Flux<Notification> findByUserIdIndexAndCategory(String userIdIndex, NotificationCategory category, Pageable pageable);
 
     /**
      * Count all notifications by userId
      */
-    Mono<Long> countByUserId(String userId);
+    @Query(value = "{ 'user_id_bidx': ?0 }", count = true)
+    Mono<Long> countByUserIdIndex(String userIdIndex);
 
     /**
      * Count unread notifications by userId
      */
-    Mono<Long> countByUserIdAndIsReadFalse(String userId);
-
-    /**
-     * Count notifications by userId and category
-     */
-    Mono<Long> countByUserIdAndCategory(String userId, NotificationCategory category);
-
-    /**
-     * Find all notifications by userId (for marking all as read)
-     */
-    Flux<Notification> findByUserId(String userId);
-
-    /**
-     * Find all unread notifications by userId (for marking all as read)
-     */
-    Flux<Notification> findByUserIdAndIsReadFalse(String userId);
+    @Query(value = "{ 'user_id_bidx': ?0, 'is_read': false }", count = true)
+    Mono<Long> countUnreadByUserIdIndex(String userIdIndex);
 
     // ==================== Broadcast Support ====================
 
     /**
      * Find notifications for a user OR broadcast notifications
      */
-    @Query("{ '$or': [ { 'userId': ?0 }, { 'userId': '_BROADCAST_' } ] }")
-    Flux<Notification> findByUserIdOrBroadcast(String userId, Pageable pageable);
+    @Query("{ 'user_id_bidx': { '$in': [ ?0, ?1 ] } }")
+    Flux<Notification> findByUserIdIndexOrBroadcast(String userIdIndex, String broadcastIndex, Pageable pageable);
 
     /**
      * Find notifications for a user OR broadcast notifications, filtered by
      * category
      */
-    @Query("{ '$and': [ { '$or': [ { 'userId': ?0 }, { 'userId': '_BROADCAST_' } ] }, { 'category': ?1 } ] }")
-    Flux<Notification> findByUserIdOrBroadcastAndCategory(String userId, NotificationCategory category,
+    @Query("{ 'user_id_bidx': { '$in': [ ?0, ?1 ] }, 'category': ?2 }")
+    Flux<Notification> findByUserIdIndexOrBroadcastAndCategory(
+            String userIdIndex,
+            String broadcastIndex,
+            NotificationCategory category,
             Pageable pageable);
 
     /**
      * Find unread notifications for a user OR broadcast notifications
      */
-    @Query("{ '$and': [ { '$or': [ { 'userId': ?0 }, { 'userId': '_BROADCAST_' } ] }, { 'isRead': false } ] }")
-    Flux<Notification> findByUserIdOrBroadcastAndUnread(String userId, Pageable pageable);
+    @Query("{ 'user_id_bidx': { '$in': [ ?0, ?1 ] }, 'is_read': false }")
+    Flux<Notification> findByUserIdIndexOrBroadcastAndUnread(String userIdIndex, String broadcastIndex, Pageable pageable);
 
     /**
      * Count unread notifications for a user OR broadcast
      */
-    @Query(value = "{ '$and': [ { '$or': [ { 'userId': ?0 }, { 'userId': '_BROADCAST_' } ] }, { 'isRead': false } ] }", count = true)
-    Mono<Long> countByUserIdOrBroadcastAndUnread(String userId);
+    @Query(value = "{ 'user_id_bidx': { '$in': [ ?0, ?1 ] }, 'is_read': false }", count = true)
+    Mono<Long> countByUserIdIndexOrBroadcastAndUnread(String userIdIndex, String broadcastIndex);
 
     /**
      * Count all notifications for a user OR broadcast
      */
-    @Query(value = "{ '$or': [ { 'userId': ?0 }, { 'userId': '_BROADCAST_' } ] }", count = true)
-    Mono<Long> countByUserIdOrBroadcast(String userId);
+    @Query(value = "{ 'user_id_bidx': { '$in': [ ?0, ?1 ] } }", count = true)
+    Mono<Long> countByUserIdIndexOrBroadcast(String userIdIndex, String broadcastIndex);
 
     /**
      * Count notifications for a user OR broadcast, filtered by category
      */
-    @Query(value = "{ '$and': [ { '$or': [ { 'userId': ?0 }, { 'userId': '_BROADCAST_' } ] }, { 'category': ?1 } ] }", count = true)
-    Mono<Long> countByUserIdOrBroadcastAndCategory(String userId, NotificationCategory category);
+    @Query(value = "{ 'user_id_bidx': { '$in': [ ?0, ?1 ] }, 'category': ?2 }", count = true)
+    Mono<Long> countByUserIdIndexOrBroadcastAndCategory(String userIdIndex, String broadcastIndex, NotificationCategory category);
 }
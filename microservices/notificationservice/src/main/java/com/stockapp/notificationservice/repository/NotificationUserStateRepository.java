@@ -0,0 +1,11 @@
+package com.stockapp.notificationservice.repository;
+
+import com.stockapp.notificationservice.domain.NotificationUserState;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data MongoDB reactive repository for the NotificationUserState entity.
+ */
+@Repository
+public interface NotificationUserStateRepository extends ReactiveMongoRepository<NotificationUserState, String> {}
@@ -0,0 +1,11 @@
+package com.stockapp.notificationservice.repository;
+
+import com.stockapp.notificationservice.domain.TopicNotification;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data MongoDB reactive repository for the TopicNotification entity.
+ */
+@Repository
+public interface TopicNotificationRepository extends ReactiveMongoRepository<TopicNotification, String> {}
@@ -0,0 +1,73 @@
+package com.stockapp.notificationservice.security.encryption;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Creates the indexes on the blind index fields of {@link Encrypted#searchable() searchable}
+ * encrypted fields, and backfills the blind index of documents written before it existed.
+ */
+@Component
+public class BlindIndexInitializer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BlindIndexInitializer.class);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final FieldEncryptionService encryptionService;
+
+    public BlindIndexInitializer(ReactiveMongoTemplate mongoTemplate, FieldEncryptionService encryptionService) {
+        this.mongoTemplate = mongoTemplate;
+        this.encryptionService = encryptionService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        Flux.fromIterable(mongoTemplate.getConverter().getMappingContext().getPersistentEntities())
+            .concatMap(this::initializeEntity)
+            .subscribe();
+    }
+
+    private Flux<Void> initializeEntity(MongoPersistentEntity<?> entity) {
+        return Flux.fromIterable(entity)
+            .filter(property -> {
+                Encrypted encrypted = property.findAnnotation(Encrypted.class);
+                return encrypted != null && encrypted.searchable();
+            })
+            .concatMap(property -> initializeField(entity.getCollection(), property));
+    }
+
+    private Mono<Void> initializeField(String collection, MongoPersistentProperty property) {
+        String field = property.getFieldName();
+        String indexField = FieldEncryptionService.blindIndexField(field);
+        Query missing = Query.query(Criteria.where(field).exists(true).and(indexField).exists(false));
+
+        return mongoTemplate
+            .indexOps(collection)
+            .ensureIndex(new Index().on(indexField, Sort.Direction.ASC).named(indexField))
+            .thenMany(mongoTemplate.find(missing, Document.class, collection))
+            .concatMap(document -> {
+                String plaintext = encryptionService.decrypt(document.getString(field));
+                Update update = new Update().set(indexField, encryptionService.blindIndex(plaintext));
+                return mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(document.get("_id"))), update, collection);
+            })
+            .count()
+            .doOnNext(count -> LOG.info("Blind index {}.{} ready, backfilled {} documents", collection, indexField, count))
+            .doOnError(error -> LOG.error("Failed to initialize blind index {}.{}: {}", collection, indexField, error.getMessage()))
+            .onErrorResume(error -> Mono.empty())
+            .then();
+    }
+}
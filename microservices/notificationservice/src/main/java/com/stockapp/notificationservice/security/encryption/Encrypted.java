@@ -33,4 +33,10 @@ public @interface Encrypted {
      * Whether to mask the value in logs.
      */
     boolean maskInLogs() default true;
+
+    /**
+     * Whether equality lookups on this field are needed. Searchable fields also store an
+     * HMAC blind index in {@code <field>_bidx}, which queries match instead of the ciphertext.
+     */
+    boolean searchable() default false;
 }
@@ -1,15 +1,13 @@
 package com.stockapp.notificationservice.security.encryption;
 
-import java.lang.reflect.Field;
+import com.stockapp.notificationservice.security.encryption.EncryptedFieldMetadata.EncryptedProperty;
 import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
 import org.springframework.data.mongodb.core.mapping.event.AfterConvertEvent;
 import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
 import org.springframework.stereotype.Component;
-import org.springframework.util.ReflectionUtils;
 
 /**
  * MongoDB Event Listener for automatic field encryption/decryption.
@@ -35,62 +33,39 @@ public class EncryptedFieldEventListener extends AbstractMongoEventListener<Obje
         if (document == null)
             return;
 
-        processFieldsForEncryption(source.getClass(), source, document);
+        for (EncryptedProperty property : EncryptedFieldMetadata.of(source.getClass())) {
+            encryptField(property, source, document);
+        }
     }
 
     @Override
     public void onAfterConvert(AfterConvertEvent<Object> event) {
         Object source = event.getSource();
 
-        ReflectionUtils.doWithFields(source.getClass(), field -> {
-            if (AnnotationUtils.findAnnotation(field, Encrypted.class) != null) {
-                field.setAccessible(true);
-                Object value = field.get(source);
-
-                if (value instanceof String stringValue && encryptionService.isEncrypted(stringValue)) {
-                    try {
-                        field.set(source, encryptionService.decrypt(stringValue));
-                    } catch (Exception e) {
-                        LOG.warn("Failed to decrypt field '{}' — clearing value. Cause: {}", field.getName(),
-                                e.getMessage());
-                        field.set(source, null);
-                    }
+        for (EncryptedProperty property : EncryptedFieldMetadata.of(source.getClass())) {
+            String value = property.get(source);
+            if (encryptionService.isEncrypted(value)) {
+                try {
+                    property.set(source, encryptionService.decrypt(value));
+                } catch (Exception e) {
+                    LOG.warn("Failed to decrypt field '{}' — clearing value. Cause: {}", property.name(), e.getMessage());
+                    property.set(source, null);
                 }
             }
-        });
-    }
-
-    private void processFieldsForEncryption(Class<?> clazz, Object source, Document document) {
-        ReflectionUtils.doWithFields(clazz, field -> {
-            Encrypted encrypted = AnnotationUtils.findAnnotation(field, Encrypted.class);
-            if (encrypted != null) {
-                encryptField(field, source, document);
-            }
-        });
-
-        Class<?> superclass = clazz.getSuperclass();
-        if (superclass != null && superclass != Object.class) {
-            processFieldsForEncryption(superclass, source, document);
         }
     }
 
-    private void encryptField(Field field, Object source, Document document) {
-        try {
-            field.setAccessible(true);
-            Object value = field.get(source);
-
-            if (value instanceof String stringValue && !stringValue.isEmpty()) {
-                org.springframework.data.mongodb.core.mapping.Field fieldAnnotation = field
-                        .getAnnotation(org.springframework.data.mongodb.core.mapping.Field.class);
-
-                String mongoFieldName = fieldAnnotation != null ? fieldAnnotation.value() : field.getName();
-
-                if (!encryptionService.isEncrypted(stringValue)) {
-                    document.put(mongoFieldName, encryptionService.encrypt(stringValue));
-                }
-            }
-        } catch (IllegalAccessException e) {
-            LOG.error("Failed to encrypt field: {}", field.getName(), e);
+    private void encryptField(EncryptedProperty property, Object source, Document document) {
+        String value = property.get(source);
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        if (!encryptionService.isEncrypted(value)) {
+            document.put(property.mongoFieldName(), encryptionService.encrypt(value));
+        }
+        if (property.searchable()) {
+            String plaintext = encryptionService.isEncrypted(value) ? encryptionService.decrypt(value) : value;
+            document.put(FieldEncryptionService.blindIndexField(property.mongoFieldName()), encryptionService.blindIndex(plaintext));
         }
     }
 }
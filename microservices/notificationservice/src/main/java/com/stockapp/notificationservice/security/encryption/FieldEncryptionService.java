@@ -2,9 +2,12 @@ package com.stockapp.notificationservice.security.encryption;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Base64;
 import javax.crypto.Cipher;
+import javax.crypto.Mac;
 import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.GCMParameterSpec;
@@ -34,7 +37,18 @@ public class FieldEncryptionService {
     private static final String PBKDF2_ALGORITHM = "PBKDF2WithHmacSHA256";
     private static final String ENCRYPTED_PREFIX = "ENC:";
 
+    /** Cipher instances are not thread-safe: reuse one per thread instead of a provider lookup per value. */
+    private static final ThreadLocal<Cipher> CIPHER = ThreadLocal.withInitial(FieldEncryptionService::newCipher);
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String BLIND_INDEX_PREFIX = "BIDX:";
+    private static final String BLIND_INDEX_SALT_SUFFIX = ":blind-index";
+    private static final int BLIND_INDEX_LENGTH = 16;
+
+    public static final String BLIND_INDEX_SUFFIX = "_bidx";
+
     private final SecretKey secretKey;
+    private final SecretKey blindIndexKey;
+    private final ThreadLocal<Mac> blindIndexMac = ThreadLocal.withInitial(this::newBlindIndexMac);
     private final SecureRandom secureRandom;
 
     public FieldEncryptionService(
@@ -47,6 +61,7 @@ public class FieldEncryptionService {
         }
 
         this.secretKey = deriveKey(masterKey, salt);
+        this.blindIndexKey = new SecretKeySpec(deriveKey(masterKey, salt + BLIND_INDEX_SALT_SUFFIX).getEncoded(), HMAC_ALGORITHM);
         this.secureRandom = new SecureRandom();
         LOG.info("✓ Field encryption service initialized");
     }
@@ -60,7 +75,7 @@ public class FieldEncryptionService {
             byte[] iv = new byte[GCM_IV_LENGTH];
             secureRandom.nextBytes(iv);
 
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            Cipher cipher = CIPHER.get();
             GCMParameterSpec parameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
             cipher.init(Cipher.ENCRYPT_MODE, secretKey, parameterSpec);
 
@@ -91,7 +106,7 @@ public class FieldEncryptionService {
             byte[] encryptedBytes = new byte[byteBuffer.remaining()];
             byteBuffer.get(encryptedBytes);
 
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            Cipher cipher = CIPHER.get();
             GCMParameterSpec parameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
             cipher.init(Cipher.DECRYPT_MODE, secretKey, parameterSpec);
 
@@ -101,6 +116,49 @@ public class FieldEncryptionService {
         }
     }
 
+    /**
+     * Deterministic keyed hash (truncated HMAC-SHA256) of a plaintext value. Stored next to the
+     * ciphertext of searchable fields so equality lookups can use an index; uses a key derived
+     * separately from the encryption key.
+     */
+    public String blindIndex(String plaintext) {
+        if (plaintext == null) {
+            return null;
+        }
+
+        try {
+            byte[] digest = Arrays.copyOf(blindIndexMac.get().doFinal(plaintext.getBytes(StandardCharsets.UTF_8)), BLIND_INDEX_LENGTH);
+            return BLIND_INDEX_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (Exception e) {
+            throw new EncryptionException("Blind index computation failed", e);
+        }
+    }
+
+    private Mac newBlindIndexMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(blindIndexKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new EncryptionException("Blind index initialization failed", e);
+        }
+    }
+
+    /**
+     * Name of the document field holding the blind index of a searchable field.
+     */
+    public static String blindIndexField(String fieldName) {
+        return fieldName + BLIND_INDEX_SUFFIX;
+    }
+
+    private static Cipher newCipher() {
+        try {
+            return Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException e) {
+            throw new EncryptionException("Cipher initialization failed", e);
+        }
+    }
+
     public boolean isEncrypted(String value) {
         return value != null && value.startsWith(ENCRYPTED_PREFIX);
     }
@@ -0,0 +1,169 @@
+package com.stockapp.notificationservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockapp.notificationservice.domain.Notification;
+import com.stockapp.notificationservice.service.dto.NotificationDTO;
+import com.stockapp.notificationservice.service.dto.kafka.NotificationPushMessage;
+import com.stockapp.notificationservice.service.mapper.NotificationMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Server-Sent Events push channel for the notification center.
+ * <p>
+ * Keeps an in-memory registry of connected users (one multicast sink per user, shared by all
+ * their open streams). Events are published to the {@code notification.push} topic, which every
+ * instance consumes with an anonymous group, and delivered to the local subscribers of the
+ * recipient, so clients no longer need to poll the list and unread-count endpoints.
+ */
+@Service
+public class NotificationPushService {
+
+    public static final String BROADCAST_USER_ID = "_BROADCAST_";
+    public static final String EVENT_NOTIFICATION = "notification";
+    public static final String EVENT_UNREAD_COUNT = "unread-count";
+    public static final String EVENT_HEARTBEAT = "heartbeat";
+
+    private static final Logger LOG = LoggerFactory.getLogger(NotificationPushService.class);
+    private static final String PUSH_BINDING_NAME = "notificationPush-out-0";
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(25);
+
+    private final NotificationMapper notificationMapper;
+    private final StreamBridge streamBridge;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, UserChannel> channels = new ConcurrentHashMap<>();
+    private final Sinks.Many<ServerSentEvent<Object>> broadcastSink = Sinks.many().multicast().directBestEffort();
+
+    public NotificationPushService(
+            NotificationMapper notificationMapper,
+            StreamBridge streamBridge,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.notificationMapper = notificationMapper;
+        this.streamBridge = streamBridge;
+        this.objectMapper = objectMapper;
+        Gauge.builder("notifications.push.connected-users", channels, Map::size)
+                .description("Users with at least one open notification stream on this instance")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a notification stream for a user: the current unread count first, then new
+     * notifications and unread-count changes as they happen, plus periodic heartbeats.
+     *
+     * @param userId      the user identifier
+     * @param unreadCount the user's current unread count
+     * @return the event stream
+     */
+    public Flux<ServerSentEvent<Object>> stream(String userId, Mono<Long> unreadCount) {
+        Mono<ServerSentEvent<Object>> initialCount = unreadCount
+                .map(count -> event(EVENT_UNREAD_COUNT, new UnreadCount(count, null)));
+        Flux<ServerSentEvent<Object>> heartbeat = Flux.interval(HEARTBEAT_INTERVAL)
+                .map(tick -> ServerSentEvent.<Object>builder().event(EVENT_HEARTBEAT).comment("keep-alive").build());
+
+        return Flux.defer(() -> {
+            UserChannel channel = channels.compute(userId, (id, existing) -> {
+                UserChannel current = existing != null ? existing : new UserChannel();
+                current.connections++;
+                return current;
+            });
+            return Flux.merge(initialCount, channel.sink.asFlux(), broadcastSink.asFlux(), heartbeat)
+                    .doFinally(signal -> channels.computeIfPresent(userId, (id, current) -> --current.connections == 0 ? null : current));
+        });
+    }
+
+    /**
+     * Publish a newly saved notification (and a +1 unread delta) to its recipient's streams.
+     */
+    public void publishCreated(Notification notification) {
+        publish(new NotificationPushMessage(
+                notification.getUserId(),
+                null,
+                notificationMapper.toDto(notification),
+                null,
+                notification.isRead() ? null : 1L));
+    }
+
+    /**
+     * Publish a topic notification (and a +1 unread delta) to the streams of all its subscribers
+     * with a single relay message.
+     */
+    public void publishTopic(NotificationDTO notification, List<String> subscriberIds) {
+        publish(new NotificationPushMessage(null, subscriberIds, notification, null, 1L));
+    }
+
+    /**
+     * Publish the user's absolute unread count, e.g. after read-state changes.
+     */
+    public void publishUnreadCount(String userId, long unreadCount) {
+        publish(new NotificationPushMessage(userId, null, null, unreadCount, null));
+    }
+
+    /**
+     * Deliver a relayed push event to the streams connected to this instance.
+     */
+    public void deliver(NotificationPushMessage message) {
+        if (message.userIds() != null) {
+            message.userIds().stream().map(channels::get).filter(Objects::nonNull).forEach(channel -> emit(channel.sink, message));
+            return;
+        }
+        if (message.userId() == null) {
+            return;
+        }
+        if (BROADCAST_USER_ID.equals(message.userId())) {
+            emit(broadcastSink, message);
+            return;
+        }
+        UserChannel channel = channels.get(message.userId());
+        if (channel != null) {
+            emit(channel.sink, message);
+        }
+    }
+
+    private void publish(NotificationPushMessage message) {
+        try {
+            streamBridge.send(PUSH_BINDING_NAME, objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException e) {
+            LOG.error("Failed to serialize notification push message for {}", message.userId(), e);
+        }
+    }
+
+    private void emit(Sinks.Many<ServerSentEvent<Object>> sink, NotificationPushMessage message) {
+        if (message.notification() != null) {
+            sink.tryEmitNext(event(EVENT_NOTIFICATION, message.notification()));
+        }
+        if (message.unreadCount() != null || message.unreadDelta() != null) {
+            sink.tryEmitNext(event(EVENT_UNREAD_COUNT, new UnreadCount(message.unreadCount(), message.unreadDelta())));
+        }
+    }
+
+    private static ServerSentEvent<Object> event(String name, Object data) {
+        return ServerSentEvent.<Object>builder().event(name).data(data).build();
+    }
+
+    /**
+     * Unread-count event payload: either an absolute {@code count} or a {@code delta} to apply.
+     */
+    public record UnreadCount(Long count, Long delta) {}
+
+    private static final class UserChannel {
+
+        private final Sinks.Many<ServerSentEvent<Object>> sink = Sinks.many().multicast().directBestEffort();
+        private int connections;
+    }
+}
@@ -1,14 +1,24 @@
 package com.stockapp.notificationservice.service;
 
+import com.mongodb.client.result.UpdateResult;
 import com.stockapp.notificationservice.domain.Notification;
 import com.stockapp.notificationservice.domain.enumeration.NotificationCategory;
 import com.stockapp.notificationservice.repository.NotificationRepository;
+import com.stockapp.notificationservice.security.encryption.FieldEncryptionService;
 import com.stockapp.notificationservice.service.dto.NotificationDTO;
 import com.stockapp.notificationservice.service.mapper.NotificationMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.time.Instant;
+import java.util.Comparator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -22,12 +32,42 @@ public class NotificationService {
 
     private static final Logger LOG = LoggerFactory.getLogger(NotificationService.class);
 
+    private static final int MAX_UNPAGED_TOPIC_NOTIFICATIONS = 500;
+    private static final String USER_ID_INDEX_FIELD = FieldEncryptionService.blindIndexField("user_id");
+    private static final Comparator<NotificationDTO> NEWEST_FIRST = Comparator.comparing(
+            NotificationDTO::getCreatedAt,
+            Comparator.nullsLast(Comparator.reverseOrder()));
+
     private final NotificationRepository notificationRepository;
     private final NotificationMapper notificationMapper;
+    private final NotificationPushService notificationPushService;
+    private final TopicNotificationService topicNotificationService;
+    private final UnreadCountCache unreadCountCache;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final FieldEncryptionService encryptionService;
+    private final String broadcastIndex;
+    private final Timer markAllAsReadTimer;
 
-    public NotificationService(NotificationRepository notificationRepository, NotificationMapper notificationMapper) {
+    public NotificationService(
+            NotificationRepository notificationRepository,
+            NotificationMapper notificationMapper,
+            NotificationPushService notificationPushService,
+            TopicNotificationService topicNotificationService,
+            UnreadCountCache unreadCountCache,
+            ReactiveMongoTemplate mongoTemplate,
+            FieldEncryptionService encryptionService,
+            MeterRegistry meterRegistry) {
         this.notificationRepository = notificationRepository;
         this.notificationMapper = notificationMapper;
+        this.notificationPushService = notificationPushService;
+        this.topicNotificationService = topicNotificationService;
+        this.unreadCountCache = unreadCountCache;
+        this.mongoTemplate = mongoTemplate;
+        this.encryptionService = encryptionService;
+        this.broadcastIndex = encryptionService.blindIndex(NotificationPushService.BROADCAST_USER_ID);
+        this.markAllAsReadTimer = Timer.builder("notifications.mark-all-read")
+                .description("Time to mark all of a user's notifications as read")
+                .register(meterRegistry);
     }
 
     /**
@@ -38,7 +78,7 @@ public class NotificationService {
      */
     public Mono<NotificationDTO> save(NotificationDTO notificationDTO) {
         LOG.debug("Request to save Notification : {}", notificationDTO);
-        return notificationRepository.save(notificationMapper.toEntity(notificationDTO)).map(notificationMapper::toDto);
+        return save(notificationMapper.toEntity(notificationDTO)).map(notificationMapper::toDto);
     }
 
     /**
@@ -49,7 +89,14 @@ public class NotificationService {
      */
     public Mono<Notification> save(Notification notification) {
         LOG.debug("Request to save Notification entity: {}", notification);
-        return notificationRepository.save(notification);
+        boolean isNew = notification.getId() == null;
+        return notificationRepository.save(notification).doOnNext(saved -> {
+            if (isNew) {
+                unreadCountCache.recordCreated(saved);
+            } else {
+                unreadCountCache.invalidate(saved.getUserId());
+            }
+        });
     }
 
     /**
@@ -60,7 +107,7 @@ public class NotificationService {
      */
     public Mono<NotificationDTO> update(NotificationDTO notificationDTO) {
         LOG.debug("Request to update Notification : {}", notificationDTO);
-        return notificationRepository.save(notificationMapper.toEntity(notificationDTO)).map(notificationMapper::toDto);
+        return save(notificationMapper.toEntity(notificationDTO)).map(notificationMapper::toDto);
     }
 
     /**
@@ -78,7 +125,7 @@ public class NotificationService {
                     notificationMapper.partialUpdate(existingNotification, notificationDTO);
                     return existingNotification;
                 })
-                .flatMap(notificationRepository::save)
+                .flatMap(this::save)
                 .map(notificationMapper::toDto);
     }
 
@@ -140,7 +187,8 @@ public class NotificationService {
 
     /**
      * Get notifications for a user with optional category filter.
-     * Also includes broadcast notifications (_BROADCAST_).
+     * Also includes broadcast notifications (_BROADCAST_) and notifications of the topics the
+     * user is subscribed to, merged by creation date.
      *
      * @param userId   the user identifier
      * @param category the notification category (optional)
@@ -150,20 +198,18 @@ public class NotificationService {
     public Flux<NotificationDTO> getNotifications(String userId, NotificationCategory category, Pageable pageable) {
         LOG.debug("Request to get Notifications for user: {}, category: {}", userId, category);
 
-        if (category != null) {
-            return notificationRepository
-                    .findByUserIdOrBroadcastAndCategory(userId, category, pageable)
-                    .map(notificationMapper::toDto);
-        }
+        Pageable window = mergeWindow(pageable);
+        Flux<NotificationDTO> personal = category != null
+                ? notificationRepository.findByUserIdIndexOrBroadcastAndCategory(userIndex(userId), broadcastIndex, category, window).map(notificationMapper::toDto)
+                : notificationRepository.findByUserIdIndexOrBroadcast(userIndex(userId), broadcastIndex, window).map(notificationMapper::toDto);
+        Flux<NotificationDTO> topics = topicNotificationService.getNotifications(userId, category, topicLimit(pageable), false);
 
-        return notificationRepository
-                .findByUserIdOrBroadcast(userId, pageable)
-                .map(notificationMapper::toDto);
+        return merge(personal, topics, pageable);
     }
 
     /**
      * Get unread notifications for a user.
-     * Also includes broadcast notifications (_BROADCAST_).
+     * Also includes broadcast notifications (_BROADCAST_) and unread topic notifications.
      *
      * @param userId   the user identifier
      * @param pageable the pagination information
@@ -171,21 +217,27 @@ public class NotificationService {
      */
     public Flux<NotificationDTO> getUnreadNotifications(String userId, Pageable pageable) {
         LOG.debug("Request to get unread Notifications for user: {}", userId);
-        return notificationRepository
-                .findByUserIdOrBroadcastAndUnread(userId, pageable)
+        Flux<NotificationDTO> personal = notificationRepository
+                .findByUserIdIndexOrBroadcastAndUnread(userIndex(userId), broadcastIndex, mergeWindow(pageable))
                 .map(notificationMapper::toDto);
+        Flux<NotificationDTO> topics = topicNotificationService.getNotifications(userId, null, topicLimit(pageable), true);
+
+        return merge(personal, topics, pageable);
     }
 
     /**
      * Get the count of unread notifications for a user.
-     * Also includes broadcast notifications (_BROADCAST_).
+     * Also includes broadcast notifications (_BROADCAST_) and unread topic notifications.
+     * The personal part is served from {@link UnreadCountCache}.
      *
      * @param userId the user identifier
      * @return the count of unread notifications
      */
     public Mono<Long> getUnreadCount(String userId) {
         LOG.debug("Request to get unread count for user: {}", userId);
-        return notificationRepository.countByUserIdOrBroadcastAndUnread(userId);
+        Mono<Long> personal = unreadCountCache.get(userId, () -> notificationRepository.countByUserIdIndexOrBroadcastAndUnread(userIndex(userId), broadcastIndex));
+        return Mono.zip(personal, topicNotificationService.countUnread(userId))
+                .map(counts -> counts.getT1() + counts.getT2());
     }
 
     /**
@@ -197,7 +249,7 @@ public class NotificationService {
      */
     public Mono<Long> countByUserId(String userId) {
         LOG.debug("Request to get notification count for user: {}", userId);
-        return notificationRepository.countByUserIdOrBroadcast(userId);
+        return notificationRepository.countByUserIdIndexOrBroadcast(userIndex(userId), broadcastIndex);
     }
 
     /**
@@ -210,42 +262,95 @@ public class NotificationService {
      */
     public Mono<Long> countByUserIdAndCategory(String userId, NotificationCategory category) {
         LOG.debug("Request to get notification count for user: {}, category: {}", userId, category);
-        return notificationRepository.countByUserIdOrBroadcastAndCategory(userId, category);
+        return notificationRepository.countByUserIdIndexOrBroadcastAndCategory(userIndex(userId), broadcastIndex, category);
     }
 
     /**
-     * Mark a notification as read.
+     * Mark one of the user's notifications as read.
+     * Uses a single {@code findAndModify} setting only the read fields, so the document is not
+     * re-encrypted and saved, and matching the user's blind index so nobody can mark another
+     * user's notification. Falls back to the user's read markers when the id is a topic
+     * notification. Either way the new unread count is pushed.
      *
-     * @param id the notification id
+     * @param userId the user reading the notification
+     * @param id     the notification id
      * @return the updated notification
      */
-    public Mono<NotificationDTO> markAsRead(String id) {
+    public Mono<NotificationDTO> markAsRead(String userId, String id) {
         LOG.debug("Request to mark Notification as read: {}", id);
-        return notificationRepository
-                .findById(id)
-                .flatMap(notification -> {
-                    notification.setRead(true);
-                    notification.setReadAt(Instant.now());
-                    return notificationRepository.save(notification);
+        Instant readAt = Instant.now();
+        return mongoTemplate
+                .findAndModify(
+                        Query.query(Criteria.where("id").is(id).and(USER_ID_INDEX_FIELD).is(userIndex(userId))),
+                        new Update().set("isRead", true).set("readAt", readAt),
+                        Notification.class)
+                .map(previous -> {
+                    if (!previous.isRead()) {
+                        unreadCountCache.adjust(userId, -1);
+                    }
+                    NotificationDTO dto = notificationMapper.toDto(previous);
+                    dto.setRead(true);
+                    dto.setReadAt(previous.isRead() && previous.getReadAt() != null ? previous.getReadAt() : readAt);
+                    return dto;
                 })
-                .map(notificationMapper::toDto);
+                .switchIfEmpty(Mono.defer(() -> topicNotificationService.markAsRead(userId, id)))
+                .flatMap(saved -> publishUnreadCount(userId).thenReturn(saved));
     }
 
     /**
-     * Mark all notifications as read for a user.
+     * Mark all notifications as read for a user, including topic notifications.
+     * Personal notifications are updated with one server-side {@code updateMulti} instead of
+     * loading, decrypting and re-saving each document.
      *
      * @param userId the user identifier
-     * @return the count of updated notifications
+     * @return the count of updated personal notifications
      */
     public Mono<Long> markAllAsRead(String userId) {
         LOG.debug("Request to mark all Notifications as read for user: {}", userId);
-        return notificationRepository
-                .findByUserIdAndIsReadFalse(userId)
-                .flatMap(notification -> {
-                    notification.setRead(true);
-                    notification.setReadAt(Instant.now());
-                    return notificationRepository.save(notification);
-                })
-                .count();
+        Timer.Sample sample = Timer.start();
+        return mongoTemplate
+                .updateMulti(
+                        Query.query(Criteria.where(USER_ID_INDEX_FIELD).is(userIndex(userId)).and("isRead").is(false)),
+                        new Update().set("isRead", true).set("readAt", Instant.now()),
+                        Notification.class)
+                .map(UpdateResult::getModifiedCount)
+                .doOnNext(count -> unreadCountCache.invalidate(userId))
+                .flatMap(count -> topicNotificationService.markAllAsRead(userId).thenReturn(count))
+                .doOnNext(count -> sample.stop(markAllAsReadTimer))
+                .flatMap(count -> publishUnreadCount(userId).thenReturn(count));
+    }
+
+    /**
+     * Blind index of a user id, matched against {@code user_id_bidx} since {@code user_id} is encrypted.
+     */
+    private String userIndex(String userId) {
+        return encryptionService.blindIndex(userId);
+    }
+
+    private Mono<Long> publishUnreadCount(String userId) {
+        return getUnreadCount(userId).doOnNext(count -> notificationPushService.publishUnreadCount(userId, count));
+    }
+
+    /**
+     * First page covering everything up to the end of the requested page, so the merged stream
+     * can skip the offset across both sources.
+     */
+    private static Pageable mergeWindow(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return pageable;
+        }
+        return PageRequest.of(0, (int) pageable.getOffset() + pageable.getPageSize(), pageable.getSort());
+    }
+
+    private static int topicLimit(Pageable pageable) {
+        return pageable.isUnpaged() ? MAX_UNPAGED_TOPIC_NOTIFICATIONS : (int) pageable.getOffset() + pageable.getPageSize();
+    }
+
+    private static Flux<NotificationDTO> merge(Flux<NotificationDTO> personal, Flux<NotificationDTO> topics, Pageable pageable) {
+        Flux<NotificationDTO> merged = Flux.mergeComparing(NEWEST_FIRST, personal, topics);
+        if (pageable.isUnpaged()) {
+            return merged;
+        }
+        return merged.skip(pageable.getOffset()).take(pageable.getPageSize());
     }
 }
@@ -0,0 +1,297 @@
+package com.stockapp.notificationservice.service;
+
+import com.stockapp.notificationservice.domain.NotificationUserState;
+import com.stockapp.notificationservice.domain.TopicNotification;
+import com.stockapp.notificationservice.domain.enumeration.NotificationCategory;
+import com.stockapp.notificationservice.domain.enumeration.NotificationStatus;
+import com.stockapp.notificationservice.domain.enumeration.NotificationType;
+import com.stockapp.notificationservice.repository.NotificationUserStateRepository;
+import com.stockapp.notificationservice.repository.TopicNotificationRepository;
+import com.stockapp.notificationservice.security.encryption.FieldEncryptionService;
+import com.stockapp.notificationservice.service.dto.NotificationDTO;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Fan-out-on-read notifications.
+ * <p>
+ * Topic-level events such as per-symbol price moves are stored once as a
+ * {@link TopicNotification}. Each user only has a compact {@link NotificationUserState}
+ * (subscribed topics, read cursor, individually read ids, muted categories), so storage and
+ * write volume scale with events rather than events × watchers. Subscriptions are kept in sync
+ * from the watcher lists carried by the events, writing only the users whose subscription changed.
+ * Each subscription records when it started and ended, so a user only sees the notifications a
+ * topic published while they watched it: a new watcher does not inherit the topic's history as
+ * unread, and an unwatched topic keeps the notifications already received.
+ * User states are keyed by the blind index of the user id.
+ */
+@Service
+public class TopicNotificationService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TopicNotificationService.class);
+
+    private final TopicNotificationRepository topicNotificationRepository;
+    private final NotificationUserStateRepository userStateRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final NotificationPushService notificationPushService;
+    private final FieldEncryptionService encryptionService;
+
+    /** Last subscriber set (user blind indexes) written per topic, so unchanged watchers cause no writes. */
+    private final Map<String, Set<String>> knownSubscribers = new ConcurrentHashMap<>();
+
+    public TopicNotificationService(
+            TopicNotificationRepository topicNotificationRepository,
+            NotificationUserStateRepository userStateRepository,
+            ReactiveMongoTemplate mongoTemplate,
+            NotificationPushService notificationPushService,
+            FieldEncryptionService encryptionService) {
+        this.topicNotificationRepository = topicNotificationRepository;
+        this.userStateRepository = userStateRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.notificationPushService = notificationPushService;
+        this.encryptionService = encryptionService;
+    }
+
+    /**
+     * Store a topic notification once, sync the topic's subscribers and push it to them.
+     *
+     * @param notification  the notification with topic, title, content, category and metadata set;
+     *                      with an id derived from the event, a redelivered event is published once
+     * @param subscriberIds users currently subscribed to the topic
+     * @return the stored notification, or empty when one with the same id was already published
+     */
+    public Mono<TopicNotification> publish(TopicNotification notification, Collection<String> subscriberIds) {
+        if (notification.getCreatedAt() == null) {
+            notification.setCreatedAt(Instant.now());
+        }
+        return syncSubscribers(notification.getTopic(), subscriberIds, notification.getCreatedAt())
+                .then(topicNotificationRepository.insert(notification))
+                .onErrorResume(DuplicateKeyException.class, e -> {
+                    LOG.info("Topic notification {} for {} was already published", notification.getId(), notification.getTopic());
+                    return Mono.empty();
+                })
+                .doOnNext(saved -> {
+                    LOG.info("Published topic notification {} to {} subscribers", saved.getTopic(), subscriberIds.size());
+                    notificationPushService.publishTopic(toDto(saved, null, false), List.copyOf(subscriberIds));
+                });
+    }
+
+    /**
+     * Get the most recent topic notifications for a user, newest first.
+     *
+     * @param userId   the user identifier
+     * @param category the category filter (optional)
+     * @param limit    maximum number of notifications
+     * @param unreadOnly only return unread notifications
+     * @return the notifications, as DTOs addressed to the user
+     */
+    public Flux<NotificationDTO> getNotifications(String userId, NotificationCategory category, int limit, boolean unreadOnly) {
+        return getState(userId).flatMapMany(state -> {
+            if (state.getSubscriptions().isEmpty() || limit <= 0 || (category != null && state.getMutedCategories().contains(category))) {
+                return Flux.empty();
+            }
+            Criteria categoryCriteria = category != null
+                ? Criteria.where("category").is(category)
+                : Criteria.where("category").nin(state.getMutedCategories());
+            Query query = Query.query(new Criteria().andOperator(subscribed(state), categoryCriteria))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt"))
+                .limit(limit);
+            return mongoTemplate
+                .find(query, TopicNotification.class)
+                .map(notification -> toDto(notification, userId, state.isRead(notification)))
+                .filter(dto -> !unreadOnly || !dto.isRead());
+        });
+    }
+
+    /**
+     * Count unread topic notifications for a user.
+     */
+    public Mono<Long> countUnread(String userId) {
+        return getState(userId).flatMap(state -> {
+            if (state.getSubscriptions().isEmpty()) {
+                return Mono.just(0L);
+            }
+            Instant cursor = state.getReadCursor() != null ? state.getReadCursor() : Instant.EPOCH;
+            Query query = Query.query(
+                new Criteria().andOperator(
+                    subscribed(state),
+                    Criteria.where("category").nin(state.getMutedCategories()),
+                    Criteria.where("createdAt").gt(cursor),
+                    Criteria.where("id").nin(state.getReadIds())
+                )
+            );
+            return mongoTemplate.count(query, TopicNotification.class);
+        });
+    }
+
+    /**
+     * Mark a single topic notification as read for a user.
+     *
+     * @return the notification, or empty if no topic notification has this id
+     */
+    public Mono<NotificationDTO> markAsRead(String userId, String id) {
+        return topicNotificationRepository
+            .findById(id)
+            .flatMap(notification ->
+                mongoTemplate
+                    .upsert(byUser(userId), new Update().addToSet("readIds", id), NotificationUserState.class)
+                    .thenReturn(toDto(notification, userId, true))
+            );
+    }
+
+    /**
+     * Mark all topic notifications as read by moving the user's read cursor to now.
+     */
+    public Mono<Void> markAllAsRead(String userId) {
+        Update update = new Update().set("readCursor", Instant.now()).set("readIds", Set.of());
+        return mongoTemplate.upsert(byUser(userId), update, NotificationUserState.class).then();
+    }
+
+    public Mono<Set<NotificationCategory>> getMutedCategories(String userId) {
+        return getState(userId).map(NotificationUserState::getMutedCategories);
+    }
+
+    public Mono<Set<NotificationCategory>> setMutedCategories(String userId, Set<NotificationCategory> categories) {
+        return mongoTemplate
+            .upsert(byUser(userId), new Update().set("mutedCategories", categories), NotificationUserState.class)
+            .thenReturn(categories);
+    }
+
+    /**
+     * Record a start time for subscriptions stored before periods existed, as if they had always
+     * been subscribed (which is what they saw so far).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillSubscriptionPeriods() {
+        Query legacy = Query.query(Criteria.where("topics").exists(true).and("subscriptions").exists(false));
+        mongoTemplate
+            .find(legacy, NotificationUserState.class)
+            .concatMap(state -> {
+                List<NotificationUserState.Subscription> periods = state
+                    .getTopics()
+                    .stream()
+                    .map(topic -> new NotificationUserState.Subscription(topic, Instant.EPOCH))
+                    .toList();
+                return mongoTemplate.updateFirst(byIndex(state.getId()), new Update().set("subscriptions", periods), NotificationUserState.class);
+            })
+            .count()
+            .subscribe(
+                count -> {
+                    if (count > 0) {
+                        LOG.info("Backfilled subscription periods of {} notification user states", count);
+                    }
+                },
+                error -> LOG.error("Failed to backfill subscription periods: {}", error.getMessage())
+            );
+    }
+
+    /**
+     * Bring the topic's subscriptions in line with the given watcher list: open a period for new
+     * watchers (ordered bulk: make sure the state exists, then subscribe if not yet subscribed) and
+     * close it for everyone else (one multi-update).
+     *
+     * @param at creation time of the notification carrying the watcher list, so that notification
+     *           falls inside the new periods and outside the closed ones
+     */
+    private Mono<Void> syncSubscribers(String topic, Collection<String> subscriberIds, Instant at) {
+        Set<String> current = new HashSet<>();
+        subscriberIds.forEach(userId -> current.add(encryptionService.blindIndex(userId)));
+        Set<String> known = knownSubscribers.get(topic);
+        Set<String> added = new HashSet<>(current);
+        if (known != null) {
+            added.removeAll(known);
+        }
+        boolean removed = known == null || !current.containsAll(known);
+
+        Mono<Void> addSubscriptions = Mono.empty();
+        if (!added.isEmpty()) {
+            var bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, NotificationUserState.class);
+            Document period = new Document("topic", topic).append("since", at);
+            added.forEach(userIndex -> {
+                bulk.upsert(byIndex(userIndex), new Update().setOnInsert("topics", List.of()));
+                bulk.updateOne(
+                    Query.query(Criteria.where("id").is(userIndex).and("topics").ne(topic)),
+                    new Update().addToSet("topics", topic).push("subscriptions", period)
+                );
+            });
+            addSubscriptions = bulk.execute().then();
+        }
+        Mono<Void> removeSubscriptions = removed
+            ? mongoTemplate
+                .updateMulti(
+                    Query.query(Criteria.where("topics").is(topic).and("id").nin(current)),
+                    new Update()
+                        .pull("topics", topic)
+                        .set("subscriptions.$[open].until", at)
+                        .filterArray(Criteria.where("open.topic").is(topic).and("open.until").is(null)),
+                    NotificationUserState.class
+                )
+                .then()
+            : Mono.empty();
+
+        return addSubscriptions.then(removeSubscriptions).doOnSuccess(v -> knownSubscribers.put(topic, current));
+    }
+
+    private Mono<NotificationUserState> getState(String userId) {
+        String userIndex = encryptionService.blindIndex(userId);
+        return userStateRepository.findById(userIndex).defaultIfEmpty(NotificationUserState.empty(userIndex));
+    }
+
+    /**
+     * Topic notifications created while the user was subscribed to their topic.
+     */
+    private static Criteria subscribed(NotificationUserState state) {
+        List<Criteria> periods = state
+            .getSubscriptions()
+            .stream()
+            .map(period -> {
+                Criteria createdAt = Criteria.where("topic").is(period.getTopic()).and("createdAt").gte(period.getSince());
+                return period.getUntil() != null ? createdAt.lt(period.getUntil()) : createdAt;
+            })
+            .toList();
+        return new Criteria().orOperator(periods);
+    }
+
+    private Query byUser(String userId) {
+        return byIndex(encryptionService.blindIndex(userId));
+    }
+
+    private static Query byIndex(String userIndex) {
+        return Query.query(Criteria.where("id").is(userIndex));
+    }
+
+    private static NotificationDTO toDto(TopicNotification notification, String userId, boolean read) {
+        NotificationDTO dto = new NotificationDTO();
+        dto.setId(notification.getId());
+        dto.setUserId(userId);
+        dto.setTitle(notification.getTitle());
+        dto.setContent(notification.getContent());
+        dto.setCategory(notification.getCategory());
+        dto.setType(NotificationType.IN_APP);
+        dto.setStatus(read ? NotificationStatus.SENT : NotificationStatus.PENDING);
+        dto.setRead(read);
+        dto.setCreatedAt(notification.getCreatedAt());
+        dto.setMetadata(notification.getMetadata());
+        return dto;
+    }
+}
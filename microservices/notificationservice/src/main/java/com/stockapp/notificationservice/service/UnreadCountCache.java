@@ -0,0 +1,94 @@
+package com.stockapp.notificationservice.service;
+
+import com.stockapp.notificationservice.domain.Notification;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Per-user cache of the personal unread notification count.
+ * <p>
+ * Loaded from MongoDB on first access, then kept in sync on this instance as notifications are
+ * inserted and read. Entries expire after a short TTL so that changes applied by other instances
+ * are picked up; a broadcast notification invalidates every entry.
+ */
+@Component
+public class UnreadCountCache {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+    private static final int MAX_ENTRIES = 50_000;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Get the cached count, loading it when absent or expired.
+     */
+    public Mono<Long> get(String userId, Supplier<Mono<Long>> loader) {
+        Entry entry = entries.get(userId);
+        if (entry != null && !entry.isExpired()) {
+            return Mono.just(entry.count.get());
+        }
+        return loader.get().doOnNext(count -> set(userId, count));
+    }
+
+    /**
+     * Record a newly inserted notification.
+     */
+    public void recordCreated(Notification notification) {
+        if (notification.isRead()) {
+            return;
+        }
+        if (NotificationPushService.BROADCAST_USER_ID.equals(notification.getUserId())) {
+            invalidateAll();
+            return;
+        }
+        adjust(notification.getUserId(), 1);
+    }
+
+    /**
+     * Apply a change to a cached count; users without a cached count are left to load lazily.
+     */
+    public void adjust(String userId, long delta) {
+        entries.computeIfPresent(userId, (id, entry) -> {
+            entry.count.updateAndGet(count -> Math.max(0, count + delta));
+            return entry;
+        });
+    }
+
+    public void set(String userId, long count) {
+        if (entries.size() >= MAX_ENTRIES) {
+            entries.values().removeIf(Entry::isExpired);
+            if (entries.size() >= MAX_ENTRIES) {
+                entries.clear();
+            }
+        }
+        entries.put(userId, new Entry(count));
+    }
+
+    public void invalidate(String userId) {
+        entries.remove(userId);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private static final class Entry {
+
+        private final AtomicLong count;
+        private final long expiresAt;
+
+        private Entry(long count) {
+            this.count = new AtomicLong(count);
+            this.expiresAt = System.nanoTime() + TTL.toNanos();
+        }
+
+        private boolean isExpired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+    }
+}
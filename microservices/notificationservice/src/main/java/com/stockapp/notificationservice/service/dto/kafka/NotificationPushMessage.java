@@ -0,0 +1,23 @@
+package com.stockapp.notificationservice.service.dto.kafka;
+
+import com.stockapp.notificationservice.service.dto.NotificationDTO;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Push event relayed between notificationservice instances on the notification.push topic,
+ * so a user's SSE stream receives it whichever instance holds the connection.
+ *
+ * @param userId       recipient, or {@code _BROADCAST_} for every connected user
+ * @param userIds      recipients of a topic notification, used instead of {@code userId}
+ * @param notification the new notification, or {@code null} for an unread-count only event
+ * @param unreadCount  absolute unread count, or {@code null}
+ * @param unreadDelta  unread count change, or {@code null}
+ */
+public record NotificationPushMessage(
+        String userId,
+        List<String> userIds,
+        NotificationDTO notification,
+        Long unreadCount,
+        Long unreadDelta) implements Serializable {
+}
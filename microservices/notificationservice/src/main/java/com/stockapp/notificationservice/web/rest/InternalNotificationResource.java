@@ -1,9 +1,11 @@
 package com.stockapp.notificationservice.web.rest;
 
+import com.stockapp.notificationservice.domain.TopicNotification;
 import com.stockapp.notificationservice.domain.enumeration.NotificationCategory;
 import com.stockapp.notificationservice.domain.enumeration.NotificationStatus;
 import com.stockapp.notificationservice.domain.enumeration.NotificationType;
 import com.stockapp.notificationservice.service.NotificationService;
+import com.stockapp.notificationservice.service.TopicNotificationService;
 import com.stockapp.notificationservice.service.dto.NotificationDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -33,9 +35,13 @@ public class InternalNotificationResource {
         private static final Logger LOG = LoggerFactory.getLogger(InternalNotificationResource.class);
 
         private final NotificationService notificationService;
+        private final TopicNotificationService topicNotificationService;
 
-        public InternalNotificationResource(NotificationService notificationService) {
+        public InternalNotificationResource(
+                        NotificationService notificationService,
+                        TopicNotificationService topicNotificationService) {
                 this.notificationService = notificationService;
+                this.topicNotificationService = topicNotificationService;
         }
 
         // ==================== AI Notifications ====================
@@ -227,7 +233,7 @@ public class InternalNotificationResource {
          * multiple users
          */
         @PostMapping(value = "/price/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
-        @Operation(summary = "Create bulk price notifications", description = "Create price notifications for all users watching a stock")
+        @Operation(summary = "Create bulk price notifications", description = "Create one price topic notification read by all users watching a stock")
         public Mono<ResponseEntity<BulkCreateResponse>> createBulkPriceNotifications(
                         @RequestBody BulkPriceNotificationRequest request) {
                 LOG.info("Creating bulk price notifications for symbol: {} for {} users",
@@ -246,23 +252,19 @@ public class InternalNotificationResource {
                                 request.openPrice(), request.closePrice(),
                                 request.highPrice(), request.lowPrice(), request.volume());
 
-                final String finalTitle = title;
-                final String finalContent = content;
-
-                return Flux.fromIterable(request.userIds())
-                                .flatMap(userId -> {
-                                        NotificationDTO notification = createNotification(
-                                                        userId, finalTitle, finalContent, NotificationCategory.PRICE,
-                                                        String.format(
-                                                                        "{\"symbol\":\"%s\",\"percentChange\":%.2f,\"closePrice\":\"%s\",\"date\":\"%s\"}",
-                                                                        request.symbol(), request.percentChange(),
-                                                                        request.closePrice(),
-                                                                        request.date()));
-                                        return notificationService.save(notification);
-                                })
-                                .count()
-                                .map(count -> ResponseEntity
-                                                .ok(new BulkCreateResponse(count.intValue(), "Created successfully")));
+                TopicNotification notification = new TopicNotification();
+                notification.setTopic(TopicNotification.topicOf(NotificationCategory.PRICE, request.symbol()));
+                notification.setTitle(title);
+                notification.setContent(content);
+                notification.setCategory(NotificationCategory.PRICE);
+                notification.setMetadata(String.format(
+                                "{\"symbol\":\"%s\",\"percentChange\":%.2f,\"closePrice\":\"%s\",\"date\":\"%s\"}",
+                                request.symbol(), request.percentChange(), request.closePrice(), request.date()));
+
+                // Stored once for the symbol and read by every watcher
+                return topicNotificationService.publish(notification, request.userIds())
+                                .map(saved -> ResponseEntity
+                                                .ok(new BulkCreateResponse(request.userIds().size(), "Created successfully")));
         }
 
         // ==================== Demo Data ====================
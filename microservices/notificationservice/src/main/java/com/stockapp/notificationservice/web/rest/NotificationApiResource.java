@@ -125,15 +125,16 @@ public class NotificationApiResource {
     /**
      * {@code PUT /api/notifications/user/:id/read} : Mark a notification as read.
      *
-     * @param id the notification id
+     * @param id  the notification id
+     * @param jwt the JWT token
      * @return the updated notification
      */
     @PutMapping("/{id}/read")
-    public Mono<ResponseEntity<NotificationDTO>> markAsRead(@PathVariable String id) {
+    public Mono<ResponseEntity<NotificationDTO>> markAsRead(@PathVariable String id, @AuthenticationPrincipal Jwt jwt) {
         LOG.debug("REST request to mark Notification as read: {}", id);
 
         return notificationService
-                .markAsRead(id)
+                .markAsRead(jwt.getSubject(), id)
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
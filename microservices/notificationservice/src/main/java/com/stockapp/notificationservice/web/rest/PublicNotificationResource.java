@@ -2,7 +2,9 @@ package com.stockapp.notificationservice.web.rest;
 
 import com.stockapp.notificationservice.domain.enumeration.NotificationCategory;
 import com.stockapp.notificationservice.domain.enumeration.NotificationStatus;
+import com.stockapp.notificationservice.service.NotificationPushService;
 import com.stockapp.notificationservice.service.NotificationService;
+import com.stockapp.notificationservice.service.TopicNotificationService;
 import com.stockapp.notificationservice.service.dto.NotificationDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -17,6 +19,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContext;
@@ -27,6 +30,7 @@ import reactor.core.publisher.Mono;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Public REST API for Notification management
@@ -43,9 +47,16 @@ public class PublicNotificationResource {
     private static final Logger LOG = LoggerFactory.getLogger(PublicNotificationResource.class);
 
     private final NotificationService notificationService;
+    private final NotificationPushService notificationPushService;
+    private final TopicNotificationService topicNotificationService;
 
-    public PublicNotificationResource(NotificationService notificationService) {
+    public PublicNotificationResource(
+            NotificationService notificationService,
+            NotificationPushService notificationPushService,
+            TopicNotificationService topicNotificationService) {
         this.notificationService = notificationService;
+        this.notificationPushService = notificationPushService;
+        this.topicNotificationService = topicNotificationService;
     }
 
     /**
@@ -233,6 +244,28 @@ public class PublicNotificationResource {
                 .map(ResponseEntity::ok);
     }
 
+    /**
+     * GET /api/public/notifications/stream : Server-Sent Events stream of the
+     * user's notifications
+     *
+     * Emits an "unread-count" event with the current count on connect, then
+     * "notification" events for new notifications and "unread-count" events
+     * ({"delta": n} or {"count": n}) as they happen, replacing polling.
+     *
+     * @return the event stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream notifications", description = "Server-Sent Events stream of new notifications and unread count changes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream opened")
+    })
+    public Flux<ServerSentEvent<Object>> streamNotifications() {
+        LOG.debug("Public API request to open notification stream");
+
+        return getCurrentUserId()
+                .flatMapMany(userId -> notificationPushService.stream(userId, notificationService.getUnreadCount(userId)));
+    }
+
     /**
      * PUT /api/public/notifications/{id}/read : Mark notification as read
      *
@@ -248,12 +281,8 @@ public class PublicNotificationResource {
     public Mono<ResponseEntity<NotificationResponse>> markAsRead(@PathVariable String id) {
         LOG.debug("Public API request to mark notification as read: {}", id);
 
-        return notificationService.findOne(id)
-                .flatMap(notification -> {
-                    notification.setStatus(NotificationStatus.SENT);
-                    notification.setSentAt(Instant.now());
-                    return notificationService.update(notification);
-                })
+        return getCurrentUserId()
+                .flatMap(userId -> notificationService.markAsRead(userId, id))
                 .map(this::toNotificationResponse)
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
@@ -281,6 +310,52 @@ public class PublicNotificationResource {
                 });
     }
 
+    /**
+     * GET /api/public/notifications/muted-categories : Get the categories the user
+     * muted
+     *
+     * @return muted categories
+     */
+    @GetMapping("/muted-categories")
+    @Operation(summary = "Get muted categories", description = "Get notification categories muted by the user")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Muted categories retrieved successfully")
+    })
+    public Mono<ResponseEntity<Set<NotificationCategory>>> getMutedCategories() {
+        LOG.debug("Public API request to get muted categories");
+
+        return getCurrentUserId()
+                .flatMap(topicNotificationService::getMutedCategories)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * PUT /api/public/notifications/muted-categories : Replace the categories the
+     * user muted
+     *
+     * Muted categories are hidden from topic notifications (e.g. per-symbol price
+     * updates) and excluded from their unread count.
+     *
+     * @param categories the categories to mute
+     * @return muted categories
+     */
+    @PutMapping("/muted-categories")
+    @Operation(summary = "Set muted categories", description = "Replace notification categories muted by the user")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Muted categories updated")
+    })
+    public Mono<ResponseEntity<Set<NotificationCategory>>> setMutedCategories(
+            @RequestBody Set<NotificationCategory> categories) {
+        LOG.debug("Public API request to set muted categories: {}", categories);
+
+        return getCurrentUserId()
+                .flatMap(userId -> topicNotificationService.setMutedCategories(userId, categories)
+                        .flatMap(muted -> notificationService.getUnreadCount(userId)
+                                .doOnNext(count -> notificationPushService.publishUnreadCount(userId, count))
+                                .thenReturn(muted)))
+                .map(ResponseEntity::ok);
+    }
+
     /**
      * DELETE /api/public/notifications/{id} : Delete a notification
      *
@@ -345,7 +420,7 @@ public class PublicNotificationResource {
         response.setMetadata(dto.getMetadata());
         response.setCreatedAt(dto.getCreatedAt());
         response.setSentAt(dto.getSentAt());
-        response.setRead(NotificationStatus.SENT.equals(dto.getStatus()));
+        response.setRead(dto.isRead() || NotificationStatus.SENT.equals(dto.getStatus()));
         return response;
     }
 }
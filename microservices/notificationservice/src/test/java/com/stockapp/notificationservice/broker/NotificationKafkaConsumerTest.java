@@ -0,0 +1,117 @@
+package com.stockapp.notificationservice.broker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.stockapp.notificationservice.domain.Notification;
+import com.stockapp.notificationservice.domain.TopicNotification;
+import com.stockapp.notificationservice.service.NotificationPushService;
+import com.stockapp.notificationservice.service.TopicNotificationService;
+import com.stockapp.notificationservice.service.UnreadCountCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Set;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+
+class NotificationKafkaConsumerTest {
+
+    private static final String FIRST = "{\"userId\":\"u1\",\"newsId\":\"n1\",\"title\":\"First\",\"symbol\":\"AAPL\"}";
+    private static final String SECOND = "{\"userId\":\"u2\",\"newsId\":\"n2\",\"title\":\"Second\",\"symbol\":\"MSFT\"}";
+
+    private ReactiveBulkOperations bulkOperations;
+    private NotificationPushService pushService;
+    private TopicNotificationService topicNotificationService;
+    private NotificationKafkaConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+        bulkOperations = mock(ReactiveBulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Notification.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        pushService = mock(NotificationPushService.class);
+        topicNotificationService = mock(TopicNotificationService.class);
+        consumer = new NotificationKafkaConsumer(
+            mongoTemplate,
+            new ObjectMapper(),
+            pushService,
+            topicNotificationService,
+            new UnreadCountCache(),
+            new SimpleMeterRegistry()
+        );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void redeliveredMessagesMapToTheSameIds() {
+        when(bulkOperations.execute()).thenReturn(Mono.just(BulkWriteResult.unacknowledged()));
+
+        consumer.newsUpdateConsumer().accept(List.of(FIRST, SECOND));
+        consumer.newsUpdateConsumer().accept(List.of(FIRST));
+
+        ArgumentCaptor<List<Notification>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(bulkOperations, times(2)).insert(inserted.capture());
+        String firstId = inserted.getAllValues().get(0).get(0).getId();
+        assertThat(firstId).isNotEqualTo(inserted.getAllValues().get(0).get(1).getId());
+        assertThat(inserted.getAllValues().get(1).get(0).getId()).isEqualTo(firstId);
+    }
+
+    @Test
+    void skipsDocumentsStoredByAnEarlierDelivery() {
+        when(bulkOperations.execute()).thenReturn(Mono.error(bulkError(new BulkWriteError(11000, "duplicate key", new BsonDocument(), 0))));
+
+        consumer.newsUpdateConsumer().accept(List.of(FIRST, SECOND));
+
+        ArgumentCaptor<Notification> pushed = ArgumentCaptor.forClass(Notification.class);
+        verify(pushService).publishCreated(pushed.capture());
+        assertThat(pushed.getValue().getUserId()).isEqualTo("u2");
+    }
+
+    @Test
+    void propagatesOtherWriteErrorsForRedelivery() {
+        when(bulkOperations.execute()).thenReturn(Mono.error(bulkError(new BulkWriteError(121, "validation failed", new BsonDocument(), 1))));
+
+        assertThatThrownBy(() -> consumer.newsUpdateConsumer().accept(List.of(FIRST, SECOND))).isInstanceOf(MongoBulkWriteException.class);
+        verify(pushService, never()).publishCreated(any());
+    }
+
+    @Test
+    void redeliveredPriceUpdatesMapToTheSameTopicNotificationId() {
+        String update =
+            "{\"symbol\":\"AAPL\",\"userIds\":[\"u1\"],\"percentChange\":1.5,\"closePrice\":\"200\",\"date\":\"2026-01-05\"}";
+        String other =
+            "{\"symbol\":\"AAPL\",\"userIds\":[\"u1\"],\"percentChange\":0.5,\"closePrice\":\"201\",\"date\":\"2026-01-06\"}";
+        when(topicNotificationService.publish(any(TopicNotification.class), anyList())).thenReturn(Mono.empty());
+
+        consumer.priceUpdateConsumer().accept(List.of(update, other));
+        consumer.priceUpdateConsumer().accept(List.of(update));
+
+        ArgumentCaptor<TopicNotification> published = ArgumentCaptor.forClass(TopicNotification.class);
+        verify(topicNotificationService, times(3)).publish(published.capture(), anyList());
+        List<String> ids = published.getAllValues().stream().map(TopicNotification::getId).toList();
+        assertThat(ids.get(0)).isNotNull().isNotEqualTo(ids.get(1)).isEqualTo(ids.get(2));
+    }
+
+    private static MongoBulkWriteException bulkError(BulkWriteError error) {
+        return new MongoBulkWriteException(BulkWriteResult.unacknowledged(), List.of(error), null, new ServerAddress(), Set.of());
+    }
+}
@@ -0,0 +1,72 @@
+package com.stockapp.notificationservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.stockapp.notificationservice.IntegrationTest;
+import com.stockapp.notificationservice.domain.Notification;
+import com.stockapp.notificationservice.domain.enumeration.NotificationCategory;
+import com.stockapp.notificationservice.repository.NotificationRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Integration tests for the read-state operations of {@link NotificationService}.
+ */
+@IntegrationTest
+class NotificationServiceIT {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NotificationServiceIT.class);
+
+    private static final String USER_ID = "mark-all-read-user";
+    private static final int UNREAD_COUNT = 10_000;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @AfterEach
+    void cleanup() {
+        mongoTemplate.remove(new Query(), Notification.class).block();
+    }
+
+    @Test
+    void markAllAsReadUpdatesTenThousandUnreadNotifications() {
+        List<Notification> notifications = new ArrayList<>(UNREAD_COUNT);
+        Instant createdAt = Instant.now();
+        for (int i = 0; i < UNREAD_COUNT; i++) {
+            notifications.add(new Notification()
+                    .userId(USER_ID)
+                    .title("Notification " + i)
+                    .content("Content " + i)
+                    .isRead(false)
+                    .category(NotificationCategory.NEWS)
+                    .createdAt(createdAt));
+        }
+        notificationRepository.insert(notifications).then().block();
+
+        long start = System.nanoTime();
+        Long updated = notificationService.markAllAsRead(USER_ID).block(Duration.ofSeconds(30));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        LOG.info("Marked {} notifications as read in {} ms", updated, elapsed.toMillis());
+
+        assertThat(updated).isEqualTo(UNREAD_COUNT);
+        Query unread = Query.query(Criteria.where("is_read").is(false));
+        assertThat(mongoTemplate.count(unread, "notification").block()).isZero();
+        assertThat(notificationService.getUnreadCount(USER_ID).block()).isZero();
+    }
+}
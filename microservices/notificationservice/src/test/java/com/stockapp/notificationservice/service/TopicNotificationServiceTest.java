@@ -0,0 +1,162 @@
+package com.stockapp.notificationservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mongodb.client.result.UpdateResult;
+import com.stockapp.notificationservice.domain.NotificationUserState;
+import com.stockapp.notificationservice.domain.TopicNotification;
+import com.stockapp.notificationservice.domain.enumeration.NotificationCategory;
+import com.stockapp.notificationservice.repository.NotificationUserStateRepository;
+import com.stockapp.notificationservice.repository.TopicNotificationRepository;
+import com.stockapp.notificationservice.security.encryption.FieldEncryptionService;
+import java.time.Instant;
+import java.util.List;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class TopicNotificationServiceTest {
+
+    private static final Instant SUBSCRIBED = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Instant UNSUBSCRIBED = Instant.parse("2026-01-10T00:00:00Z");
+
+    private TopicNotificationRepository topicRepository;
+    private NotificationUserStateRepository stateRepository;
+    private ReactiveMongoTemplate mongoTemplate;
+    private ReactiveBulkOperations bulkOperations;
+    private NotificationPushService pushService;
+    private TopicNotificationService service;
+
+    @BeforeEach
+    void setUp() {
+        topicRepository = mock(TopicNotificationRepository.class);
+        stateRepository = mock(NotificationUserStateRepository.class);
+        mongoTemplate = mock(ReactiveMongoTemplate.class);
+        bulkOperations = mock(ReactiveBulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkMode.ORDERED, NotificationUserState.class)).thenReturn(bulkOperations);
+        when(bulkOperations.upsert(any(Query.class), any(Update.class))).thenReturn(bulkOperations);
+        when(bulkOperations.updateOne(any(Query.class), any(Update.class))).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(Mono.empty());
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(NotificationUserState.class))).thenReturn(
+            Mono.just(UpdateResult.acknowledged(1, 1L, null))
+        );
+        when(topicRepository.insert(any(TopicNotification.class))).thenAnswer(call -> Mono.just(call.getArgument(0)));
+
+        pushService = mock(NotificationPushService.class);
+        FieldEncryptionService encryptionService = mock(FieldEncryptionService.class);
+        when(encryptionService.blindIndex(anyString())).thenAnswer(call -> "idx-" + call.getArgument(0));
+        service = new TopicNotificationService(
+            topicRepository,
+            stateRepository,
+            mongoTemplate,
+            pushService,
+            encryptionService
+        );
+    }
+
+    @Test
+    void countsOnlyNotificationsCreatedWhileSubscribed() {
+        NotificationUserState state = NotificationUserState.empty("idx-u1");
+        NotificationUserState.Subscription past = new NotificationUserState.Subscription("PRICE:AAPL", SUBSCRIBED);
+        past.setUntil(UNSUBSCRIBED);
+        state.setSubscriptions(List.of(past, new NotificationUserState.Subscription("PRICE:MSFT", UNSUBSCRIBED)));
+        when(stateRepository.findById("idx-u1")).thenReturn(Mono.just(state));
+        when(mongoTemplate.count(any(Query.class), eq(TopicNotification.class))).thenReturn(Mono.just(2L));
+
+        assertThat(service.countUnread("u1").block()).isEqualTo(2L);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).count(query.capture(), eq(TopicNotification.class));
+        Document subscribed = query.getValue().getQueryObject().getList("$and", Document.class).get(0);
+        assertThat(subscribed.getList("$or", Document.class)).containsExactly(
+            new Document("topic", "PRICE:AAPL").append("createdAt", new Document("$gte", SUBSCRIBED).append("$lt", UNSUBSCRIBED)),
+            new Document("topic", "PRICE:MSFT").append("createdAt", new Document("$gte", UNSUBSCRIBED))
+        );
+    }
+
+    @Test
+    void userWithoutSubscriptionsHasNoTopicNotifications() {
+        when(stateRepository.findById("idx-u1")).thenReturn(Mono.empty());
+
+        assertThat(service.countUnread("u1").block()).isZero();
+        verify(mongoTemplate, never()).count(any(Query.class), eq(TopicNotification.class));
+    }
+
+    @Test
+    void opensPeriodsForNewWatchersAndClosesThemForOthers() {
+        service.publish(priceNotification(), List.of("u1", "u2")).block();
+
+        ArgumentCaptor<Update> subscribe = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations, times(2)).updateOne(any(Query.class), subscribe.capture());
+        Document push = subscribe.getValue().getUpdateObject().get("$push", Document.class);
+        assertThat(push.get("subscriptions", Document.class).get("topic")).isEqualTo("PRICE:AAPL");
+        assertThat(push.get("subscriptions", Document.class).get("since")).isNotNull();
+
+        service.publish(priceNotification(), List.of("u1")).block();
+
+        ArgumentCaptor<Update> unsubscribe = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, atLeastOnce()).updateMulti(any(Query.class), unsubscribe.capture(), eq(NotificationUserState.class));
+        Update closing = unsubscribe.getValue();
+        assertThat(closing.getUpdateObject().get("$pull", Document.class).get("topics")).isEqualTo("PRICE:AAPL");
+        assertThat(closing.getUpdateObject().get("$set", Document.class)).containsKey("subscriptions.$[open].until");
+        assertThat(closing.getArrayFilters()).hasSize(1);
+    }
+
+    @Test
+    void listsTheNotificationThatSubscribedANewWatcher() {
+        TopicNotification first = service.publish(priceNotification(), List.of("u1")).block();
+
+        ArgumentCaptor<Update> subscribe = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations).updateOne(any(Query.class), subscribe.capture());
+        Instant since = (Instant) subscribe.getValue().getUpdateObject().get("$push", Document.class).get("subscriptions", Document.class).get("since");
+        assertThat(since).isEqualTo(first.getCreatedAt());
+
+        NotificationUserState state = NotificationUserState.empty("idx-u1");
+        state.setSubscriptions(List.of(new NotificationUserState.Subscription(first.getTopic(), since)));
+        when(stateRepository.findById("idx-u1")).thenReturn(Mono.just(state));
+        when(mongoTemplate.find(any(Query.class), eq(TopicNotification.class))).thenReturn(Flux.just(first));
+
+        assertThat(service.getNotifications("u1", null, 10, true).collectList().block()).hasSize(1);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(TopicNotification.class));
+        Document subscribed = query.getValue().getQueryObject().getList("$and", Document.class).get(0);
+        Document createdAt = subscribed.getList("$or", Document.class).get(0).get("createdAt", Document.class);
+        assertThat((Instant) createdAt.get("$gte")).isBeforeOrEqualTo(first.getCreatedAt());
+    }
+
+    @Test
+    void doesNotPushANotificationThatWasAlreadyPublished() {
+        when(topicRepository.insert(any(TopicNotification.class))).thenReturn(Mono.error(new DuplicateKeyException("E11000")));
+
+        assertThat(service.publish(priceNotification(), List.of("u1")).block()).isNull();
+        verify(pushService, never()).publishTopic(any(), anyList());
+    }
+
+    private static TopicNotification priceNotification() {
+        TopicNotification notification = new TopicNotification();
+        notification.setTopic(TopicNotification.topicOf(NotificationCategory.PRICE, "AAPL"));
+        notification.setTitle("AAPL");
+        notification.setCategory(NotificationCategory.PRICE);
+        return notification;
+    }
+}
@@ -0,0 +1,36 @@
+package com.stockapp.userservice.broker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockapp.userservice.service.TokenRevocationService;
+import com.stockapp.userservice.service.dto.kafka.TokenRevocationMessage;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumer for access-token revocations relayed between instances.
+ * Topic: security.token-revocation (anonymous group, so every instance receives every event)
+ */
+@Component
+public class TokenRevocationConsumer implements Consumer<String> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TokenRevocationConsumer.class);
+
+    private final TokenRevocationService tokenRevocationService;
+    private final ObjectMapper objectMapper;
+
+    public TokenRevocationConsumer(TokenRevocationService tokenRevocationService, ObjectMapper objectMapper) {
+        this.tokenRevocationService = tokenRevocationService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void accept(String message) {
+        try {
+            tokenRevocationService.apply(objectMapper.readValue(message, TokenRevocationMessage.class));
+        } catch (Exception e) {
+            LOG.error("Failed to process token revocation message: {}", message, e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.stockapp.userservice.broker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockapp.userservice.service.WatchlistIndexService;
+import com.stockapp.userservice.service.dto.kafka.WatchlistSymbolMessage;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumer for watchlist index entries published by any userservice instance.
+ * Topic: user.watchlist-index (anonymous group, so every instance receives every event).
+ * The record timestamp is passed along as the read time of entries published without one.
+ */
+@Component
+public class WatchlistIndexConsumer implements Consumer<Message<String>> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WatchlistIndexConsumer.class);
+
+    private final WatchlistIndexService watchlistIndexService;
+    private final ObjectMapper objectMapper;
+
+    public WatchlistIndexConsumer(WatchlistIndexService watchlistIndexService, ObjectMapper objectMapper) {
+        this.watchlistIndexService = watchlistIndexService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void accept(Message<String> message) {
+        try {
+            Long timestamp = message.getHeaders().get(KafkaHeaders.RECEIVED_TIMESTAMP, Long.class);
+            watchlistIndexService.apply(
+                objectMapper.readValue(message.getPayload(), WatchlistSymbolMessage.class),
+                timestamp != null ? timestamp : System.currentTimeMillis()
+            );
+        } catch (Exception e) {
+            LOG.error("Failed to process watchlist index message: {}", message.getPayload(), e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.stockapp.userservice.config;
 
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -13,6 +14,8 @@ public class ApplicationProperties {
 
     private String baseUrl;
     private final Security security = new Security();
+    private final PasswordHashing passwordHashing = new PasswordHashing();
+    private final LoginWriteBehind loginWriteBehind = new LoginWriteBehind();
 
     // jhipster-needle-application-properties-property
 
@@ -28,6 +31,14 @@ public class ApplicationProperties {
         return security;
     }
 
+    public PasswordHashing getPasswordHashing() {
+        return passwordHashing;
+    }
+
+    public LoginWriteBehind getLoginWriteBehind() {
+        return loginWriteBehind;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     /**
@@ -73,5 +84,82 @@ public class ApplicationProperties {
         }
     }
 
+    /**
+     * Password hashing (BCrypt) executor configuration.
+     */
+    public static class PasswordHashing {
+        /**
+         * Number of threads hashing and verifying passwords. BCrypt is CPU-bound, so this
+         * defaults to the number of available processors.
+         */
+        private int poolSize = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Number of requests allowed to wait for a hashing thread before new ones are rejected
+         * with 429 Too Many Requests.
+         */
+        private int queueCapacity = 64;
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    /**
+     * Write-behind queue for login history inserts made on login.
+     */
+    public static class LoginWriteBehind {
+        /**
+         * Records allowed to wait for a flush; beyond that they are written immediately.
+         */
+        private int queueCapacity = 10_000;
+
+        /**
+         * Maximum number of records inserted per round trip.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Delay between flushes.
+         */
+        private Duration flushInterval = Duration.ofMillis(200);
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+    }
+
     // jhipster-needle-application-properties-property-class
 }
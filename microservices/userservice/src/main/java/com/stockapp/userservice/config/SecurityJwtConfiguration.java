@@ -5,6 +5,8 @@ import static com.stockapp.userservice.security.SecurityUtils.JWT_ALGORITHM;
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
 import com.nimbusds.jose.util.Base64;
 import com.stockapp.userservice.management.SecurityMetersService;
+import com.stockapp.userservice.security.jwt.CachingReactiveJwtDecoder;
+import com.stockapp.userservice.security.jwt.TokenRevocationRegistry;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import org.slf4j.Logger;
@@ -22,13 +24,16 @@ public class SecurityJwtConfiguration {
 
     private static final Logger LOG = LoggerFactory.getLogger(SecurityJwtConfiguration.class);
 
+    /** Upper bound on validated tokens kept in memory; roughly the number of concurrently active clients. */
+    private static final int VALIDATED_TOKEN_CACHE_SIZE = 10_000;
+
     @Value("${jhipster.security.authentication.jwt.base64-secret}")
     private String jwtKey;
 
     @Bean
-    public ReactiveJwtDecoder jwtDecoder(SecurityMetersService metersService) {
+    public ReactiveJwtDecoder jwtDecoder(SecurityMetersService metersService, TokenRevocationRegistry revocationRegistry) {
         NimbusReactiveJwtDecoder jwtDecoder = NimbusReactiveJwtDecoder.withSecretKey(getSecretKey()).macAlgorithm(JWT_ALGORITHM).build();
-        return token -> {
+        ReactiveJwtDecoder trackingDecoder = token -> {
             try {
                 return jwtDecoder
                     .decode(token)
@@ -57,6 +62,7 @@ public class SecurityJwtConfiguration {
                 throw e;
             }
         };
+        return new CachingReactiveJwtDecoder(trackingDecoder, revocationRegistry, VALIDATED_TOKEN_CACHE_SIZE);
     }
 
     @Bean
@@ -0,0 +1,83 @@
+package com.stockapp.userservice.config.dbmigrations;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Updates;
+import com.stockapp.userservice.repository.GridFsAvatarBlobStore;
+import com.stockapp.userservice.service.AvatarService;
+import com.stockapp.userservice.service.InvalidAvatarException;
+import com.stockapp.userservice.service.util.AvatarThumbnails;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import java.io.ByteArrayInputStream;
+import java.util.Base64;
+import java.util.regex.Pattern;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+
+/**
+ * Moves avatars stored inline as base64 data URLs in {@code user_profile.avatar_url} into the
+ * avatar GridFS bucket, rendering their thumbnails, and replaces the data URL with the short
+ * avatar URL. Profiles whose data URL cannot be decoded lose their avatar.
+ */
+@ChangeUnit(id = "avatar-blob-store", order = "002", author = "stockapp", transactional = false)
+public class AvatarBlobMigration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AvatarBlobMigration.class);
+
+    private static final String COLLECTION = "user_profile";
+    private static final Pattern DATA_URL = Pattern.compile("^data:");
+
+    private final MongoTemplate template;
+
+    public AvatarBlobMigration(MongoTemplate template) {
+        this.template = template;
+    }
+
+    @Execution
+    public void changeSet() {
+        MongoCollection<Document> profiles = template.getCollection(COLLECTION);
+        GridFsTemplate gridFs = new GridFsTemplate(template.getMongoDatabaseFactory(), template.getConverter(), GridFsAvatarBlobStore.BUCKET);
+
+        int migrated = 0;
+        int dropped = 0;
+        for (Document profile : profiles.find(Filters.regex("avatar_url", DATA_URL)).projection(Projections.include("avatar_url"))) {
+            String dataUrl = profile.getString("avatar_url");
+            int comma = dataUrl.indexOf(',');
+            String contentType = dataUrl.substring("data:".length(), Math.max(comma, "data:".length())).split(";")[0];
+            String avatarUrl = null;
+            try {
+                byte[] image = Base64.getDecoder().decode(dataUrl.substring(comma + 1));
+                String key = AvatarService.newKey();
+                for (AvatarThumbnails.Thumbnail thumbnail : AvatarThumbnails.render(image)) {
+                    gridFs.store(
+                        new ByteArrayInputStream(thumbnail.bytes()),
+                        AvatarService.blobName(key, String.valueOf(thumbnail.size())),
+                        thumbnail.contentType()
+                    );
+                }
+                gridFs.store(new ByteArrayInputStream(image), AvatarService.blobName(key, "original"), contentType);
+                avatarUrl = AvatarService.urlFor(key);
+                migrated++;
+            } catch (IllegalArgumentException | InvalidAvatarException e) {
+                LOG.warn("Dropping unreadable avatar of profile {}: {}", profile.get("_id"), e.getMessage());
+                dropped++;
+            }
+            profiles.updateOne(
+                Filters.eq("_id", profile.get("_id")),
+                avatarUrl != null ? Updates.set("avatar_url", avatarUrl) : Updates.unset("avatar_url")
+            );
+        }
+        LOG.info("Moved {} inline avatars to blob storage, dropped {} unreadable ones", migrated, dropped);
+    }
+
+    @RollbackExecution
+    public void rollback() {
+        // Stored blobs are left in place; profiles already point at them.
+    }
+}
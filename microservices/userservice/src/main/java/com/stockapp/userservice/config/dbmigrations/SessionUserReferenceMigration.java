@@ -0,0 +1,114 @@
+package com.stockapp.userservice.config.dbmigrations;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import com.stockapp.userservice.security.jwt.TokenDigest;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+/**
+ * Slims down session documents.
+ * <ul>
+ * <li>replaces the embedded {@code user} document with {@code user_id} / {@code user_login};</li>
+ * <li>backfills {@code token_digest} for sessions created before it was stored;</li>
+ * <li>adds the (user_login, status), token_digest and session_id indexes, and a TTL index on
+ * expiry_time that removes sessions once they expire.</li>
+ * </ul>
+ */
+@ChangeUnit(id = "session-user-reference", order = "001", author = "stockapp", transactional = false)
+public class SessionUserReferenceMigration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SessionUserReferenceMigration.class);
+
+    private static final String COLLECTION = "session";
+    private static final int BATCH_SIZE = 1_000;
+
+    static final String USER_LOGIN_STATUS_INDEX = "user_login_status";
+    static final String EXPIRY_TIME_TTL_INDEX = "expiry_time_ttl";
+    static final String TOKEN_DIGEST_INDEX = "token_digest";
+    static final String SESSION_ID_INDEX = "session_id";
+
+    private final MongoTemplate template;
+
+    public SessionUserReferenceMigration(MongoTemplate template) {
+        this.template = template;
+    }
+
+    @Execution
+    public void changeSet() {
+        MongoCollection<Document> sessions = template.getCollection(COLLECTION);
+
+        long referenced = sessions
+            .updateMany(
+                Filters.exists("user"),
+                List.of(
+                    new Document(
+                        "$set",
+                        new Document("user_id", new Document("$toString", "$user._id")).append("user_login", "$user.login")
+                    ),
+                    new Document("$unset", "user")
+                )
+            )
+            .getModifiedCount();
+        LOG.info("Replaced the embedded user of {} sessions with a reference", referenced);
+
+        List<WriteModel<Document>> digests = new ArrayList<>(BATCH_SIZE);
+        long digested = 0;
+        for (Document session : sessions
+            .find(Filters.and(Filters.exists("token_digest", false), Filters.type("token", "string")))
+            .projection(Projections.include("token"))) {
+            digests.add(
+                new UpdateOneModel<>(Filters.eq("_id", session.get("_id")), Updates.set("token_digest", TokenDigest.of(session.getString("token"))))
+            );
+            if (digests.size() == BATCH_SIZE) {
+                digested += flush(sessions, digests);
+            }
+        }
+        digested += flush(sessions, digests);
+        LOG.info("Backfilled token digests of {} sessions", digested);
+
+        IndexOperations indexOps = template.indexOps(COLLECTION);
+        indexOps.ensureIndex(
+            new Index().on("user_login", Sort.Direction.ASC).on("status", Sort.Direction.ASC).named(USER_LOGIN_STATUS_INDEX)
+        );
+        indexOps.ensureIndex(new Index().on("expiry_time", Sort.Direction.ASC).expire(Duration.ZERO).named(EXPIRY_TIME_TTL_INDEX));
+        indexOps.ensureIndex(new Index().on("token_digest", Sort.Direction.ASC).named(TOKEN_DIGEST_INDEX));
+        indexOps.ensureIndex(new Index().on("session_id", Sort.Direction.ASC).named(SESSION_ID_INDEX));
+    }
+
+    @RollbackExecution
+    public void rollback() {
+        IndexOperations indexOps = template.indexOps(COLLECTION);
+        indexOps
+            .getIndexInfo()
+            .stream()
+            .map(index -> index.getName())
+            .filter(name -> List.of(USER_LOGIN_STATUS_INDEX, EXPIRY_TIME_TTL_INDEX, TOKEN_DIGEST_INDEX, SESSION_ID_INDEX).contains(name))
+            .forEach(indexOps::dropIndex);
+    }
+
+    private static long flush(MongoCollection<Document> sessions, List<WriteModel<Document>> updates) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        long modified = sessions.bulkWrite(updates, new BulkWriteOptions().ordered(false)).getModifiedCount();
+        updates.clear();
+        return modified;
+    }
+}
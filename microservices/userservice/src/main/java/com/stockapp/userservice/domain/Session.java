@@ -1,12 +1,12 @@
 package com.stockapp.userservice.domain;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.stockapp.userservice.domain.enumeration.DeviceType;
 import com.stockapp.userservice.domain.enumeration.SessionStatus;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
 import java.time.Instant;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -32,6 +32,12 @@ public class Session implements Serializable {
     @Field("token")
     private String token;
 
+    /**
+     * SHA-256 digest of {@link #token}, used for lookups instead of the full token string.
+     */
+    @Field("token_digest")
+    private String tokenDigest;
+
     @Size(max = 500)
     @Field("refresh_token")
     private String refreshToken;
@@ -103,9 +109,15 @@ public class Session implements Serializable {
     @Field("revoked_reason")
     private String revokedReason;
 
-    @Field("user")
-    @JsonIgnoreProperties(value = { "authorities", "profile", "notificationSetting" }, allowSetters = true)
-    private AppUser user;
+    /**
+     * The owning user is referenced by id and login rather than embedded, so sessions do not
+     * carry copies of the password hash, 2FA secret or authorities.
+     */
+    @Field("user_id")
+    private String userId;
+
+    @Field("user_login")
+    private String userLogin;
 
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
@@ -148,6 +160,19 @@ public class Session implements Serializable {
         this.token = token;
     }
 
+    public String getTokenDigest() {
+        return this.tokenDigest;
+    }
+
+    public Session tokenDigest(String tokenDigest) {
+        this.setTokenDigest(tokenDigest);
+        return this;
+    }
+
+    public void setTokenDigest(String tokenDigest) {
+        this.tokenDigest = tokenDigest;
+    }
+
     public String getRefreshToken() {
         return this.refreshToken;
     }
@@ -395,12 +420,36 @@ public class Session implements Serializable {
         this.revokedReason = revokedReason;
     }
 
+    public String getUserId() {
+        return this.userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getUserLogin() {
+        return this.userLogin;
+    }
+
+    public void setUserLogin(String userLogin) {
+        this.userLogin = userLogin;
+    }
+
+    /**
+     * @return a reference to the owning user holding only its id and login, or {@code null}
+     */
+    @Transient
     public AppUser getUser() {
-        return this.user;
+        if (this.userId == null && this.userLogin == null) {
+            return null;
+        }
+        return new AppUser().id(this.userId).login(this.userLogin);
     }
 
     public void setUser(AppUser appUser) {
-        this.user = appUser;
+        this.userId = appUser != null ? appUser.getId() : null;
+        this.userLogin = appUser != null ? appUser.getLogin() : null;
     }
 
     public Session user(AppUser appUser) {
@@ -453,6 +502,8 @@ public class Session implements Serializable {
             ", logoutTime='" + getLogoutTime() + "'" +
             ", revokedAt='" + getRevokedAt() + "'" +
             ", revokedReason='" + getRevokedReason() + "'" +
+            ", userId='" + getUserId() + "'" +
+            ", userLogin='" + getUserLogin() + "'" +
             "}";
     }
 }
@@ -37,7 +37,7 @@ public class UserProfile implements Serializable {
     @Field("full_name")
     private String fullName;
 
-    @Size(max = 5242880) // 5MB
+    @Size(max = 2048)
     @Field("avatar_url")
     private String avatarUrl;
 
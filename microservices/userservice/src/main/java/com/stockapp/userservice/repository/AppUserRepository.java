@@ -1,9 +1,11 @@
 package com.stockapp.userservice.repository;
 
 import com.stockapp.userservice.domain.AppUser;
+import java.time.Instant;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -49,4 +51,20 @@ public interface AppUserRepository extends ReactiveMongoRepository<AppUser, Stri
      * Find user by activation key
      */
     Mono<AppUser> findByActivationKey(String key);
+
+    /**
+     * Record a successful login in one update, unless the account has been locked in the meantime.
+     *
+     * @return the number of modified users, 0 if the account is locked
+     */
+    @Query("{'id': ?0, $or: [{'account_locked_until': null}, {'account_locked_until': {$lte: ?2}}]}")
+    @Update("{$set: {'failed_login_attempts': 0, 'last_login_date': ?2, 'last_login_ip': ?1}, $unset: {'account_locked_until': ''}}")
+    Mono<Long> markLoginSucceeded(String id, String ipAddress, Instant loginDate);
+
+    /**
+     * Lock an account until the given instant.
+     */
+    @Query("{'id': ?0}")
+    @Update("{$set: {'account_locked_until': ?1, 'account_status': ?2}}")
+    Mono<Long> lockAccount(String id, Instant lockedUntil, String accountStatus);
 }
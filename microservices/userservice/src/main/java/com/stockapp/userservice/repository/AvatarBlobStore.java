@@ -0,0 +1,43 @@
+package com.stockapp.userservice.repository;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Binary storage for avatar images, kept outside the user profile documents.
+ * <p>
+ * Blobs are addressed by name; names sharing a prefix (one per avatar key) can be removed together.
+ */
+public interface AvatarBlobStore {
+    /**
+     * Stream {@code content} into a new blob.
+     *
+     * @param name        the blob name
+     * @param contentType the MIME type served back with the blob
+     * @param content     the blob content, consumed once
+     * @return completion once the blob is fully written
+     */
+    Mono<Void> store(String name, String contentType, Flux<DataBuffer> content);
+
+    /**
+     * Open a blob for reading.
+     *
+     * @param name the blob name
+     * @return the blob, or empty if it does not exist
+     */
+    Mono<AvatarBlob> load(String name);
+
+    /**
+     * Delete every blob whose name starts with {@code prefix}.
+     *
+     * @param prefix the name prefix
+     * @return completion once the blobs are removed
+     */
+    Mono<Void> deleteAll(String prefix);
+
+    /**
+     * A stored blob and its streaming content.
+     */
+    record AvatarBlob(String contentType, long length, Flux<DataBuffer> content) {}
+}
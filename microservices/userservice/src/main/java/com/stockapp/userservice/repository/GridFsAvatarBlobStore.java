@@ -0,0 +1,58 @@
+package com.stockapp.userservice.repository;
+
+import static org.springframework.data.mongodb.core.query.Query.query;
+import static org.springframework.data.mongodb.gridfs.GridFsCriteria.whereFilename;
+
+import java.util.regex.Pattern;
+import org.bson.Document;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.gridfs.ReactiveGridFsTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link AvatarBlobStore} backed by a dedicated GridFS bucket, so avatars live in the same
+ * database as the profiles and are shared by every service instance.
+ */
+@Repository
+public class GridFsAvatarBlobStore implements AvatarBlobStore {
+
+    public static final String BUCKET = "avatars";
+
+    /** Metadata key under which {@link ReactiveGridFsTemplate} records the content type. */
+    private static final String CONTENT_TYPE_KEY = "_contentType";
+
+    private final ReactiveGridFsTemplate gridFs;
+
+    public GridFsAvatarBlobStore(ReactiveMongoDatabaseFactory databaseFactory, MongoConverter converter) {
+        this.gridFs = new ReactiveGridFsTemplate(databaseFactory, converter, BUCKET);
+    }
+
+    @Override
+    public Mono<Void> store(String name, String contentType, Flux<DataBuffer> content) {
+        return gridFs.store(content, name, contentType).then();
+    }
+
+    @Override
+    public Mono<AvatarBlob> load(String name) {
+        return gridFs
+            .findOne(query(whereFilename().is(name)))
+            .flatMap(file ->
+                gridFs
+                    .getResource(file)
+                    .map(resource -> {
+                        Document metadata = file.getMetadata();
+                        String contentType = metadata != null ? metadata.getString(CONTENT_TYPE_KEY) : null;
+                        return new AvatarBlob(contentType, file.getLength(), resource.getDownloadStream());
+                    })
+            );
+    }
+
+    @Override
+    public Mono<Void> deleteAll(String prefix) {
+        return gridFs.delete(query(whereFilename().regex("^" + Pattern.quote(prefix))));
+    }
+}
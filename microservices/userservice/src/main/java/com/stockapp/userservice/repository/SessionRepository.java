@@ -9,8 +9,6 @@ import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.time.Instant;
-
 /**
  * Spring Data MongoDB reactive repository for the Session entity.
  */
@@ -31,13 +29,13 @@ public interface SessionRepository extends ReactiveMongoRepository<Session, Stri
     /**
      * Find all sessions for a specific user by their login
      */
-    @Query("{'user.login': ?0}")
+    @Query("{'userLogin': ?0}")
     Flux<Session> findByUserLogin(String login);
 
     /**
      * Find all active sessions for a specific user
      */
-    @Query("{'user.login': ?0, 'status': 'ACTIVE'}")
+    @Query("{'userLogin': ?0, 'status': 'ACTIVE'}")
     Flux<Session> findActiveSessionsByUserLogin(String login);
 
     /**
@@ -46,9 +44,9 @@ public interface SessionRepository extends ReactiveMongoRepository<Session, Stri
     Mono<Session> findBySessionId(String sessionId);
 
     /**
-     * Find session by token
+     * Find session by the digest of its token
      */
-    Mono<Session> findByToken(String token);
+    Mono<Session> findByTokenDigest(String tokenDigest);
 
     /**
      * Find session by refresh token
@@ -58,25 +56,19 @@ public interface SessionRepository extends ReactiveMongoRepository<Session, Stri
     /**
      * Find all sessions for a user with a specific status
      */
-    @Query("{'user.login': ?0, 'status': ?1}")
+    @Query("{'userLogin': ?0, 'status': ?1}")
     Flux<Session> findByUserLoginAndStatus(String login, SessionStatus status);
 
-    /**
-     * Find all active sessions that have expired
-     */
-    @Query("{'status': 'ACTIVE', 'expiryTime': {$lt: ?0}}")
-    Flux<Session> findExpiredActiveSessions(Instant now);
-
     /**
      * Count active sessions for a user
      */
-    @Query(value = "{'user.login': ?0, 'status': 'ACTIVE'}", count = true)
+    @Query(value = "{'userLogin': ?0, 'status': 'ACTIVE'}", count = true)
     Mono<Long> countActiveSessionsByUserLogin(String login);
 
     /**
      * Find sessions by device ID for a user
      */
-    @Query("{'user.login': ?0, 'deviceId': ?1}")
+    @Query("{'userLogin': ?0, 'deviceId': ?1}")
     Flux<Session> findByUserLoginAndDeviceId(String login, String deviceId);
 
     /**
@@ -1,15 +1,13 @@
 package com.stockapp.userservice.security.encryption;
 
-import java.lang.reflect.Field;
+import com.stockapp.userservice.security.encryption.EncryptedFieldMetadata.EncryptedProperty;
 import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
 import org.springframework.data.mongodb.core.mapping.event.AfterConvertEvent;
 import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
 import org.springframework.stereotype.Component;
-import org.springframework.util.ReflectionUtils;
 
 /**
  * MongoDB Event Listener that automatically encrypts/decrypts fields marked
@@ -65,7 +63,9 @@ public class EncryptedFieldEventListener extends AbstractMongoEventListener<Obje
             return;
         }
 
-        processFields(source.getClass(), source, document, true);
+        for (EncryptedProperty property : EncryptedFieldMetadata.of(source.getClass())) {
+            processEncryptedField(property, source, document);
+        }
     }
 
     /**
@@ -75,83 +75,44 @@ public class EncryptedFieldEventListener extends AbstractMongoEventListener<Obje
     public void onAfterConvert(AfterConvertEvent<Object> event) {
         Object source = event.getSource();
 
-        ReflectionUtils.doWithFields(source.getClass(), field -> {
-            Encrypted encrypted = AnnotationUtils.findAnnotation(field, Encrypted.class);
-            if (encrypted != null) {
-                field.setAccessible(true);
-                Object value = field.get(source);
-
-                if (value instanceof String stringValue) {
-                    if (encryptionService.isEncrypted(stringValue)) {
-                        try {
-                            String decrypted = encryptionService.decrypt(stringValue);
-                            field.set(source, decrypted);
+        for (EncryptedProperty property : EncryptedFieldMetadata.of(source.getClass())) {
+            String value = property.get(source);
+            if (encryptionService.isEncrypted(value)) {
+                try {
+                    property.set(source, encryptionService.decrypt(value));
 
-                            if (LOG.isTraceEnabled()) {
-                                LOG.trace("Decrypted field: {}.{}",
-                                        source.getClass().getSimpleName(),
-                                        field.getName());
-                            }
-                        } catch (Exception e) {
-                            LOG.warn("Failed to decrypt field '{}.{}' — clearing value. Cause: {}",
-                                    source.getClass().getSimpleName(), field.getName(), e.getMessage());
-                            field.set(source, null);
-                        }
+                    if (LOG.isTraceEnabled()) {
+                        LOG.trace("Decrypted field: {}.{}",
+                                source.getClass().getSimpleName(),
+                                property.name());
                     }
+                } catch (Exception e) {
+                    LOG.warn("Failed to decrypt field '{}.{}' — clearing value. Cause: {}",
+                            source.getClass().getSimpleName(), property.name(), e.getMessage());
+                    property.set(source, null);
                 }
             }
-        });
-    }
-
-    /**
-     * Process all fields of an entity for encryption.
-     */
-    private void processFields(Class<?> clazz, Object source, Document document, boolean encrypt) {
-        ReflectionUtils.doWithFields(clazz, field -> {
-            Encrypted encrypted = AnnotationUtils.findAnnotation(field, Encrypted.class);
-            if (encrypted != null) {
-                processEncryptedField(field, source, document, encrypted);
-            }
-        });
-
-        // Process superclass fields
-        Class<?> superclass = clazz.getSuperclass();
-        if (superclass != null && superclass != Object.class) {
-            processFields(superclass, source, document, encrypt);
         }
     }
 
     /**
      * Encrypt a single field and update the document.
      */
-    private void processEncryptedField(Field field, Object source, Document document, Encrypted annotation) {
-        try {
-            field.setAccessible(true);
-            Object value = field.get(source);
-
-            if (value instanceof String stringValue && !stringValue.isEmpty()) {
-                // Get the MongoDB field name from @Field annotation
-                org.springframework.data.mongodb.core.mapping.Field fieldAnnotation = field
-                        .getAnnotation(org.springframework.data.mongodb.core.mapping.Field.class);
-
-                String mongoFieldName = fieldAnnotation != null ? fieldAnnotation.value() : field.getName();
-
-                // Encrypt and update document
-                if (!encryptionService.isEncrypted(stringValue)) {
-                    String encryptedValue = encryptionService.encrypt(stringValue);
-                    document.put(mongoFieldName, encryptedValue);
-
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug("Encrypted field: {}.{} -> {}",
-                                source.getClass().getSimpleName(),
-                                field.getName(),
-                                annotation.maskInLogs() ? encryptionService.maskForLogging(encryptedValue)
-                                        : encryptedValue);
-                    }
-                }
+    private void processEncryptedField(EncryptedProperty property, Object source, Document document) {
+        String value = property.get(source);
+
+        // Encrypt and update document
+        if (value != null && !value.isEmpty() && !encryptionService.isEncrypted(value)) {
+            String encryptedValue = encryptionService.encrypt(value);
+            document.put(property.mongoFieldName(), encryptedValue);
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Encrypted field: {}.{} -> {}",
+                        source.getClass().getSimpleName(),
+                        property.name(),
+                        property.maskInLogs() ? encryptionService.maskForLogging(encryptedValue)
+                                : encryptedValue);
             }
-        } catch (IllegalAccessException e) {
-            LOG.error("Failed to encrypt field: {}", field.getName(), e);
         }
     }
 }
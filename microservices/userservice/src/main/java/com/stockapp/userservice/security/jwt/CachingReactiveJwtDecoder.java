@@ -0,0 +1,66 @@
+package com.stockapp.userservice.security.jwt;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ReactiveJwtDecoder} that remembers successfully validated tokens until they expire.
+ * <p>
+ * Clients send the same access token with every request; after the first signature check and
+ * claims parse the decoded {@link Jwt} is served from memory. Tokens are keyed by
+ * {@link TokenDigest}, and revoked tokens are rejected before the cache is consulted.
+ */
+public class CachingReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+    private final ReactiveJwtDecoder delegate;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final int maxEntries;
+    private final Map<String, Jwt> validated = new ConcurrentHashMap<>();
+
+    public CachingReactiveJwtDecoder(ReactiveJwtDecoder delegate, TokenRevocationRegistry revocationRegistry, int maxEntries) {
+        this.delegate = delegate;
+        this.revocationRegistry = revocationRegistry;
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) throws JwtException {
+        String digest = TokenDigest.of(token);
+        if (revocationRegistry.isRevoked(digest)) {
+            validated.remove(digest);
+            return Mono.error(new BadJwtException("Token has been revoked"));
+        }
+        Jwt cached = validated.get(digest);
+        if (cached != null) {
+            if (!isExpired(cached, Instant.now())) {
+                return Mono.just(cached);
+            }
+            validated.remove(digest);
+        }
+        return delegate.decode(token).doOnNext(jwt -> put(digest, jwt));
+    }
+
+    private void put(String digest, Jwt jwt) {
+        if (jwt.getExpiresAt() == null) {
+            return;
+        }
+        if (validated.size() >= maxEntries) {
+            Instant now = Instant.now();
+            validated.values().removeIf(entry -> isExpired(entry, now));
+            if (validated.size() >= maxEntries) {
+                validated.clear();
+            }
+        }
+        validated.put(digest, jwt);
+    }
+
+    private static boolean isExpired(Jwt jwt, Instant now) {
+        return !jwt.getExpiresAt().isAfter(now);
+    }
+}
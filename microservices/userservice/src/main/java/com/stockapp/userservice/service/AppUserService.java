@@ -1,11 +1,20 @@
 package com.stockapp.userservice.service;
 
+import com.stockapp.userservice.domain.AppUser;
+import com.stockapp.userservice.domain.enumeration.AccountStatus;
 import com.stockapp.userservice.repository.AppUserRepository;
 import com.stockapp.userservice.service.dto.AppUserDTO;
 import com.stockapp.userservice.service.mapper.AppUserMapper;
+import java.time.Duration;
+import java.time.Instant;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -23,9 +32,12 @@ public class AppUserService {
 
     private final AppUserMapper appUserMapper;
 
-    public AppUserService(AppUserRepository appUserRepository, AppUserMapper appUserMapper) {
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public AppUserService(AppUserRepository appUserRepository, AppUserMapper appUserMapper, ReactiveMongoTemplate mongoTemplate) {
         this.appUserRepository = appUserRepository;
         this.appUserMapper = appUserMapper;
+        this.mongoTemplate = mongoTemplate;
     }
 
     /**
@@ -227,7 +239,7 @@ public class AppUserService {
                     LOG.info("Activating user: {} with id: {}", user.getLogin(), user.getId());
                     user.setActivated(true);
                     user.setEmailVerified(true);
-                    user.setAccountStatus(com.stockapp.userservice.domain.enumeration.AccountStatus.ACTIVE);
+                    user.setAccountStatus(AccountStatus.ACTIVE);
                     user.setActivationKey(null);
                     user.setEmailVerificationToken(null);
                     user.setEmailVerificationTokenExpiry(null);
@@ -245,7 +257,7 @@ public class AppUserService {
      * @param expiry     the token expiry time
      * @return the updated user entity with reset token
      */
-    public Mono<AppUserDTO> requestPasswordReset(String email, String resetToken, java.time.Instant expiry) {
+    public Mono<AppUserDTO> requestPasswordReset(String email, String resetToken, Instant expiry) {
         LOG.debug("Request to set password reset token for email: {}", email);
         return appUserRepository.findByEmail(email)
                 .flatMap(user -> {
@@ -256,4 +268,40 @@ public class AppUserService {
                 })
                 .map(appUserMapper::toDto);
     }
+
+    /**
+     * Record a successful login: reset failed attempts and set last login date and IP in a single
+     * conditional update, without rewriting the user document.
+     *
+     * @param id        the user id
+     * @param ipAddress the client IP address
+     * @return false if the account was locked concurrently and the login must be refused
+     */
+    public Mono<Boolean> markLoginSucceeded(String id, String ipAddress) {
+        LOG.debug("Request to record successful login for AppUser : {}", id);
+        return appUserRepository.markLoginSucceeded(id, ipAddress, Instant.now()).map(modified -> modified > 0);
+    }
+
+    /**
+     * Record a failed login attempt, locking the account once it reaches
+     * {@code maxAttempts}. The counter is incremented with {@code findAndModify} and the lock
+     * decision uses the returned count, so concurrent failures cannot skip the threshold.
+     *
+     * @param user        the user, as loaded for the login attempt
+     * @param maxAttempts failed attempts that lock the account
+     * @param lockFor     how long the account stays locked
+     * @return a Mono to signal completion
+     */
+    public Mono<Void> recordFailedLogin(AppUserDTO user, int maxAttempts, Duration lockFor) {
+        LOG.debug("Request to record failed login for AppUser : {}", user.getId());
+        return mongoTemplate
+                .findAndModify(
+                        Query.query(Criteria.where("id").is(user.getId())),
+                        new Update().inc("failedLoginAttempts", 1),
+                        FindAndModifyOptions.options().returnNew(true),
+                        AppUser.class)
+                .filter(updated -> updated.getFailedLoginAttempts() != null && updated.getFailedLoginAttempts() >= maxAttempts)
+                .flatMap(updated -> appUserRepository.lockAccount(updated.getId(), Instant.now().plus(lockFor), AccountStatus.LOCKED.name()))
+                .then();
+    }
 }
@@ -0,0 +1,137 @@
+package com.stockapp.userservice.service;
+
+import com.stockapp.userservice.repository.AvatarBlobStore;
+import com.stockapp.userservice.repository.AvatarBlobStore.AvatarBlob;
+import com.stockapp.userservice.service.util.AvatarThumbnails;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Stores avatar uploads in the {@link AvatarBlobStore} and renders their thumbnails.
+ * <p>
+ * Every upload gets a fresh random key; the profile only keeps {@link #urlFor(String)} of that key,
+ * and the variants behind it never change, so they can be cached by clients indefinitely.
+ */
+@Service
+public class AvatarService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AvatarService.class);
+
+    /** Public path of the avatar endpoint, as reached through the gateway. */
+    public static final String PUBLIC_PATH = "/services/userservice/api/public/avatars/";
+
+    public static final long MAX_UPLOAD_BYTES = 2 * 1024 * 1024; // 2MB
+
+    public static final int DEFAULT_SIZE = 128;
+
+    private static final String ORIGINAL = "original";
+    private static final Pattern KEY_PATTERN = Pattern.compile("[A-Za-z0-9_-]{22}");
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final AvatarBlobStore blobStore;
+
+    public AvatarService(AvatarBlobStore blobStore) {
+        this.blobStore = blobStore;
+    }
+
+    /**
+     * Stream an upload into the blob store and render its thumbnails.
+     *
+     * @param contentType the upload MIME type
+     * @param content     the upload content
+     * @return the key of the new avatar, or {@link InvalidAvatarException} if the upload is
+     *         larger than {@link #MAX_UPLOAD_BYTES} or not a readable image
+     */
+    public Mono<String> store(String contentType, Flux<DataBuffer> content) {
+        String key = newKey();
+        AtomicLong received = new AtomicLong();
+        Flux<DataBuffer> limited = content.handle((buffer, sink) -> {
+            if (received.addAndGet(buffer.readableByteCount()) > MAX_UPLOAD_BYTES) {
+                DataBufferUtils.release(buffer);
+                sink.error(new InvalidAvatarException("File size too large (max 2MB)"));
+            } else {
+                sink.next(buffer);
+            }
+        });
+
+        return blobStore
+            .store(blobName(key, ORIGINAL), contentType, limited)
+            .then(Mono.defer(() -> blobStore.load(blobName(key, ORIGINAL))))
+            .flatMap(original -> DataBufferUtils.join(original.content()))
+            .publishOn(Schedulers.boundedElastic())
+            .map(buffer -> {
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                DataBufferUtils.release(buffer);
+                return AvatarThumbnails.render(bytes);
+            })
+            .flatMapMany(Flux::fromIterable)
+            .concatMap(thumbnail ->
+                blobStore.store(
+                    blobName(key, String.valueOf(thumbnail.size())),
+                    thumbnail.contentType(),
+                    Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(thumbnail.bytes()))
+                )
+            )
+            .then(Mono.just(key))
+            .doOnSuccess(stored -> LOG.debug("Stored avatar {} ({} bytes)", stored, received.get()))
+            .onErrorResume(e -> blobStore.deleteAll(key + "/").then(Mono.error(e)));
+    }
+
+    /**
+     * Open one variant of an avatar.
+     *
+     * @param key  the avatar key
+     * @param size one of {@link AvatarThumbnails#SIZES}
+     * @return the variant, or empty if the key or size is unknown
+     */
+    public Mono<AvatarBlob> load(String key, int size) {
+        if (!KEY_PATTERN.matcher(key).matches() || !AvatarThumbnails.SIZES.contains(size)) {
+            return Mono.empty();
+        }
+        return blobStore.load(blobName(key, String.valueOf(size)));
+    }
+
+    /**
+     * Delete the blobs behind an avatar URL previously returned by {@link #urlFor(String)}.
+     * External URLs are left alone.
+     *
+     * @param avatarUrl the profile avatar URL, may be {@code null}
+     * @return completion once the blobs are removed
+     */
+    public Mono<Void> deleteByUrl(String avatarUrl) {
+        if (avatarUrl == null || !avatarUrl.startsWith(PUBLIC_PATH)) {
+            return Mono.empty();
+        }
+        String key = avatarUrl.substring(PUBLIC_PATH.length());
+        if (!KEY_PATTERN.matcher(key).matches()) {
+            return Mono.empty();
+        }
+        return blobStore.deleteAll(key + "/");
+    }
+
+    public static String urlFor(String key) {
+        return PUBLIC_PATH + key;
+    }
+
+    public static String blobName(String key, String variant) {
+        return key + "/" + variant;
+    }
+
+    public static String newKey() {
+        byte[] bytes = new byte[16];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
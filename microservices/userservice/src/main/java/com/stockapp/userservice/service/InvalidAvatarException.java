@@ -0,0 +1,13 @@
+package com.stockapp.userservice.service;
+
+/**
+ * Thrown when an uploaded avatar is too large or is not a readable JPG/PNG image.
+ */
+public class InvalidAvatarException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidAvatarException(String message) {
+        super(message);
+    }
+}
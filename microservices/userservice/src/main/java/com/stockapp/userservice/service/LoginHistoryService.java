@@ -1,8 +1,13 @@
 package com.stockapp.userservice.service;
 
+import com.stockapp.userservice.domain.AppUser;
+import com.stockapp.userservice.domain.LoginHistory;
+import com.stockapp.userservice.domain.enumeration.DeviceType;
+import com.stockapp.userservice.domain.enumeration.LoginMethod;
 import com.stockapp.userservice.repository.LoginHistoryRepository;
 import com.stockapp.userservice.service.dto.LoginHistoryDTO;
 import com.stockapp.userservice.service.mapper.LoginHistoryMapper;
+import java.time.Instant;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
@@ -18,13 +23,59 @@ public class LoginHistoryService {
 
     private static final Logger LOG = LoggerFactory.getLogger(LoginHistoryService.class);
 
+    private static final int IP_ADDRESS_MAX_LENGTH = 45;
+    private static final int USER_AGENT_MAX_LENGTH = 1024;
+
     private final LoginHistoryRepository loginHistoryRepository;
 
     private final LoginHistoryMapper loginHistoryMapper;
 
-    public LoginHistoryService(LoginHistoryRepository loginHistoryRepository, LoginHistoryMapper loginHistoryMapper) {
+    private final LoginWriteBehindService loginWriteBehindService;
+
+    public LoginHistoryService(
+        LoginHistoryRepository loginHistoryRepository,
+        LoginHistoryMapper loginHistoryMapper,
+        LoginWriteBehindService loginWriteBehindService
+    ) {
         this.loginHistoryRepository = loginHistoryRepository;
         this.loginHistoryMapper = loginHistoryMapper;
+        this.loginWriteBehindService = loginWriteBehindService;
+    }
+
+    /**
+     * Record a login attempt through the write-behind queue.
+     *
+     * @param user          the user, only its id and login are stored
+     * @param loginMethod   how the user authenticated
+     * @param ipAddress     the client IP address
+     * @param userAgent     the client User-Agent string
+     * @param deviceType    the parsed device type
+     * @param successful    whether the attempt succeeded
+     * @param failureReason why the attempt failed, or {@code null}
+     */
+    public void queueLoginAttempt(
+        AppUser user,
+        LoginMethod loginMethod,
+        String ipAddress,
+        String userAgent,
+        DeviceType deviceType,
+        boolean successful,
+        String failureReason
+    ) {
+        LoginHistory loginHistory = new LoginHistory()
+            .loginTime(Instant.now())
+            .loginMethod(loginMethod)
+            .ipAddress(truncate(ipAddress, IP_ADDRESS_MAX_LENGTH))
+            .userAgent(truncate(userAgent, USER_AGENT_MAX_LENGTH))
+            .deviceType(deviceType)
+            .successful(successful)
+            .failureReason(failureReason)
+            .user(new AppUser().id(user.getId()).login(user.getLogin()));
+        loginWriteBehindService.enqueue(loginHistory);
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
     }
 
     /**
@@ -0,0 +1,136 @@
+package com.stockapp.userservice.service;
+
+import com.stockapp.userservice.config.ApplicationProperties;
+import com.stockapp.userservice.domain.LoginHistory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Write-behind queue for the login history documents a login creates.
+ * <p>
+ * Login responses do not depend on these inserts, so they are queued and inserted in batches every
+ * {@code application.login-write-behind.flush-interval}, one round trip per batch instead of one
+ * per document. When the queue is full, documents are inserted immediately instead. Pending
+ * documents are flushed on shutdown. Sessions are not queued: logout and revoke-all must see a
+ * session as soon as its token is handed out.
+ * <p>
+ * Documents get their id when queued, so when a batch fails part way and is retried one by one,
+ * the documents the batch already inserted are rejected as duplicate keys instead of being
+ * inserted twice.
+ */
+@Service
+public class LoginWriteBehindService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoginWriteBehindService.class);
+
+    public static final String QUEUE_METER_NAME = "login.write-behind.queue";
+    public static final String WRITTEN_METER_NAME = "login.write-behind.written";
+    public static final String FAILED_METER_NAME = "login.write-behind.failed";
+
+    private static final Duration SHUTDOWN_FLUSH_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final BlockingQueue<LoginHistory> queue;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+
+    private Disposable flusher;
+
+    public LoginWriteBehindService(ReactiveMongoTemplate mongoTemplate, ApplicationProperties applicationProperties, MeterRegistry registry) {
+        this.mongoTemplate = mongoTemplate;
+        ApplicationProperties.LoginWriteBehind properties = applicationProperties.getLoginWriteBehind();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        this.batchSize = Math.max(1, properties.getBatchSize());
+        this.flushInterval = properties.getFlushInterval();
+
+        Gauge.builder(QUEUE_METER_NAME, queue, BlockingQueue::size).description("Login documents waiting to be inserted").register(registry);
+        this.writtenCounter = Counter.builder(WRITTEN_METER_NAME).description("Login documents inserted").register(registry);
+        this.failedCounter = Counter.builder(FAILED_METER_NAME).description("Login documents that could not be inserted").register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher = Flux.interval(flushInterval).onBackpressureDrop().concatMap(tick -> flush(), 1).subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher != null) {
+            flusher.dispose();
+        }
+        flush().block(SHUTDOWN_FLUSH_TIMEOUT);
+    }
+
+    /**
+     * Queue a new login history document for insertion, assigning its id if it has none.
+     */
+    public void enqueue(LoginHistory document) {
+        if (document.getId() == null) {
+            document.setId(new ObjectId().toHexString());
+        }
+        if (!queue.offer(document)) {
+            LOG.debug("Login write-behind queue full, inserting login history directly");
+            insert(document).subscribe();
+        }
+    }
+
+    /**
+     * Insert everything queued so far, in batches of at most {@code batch-size}.
+     *
+     * @return completion once the queue has been drained; insert failures are logged, not propagated
+     */
+    public Mono<Void> flush() {
+        return Mono.defer(() -> {
+            List<LoginHistory> batch = new ArrayList<>(Math.min(batchSize, queue.size()));
+            queue.drainTo(batch, batchSize);
+            if (batch.isEmpty()) {
+                return Mono.empty();
+            }
+            return mongoTemplate
+                .insertAll(batch)
+                .count()
+                .doOnNext(writtenCounter::increment)
+                .onErrorResume(e -> {
+                    // One invalid document fails the whole batch; retry one by one so only it is lost
+                    LOG.warn("Failed to insert batch of {} login documents, retrying individually: {}", batch.size(), e.getMessage());
+                    return Flux.fromIterable(batch).concatMap(this::insert).count();
+                })
+                .then(Mono.defer(this::flush));
+        });
+    }
+
+    private Mono<LoginHistory> insert(LoginHistory document) {
+        return mongoTemplate
+            .insert(document)
+            .doOnNext(inserted -> writtenCounter.increment())
+            .onErrorResume(DuplicateKeyException.class, e -> {
+                // Already inserted by the failed batch
+                writtenCounter.increment();
+                return Mono.empty();
+            })
+            .onErrorResume(e -> {
+                failedCounter.increment();
+                LOG.warn("Failed to insert login history {}: {}", document.getId(), e.getMessage());
+                return Mono.empty();
+            });
+    }
+}
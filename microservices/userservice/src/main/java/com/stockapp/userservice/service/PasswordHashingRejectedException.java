@@ -0,0 +1,20 @@
+package com.stockapp.userservice.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when the password hashing pool is saturated and a request cannot be queued.
+ */
+@ResponseStatus(value = HttpStatus.TOO_MANY_REQUESTS, reason = "Too many authentication requests, please retry shortly")
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Seconds clients are asked to wait before retrying. */
+    public static final long RETRY_AFTER_SECONDS = 1;
+
+    public PasswordHashingRejectedException() {
+        super("Password hashing capacity exceeded");
+    }
+}
@@ -0,0 +1,147 @@
+package com.stockapp.userservice.service;
+
+import com.stockapp.userservice.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs password hashing and verification on a dedicated bounded thread pool.
+ * <p>
+ * BCrypt costs on the order of 100 ms of CPU per call; running it inside reactive operators
+ * would stall a Netty event-loop thread and every connection multiplexed on it. Work is queued
+ * up to {@code application.password-hashing.queue-capacity}; beyond that calls fail fast with
+ * {@link PasswordHashingRejectedException} (429) instead of letting a login storm build an
+ * unbounded backlog.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    public static final String DURATION_METER_NAME = "security.password-hashing.duration";
+    public static final String WAIT_METER_NAME = "security.password-hashing.wait";
+    public static final String QUEUE_METER_NAME = "security.password-hashing.queue";
+    public static final String ACTIVE_METER_NAME = "security.password-hashing.active";
+    public static final String REJECTED_METER_NAME = "security.password-hashing.rejected";
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder, ApplicationProperties applicationProperties, MeterRegistry registry) {
+        this.passwordEncoder = passwordEncoder;
+        ApplicationProperties.PasswordHashing properties = applicationProperties.getPasswordHashing();
+        int poolSize = Math.max(1, properties.getPoolSize());
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        this.encodeTimer = durationTimer("encode").register(registry);
+        this.matchesTimer = durationTimer("matches").register(registry);
+        this.waitTimer = Timer.builder(WAIT_METER_NAME)
+            .description("Time password hashing requests spend queued before a thread picks them up")
+            .publishPercentiles(0.5, 0.99)
+            .register(registry);
+        this.rejectedCounter = Counter.builder(REJECTED_METER_NAME)
+            .description("Password hashing requests rejected because the queue was full")
+            .register(registry);
+        Gauge.builder(QUEUE_METER_NAME, executor, pool -> pool.getQueue().size())
+            .description("Password hashing requests waiting for a thread")
+            .register(registry);
+        Gauge.builder(ACTIVE_METER_NAME, executor, ThreadPoolExecutor::getActiveCount)
+            .description("Password hashing threads currently busy")
+            .register(registry);
+
+        LOG.info("Password hashing pool started with {} threads and queue capacity {}", poolSize, properties.getQueueCapacity());
+    }
+
+    /**
+     * Hash a raw password.
+     *
+     * @param rawPassword the password to hash
+     * @return the encoded password, or {@link PasswordHashingRejectedException} when saturated
+     */
+    public Mono<String> encode(String rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Verify a raw password against its stored hash.
+     *
+     * @param rawPassword     the password supplied by the user
+     * @param encodedPassword the stored hash
+     * @return whether the password matches, or {@link PasswordHashingRejectedException} when saturated
+     */
+    public Mono<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> Mono<T> submit(Timer timer, Callable<T> task) {
+        return Mono.defer(() -> {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            long queuedAt = System.nanoTime();
+            try {
+                executor.execute(() -> {
+                    long startedAt = System.nanoTime();
+                    waitTimer.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+                    T value;
+                    try {
+                        value = task.call();
+                    } catch (Exception e) {
+                        timer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                        result.completeExceptionally(e);
+                        return;
+                    }
+                    timer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                    result.complete(value);
+                });
+            } catch (RejectedExecutionException e) {
+                rejectedCounter.increment();
+                LOG.warn("Password hashing pool saturated ({} queued), rejecting request", executor.getQueue().size());
+                return Mono.error(new PasswordHashingRejectedException());
+            }
+            return Mono.fromFuture(result);
+        });
+    }
+
+    private static Timer.Builder durationTimer(String operation) {
+        return Timer.builder(DURATION_METER_NAME)
+            .description("CPU time spent hashing or verifying passwords")
+            .tag("operation", operation)
+            .publishPercentiles(0.5, 0.99);
+    }
+}
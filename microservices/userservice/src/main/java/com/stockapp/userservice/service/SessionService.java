@@ -5,6 +5,7 @@ import com.stockapp.userservice.domain.Session;
 import com.stockapp.userservice.domain.enumeration.DeviceType;
 import com.stockapp.userservice.domain.enumeration.SessionStatus;
 import com.stockapp.userservice.repository.SessionRepository;
+import com.stockapp.userservice.security.jwt.TokenDigest;
 import com.stockapp.userservice.service.dto.SessionDTO;
 import com.stockapp.userservice.service.mapper.SessionMapper;
 import org.slf4j.Logger;
@@ -30,9 +31,13 @@ public class SessionService {
 
     private final SessionMapper sessionMapper;
 
-    public SessionService(SessionRepository sessionRepository, SessionMapper sessionMapper) {
+    private final TokenRevocationService tokenRevocationService;
+
+    public SessionService(SessionRepository sessionRepository, SessionMapper sessionMapper,
+            TokenRevocationService tokenRevocationService) {
         this.sessionRepository = sessionRepository;
         this.sessionMapper = sessionMapper;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     /**
@@ -43,7 +48,7 @@ public class SessionService {
      */
     public Mono<SessionDTO> save(SessionDTO sessionDTO) {
         LOG.debug("Request to save Session : {}", sessionDTO);
-        return sessionRepository.save(sessionMapper.toEntity(sessionDTO)).map(sessionMapper::toDto);
+        return sessionRepository.save(withTokenDigest(sessionMapper.toEntity(sessionDTO))).map(sessionMapper::toDto);
     }
 
     /**
@@ -54,7 +59,7 @@ public class SessionService {
      */
     public Mono<SessionDTO> update(SessionDTO sessionDTO) {
         LOG.debug("Request to update Session : {}", sessionDTO);
-        return sessionRepository.save(sessionMapper.toEntity(sessionDTO)).map(sessionMapper::toDto);
+        return sessionRepository.save(withTokenDigest(sessionMapper.toEntity(sessionDTO))).map(sessionMapper::toDto);
     }
 
     /**
@@ -71,7 +76,7 @@ public class SessionService {
                 .map(existingSession -> {
                     sessionMapper.partialUpdate(existingSession, sessionDTO);
 
-                    return existingSession;
+                    return withTokenDigest(existingSession);
                 })
                 .flatMap(sessionRepository::save)
                 .map(sessionMapper::toDto);
@@ -169,10 +174,17 @@ public class SessionService {
             String ipAddress, String userAgent, DeviceInfo deviceInfo,
             boolean rememberMe) {
         LOG.debug("Creating new session for user: {}", user.getLogin());
+        return sessionRepository.save(newSession(user, accessToken, refreshToken, ipAddress, userAgent, deviceInfo,
+                rememberMe)).map(sessionMapper::toDto);
+    }
 
+    private Session newSession(AppUser user, String accessToken, String refreshToken,
+            String ipAddress, String userAgent, DeviceInfo deviceInfo,
+            boolean rememberMe) {
         Session session = new Session();
         session.setSessionId(UUID.randomUUID().toString());
         session.setToken(accessToken);
+        session.setTokenDigest(TokenDigest.of(accessToken));
         session.setRefreshToken(refreshToken);
         session.setIpAddress(ipAddress);
         session.setUserAgent(userAgent);
@@ -196,8 +208,7 @@ public class SessionService {
             session.setBrowserVersion(deviceInfo.getBrowserVersion());
             session.setLocation(deviceInfo.getLocation());
         }
-
-        return sessionRepository.save(session).map(sessionMapper::toDto);
+        return session;
     }
 
     /**
@@ -216,6 +227,7 @@ public class SessionService {
                     session.setRevokedReason(reason);
                     return sessionRepository.save(session);
                 })
+                .doOnNext(session -> tokenRevocationService.revoke(session.getToken()))
                 .map(sessionMapper::toDto);
     }
 
@@ -230,15 +242,14 @@ public class SessionService {
     public Mono<SessionDTO> revokeSessionForUser(String id, String userLogin, String reason) {
         LOG.debug("Request to revoke Session {} for user: {}", id, userLogin);
         return sessionRepository.findById(id)
-                .filter(session -> session.getUser() != null &&
-                        session.getUser().getLogin() != null &&
-                        session.getUser().getLogin().equals(userLogin))
+                .filter(session -> userLogin.equals(session.getUserLogin()))
                 .flatMap(session -> {
                     session.setStatus(SessionStatus.REVOKED);
                     session.setRevokedAt(Instant.now());
                     session.setRevokedReason(reason);
                     return sessionRepository.save(session);
                 })
+                .doOnNext(session -> tokenRevocationService.revoke(session.getToken()))
                 .map(sessionMapper::toDto);
     }
 
@@ -260,6 +271,7 @@ public class SessionService {
                     session.setRevokedReason(reason);
                     return sessionRepository.save(session);
                 })
+                .doOnNext(session -> tokenRevocationService.revoke(session.getToken()))
                 .count();
     }
 
@@ -278,6 +290,7 @@ public class SessionService {
                     session.setRevokedReason("Account deleted");
                     return sessionRepository.save(session);
                 })
+                .doOnNext(session -> tokenRevocationService.revoke(session.getToken()))
                 .count();
     }
 
@@ -304,7 +317,7 @@ public class SessionService {
      * @return the session if found
      */
     public Mono<SessionDTO> findByToken(String token) {
-        return sessionRepository.findByToken(token).map(sessionMapper::toDto);
+        return findSessionByToken(token).map(sessionMapper::toDto);
     }
 
     /**
@@ -315,7 +328,8 @@ public class SessionService {
      */
     public Mono<SessionDTO> logoutSession(String token) {
         LOG.debug("Logging out session with token");
-        return sessionRepository.findByToken(token)
+        return Mono.fromRunnable(() -> tokenRevocationService.revoke(token))
+                .then(findSessionByToken(token))
                 .flatMap(session -> {
                     session.setStatus(SessionStatus.LOGGED_OUT);
                     session.setLogoutTime(Instant.now());
@@ -324,19 +338,18 @@ public class SessionService {
                 .map(sessionMapper::toDto);
     }
 
-    /**
-     * Clean up expired sessions
-     *
-     * @return count of cleaned sessions
-     */
-    public Mono<Long> cleanupExpiredSessions() {
-        LOG.debug("Cleaning up expired sessions");
-        return sessionRepository.findExpiredActiveSessions(Instant.now())
-                .flatMap(session -> {
-                    session.setStatus(SessionStatus.EXPIRED);
-                    return sessionRepository.save(session);
-                })
-                .count();
+    private Mono<Session> findSessionByToken(String token) {
+        if (token == null) {
+            return Mono.empty();
+        }
+        return sessionRepository.findByTokenDigest(TokenDigest.of(token));
+    }
+
+    private static Session withTokenDigest(Session session) {
+        if (session.getToken() != null) {
+            session.setTokenDigest(TokenDigest.of(session.getToken()));
+        }
+        return session;
     }
 
     /**
@@ -0,0 +1,80 @@
+package com.stockapp.userservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockapp.userservice.security.jwt.TokenDigest;
+import com.stockapp.userservice.security.jwt.TokenProvider;
+import com.stockapp.userservice.security.jwt.TokenRevocationRegistry;
+import com.stockapp.userservice.service.dto.kafka.TokenRevocationMessage;
+import io.jsonwebtoken.JwtException;
+import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.stereotype.Service;
+
+/**
+ * Revokes access tokens on this instance and relays the revocation to the other userservice and
+ * gateway instances over the security.token-revocation topic.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    public static final String REVOCATION_BINDING_NAME = "tokenRevocation-out-0";
+
+    private final TokenRevocationRegistry revocationRegistry;
+    private final TokenProvider tokenProvider;
+    private final StreamBridge streamBridge;
+    private final ObjectMapper objectMapper;
+
+    public TokenRevocationService(
+            TokenRevocationRegistry revocationRegistry,
+            TokenProvider tokenProvider,
+            StreamBridge streamBridge,
+            ObjectMapper objectMapper) {
+        this.revocationRegistry = revocationRegistry;
+        this.tokenProvider = tokenProvider;
+        this.streamBridge = streamBridge;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Revoke an access token until it expires. Tokens that are already expired or invalid are
+     * ignored, as they are rejected anyway.
+     *
+     * @param token the access token, may be {@code null}
+     */
+    public void revoke(String token) {
+        if (token == null || token.isEmpty()) {
+            return;
+        }
+        Instant expiresAt;
+        try {
+            expiresAt = tokenProvider.getExpirationDateFromToken(token).toInstant();
+        } catch (JwtException | IllegalArgumentException e) {
+            return;
+        }
+        String tokenDigest = TokenDigest.of(token);
+        revocationRegistry.revoke(tokenDigest, expiresAt);
+        publish(new TokenRevocationMessage(tokenDigest, expiresAt.toEpochMilli()));
+    }
+
+    /**
+     * Apply a revocation relayed from another instance.
+     */
+    public void apply(TokenRevocationMessage message) {
+        revocationRegistry.revoke(message.tokenDigest(), Instant.ofEpochMilli(message.expiresAt()));
+    }
+
+    private void publish(TokenRevocationMessage message) {
+        try {
+            if (!streamBridge.send(REVOCATION_BINDING_NAME, objectMapper.writeValueAsString(message))) {
+                LOG.warn("Failed to relay token revocation, other instances accept the token until it expires");
+            }
+        } catch (JsonProcessingException e) {
+            LOG.error("Failed to serialize token revocation message", e);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.stockapp.userservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockapp.userservice.domain.WatchlistItem;
+import com.stockapp.userservice.repository.WatchlistItemRepository;
+import com.stockapp.userservice.service.dto.kafka.WatchlistSymbolMessage;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-memory inverted index of watchlists: symbol to the IDs of the users watching it.
+ * <p>
+ * Built once from MongoDB when the application is ready and kept current by
+ * {@link WatchlistItemService}, which calls {@link #refresh(String)} after every watchlist write.
+ * Each refresh is published on the compacted user.watchlist-index topic, keyed by symbol; other
+ * userservice instances apply it through {@link #apply(WatchlistSymbolMessage, long)}, and other
+ * services can consume the topic from the beginning to hold the index locally. User IDs are
+ * interned, so a user watching many symbols is stored once.
+ * <p>
+ * Every entry carries the time its watchers were read from MongoDB, and an entry only replaces an
+ * older one: refreshes of the same symbol that complete out of order, an instance's own entries
+ * echoed back by the topic, and stale entries replayed from the compacted topic cannot drop a
+ * watcher. The MongoDB snapshot counts as read when it started loading; symbols it does not
+ * contain are kept as empty entries with that time.
+ */
+@Service
+public class WatchlistIndexService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WatchlistIndexService.class);
+
+    public static final String INDEX_BINDING_NAME = "watchlistIndex-out-0";
+
+    private final WatchlistItemRepository watchlistItemRepository;
+    private final StreamBridge streamBridge;
+    private final ObjectMapper objectMapper;
+
+    /** Watchers of a symbol, read from MongoDB at {@code readAt} (epoch millis). */
+    private record Entry(Set<String> userIds, long readAt) {}
+
+    private final Map<String, Entry> usersBySymbol = new ConcurrentHashMap<>();
+    /** Last read time handed out, so reads started later on this instance always get a later time. */
+    private final AtomicLong lastReadAt = new AtomicLong();
+    private volatile boolean ready;
+
+    public WatchlistIndexService(WatchlistItemRepository watchlistItemRepository, StreamBridge streamBridge, ObjectMapper objectMapper) {
+        this.watchlistItemRepository = watchlistItemRepository;
+        this.streamBridge = streamBridge;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Load the index from MongoDB and publish it. Until this completes, lookups go to the
+     * database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        long loadStartedAt = nextReadAt();
+        watchlistItemRepository
+            .findAll()
+            .filter(item -> item.getSymbol() != null && item.getUserId() != null)
+            .collect(Collectors.groupingBy(WatchlistItem::getSymbol, Collectors.mapping(WatchlistItem::getUserId, Collectors.toSet())))
+            .subscribe(
+                snapshot -> {
+                    load(snapshot, loadStartedAt);
+                    LOG.info("Watchlist index loaded: {} symbols", snapshot.size());
+                    usersBySymbol.forEach(this::publish);
+                },
+                e -> LOG.error("Failed to load watchlist index, lookups stay on MongoDB", e)
+            );
+    }
+
+    /**
+     * Get the IDs of the users watching a symbol.
+     *
+     * @param symbol the stock symbol, upper case
+     * @return the user IDs
+     */
+    public Flux<String> findUserIds(String symbol) {
+        if (!ready) {
+            return watchlistItemRepository.findBySymbol(symbol).map(WatchlistItem::getUserId);
+        }
+        Entry entry = usersBySymbol.get(symbol);
+        return entry != null ? Flux.fromIterable(entry.userIds()) : Flux.empty();
+    }
+
+    /**
+     * Get the IDs of the users watching each of several symbols.
+     *
+     * @param symbols the stock symbols, upper case
+     * @return user IDs per requested symbol; symbols nobody watches map to an empty set
+     */
+    public Mono<Map<String, Set<String>>> findUserIds(Collection<String> symbols) {
+        return Flux.fromIterable(new HashSet<>(symbols))
+            .flatMap(symbol -> findUserIds(symbol).collect(Collectors.toSet()).map(userIds -> Map.entry(symbol, userIds)))
+            .collectMap(Map.Entry::getKey, Map.Entry::getValue, LinkedHashMap::new);
+    }
+
+    /**
+     * Reload one symbol from MongoDB after a watchlist write, and publish it.
+     *
+     * @param symbol the stock symbol, may be {@code null}
+     * @return completion once the index entry is updated; failures are logged, not propagated
+     */
+    public Mono<Void> refresh(String symbol) {
+        if (symbol == null) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            long readAt = nextReadAt();
+            return watchlistItemRepository
+                .findBySymbol(symbol)
+                .map(WatchlistItem::getUserId)
+                .collect(Collectors.toSet())
+                .doOnNext(userIds -> {
+                    Entry entry = new Entry(compact(userIds), readAt);
+                    if (put(symbol, entry)) {
+                        publish(symbol, entry);
+                    }
+                });
+        })
+            .onErrorResume(e -> {
+                LOG.warn("Failed to refresh watchlist index for {}: {}", symbol, e.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    /**
+     * Apply an index entry published by any instance, unless the index holds a newer one.
+     *
+     * @param publishedAt when the entry was published, in epoch millis; stands in for the read time
+     *                    of entries published without one
+     */
+    public void apply(WatchlistSymbolMessage message, long publishedAt) {
+        Set<String> userIds = message.userIds() != null ? message.userIds() : Set.of();
+        put(message.symbol(), new Entry(compact(userIds), message.readAt() != null ? message.readAt() : publishedAt));
+    }
+
+    /**
+     * Replace every entry read before the snapshot: with the snapshot's watchers, or with no
+     * watchers for symbols the snapshot does not contain.
+     */
+    private void load(Map<String, Set<String>> snapshot, long readAt) {
+        snapshot.forEach((symbol, userIds) -> put(symbol, new Entry(compact(userIds), readAt)));
+        usersBySymbol.keySet().forEach(symbol -> {
+            if (!snapshot.containsKey(symbol)) {
+                put(symbol, new Entry(Set.of(), readAt));
+            }
+        });
+        ready = true;
+    }
+
+    /**
+     * Store the entry unless the index holds one read at the same time or later.
+     *
+     * @return whether the entry was stored
+     */
+    private boolean put(String symbol, Entry entry) {
+        Entry stored = usersBySymbol.merge(symbol, entry, (current, candidate) -> candidate.readAt() > current.readAt() ? candidate : current);
+        return stored == entry;
+    }
+
+    private long nextReadAt() {
+        long now = System.currentTimeMillis();
+        return lastReadAt.updateAndGet(last -> Math.max(last + 1, now));
+    }
+
+    private static Set<String> compact(Set<String> userIds) {
+        return userIds.stream().map(String::intern).collect(Collectors.toUnmodifiableSet());
+    }
+
+    private void publish(String symbol, Entry entry) {
+        try {
+            String payload = objectMapper.writeValueAsString(new WatchlistSymbolMessage(symbol, entry.userIds(), entry.readAt()));
+            boolean sent = streamBridge.send(
+                INDEX_BINDING_NAME,
+                MessageBuilder.withPayload(payload).setHeader(KafkaHeaders.KEY, symbol.getBytes(StandardCharsets.UTF_8)).build()
+            );
+            if (!sent) {
+                LOG.warn("Failed to publish watchlist index entry for {}", symbol);
+            }
+        } catch (JsonProcessingException e) {
+            LOG.error("Failed to serialize watchlist index entry", e);
+        }
+    }
+}
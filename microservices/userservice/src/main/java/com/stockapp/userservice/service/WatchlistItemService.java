@@ -3,6 +3,9 @@ package com.stockapp.userservice.service;
 import com.stockapp.userservice.repository.WatchlistItemRepository;
 import com.stockapp.userservice.service.dto.WatchlistItemDTO;
 import com.stockapp.userservice.service.mapper.WatchlistItemMapper;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
@@ -23,10 +26,13 @@ public class WatchlistItemService {
 
     private final WatchlistItemMapper watchlistItemMapper;
 
+    private final WatchlistIndexService watchlistIndexService;
+
     public WatchlistItemService(WatchlistItemRepository watchlistItemRepository,
-            WatchlistItemMapper watchlistItemMapper) {
+            WatchlistItemMapper watchlistItemMapper, WatchlistIndexService watchlistIndexService) {
         this.watchlistItemRepository = watchlistItemRepository;
         this.watchlistItemMapper = watchlistItemMapper;
+        this.watchlistIndexService = watchlistIndexService;
     }
 
     /**
@@ -38,6 +44,7 @@ public class WatchlistItemService {
     public Mono<WatchlistItemDTO> save(WatchlistItemDTO watchlistItemDTO) {
         LOG.debug("Request to save WatchlistItem : {}", watchlistItemDTO);
         return watchlistItemRepository.save(watchlistItemMapper.toEntity(watchlistItemDTO))
+                .flatMap(saved -> watchlistIndexService.refresh(saved.getSymbol()).thenReturn(saved))
                 .map(watchlistItemMapper::toDto);
     }
 
@@ -49,7 +56,9 @@ public class WatchlistItemService {
      */
     public Mono<WatchlistItemDTO> update(WatchlistItemDTO watchlistItemDTO) {
         LOG.debug("Request to update WatchlistItem : {}", watchlistItemDTO);
-        return watchlistItemRepository.save(watchlistItemMapper.toEntity(watchlistItemDTO))
+        return previousSymbol(watchlistItemDTO.getId())
+                .flatMap(previousSymbol -> watchlistItemRepository.save(watchlistItemMapper.toEntity(watchlistItemDTO))
+                        .flatMap(saved -> refreshIndex(previousSymbol, saved.getSymbol()).thenReturn(saved)))
                 .map(watchlistItemMapper::toDto);
     }
 
@@ -64,12 +73,13 @@ public class WatchlistItemService {
 
         return watchlistItemRepository
                 .findById(watchlistItemDTO.getId())
-                .map(existingWatchlistItem -> {
+                .flatMap(existingWatchlistItem -> {
+                    String previousSymbol = existingWatchlistItem.getSymbol();
                     watchlistItemMapper.partialUpdate(existingWatchlistItem, watchlistItemDTO);
 
-                    return existingWatchlistItem;
+                    return watchlistItemRepository.save(existingWatchlistItem)
+                            .flatMap(saved -> refreshIndex(previousSymbol, saved.getSymbol()).thenReturn(saved));
                 })
-                .flatMap(watchlistItemRepository::save)
                 .map(watchlistItemMapper::toDto);
     }
 
@@ -122,7 +132,9 @@ public class WatchlistItemService {
      */
     public Mono<Void> delete(String id) {
         LOG.debug("Request to delete WatchlistItem : {}", id);
-        return watchlistItemRepository.deleteById(id);
+        return previousSymbol(id)
+                .flatMap(symbol -> watchlistItemRepository.deleteById(id)
+                        .then(refreshIndex(symbol, null)));
     }
 
     /**
@@ -168,7 +180,8 @@ public class WatchlistItemService {
      */
     public Mono<Void> removeFromWatchlist(String userId, String symbol) {
         LOG.debug("Request to remove {} from watchlist for user : {}", symbol, userId);
-        return watchlistItemRepository.deleteByUserIdAndSymbol(userId, symbol);
+        return watchlistItemRepository.deleteByUserIdAndSymbol(userId, symbol)
+                .then(watchlistIndexService.refresh(symbol));
     }
 
     /**
@@ -194,7 +207,36 @@ public class WatchlistItemService {
      */
     public Flux<String> findUserIdsBySymbol(String symbol) {
         LOG.debug("Request to get all userIds watching symbol : {}", symbol);
-        return watchlistItemRepository.findBySymbol(symbol)
-                .map(item -> item.getUserId());
+        return watchlistIndexService.findUserIds(symbol);
+    }
+
+    /**
+     * Get the user IDs watching each of several symbols.
+     *
+     * @param symbols the stock symbols.
+     * @return user IDs per symbol.
+     */
+    public Mono<Map<String, Set<String>>> findUserIdsBySymbols(Collection<String> symbols) {
+        LOG.debug("Request to get all userIds watching {} symbols", symbols.size());
+        return watchlistIndexService.findUserIds(symbols);
+    }
+
+    /**
+     * The symbol a watchlist item currently has, or an empty string if it does not exist yet.
+     */
+    private Mono<String> previousSymbol(String id) {
+        if (id == null) {
+            return Mono.just("");
+        }
+        return watchlistItemRepository.findById(id)
+                .map(item -> item.getSymbol() != null ? item.getSymbol() : "")
+                .defaultIfEmpty("");
+    }
+
+    private Mono<Void> refreshIndex(String previousSymbol, String symbol) {
+        Mono<Void> refreshPrevious = previousSymbol != null && !previousSymbol.isEmpty() && !previousSymbol.equals(symbol)
+                ? watchlistIndexService.refresh(previousSymbol)
+                : Mono.empty();
+        return refreshPrevious.then(watchlistIndexService.refresh(symbol));
     }
 }
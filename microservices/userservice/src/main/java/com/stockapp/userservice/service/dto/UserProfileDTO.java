@@ -24,7 +24,7 @@ public class UserProfileDTO implements Serializable {
     @Size(max = 200)
     private String fullName;
 
-    @Size(max = 5242880) // 5MB
+    @Size(max = 2048)
     private String avatarUrl;
 
     private LocalDate dateOfBirth;
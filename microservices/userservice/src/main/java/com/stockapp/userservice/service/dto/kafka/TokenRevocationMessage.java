@@ -0,0 +1,13 @@
+package com.stockapp.userservice.service.dto.kafka;
+
+import java.io.Serializable;
+
+/**
+ * Access-token revocation published on the security.token-revocation topic, so every
+ * userservice and gateway instance rejects the token from then on.
+ *
+ * @param tokenDigest SHA-256 digest of the revoked token
+ * @param expiresAt   token expiry in epoch milliseconds; the revocation can be dropped after it
+ */
+public record TokenRevocationMessage(String tokenDigest, long expiresAt) implements Serializable {
+}
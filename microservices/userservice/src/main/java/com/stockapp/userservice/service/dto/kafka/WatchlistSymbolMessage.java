@@ -0,0 +1,17 @@
+package com.stockapp.userservice.service.dto.kafka;
+
+import java.io.Serializable;
+import java.util.Set;
+
+/**
+ * Current watchers of one symbol, published on the compacted user.watchlist-index topic keyed by
+ * symbol. The latest record per symbol is the full snapshot of the inverted watchlist index, so
+ * consumers can rebuild it by reading the topic from the beginning.
+ *
+ * @param symbol  the stock symbol
+ * @param userIds IDs of the users watching the symbol; empty once nobody does
+ * @param readAt  epoch millis at which the watchers were read from MongoDB, so an entry never replaces a
+ *                newer one; {@code null} in entries published before it existed
+ */
+public record WatchlistSymbolMessage(String symbol, Set<String> userIds, Long readAt) implements Serializable {
+}
@@ -0,0 +1,108 @@
+package com.stockapp.userservice.service.util;
+
+import com.stockapp.userservice.service.InvalidAvatarException;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * Renders the square avatar variants served to clients.
+ * <p>
+ * Rendering is CPU-bound and blocking; callers must run it off the event loop. Large sources are
+ * decoded with subsampling so the decoded raster stays close to the largest variant instead of the
+ * full upload resolution.
+ */
+public final class AvatarThumbnails {
+
+    /** Edge lengths, in pixels, of the generated variants. */
+    public static final List<Integer> SIZES = List.of(64, 128, 256);
+
+    /** Uploads wider or taller than this are rejected before decoding. */
+    private static final int MAX_SOURCE_DIMENSION = 8192;
+
+    private static final int LARGEST = SIZES.get(SIZES.size() - 1);
+
+    private AvatarThumbnails() {}
+
+    /**
+     * A rendered variant.
+     */
+    public record Thumbnail(int size, String contentType, byte[] bytes) {}
+
+    /**
+     * Decode an uploaded image and render every variant in {@link #SIZES}.
+     *
+     * @param image the uploaded JPG or PNG bytes
+     * @return one thumbnail per size, center-cropped to a square
+     * @throws InvalidAvatarException if the bytes are not a readable image
+     */
+    public static List<Thumbnail> render(byte[] image) {
+        BufferedImage source = decode(image);
+        boolean alpha = source.getColorModel().hasAlpha();
+        int edge = Math.min(source.getWidth(), source.getHeight());
+        int x = (source.getWidth() - edge) / 2;
+        int y = (source.getHeight() - edge) / 2;
+
+        List<Thumbnail> thumbnails = new ArrayList<>(SIZES.size());
+        for (int size : SIZES) {
+            BufferedImage target = new BufferedImage(size, size, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = target.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(source, 0, 0, size, size, x, y, x + edge, y + edge, null);
+            } finally {
+                graphics.dispose();
+            }
+            thumbnails.add(encode(target, size, alpha));
+        }
+        return thumbnails;
+    }
+
+    private static BufferedImage decode(byte[] image) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(image))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new InvalidAvatarException("Only supports JPG or PNG");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if (width > MAX_SOURCE_DIMENSION || height > MAX_SOURCE_DIMENSION) {
+                    throw new InvalidAvatarException("Image dimensions too large (max " + MAX_SOURCE_DIMENSION + "px)");
+                }
+                int step = Math.max(1, Math.min(width, height) / LARGEST);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new InvalidAvatarException("Unreadable image");
+        }
+    }
+
+    private static Thumbnail encode(BufferedImage image, int size, boolean alpha) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, alpha ? "png" : "jpg", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Thumbnail(size, alpha ? "image/png" : "image/jpeg", out.toByteArray());
+    }
+}
@@ -0,0 +1,394 @@
+package com.stockapp.userservice.service.util;
+
+import com.stockapp.userservice.domain.enumeration.DeviceType;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+
+/**
+ * Classifies User-Agent strings into device type, OS and browser.
+ * <p>
+ * Every literal the rules look for is compiled once into an Aho-Corasick automaton, so a
+ * User-Agent is lowercased and scanned in a single pass that records where each literal first and
+ * last occurs. The rules then only look at those positions and read version numbers right after
+ * them, instead of lowercasing the string and running a chain of {@code contains} checks and
+ * regular expressions per call.
+ */
+final class UserAgentClassifier {
+
+    /** Literals the rules test for, lowercase. */
+    private enum Token {
+        IPHONE("iphone"),
+        IPOD("ipod"),
+        IPAD("ipad"),
+        ANDROID("android"),
+        MOBILE("mobile"),
+        PHONE("phone"),
+        ELECTRON("electron"),
+        DESKTOP("desktop"),
+        IOS_IPHONE("(iphone;"),
+        IOS_IPAD("(ipad;"),
+        IOS_IPOD("(ipod;"),
+        WINDOWS("windows"),
+        WINDOWS_10("windows nt 10"),
+        WINDOWS_8_1("windows nt 6.3"),
+        WINDOWS_8("windows nt 6.2"),
+        WINDOWS_7("windows nt 6.1"),
+        MAC_OS_X("mac os x"),
+        MAC_OS("mac os"),
+        MACINTOSH("macintosh"),
+        LINUX("linux"),
+        CROS("cros"),
+        EDG("edg"),
+        EDG_SLASH("edg/"),
+        EDGE_SLASH("edge/"),
+        EDGA_SLASH("edga/"),
+        OPERA_SLASH("opera/"),
+        OPR_SLASH("opr/"),
+        SAMSUNG_SLASH("samsungbrowser/"),
+        CHROME_SLASH("chrome/"),
+        CRIOS_SLASH("crios/"),
+        VERSION_SLASH("version/"),
+        SAFARI("safari"),
+        FIREFOX_SLASH("firefox/"),
+        FXIOS_SLASH("fxios/"),
+        MSIE("msie "),
+        RV("rv:"),
+        TRIDENT("trident"),
+        CAPACITOR("capacitor"),
+        CORDOVA("cordova");
+
+        private final String literal;
+
+        Token(String literal) {
+            this.literal = literal;
+        }
+    }
+
+    private static final Token[] TOKENS = Token.values();
+    private static final int ALPHABET = 128;
+    private static final char DOTTED = '.';
+    private static final char UNDERSCORED = '_';
+
+    /** Automaton transitions, {@code [state][char]}; non-ASCII characters map to 0. */
+    private static final int[][] TRANSITIONS;
+    /** Tokens recognised on entering each state, including those reached through failure links. */
+    private static final Token[][] OUTPUTS;
+
+    static {
+        int maxStates = 1 + Arrays.stream(TOKENS).mapToInt(token -> token.literal.length()).sum();
+        int[][] transitions = new int[maxStates][];
+        Token[][] outputs = new Token[maxStates][];
+        int[] failure = new int[maxStates];
+        transitions[0] = new int[ALPHABET];
+        Arrays.fill(transitions[0], -1);
+        outputs[0] = new Token[0];
+        int states = 1;
+
+        for (Token token : TOKENS) {
+            int state = 0;
+            for (char c : token.literal.toCharArray()) {
+                if (transitions[state][c] < 0) {
+                    transitions[states] = new int[ALPHABET];
+                    Arrays.fill(transitions[states], -1);
+                    outputs[states] = new Token[0];
+                    transitions[state][c] = states++;
+                }
+                state = transitions[state][c];
+            }
+            outputs[state] = append(outputs[state], token);
+        }
+
+        // Breadth-first: complete the goto function into a DFA and merge outputs along failure links
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < ALPHABET; c++) {
+            int next = transitions[0][c];
+            if (next < 0) {
+                transitions[0][c] = 0;
+            } else {
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            for (Token token : outputs[failure[state]]) {
+                outputs[state] = append(outputs[state], token);
+            }
+            for (int c = 0; c < ALPHABET; c++) {
+                int next = transitions[state][c];
+                if (next < 0) {
+                    transitions[state][c] = transitions[failure[state]][c];
+                } else {
+                    failure[next] = transitions[failure[state]][c];
+                    queue.add(next);
+                }
+            }
+        }
+
+        TRANSITIONS = Arrays.copyOf(transitions, states);
+        OUTPUTS = Arrays.copyOf(outputs, states);
+    }
+
+    private UserAgentClassifier() {}
+
+    /**
+     * Result of classifying one User-Agent string; immutable so it can be cached and shared.
+     */
+    record Classification(
+        DeviceType deviceType,
+        String osName,
+        String osVersion,
+        String browserName,
+        String browserVersion,
+        String deviceName
+    ) {}
+
+    static Classification classify(String userAgent) {
+        Scan scan = new Scan(userAgent);
+        DeviceType deviceType = deviceType(scan);
+        String[] os = os(scan);
+        String[] browser = browser(scan);
+        return new Classification(deviceType, os[0], os[1], browser[0], browser[1], deviceName(deviceType, os[0], browser[0]));
+    }
+
+    private static DeviceType deviceType(Scan scan) {
+        if (scan.has(Token.IPHONE) || scan.has(Token.IPOD)) {
+            return DeviceType.MOBILE_IOS;
+        }
+        if (scan.has(Token.IPAD)) {
+            return DeviceType.TABLET;
+        }
+        if (scan.has(Token.ANDROID)) {
+            // Android without "mobile" is usually a tablet
+            return scan.has(Token.MOBILE) ? DeviceType.MOBILE_ANDROID : DeviceType.TABLET;
+        }
+        if (scan.has(Token.ELECTRON) || scan.has(Token.DESKTOP)) {
+            return DeviceType.DESKTOP_APP;
+        }
+        if (scan.has(Token.MOBILE) || scan.has(Token.PHONE)) {
+            return DeviceType.MOBILE_ANDROID;
+        }
+        return DeviceType.WEB;
+    }
+
+    private static String[] os(Scan scan) {
+        String version = scan.iosVersion();
+        if (version != null) {
+            return new String[] { "iOS", version };
+        }
+        version = scan.version(true, DOTTED, Token.ANDROID);
+        if (version != null) {
+            return new String[] { "Android", version };
+        }
+        if (scan.has(Token.WINDOWS)) {
+            if (scan.has(Token.WINDOWS_10)) {
+                return new String[] { "Windows", "10/11" };
+            }
+            if (scan.has(Token.WINDOWS_8_1)) {
+                return new String[] { "Windows", "8.1" };
+            }
+            if (scan.has(Token.WINDOWS_8)) {
+                return new String[] { "Windows", "8" };
+            }
+            if (scan.has(Token.WINDOWS_7)) {
+                return new String[] { "Windows", "7" };
+            }
+            return new String[] { "Windows", "" };
+        }
+        version = scan.version(true, UNDERSCORED, Token.MAC_OS_X);
+        if (version != null) {
+            return new String[] { "macOS", version.replace('_', '.') };
+        }
+        if (scan.has(Token.MACINTOSH) || scan.has(Token.MAC_OS)) {
+            return new String[] { "macOS", "" };
+        }
+        if (scan.has(Token.LINUX) && !scan.has(Token.ANDROID)) {
+            return new String[] { "Linux", "" };
+        }
+        if (scan.has(Token.CROS)) {
+            return new String[] { "Chrome OS", "" };
+        }
+        return new String[] { "Unknown", "" };
+    }
+
+    private static String[] browser(Scan scan) {
+        // Order matters - more specific browsers first
+        String version = scan.version(false, DOTTED, Token.EDG_SLASH, Token.EDGE_SLASH, Token.EDGA_SLASH);
+        if (version != null) {
+            return new String[] { "Edge", version };
+        }
+        version = scan.version(false, DOTTED, Token.OPERA_SLASH, Token.OPR_SLASH);
+        if (version != null) {
+            return new String[] { "Opera", version };
+        }
+        version = scan.version(false, DOTTED, Token.SAMSUNG_SLASH);
+        if (version != null) {
+            return new String[] { "Samsung Browser", version };
+        }
+        version = scan.version(false, DOTTED, Token.CHROME_SLASH, Token.CRIOS_SLASH);
+        if (version != null && !scan.has(Token.EDG)) {
+            return new String[] { "Chrome", version };
+        }
+        version = scan.safariVersion();
+        if (version != null) {
+            return new String[] { "Safari", version };
+        }
+        version = scan.version(false, DOTTED, Token.FIREFOX_SLASH, Token.FXIOS_SLASH);
+        if (version != null) {
+            return new String[] { "Firefox", version };
+        }
+        version = scan.version(false, DOTTED, Token.MSIE, Token.RV);
+        if (version != null && scan.has(Token.TRIDENT)) {
+            return new String[] { "Internet Explorer", version };
+        }
+        if (scan.has(Token.CAPACITOR) || scan.has(Token.CORDOVA)) {
+            return new String[] { "App WebView", "" };
+        }
+        return new String[] { "Unknown", "" };
+    }
+
+    private static String deviceName(DeviceType deviceType, String osName, String browserName) {
+        StringBuilder name = new StringBuilder();
+        name.append("Unknown".equals(browserName) ? "Browser" : browserName).append(" on ");
+        if (!"Unknown".equals(osName)) {
+            return name.append(osName).toString();
+        }
+        // Use device type as fallback
+        return name
+            .append(
+                switch (deviceType) {
+                    case MOBILE_IOS -> "iPhone";
+                    case MOBILE_ANDROID -> "Android";
+                    case TABLET -> "Tablet";
+                    case DESKTOP_APP -> "Desktop App";
+                    default -> "Unknown Device";
+                }
+            )
+            .toString();
+    }
+
+    private static Token[] append(Token[] tokens, Token token) {
+        Token[] result = Arrays.copyOf(tokens, tokens.length + 1);
+        result[tokens.length] = token;
+        return result;
+    }
+
+    /**
+     * Occurrences of every {@link Token} in one User-Agent, collected in a single pass.
+     */
+    private static final class Scan {
+
+        private final String userAgent;
+        /** End offset (exclusive) of the first and last occurrence of each token, -1 if absent. */
+        private final int[] first = new int[TOKENS.length];
+        private final int[] last = new int[TOKENS.length];
+
+        Scan(String userAgent) {
+            this.userAgent = userAgent;
+            Arrays.fill(first, -1);
+            Arrays.fill(last, -1);
+            int state = 0;
+            for (int i = 0; i < userAgent.length(); i++) {
+                char c = Character.toLowerCase(userAgent.charAt(i));
+                state = TRANSITIONS[state][c < ALPHABET ? c : 0];
+                for (Token token : OUTPUTS[state]) {
+                    if (first[token.ordinal()] < 0) {
+                        first[token.ordinal()] = i + 1;
+                    }
+                    last[token.ordinal()] = i + 1;
+                }
+            }
+        }
+
+        boolean has(Token token) {
+            return first[token.ordinal()] >= 0;
+        }
+
+        /**
+         * Version right after the leftmost occurrence of any of {@code tokens}: digits and
+         * {@code separator}, optionally preceded by whitespace (required when {@code spaced}).
+         */
+        String version(boolean spaced, char separator, Token... tokens) {
+            String version = null;
+            int start = Integer.MAX_VALUE;
+            for (Token token : tokens) {
+                for (int end : new int[] { first[token.ordinal()], last[token.ordinal()] }) {
+                    int tokenStart = end - token.literal.length();
+                    if (end < 0 || tokenStart >= start) {
+                        continue;
+                    }
+                    String candidate = versionAt(spaced ? skipSpaces(end, true) : end, separator);
+                    if (candidate != null) {
+                        version = candidate;
+                        start = tokenStart;
+                    }
+                }
+            }
+            return version;
+        }
+
+        /** {@code version/x.y ... safari}: the version only counts when Safari follows it. */
+        String safariVersion() {
+            int safariEnd = last[Token.SAFARI.ordinal()];
+            if (safariEnd < 0) {
+                return null;
+            }
+            for (int end : new int[] { first[Token.VERSION_SLASH.ordinal()], last[Token.VERSION_SLASH.ordinal()] }) {
+                String version = end < 0 ? null : versionAt(end, DOTTED);
+                if (version != null && end + version.length() <= safariEnd - Token.SAFARI.literal.length()) {
+                    return version;
+                }
+            }
+            return null;
+        }
+
+        /** {@code (iPhone; CPU iPhone OS 17_0 like Mac OS X)}: the last "os &lt;version&gt;" in the parentheses. */
+        String iosVersion() {
+            int end = -1;
+            for (Token token : new Token[] { Token.IOS_IPHONE, Token.IOS_IPAD, Token.IOS_IPOD }) {
+                int candidate = first[token.ordinal()];
+                if (candidate >= 0 && (end < 0 || candidate < end)) {
+                    end = candidate;
+                }
+            }
+            if (end < 0) {
+                return null;
+            }
+            int close = userAgent.indexOf(')', end);
+            for (int i = (close < 0 ? userAgent.length() : close) - 2; i >= end; i--) {
+                if (userAgent.regionMatches(true, i, "os", 0, 2)) {
+                    int versionStart = skipSpaces(i + 2, true);
+                    String version = versionStart < 0 ? null : versionAt(versionStart, UNDERSCORED);
+                    if (version != null) {
+                        return version.replace('_', '.');
+                    }
+                }
+            }
+            return null;
+        }
+
+        private int skipSpaces(int from, boolean required) {
+            int i = from;
+            while (i < userAgent.length() && Character.isWhitespace(userAgent.charAt(i))) {
+                i++;
+            }
+            return required && i == from ? -1 : i;
+        }
+
+        private String versionAt(int from, char separator) {
+            if (from < 0) {
+                return null;
+            }
+            int i = from;
+            while (i < userAgent.length()) {
+                char c = userAgent.charAt(i);
+                if ((c < '0' || c > '9') && c != separator) {
+                    break;
+                }
+                i++;
+            }
+            return i == from ? null : userAgent.substring(from, i);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.stockapp.userservice.web.rest;
 
 import com.stockapp.userservice.domain.enumeration.AccountStatus;
 import com.stockapp.userservice.service.AppUserService;
+import com.stockapp.userservice.service.PasswordHashingService;
 import com.stockapp.userservice.service.dto.AppUserDTO;
 import com.stockapp.userservice.web.rest.vm.MessageResponseVM;
 import io.swagger.v3.oas.annotations.Operation;
@@ -20,7 +21,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -53,11 +53,11 @@ public class AdminUserResource {
     private static final Logger LOG = LoggerFactory.getLogger(AdminUserResource.class);
 
     private final AppUserService appUserService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
 
-    public AdminUserResource(AppUserService appUserService, PasswordEncoder passwordEncoder) {
+    public AdminUserResource(AppUserService appUserService, PasswordHashingService passwordHashingService) {
         this.appUserService = appUserService;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
     }
 
     /**
@@ -169,9 +169,6 @@ public class AdminUserResource {
                         .switchIfEmpty(Mono.defer(() -> {
                             // Set default values
                             userDTO.setCreatedDate(Instant.now());
-                            if (userDTO.getPassword() != null) {
-                                userDTO.setPassword(passwordEncoder.encode(userDTO.getPassword()));
-                            }
                             if (userDTO.getActivated() == null) {
                                 userDTO.setActivated(true);
                             }
@@ -188,7 +185,13 @@ public class AdminUserResource {
                                 userDTO.setFailedLoginAttempts(0);
                             }
 
-                            return appUserService.save(userDTO)
+                            Mono<AppUserDTO> encoded = userDTO.getPassword() != null
+                                    ? passwordHashingService.encode(userDTO.getPassword()).map(encodedPassword -> {
+                                        userDTO.setPassword(encodedPassword);
+                                        return userDTO;
+                                    })
+                                    : Mono.just(userDTO);
+                            return encoded.flatMap(appUserService::save)
                                     .map(savedUser -> ResponseEntity.status(HttpStatus.CREATED).body(savedUser));
                         }))));
     }
@@ -344,11 +347,13 @@ public class AdminUserResource {
                 .flatMap(user -> {
                     // Generate temporary password
                     String tempPassword = UUID.randomUUID().toString().substring(0, 12);
-                    user.setPassword(passwordEncoder.encode(tempPassword));
-                    user.setLastPasswordChangeDate(Instant.now());
-                    user.setFailedLoginAttempts(0);
-
-                    return appUserService.update(user)
+                    return passwordHashingService.encode(tempPassword)
+                            .flatMap(encodedPassword -> {
+                                user.setPassword(encodedPassword);
+                                user.setLastPasswordChangeDate(Instant.now());
+                                user.setFailedLoginAttempts(0);
+                                return appUserService.update(user);
+                            })
                             .doOnSuccess(updatedUser -> {
                                 LOG.info("Password reset for user: {}", updatedUser.getLogin());
                                 // TODO: Send email with temporary password
@@ -1,13 +1,17 @@
 package com.stockapp.userservice.web.rest;
 
+import com.stockapp.userservice.domain.AppUser;
 import com.stockapp.userservice.domain.enumeration.AccountStatus;
-import com.stockapp.userservice.repository.AppUserRepository;
+import com.stockapp.userservice.domain.enumeration.LoginMethod;
 import com.stockapp.userservice.security.jwt.TokenProvider;
 import com.stockapp.userservice.service.AppUserService;
+import com.stockapp.userservice.service.LoginHistoryService;
 import com.stockapp.userservice.service.MailService;
+import com.stockapp.userservice.service.PasswordHashingService;
 import com.stockapp.userservice.service.SessionService;
 import com.stockapp.userservice.service.UserProfileService;
 import com.stockapp.userservice.service.dto.AppUserDTO;
+import com.stockapp.userservice.service.dto.SessionDTO;
 import com.stockapp.userservice.service.dto.UserProfileDTO;
 import com.stockapp.userservice.service.util.DeviceInfoParser;
 import com.stockapp.userservice.web.rest.vm.*;
@@ -26,16 +30,18 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -59,29 +65,32 @@ public class AuthResource {
 
         private static final Logger LOG = LoggerFactory.getLogger(AuthResource.class);
 
+        private static final int MAX_FAILED_LOGIN_ATTEMPTS = 5;
+        private static final Duration ACCOUNT_LOCK_DURATION = Duration.ofMinutes(30);
+
         private final AppUserService appUserService;
-        private final AppUserRepository appUserRepository;
-        private final PasswordEncoder passwordEncoder;
+        private final PasswordHashingService passwordHashingService;
         private final TokenProvider tokenProvider;
         private final MailService mailService;
         private final UserProfileService userProfileService;
         private final SessionService sessionService;
+        private final LoginHistoryService loginHistoryService;
 
         public AuthResource(
                         AppUserService appUserService,
-                        AppUserRepository appUserRepository,
-                        PasswordEncoder passwordEncoder,
+                        PasswordHashingService passwordHashingService,
                         TokenProvider tokenProvider,
                         MailService mailService,
                         UserProfileService userProfileService,
-                        SessionService sessionService) {
+                        SessionService sessionService,
+                        LoginHistoryService loginHistoryService) {
                 this.appUserService = appUserService;
-                this.appUserRepository = appUserRepository;
-                this.passwordEncoder = passwordEncoder;
+                this.passwordHashingService = passwordHashingService;
                 this.tokenProvider = tokenProvider;
                 this.mailService = mailService;
                 this.userProfileService = userProfileService;
                 this.sessionService = sessionService;
+                this.loginHistoryService = loginHistoryService;
         }
 
         /**
@@ -162,8 +171,6 @@ public class AuthResource {
                                                         AppUserDTO newUser = new AppUserDTO();
                                                         newUser.setLogin(registerVM.getLogin().toLowerCase());
                                                         newUser.setEmail(registerVM.getEmail().toLowerCase());
-                                                        newUser.setPassword(passwordEncoder
-                                                                        .encode(registerVM.getPassword()));
                                                         newUser.setActivated(false); // Require email verification
                                                         newUser.setAccountStatus(AccountStatus.PENDING_VERIFICATION);
                                                         newUser.setEmailVerified(false);
@@ -181,7 +188,11 @@ public class AuthResource {
                                                         newUser.setEmailVerificationTokenExpiry(
                                                                         Instant.now().plus(24, ChronoUnit.HOURS));
 
-                                                        return appUserService.save(newUser)
+                                                        return passwordHashingService.encode(registerVM.getPassword())
+                                                                        .flatMap(encodedPassword -> {
+                                                                                newUser.setPassword(encodedPassword);
+                                                                                return appUserService.save(newUser);
+                                                                        })
                                                                         .flatMap(user -> {
                                                                                 LOG.info("Successfully registered user: {}",
                                                                                                 user.getLogin());
@@ -238,114 +249,83 @@ public class AuthResource {
                                                                 .body(new AuthResponseVM()));
                                         }
 
-                                        // Verify password
-                                        if (!passwordEncoder.matches(loginVM.getPassword(), user.getPassword())) {
-                                                // Increment failed login attempts
-                                                Integer failedAttempts = user.getFailedLoginAttempts() != null
-                                                                ? user.getFailedLoginAttempts() + 1
-                                                                : 1;
-                                                user.setFailedLoginAttempts(failedAttempts);
-
-                                                // Lock account after 5 failed attempts
-                                                if (failedAttempts >= 5) {
-                                                        user.setAccountLockedUntil(
-                                                                        Instant.now().plus(30, ChronoUnit.MINUTES));
-                                                        user.setAccountStatus(AccountStatus.LOCKED);
+                                        // Verify password off the event loop
+                                        return passwordHashingService.matches(loginVM.getPassword(), user.getPassword())
+                                                        .flatMap(passwordMatches -> {
+                                                SessionService.DeviceInfo deviceInfo = DeviceInfoParser
+                                                                .parse(userAgent, deviceId, null);
+                                                AppUser userRef = new AppUser().id(user.getId()).login(user.getLogin());
+
+                                                if (!passwordMatches) {
+                                                        loginHistoryService.queueLoginAttempt(userRef, LoginMethod.PASSWORD,
+                                                                        ipAddress, userAgent, deviceInfo.getDeviceType(), false,
+                                                                        "Invalid password");
+                                                        // Atomic increment, locks the account after 5 failed attempts
+                                                        return appUserService
+                                                                        .recordFailedLogin(user, MAX_FAILED_LOGIN_ATTEMPTS,
+                                                                                        ACCOUNT_LOCK_DURATION)
+                                                                        .thenReturn(ResponseEntity
+                                                                                        .status(HttpStatus.UNAUTHORIZED)
+                                                                                        .body(new AuthResponseVM()));
                                                 }
 
-                                                return appUserService.update(user)
-                                                                .then(Mono.just(ResponseEntity
-                                                                                .status(HttpStatus.UNAUTHORIZED)
-                                                                                .body(new AuthResponseVM())));
-                                        }
-
-                                        // Reset failed login attempts on successful login
-                                        user.setFailedLoginAttempts(0);
-                                        user.setAccountLockedUntil(null);
-                                        user.setLastLoginDate(Instant.now());
-                                        user.setLastLoginIp(ipAddress);
-                                        return appUserService.update(user)
-                                                        .flatMap(updatedUser -> {
-                                                                // Get user authorities
-                                                                Set<String> authorities = updatedUser
-                                                                                .getAuthorities() != null
-                                                                                                ? updatedUser.getAuthorities()
-                                                                                                                .stream()
-                                                                                                                .map(auth -> auth
-                                                                                                                                .getName())
-                                                                                                                .collect(Collectors
-                                                                                                                                .toSet())
-                                                                                                : Set.of("ROLE_USER");
-
-                                                                // Generate JWT access token
-                                                                boolean rememberMe = loginVM.getRememberMe() != null
-                                                                                && loginVM.getRememberMe();
-                                                                String accessToken = tokenProvider.createToken(
-                                                                                updatedUser.getLogin(),
-                                                                                authorities,
-                                                                                rememberMe);
-
-                                                                // Generate refresh token (simple UUID for now)
-                                                                String refreshToken = UUID.randomUUID().toString();
-
-                                                                // Get token validity
-                                                                long expiresIn = tokenProvider
-                                                                                .getTokenValidityInSeconds(rememberMe);
-
-                                                                // Create response
-                                                                AuthResponseVM response = new AuthResponseVM(
-                                                                                accessToken, refreshToken, expiresIn);
-                                                                response.setLogin(updatedUser.getLogin());
-                                                                response.setEmail(updatedUser.getEmail());
-                                                                response.setAuthorities(
-                                                                                authorities.toArray(new String[0]));
-
-                                                                LOG.info("User logged in successfully: {}",
-                                                                                updatedUser.getLogin());
-
-                                                                // Create session record for tracking
-                                                                SessionService.DeviceInfo deviceInfo = DeviceInfoParser
-                                                                                .parse(userAgent, deviceId, null);
-
-                                                                // First, get user profile for avatar and fullName
-                                                                // (independent of session)
-                                                                Mono<ResponseEntity<AuthResponseVM>> profileMono = userProfileService
-                                                                                .findByUserLogin(updatedUser.getLogin())
-                                                                                .map(profile -> {
-                                                                                        if (profile.getAvatarUrl() != null) {
-                                                                                                response.setAvatarUrl(
-                                                                                                                profile.getAvatarUrl());
-                                                                                        }
-                                                                                        if (profile.getFullName() != null) {
-                                                                                                response.setFullName(
-                                                                                                                profile.getFullName());
-                                                                                        }
-                                                                                        return ResponseEntity
-                                                                                                        .ok(response);
-                                                                                })
-                                                                                .defaultIfEmpty(ResponseEntity
-                                                                                                .ok(response));
-
-                                                                // Create session asynchronously (don't block response)
-                                                                appUserRepository.findByLogin(updatedUser.getLogin())
-                                                                                .flatMap(appUserEntity -> sessionService
-                                                                                                .createSession(
-                                                                                                                appUserEntity,
-                                                                                                                accessToken,
-                                                                                                                refreshToken,
-                                                                                                                ipAddress,
-                                                                                                                userAgent,
-                                                                                                                deviceInfo,
-                                                                                                                rememberMe))
-                                                                                .subscribe(
-                                                                                                session -> LOG.debug(
-                                                                                                                "Session created: {}",
-                                                                                                                session.getId()),
-                                                                                                error -> LOG.warn(
-                                                                                                                "Failed to create session: {}",
-                                                                                                                error.getMessage()));
-
-                                                                return profileMono;
+                                                Set<String> authorities = user.getAuthorities() != null
+                                                                ? user.getAuthorities().stream().map(auth -> auth.getName())
+                                                                                .collect(Collectors.toSet())
+                                                                : Set.of("ROLE_USER");
+
+                                                // Generate JWT access token
+                                                boolean rememberMe = loginVM.getRememberMe() != null
+                                                                && loginVM.getRememberMe();
+                                                String accessToken = tokenProvider.createToken(user.getLogin(),
+                                                                authorities, rememberMe);
+
+                                                // Generate refresh token (simple UUID for now)
+                                                String refreshToken = UUID.randomUUID().toString();
+
+                                                long expiresIn = tokenProvider.getTokenValidityInSeconds(rememberMe);
+
+                                                AuthResponseVM response = new AuthResponseVM(accessToken, refreshToken,
+                                                                expiresIn);
+                                                response.setLogin(user.getLogin());
+                                                response.setEmail(user.getEmail());
+                                                response.setAuthorities(authorities.toArray(new String[0]));
+
+                                                // Reset the login counters and read the profile in parallel; the
+                                                // conditional update fails if the account was locked meanwhile
+                                                return Mono.zip(
+                                                                appUserService.markLoginSucceeded(user.getId(), ipAddress),
+                                                                userProfileService.findByUserLogin(user.getLogin())
+                                                                                .map(Optional::of)
+                                                                                .defaultIfEmpty(Optional.empty()))
+                                                                .flatMap(tuple -> {
+                                                                        if (!tuple.getT1()) {
+                                                                                return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN)
+                                                                                                .body(new AuthResponseVM()));
+                                                                        }
+                                                                        tuple.getT2().ifPresent(profile -> {
+                                                                                if (profile.getAvatarUrl() != null) {
+                                                                                        response.setAvatarUrl(profile.getAvatarUrl());
+                                                                                }
+                                                                                if (profile.getFullName() != null) {
+                                                                                        response.setFullName(profile.getFullName());
+                                                                                }
+                                                                        });
+
+                                                                        // The session is inserted before responding so that a logout or
+                                                                        // revoke-all right after login sees it; history is written behind
+                                                                        loginHistoryService.queueLoginAttempt(userRef,
+                                                                                        LoginMethod.PASSWORD, ipAddress,
+                                                                                        userAgent, deviceInfo.getDeviceType(),
+                                                                                        true, null);
+
+                                                                        return sessionService.createSession(userRef, accessToken,
+                                                                                        refreshToken, ipAddress, userAgent,
+                                                                                        deviceInfo, rememberMe)
+                                                                                        .doOnSuccess(session -> LOG.info("User logged in successfully: {}",
+                                                                                                        user.getLogin()))
+                                                                                        .thenReturn(ResponseEntity.ok(response));
+                                                                });
                                                         });
                                 })
                                 .defaultIfEmpty(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -472,12 +452,14 @@ public class AuthResource {
 
                 return ReactiveSecurityContextHolder.getContext()
                                 .map(SecurityContext::getAuthentication)
-                                .map(Authentication::getName)
-                                .flatMap(username -> {
-                                        LOG.info("User logged out: {}", username);
+                                .flatMap(authentication -> {
+                                        LOG.info("User logged out: {}", authentication.getName());
                                         // TODO: Revoke refresh tokens for this user
-                                        // TODO: Invalidate session
-                                        return Mono.just(ResponseEntity
+                                        // End the session and revoke the access token on every instance
+                                        Mono<SessionDTO> logout = authentication.getCredentials() instanceof Jwt jwt
+                                                        ? sessionService.logoutSession(jwt.getTokenValue())
+                                                        : Mono.empty();
+                                        return logout.thenReturn(ResponseEntity
                                                         .ok(new MessageResponseVM("Logged out successfully")));
                                 })
                                 .defaultIfEmpty(ResponseEntity.ok(new MessageResponseVM("Logged out successfully")));
@@ -590,13 +572,15 @@ public class AuthResource {
                                         }
 
                                         // Update password
-                                        user.setPassword(passwordEncoder.encode(resetPasswordVM.getNewPassword()));
-                                        user.setPasswordResetToken(null);
-                                        user.setPasswordResetTokenExpiry(null);
-                                        user.setLastPasswordChangeDate(Instant.now());
-                                        user.setFailedLoginAttempts(0);
-
-                                        return appUserService.update(user)
+                                        return passwordHashingService.encode(resetPasswordVM.getNewPassword())
+                                                        .flatMap(encodedPassword -> {
+                                                                user.setPassword(encodedPassword);
+                                                                user.setPasswordResetToken(null);
+                                                                user.setPasswordResetTokenExpiry(null);
+                                                                user.setLastPasswordChangeDate(Instant.now());
+                                                                user.setFailedLoginAttempts(0);
+                                                                return appUserService.update(user);
+                                                        })
                                                         .doOnSuccess(updatedUser -> {
                                                                 LOG.info("Password reset successfully for user: {}",
                                                                                 updatedUser.getLogin());
@@ -683,10 +667,11 @@ public class AuthResource {
                                 .map(SecurityContext::getAuthentication)
                                 .map(Authentication::getName)
                                 .flatMap(appUserService::findByLogin)
-                                .flatMap(user -> {
+                                .flatMap(user -> passwordHashingService
+                                                .matches(changePasswordVM.getCurrentPassword(), user.getPassword())
+                                                .flatMap(currentPasswordMatches -> {
                                         // Verify current password
-                                        if (!passwordEncoder.matches(changePasswordVM.getCurrentPassword(),
-                                                        user.getPassword())) {
+                                        if (!currentPasswordMatches) {
                                                 return Mono.just(ResponseEntity.badRequest()
                                                                 .body(new MessageResponseVM(
                                                                                 "Current password is incorrect",
@@ -694,10 +679,12 @@ public class AuthResource {
                                         }
 
                                         // Update to new password
-                                        user.setPassword(passwordEncoder.encode(changePasswordVM.getNewPassword()));
-                                        user.setLastPasswordChangeDate(Instant.now());
-
-                                        return appUserService.update(user)
+                                        return passwordHashingService.encode(changePasswordVM.getNewPassword())
+                                                        .flatMap(encodedPassword -> {
+                                                                user.setPassword(encodedPassword);
+                                                                user.setLastPasswordChangeDate(Instant.now());
+                                                                return appUserService.update(user);
+                                                        })
                                                         .doOnSuccess(updatedUser -> {
                                                                 LOG.info("Password changed successfully for user: {}",
                                                                                 updatedUser.getLogin());
@@ -708,7 +695,7 @@ public class AuthResource {
                                                         .map(updatedUser -> ResponseEntity.ok(
                                                                         new MessageResponseVM(
                                                                                         "Password changed successfully")));
-                                })
+                                }))
                                 .defaultIfEmpty(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                                                 .body(new MessageResponseVM("User not found", false)));
         }
@@ -768,10 +755,11 @@ public class AuthResource {
                                 .map(SecurityContext::getAuthentication)
                                 .map(Authentication::getName)
                                 .flatMap(appUserService::findByLogin)
-                                .flatMap(user -> {
+                                .flatMap(user -> passwordHashingService
+                                                .matches(deleteAccountVM.getPassword(), user.getPassword())
+                                                .flatMap(passwordMatches -> {
                                         // Verify password
-                                        if (!passwordEncoder.matches(deleteAccountVM.getPassword(),
-                                                        user.getPassword())) {
+                                        if (!passwordMatches) {
                                                 return Mono.just(ResponseEntity.badRequest()
                                                                 .body(new MessageResponseVM("Mật khẩu không đúng",
                                                                                 false)));
@@ -794,7 +782,7 @@ public class AuthResource {
                                                                                                 "Không thể xóa tài khoản. Vui lòng thử lại sau.",
                                                                                                 false)));
                                                         });
-                                })
+                                }))
                                 .defaultIfEmpty(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                                                 .body(new MessageResponseVM("User not found", false)));
         }
@@ -0,0 +1,65 @@
+package com.stockapp.userservice.web.rest;
+
+import com.stockapp.userservice.service.AvatarService;
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * REST controller serving stored avatar images.
+ */
+@RestController
+@RequestMapping("/api/public/avatars")
+public class AvatarResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AvatarResource.class);
+
+    /** Avatar keys change on every upload, so a variant never changes once served. */
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    private final AvatarService avatarService;
+
+    public AvatarResource(AvatarService avatarService) {
+        this.avatarService = avatarService;
+    }
+
+    /**
+     * GET /api/public/avatars/:key : Get one variant of an avatar.
+     *
+     * @param key  the avatar key
+     * @param size the variant edge length in pixels (64, 128 or 256)
+     * @return the image, or status 404 (Not Found)
+     */
+    @GetMapping("/{key}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAvatar(
+        @PathVariable String key,
+        @RequestParam(defaultValue = "" + AvatarService.DEFAULT_SIZE) int size,
+        ServerWebExchange exchange
+    ) {
+        LOG.debug("REST request to get avatar {} at {}px", key, size);
+        String eTag = "\"" + key + "-" + size + "\"";
+        if (exchange.checkNotModified(eTag)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CACHE_CONTROL).eTag(eTag).build());
+        }
+        return avatarService
+            .load(key, size)
+            .map(blob ->
+                ResponseEntity.ok()
+                    .contentType(blob.contentType() != null ? MediaType.parseMediaType(blob.contentType()) : MediaType.IMAGE_JPEG)
+                    .contentLength(blob.length())
+                    .cacheControl(CACHE_CONTROL)
+                    .eTag(eTag)
+                    .body(blob.content())
+            )
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
@@ -1,5 +1,7 @@
 package com.stockapp.userservice.web.rest;
 
+import com.stockapp.userservice.service.AvatarService;
+import com.stockapp.userservice.service.InvalidAvatarException;
 import com.stockapp.userservice.service.UserProfileService;
 import com.stockapp.userservice.service.dto.UserProfileDTO;
 import org.slf4j.Logger;
@@ -12,7 +14,6 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
 
-import java.util.Base64;
 import java.util.Map;
 import java.util.Set;
 
@@ -24,23 +25,24 @@ import java.util.Set;
 public class AvatarUploadResource {
 
     private static final Logger LOG = LoggerFactory.getLogger(AvatarUploadResource.class);
-    private static final long MAX_FILE_SIZE = 2 * 1024 * 1024; // 2MB
     private static final Set<String> ALLOWED_TYPES = Set.of("image/jpeg", "image/png", "image/jpg");
 
     private final UserProfileService userProfileService;
     private final com.stockapp.userservice.service.AppUserService appUserService;
+    private final AvatarService avatarService;
 
     public AvatarUploadResource(UserProfileService userProfileService,
-            com.stockapp.userservice.service.AppUserService appUserService) {
+            com.stockapp.userservice.service.AppUserService appUserService, AvatarService avatarService) {
         this.userProfileService = userProfileService;
         this.appUserService = appUserService;
+        this.avatarService = avatarService;
     }
 
     /**
      * POST /api/public/users/me/avatar : Upload user avatar
      *
      * @param filePart the avatar image file
-     * @return the avatar URL (base64 data URL)
+     * @return the avatar URL; append {@code ?size=64|128|256} to pick a variant
      */
     @PostMapping(value = "/avatar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public Mono<ResponseEntity<Map<String, String>>> uploadAvatar(@RequestPart("file") FilePart filePart) {
@@ -61,43 +63,39 @@ public class AvatarUploadResource {
                                 .body(Map.of("error", "Only supports JPG or PNG")));
                     }
 
-                    // Read file content and convert to base64
-                    return org.springframework.core.io.buffer.DataBufferUtils.join(filePart.content())
-                            .flatMap(dataBuffer -> {
-                                byte[] bytes = new byte[dataBuffer.readableByteCount()];
-                                dataBuffer.read(bytes);
-                                org.springframework.core.io.buffer.DataBufferUtils.release(dataBuffer);
-
-                                // Validate file size
-                                if (bytes.length > MAX_FILE_SIZE) {
-                                    return Mono.just(ResponseEntity.badRequest()
-                                            .body(Map.of("error", "File size too large (max 2MB)")));
-                                }
-
-                                // Convert to base64 data URL
-                                String base64 = Base64.getEncoder().encodeToString(bytes);
-                                String dataUrl = "data:" + mimeType + ";base64," + base64;
-
-                                // Update user profile with new avatar URL
-                                return userProfileService.findByUserLogin(username)
-                                        .flatMap(profile -> {
-                                            profile.setAvatarUrl(dataUrl);
-                                            return userProfileService.save(profile);
-                                        })
-                                        .switchIfEmpty(Mono.defer(() ->
-                                // Create new profile if not exists - MUST link to AppUser
-                                appUserService.findByLogin(username)
-                                        .flatMap(userDTO -> {
-                                            UserProfileDTO newProfile = new UserProfileDTO();
-                                            newProfile.setAvatarUrl(dataUrl);
-                                            newProfile.setUser(userDTO); // Link to user
-                                            return userProfileService.save(newProfile);
-                                        })))
-                                        .map(savedProfile -> ResponseEntity.ok(Map.of(
-                                                "avatarUrl", savedProfile.getAvatarUrl())));
-                            });
+                    // Stream the upload into the avatar store; the profile only keeps its URL
+                    return avatarService.store(mimeType, filePart.content())
+                            .map(AvatarService::urlFor)
+                            .flatMap(avatarUrl -> userProfileService.findByUserLogin(username)
+                                    .flatMap(profile -> {
+                                        String previousUrl = profile.getAvatarUrl();
+                                        profile.setAvatarUrl(avatarUrl);
+                                        return userProfileService.save(profile)
+                                                .flatMap(saved -> avatarService.deleteByUrl(previousUrl)
+                                                        .onErrorResume(e -> {
+                                                            LOG.warn("Failed to delete previous avatar {}: {}", previousUrl, e.getMessage());
+                                                            return Mono.empty();
+                                                        })
+                                                        .thenReturn(saved));
+                                    })
+                                    .switchIfEmpty(Mono.defer(() ->
+                            // Create new profile if not exists - MUST link to AppUser
+                            appUserService.findByLogin(username)
+                                    .flatMap(userDTO -> {
+                                        UserProfileDTO newProfile = new UserProfileDTO();
+                                        newProfile.setAvatarUrl(avatarUrl);
+                                        newProfile.setUser(userDTO); // Link to user
+                                        return userProfileService.save(newProfile);
+                                    })))
+                                    // No profile references the new avatar: remove its blobs before failing
+                                    .onErrorResume(e -> discard(avatarUrl, e))
+                                    .switchIfEmpty(Mono.defer(() -> discard(avatarUrl, new RuntimeException("User not found")))))
+                            .map(savedProfile -> ResponseEntity.ok(Map.of(
+                                    "avatarUrl", savedProfile.getAvatarUrl())));
                 })
                 .switchIfEmpty(Mono.error(new RuntimeException("User not found or not authenticated")))
+                .onErrorResume(InvalidAvatarException.class, e -> Mono.just(ResponseEntity.badRequest()
+                        .body(Map.of("error", e.getMessage()))))
                 .onErrorResume(e -> {
                     LOG.error("Error uploading avatar: {}", e.getMessage(), e);
                     return Mono.just(ResponseEntity.internalServerError()
@@ -117,13 +115,27 @@ public class AvatarUploadResource {
         return getCurrentUsername()
                 .flatMap(username -> userProfileService.findByUserLogin(username)
                         .flatMap(profile -> {
+                            String previousUrl = profile.getAvatarUrl();
                             profile.setAvatarUrl(null);
-                            return userProfileService.save(profile);
+                            return userProfileService.save(profile)
+                                    .flatMap(saved -> avatarService.deleteByUrl(previousUrl).thenReturn(saved));
                         })
                         .map(saved -> ResponseEntity.noContent().<Void>build())
                         .switchIfEmpty(Mono.just(ResponseEntity.noContent().build())));
     }
 
+    /**
+     * Delete a stored avatar that did not make it into a profile, then propagate the original error.
+     */
+    private <T> Mono<T> discard(String avatarUrl, Throwable error) {
+        return avatarService.deleteByUrl(avatarUrl)
+                .onErrorResume(e -> {
+                    LOG.warn("Failed to delete orphaned avatar {}: {}", avatarUrl, e.getMessage());
+                    return Mono.empty();
+                })
+                .then(Mono.error(error));
+    }
+
     private Mono<String> getCurrentUsername() {
         return ReactiveSecurityContextHolder.getContext()
                 .map(SecurityContext::getAuthentication)
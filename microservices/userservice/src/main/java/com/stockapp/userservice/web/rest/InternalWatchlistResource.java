@@ -2,12 +2,16 @@ package com.stockapp.userservice.web.rest;
 
 import com.stockapp.userservice.service.WatchlistItemService;
 import io.swagger.v3.oas.annotations.Operation;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * Internal REST API for Watchlist - used by other microservices
@@ -37,7 +41,21 @@ public class InternalWatchlistResource {
     @GetMapping(value = "/users/{symbol}", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Get users by symbol", description = "Get all user IDs watching a specific stock symbol")
     public Flux<String> getUsersBySymbol(@PathVariable String symbol) {
-        LOG.info("Internal API request to get users watching symbol: {}", symbol);
+        LOG.debug("Internal API request to get users watching symbol: {}", symbol);
         return watchlistItemService.findUserIdsBySymbol(symbol.toUpperCase());
     }
+
+    /**
+     * POST /api/internal/watchlist/users : Get the user IDs watching each of several symbols
+     * Lets callers that fan out over many symbols resolve them in one request
+     *
+     * @param symbols the stock symbols
+     * @return user IDs per symbol; symbols nobody watches map to an empty list
+     */
+    @PostMapping(value = "/users", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get users by symbols", description = "Get the user IDs watching each of several stock symbols")
+    public Mono<Map<String, Set<String>>> getUsersBySymbols(@RequestBody List<String> symbols) {
+        LOG.debug("Internal API request to get users watching {} symbols", symbols.size());
+        return watchlistItemService.findUserIdsBySymbols(symbols.stream().map(String::toUpperCase).toList());
+    }
 }
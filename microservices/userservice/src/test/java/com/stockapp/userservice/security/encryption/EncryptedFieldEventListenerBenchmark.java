@@ -0,0 +1,169 @@
+package com.stockapp.userservice.security.encryption;
+
+import com.stockapp.userservice.domain.UserProfile;
+import com.stockapp.userservice.domain.WatchlistItem;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Encrypt + decrypt throughput of one entity through {@link EncryptedFieldEventListener}, compared
+ * with the previous per-event reflection and per-value {@code Cipher.getInstance} path
+ * ({@code legacy*} benchmarks).
+ * <p>
+ * Not part of the test suite; run with
+ * {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.stockapp.userservice.security.encryption.EncryptedFieldEventListenerBenchmark}
+ * or from the IDE.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class EncryptedFieldEventListenerBenchmark {
+
+    private static final String COLLECTION = "user_profile";
+
+    private EncryptedFieldEventListener listener;
+    private SecretKey legacyKey;
+    private SecureRandom secureRandom;
+
+    @Setup
+    public void setup() {
+        listener = new EncryptedFieldEventListener(new FieldEncryptionService("benchmark-master-key", "benchmark-salt"));
+        byte[] key = new byte[32];
+        secureRandom = new SecureRandom();
+        secureRandom.nextBytes(key);
+        legacyKey = new SecretKeySpec(key, "AES");
+    }
+
+    @Benchmark
+    public UserProfile encryptDecrypt() {
+        UserProfile profile = newProfile();
+        Document document = new Document();
+        listener.onBeforeSave(new BeforeSaveEvent<>(profile, document, COLLECTION));
+        UserProfile loaded = fromDocument(document);
+        listener.onAfterConvert(new AfterConvertEvent<>(document, loaded, COLLECTION));
+        return loaded;
+    }
+
+    @Benchmark
+    public WatchlistItem unannotatedEntity() {
+        WatchlistItem item = new WatchlistItem();
+        Document document = new Document();
+        listener.onBeforeSave(new BeforeSaveEvent<>(item, document, COLLECTION));
+        listener.onAfterConvert(new AfterConvertEvent<>(document, item, COLLECTION));
+        return item;
+    }
+
+    @Benchmark
+    public UserProfile legacyEncryptDecrypt() {
+        UserProfile profile = newProfile();
+        Document document = new Document();
+        legacyProcess(profile, document, true);
+        UserProfile loaded = fromDocument(document);
+        legacyProcess(loaded, document, false);
+        return loaded;
+    }
+
+    @Benchmark
+    public WatchlistItem legacyUnannotatedEntity() {
+        WatchlistItem item = new WatchlistItem();
+        Document document = new Document();
+        legacyProcess(item, document, true);
+        legacyProcess(item, document, false);
+        return item;
+    }
+
+    private static UserProfile newProfile() {
+        UserProfile profile = new UserProfile();
+        profile.setPhoneNumber("+84901234567");
+        profile.setFullName("Nguyen Van A");
+        profile.setBio("Long-term investor focused on banking and technology stocks.");
+        return profile;
+    }
+
+    private static UserProfile fromDocument(Document document) {
+        UserProfile profile = new UserProfile();
+        profile.setPhoneNumber(document.getString("phone_number"));
+        profile.setFullName(document.getString("full_name"));
+        profile.setBio(document.getString("bio"));
+        return profile;
+    }
+
+    /**
+     * The listener's previous implementation: field scan and annotation lookup on every event,
+     * a new {@link Cipher} per value.
+     */
+    private void legacyProcess(Object source, Document document, boolean encrypt) {
+        ReflectionUtils.doWithFields(source.getClass(), field -> {
+            if (AnnotationUtils.findAnnotation(field, Encrypted.class) != null) {
+                field.setAccessible(true);
+                if (field.get(source) instanceof String value) {
+                    org.springframework.data.mongodb.core.mapping.Field fieldAnnotation = field.getAnnotation(
+                        org.springframework.data.mongodb.core.mapping.Field.class
+                    );
+                    String mongoFieldName = fieldAnnotation != null ? fieldAnnotation.value() : field.getName();
+                    if (encrypt) {
+                        document.put(mongoFieldName, legacyCipher(Cipher.ENCRYPT_MODE, value));
+                    } else {
+                        field.set(source, legacyCipher(Cipher.DECRYPT_MODE, value));
+                    }
+                }
+            }
+        });
+    }
+
+    private String legacyCipher(int mode, String value) {
+        try {
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            if (mode == Cipher.ENCRYPT_MODE) {
+                byte[] iv = new byte[12];
+                secureRandom.nextBytes(iv);
+                cipher.init(mode, legacyKey, new GCMParameterSpec(128, iv));
+                byte[] ciphertext = cipher.doFinal(value.getBytes(StandardCharsets.UTF_8));
+                return Base64.getEncoder().encodeToString(ByteBuffer.allocate(iv.length + ciphertext.length).put(iv).put(ciphertext).array());
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(value));
+            byte[] iv = new byte[12];
+            buffer.get(iv);
+            byte[] ciphertext = new byte[buffer.remaining()];
+            buffer.get(ciphertext);
+            cipher.init(mode, legacyKey, new GCMParameterSpec(128, iv));
+            return new String(cipher.doFinal(ciphertext), StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            throw new EncryptionException("Legacy benchmark cipher failed", e);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EncryptedFieldEventListenerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
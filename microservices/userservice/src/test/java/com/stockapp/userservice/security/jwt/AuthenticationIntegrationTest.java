@@ -22,6 +22,7 @@ import tech.jhipster.config.JHipsterProperties;
         SecurityConfiguration.class,
         SecurityJwtConfiguration.class,
         SecurityMetersService.class,
+        TokenRevocationRegistry.class,
         JwtAuthenticationTestUtils.class,
     }
 )
@@ -0,0 +1,87 @@
+package com.stockapp.userservice.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import reactor.core.publisher.Mono;
+
+class CachingReactiveJwtDecoderTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    private final AtomicInteger decodeCount = new AtomicInteger();
+
+    private TokenRevocationRegistry revocationRegistry;
+
+    private Instant expiresAt;
+
+    private CachingReactiveJwtDecoder decoder;
+
+    @BeforeEach
+    void setup() {
+        revocationRegistry = new TokenRevocationRegistry();
+        expiresAt = Instant.now().plusSeconds(60);
+        decoder = new CachingReactiveJwtDecoder(
+            token -> {
+                decodeCount.incrementAndGet();
+                return Mono.just(jwt(token, expiresAt));
+            },
+            revocationRegistry,
+            2
+        );
+    }
+
+    @Test
+    void decodesEachTokenOnce() {
+        Jwt first = decoder.decode(TOKEN).block();
+        Jwt second = decoder.decode(TOKEN).block();
+
+        assertThat(second).isSameAs(first);
+        assertThat(decodeCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    void revalidatesExpiredTokens() {
+        expiresAt = Instant.now().minusSeconds(1);
+        decoder.decode(TOKEN).block();
+        decoder.decode(TOKEN).block();
+
+        assertThat(decodeCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsRevokedTokensEvenWhenCached() {
+        decoder.decode(TOKEN).block();
+        revocationRegistry.revoke(TokenDigest.of(TOKEN), expiresAt);
+
+        assertThatThrownBy(() -> decoder.decode(TOKEN).block()).isInstanceOf(BadJwtException.class);
+    }
+
+    @Test
+    void forgetsRevocationsOnceTheTokenExpired() {
+        revocationRegistry.revoke(TokenDigest.of(TOKEN), Instant.now().minusSeconds(1));
+
+        assertThat(revocationRegistry.isRevoked(TokenDigest.of(TOKEN))).isFalse();
+        assertThat(decoder.decode(TOKEN).block()).isNotNull();
+    }
+
+    @Test
+    void staysWithinTheConfiguredSize() {
+        decoder.decode("a.b.c").block();
+        decoder.decode("d.e.f").block();
+        decoder.decode("g.h.i").block();
+        decoder.decode("a.b.c").block();
+
+        assertThat(decodeCount.get()).isEqualTo(4);
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token).header("alg", "HS512").subject("user").issuedAt(expiresAt.minusSeconds(120)).expiresAt(expiresAt).build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.stockapp.userservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.stockapp.userservice.repository.AvatarBlobStore;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class AvatarServiceTest {
+
+    private final InMemoryBlobStore blobStore = new InMemoryBlobStore();
+
+    private final AvatarService avatarService = new AvatarService(blobStore);
+
+    @Test
+    void storesOriginalAndSquareThumbnails() throws Exception {
+        String key = avatarService.store("image/jpeg", chunked(image(1200, 800, "jpg"), 8192)).block();
+
+        assertThat(blobStore.blobs).containsOnlyKeys(key + "/original", key + "/64", key + "/128", key + "/256");
+        for (int size : new int[] { 64, 128, 256 }) {
+            AvatarBlobStore.AvatarBlob blob = avatarService.load(key, size).block();
+            assertThat(blob.contentType()).isEqualTo("image/jpeg");
+            BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(bytes(blob.content())));
+            assertThat(thumbnail.getWidth()).isEqualTo(size);
+            assertThat(thumbnail.getHeight()).isEqualTo(size);
+        }
+        assertThat(AvatarService.urlFor(key)).hasSizeLessThan(80);
+    }
+
+    @Test
+    void rejectsOversizedUploadAndCleansUp() {
+        byte[] tooLarge = new byte[(int) AvatarService.MAX_UPLOAD_BYTES + 1];
+
+        assertThatThrownBy(() -> avatarService.store("image/png", chunked(tooLarge, 65536)).block())
+            .isInstanceOf(InvalidAvatarException.class)
+            .hasMessageContaining("too large");
+        assertThat(blobStore.blobs).isEmpty();
+    }
+
+    @Test
+    void rejectsNonImageAndCleansUp() {
+        assertThatThrownBy(() -> avatarService.store("image/png", chunked("not an image".getBytes(), 4)).block()).isInstanceOf(
+            InvalidAvatarException.class
+        );
+        assertThat(blobStore.blobs).isEmpty();
+    }
+
+    @Test
+    void deletesOnlyOwnAvatarUrls() {
+        String key = avatarService.store("image/png", chunked(image(300, 300, "png"), 4096)).block();
+
+        avatarService.deleteByUrl("https://example.com/" + key).block();
+        assertThat(blobStore.blobs).hasSize(4);
+
+        avatarService.deleteByUrl(AvatarService.urlFor(key)).block();
+        assertThat(blobStore.blobs).isEmpty();
+    }
+
+    private static byte[] image(int width, int height, String format) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, (x * 255 / width) << 16 | (y * 255 / height) << 8);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, format, out);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static Flux<DataBuffer> chunked(byte[] bytes, int chunkSize) {
+        return Flux.range(0, (bytes.length + chunkSize - 1) / chunkSize).map(i -> {
+            int from = i * chunkSize;
+            int length = Math.min(chunkSize, bytes.length - from);
+            return DefaultDataBufferFactory.sharedInstance.wrap(java.util.Arrays.copyOfRange(bytes, from, from + length));
+        });
+    }
+
+    private static byte[] bytes(Flux<DataBuffer> content) {
+        DataBuffer joined = DataBufferUtils.join(content).block();
+        byte[] bytes = new byte[joined.readableByteCount()];
+        joined.read(bytes);
+        DataBufferUtils.release(joined);
+        return bytes;
+    }
+
+    private static final class InMemoryBlobStore implements AvatarBlobStore {
+
+        private final Map<String, AvatarBlob> blobs = new ConcurrentHashMap<>();
+
+        @Override
+        public Mono<Void> store(String name, String contentType, Flux<DataBuffer> content) {
+            return DataBufferUtils.join(content)
+                .doOnNext(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    blobs.put(
+                        name,
+                        new AvatarBlob(contentType, bytes.length, Flux.defer(() -> Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(bytes))))
+                    );
+                })
+                .then();
+        }
+
+        @Override
+        public Mono<AvatarBlob> load(String name) {
+            return Mono.justOrEmpty(blobs.get(name));
+        }
+
+        @Override
+        public Mono<Void> deleteAll(String prefix) {
+            return Mono.fromRunnable(() -> blobs.keySet().removeIf(name -> name.startsWith(prefix)));
+        }
+    }
+}
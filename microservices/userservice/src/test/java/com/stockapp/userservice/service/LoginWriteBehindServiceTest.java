@@ -0,0 +1,103 @@
+package com.stockapp.userservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.stockapp.userservice.config.ApplicationProperties;
+import com.stockapp.userservice.domain.LoginHistory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class LoginWriteBehindServiceTest {
+
+    private final ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private LoginWriteBehindService writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getLoginWriteBehind().setQueueCapacity(3);
+        properties.getLoginWriteBehind().setBatchSize(2);
+        writeBehind = new LoginWriteBehindService(mongoTemplate, properties, registry);
+    }
+
+    @Test
+    void flushesQueuedDocumentsInBatches() {
+        when(mongoTemplate.insertAll(anyCollection())).thenAnswer(invocation -> Flux.fromIterable(invocation.<Collection<Object>>getArgument(0)));
+
+        writeBehind.enqueue(new LoginHistory());
+        writeBehind.enqueue(new LoginHistory());
+        writeBehind.enqueue(new LoginHistory());
+        verify(mongoTemplate, never()).insertAll(anyCollection());
+
+        writeBehind.flush().block();
+
+        verify(mongoTemplate, times(2)).insertAll(anyCollection());
+        assertThat(registry.counter(LoginWriteBehindService.WRITTEN_METER_NAME).count()).isEqualTo(3);
+        assertThat(registry.get(LoginWriteBehindService.QUEUE_METER_NAME).gauge().value()).isZero();
+    }
+
+    @Test
+    void insertsDirectlyWhenQueueIsFull() {
+        when(mongoTemplate.insert(any(Object.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        for (int i = 0; i < 4; i++) {
+            writeBehind.enqueue(new LoginHistory());
+        }
+
+        verify(mongoTemplate, times(1)).insert(any(Object.class));
+        assertThat(registry.get(LoginWriteBehindService.QUEUE_METER_NAME).gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    void retriesFailedBatchOneByOne() {
+        LoginHistory valid = new LoginHistory();
+        LoginHistory invalid = new LoginHistory();
+        when(mongoTemplate.insertAll(anyCollection())).thenReturn(Flux.error(new IllegalStateException("validation failed")));
+        when(mongoTemplate.insert(any(Object.class))).thenAnswer(invocation ->
+            invocation.getArgument(0) == invalid ? Mono.error(new IllegalStateException("validation failed")) : Mono.just(valid)
+        );
+
+        writeBehind.enqueue(valid);
+        writeBehind.enqueue(invalid);
+        writeBehind.flush().block();
+
+        verify(mongoTemplate, times(2)).insert(any(Object.class));
+        assertThat(registry.counter(LoginWriteBehindService.WRITTEN_METER_NAME).count()).isEqualTo(1);
+        assertThat(registry.counter(LoginWriteBehindService.FAILED_METER_NAME).count()).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotInsertTwiceWhatAFailedBatchAlreadyInserted() {
+        LoginHistory first = new LoginHistory();
+        LoginHistory second = new LoginHistory();
+        when(mongoTemplate.insertAll(anyCollection())).thenReturn(Flux.error(new IllegalStateException("connection reset")));
+        when(mongoTemplate.insert(any(Object.class))).thenAnswer(invocation ->
+            invocation.getArgument(0) == first ? Mono.error(new DuplicateKeyException("E11000")) : Mono.just(second)
+        );
+
+        writeBehind.enqueue(first);
+        writeBehind.enqueue(second);
+        String firstId = first.getId();
+        writeBehind.flush().block();
+
+        assertThat(firstId).isNotNull().isNotEqualTo(second.getId());
+        assertThat(first.getId()).isEqualTo(firstId);
+        assertThat(registry.counter(LoginWriteBehindService.WRITTEN_METER_NAME).count()).isEqualTo(2);
+        assertThat(registry.counter(LoginWriteBehindService.FAILED_METER_NAME).count()).isZero();
+    }
+}
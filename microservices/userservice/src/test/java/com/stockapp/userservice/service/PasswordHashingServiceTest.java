@@ -0,0 +1,168 @@
+package com.stockapp.userservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.stockapp.userservice.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+class PasswordHashingServiceTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PasswordHashingServiceTest.class);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PasswordHashingService passwordHashingService;
+
+    @AfterEach
+    void shutdown() {
+        if (passwordHashingService != null) {
+            passwordHashingService.shutdown();
+        }
+    }
+
+    @Test
+    void hashesOffTheCallingThread() {
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        passwordHashingService = service(new RecordingPasswordEncoder(threads, null), 2, 4);
+
+        assertThat(passwordHashingService.encode("secret").block()).isEqualTo("encoded:secret");
+        assertThat(passwordHashingService.matches("secret", "encoded:secret").block()).isTrue();
+
+        assertThat(threads).hasSize(2).allMatch(name -> name.startsWith("password-hashing-"));
+        assertThat(meterRegistry.get(PasswordHashingService.DURATION_METER_NAME).tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(PasswordHashingService.DURATION_METER_NAME).tag("operation", "matches").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsRequestsBeyondQueueCapacity() {
+        CountDownLatch release = new CountDownLatch(1);
+        passwordHashingService = service(new RecordingPasswordEncoder(new ArrayList<>(), release), 1, 1);
+
+        Mono<String> running = passwordHashingService.encode("first").cache();
+        Mono<String> queued = passwordHashingService.encode("second").cache();
+        running.subscribe();
+        queued.subscribe();
+
+        assertThatThrownBy(() -> passwordHashingService.encode("third").block()).isInstanceOf(PasswordHashingRejectedException.class);
+        assertThat(meterRegistry.get(PasswordHashingService.REJECTED_METER_NAME).counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(PasswordHashingService.QUEUE_METER_NAME).gauge().value()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.block(Duration.ofSeconds(5))).isEqualTo("encoded:first");
+        assertThat(queued.block(Duration.ofSeconds(5))).isEqualTo("encoded:second");
+    }
+
+    @Test
+    void loginStormKeepsOtherWorkResponsive() {
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder();
+        String hash = bcrypt.encode("secret");
+        passwordHashingService = service(bcrypt, 2, 16);
+
+        int logins = 64;
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Long> loginLatencies = Collections.synchronizedList(new ArrayList<>());
+        Flux<Boolean> storm = Flux.range(0, logins)
+            .flatMap(
+                i -> {
+                    long start = System.nanoTime();
+                    return passwordHashingService
+                        .matches("secret", hash)
+                        .doOnNext(matches -> {
+                            accepted.incrementAndGet();
+                            loginLatencies.add(System.nanoTime() - start);
+                        })
+                        .onErrorResume(PasswordHashingRejectedException.class, e -> {
+                            rejected.incrementAndGet();
+                            return Mono.empty();
+                        });
+                },
+                logins
+            )
+            .subscribeOn(Schedulers.parallel());
+
+        // Unrelated requests keep running on the parallel scheduler, as they would on event-loop threads
+        List<Long> otherLatencies = Collections.synchronizedList(new ArrayList<>());
+        Flux<Long> otherWork = Flux.interval(Duration.ofMillis(5))
+            .take(100)
+            .flatMap(i -> {
+                long start = System.nanoTime();
+                return Mono.fromCallable(() -> System.nanoTime() - start).subscribeOn(Schedulers.parallel());
+            })
+            .doOnNext(otherLatencies::add);
+
+        Mono.when(storm, otherWork).block(Duration.ofMinutes(1));
+
+        LOG.info(
+            "Login storm: {} accepted (p99 {} ms), {} rejected; unrelated work p99 {} ms",
+            accepted.get(),
+            percentile99(loginLatencies).toMillis(),
+            rejected.get(),
+            percentile99(otherLatencies).toMillis()
+        );
+        assertThat(accepted.get() + rejected.get()).isEqualTo(logins);
+        assertThat(accepted.get()).isGreaterThanOrEqualTo(18);
+        assertThat(rejected.get()).isPositive();
+        assertThat(otherLatencies).hasSize(100);
+    }
+
+    private PasswordHashingService service(PasswordEncoder encoder, int poolSize, int queueCapacity) {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getPasswordHashing().setPoolSize(poolSize);
+        properties.getPasswordHashing().setQueueCapacity(queueCapacity);
+        return new PasswordHashingService(encoder, properties, meterRegistry);
+    }
+
+    private static Duration percentile99(List<Long> latencies) {
+        if (latencies.isEmpty()) {
+            return Duration.ZERO;
+        }
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return Duration.ofNanos(sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1));
+    }
+
+    private record RecordingPasswordEncoder(List<String> threads, CountDownLatch release) implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            threads.add(Thread.currentThread().getName());
+            awaitRelease();
+            return "encoded:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            threads.add(Thread.currentThread().getName());
+            awaitRelease();
+            return encodedPassword.equals("encoded:" + rawPassword);
+        }
+
+        private void awaitRelease() {
+            if (release == null) {
+                return;
+            }
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.stockapp.userservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockapp.userservice.domain.WatchlistItem;
+import com.stockapp.userservice.repository.WatchlistItemRepository;
+import com.stockapp.userservice.service.dto.kafka.WatchlistSymbolMessage;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.Message;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+class WatchlistIndexServiceTest {
+
+    private final WatchlistItemRepository repository = mock(WatchlistItemRepository.class);
+    private final StreamBridge streamBridge = mock(StreamBridge.class);
+
+    private WatchlistIndexService index;
+
+    @BeforeEach
+    void setUp() {
+        when(streamBridge.send(eq(WatchlistIndexService.INDEX_BINDING_NAME), any(Message.class))).thenReturn(true);
+        index = new WatchlistIndexService(repository, streamBridge, new ObjectMapper());
+    }
+
+    @Test
+    void fallsBackToRepositoryUntilLoaded() {
+        when(repository.findBySymbol("FPT")).thenReturn(Flux.just(item("FPT", "u1")));
+
+        assertThat(index.findUserIds("FPT").collectList().block()).containsExactly("u1");
+        verify(repository).findBySymbol("FPT");
+    }
+
+    @Test
+    void servesLookupsFromMemoryOnceLoaded() {
+        when(repository.findAll()).thenReturn(Flux.just(item("FPT", "u1"), item("FPT", "u2"), item("VNM", "u1")));
+        index.bootstrap();
+
+        assertThat(index.findUserIds("FPT").collectList().block()).containsExactlyInAnyOrder("u1", "u2");
+        assertThat(index.findUserIds("HPG").collectList().block()).isEmpty();
+
+        Map<String, Set<String>> bulk = index.findUserIds(List.of("FPT", "VNM", "HPG")).block();
+        assertThat(bulk).containsOnlyKeys("FPT", "VNM", "HPG");
+        assertThat(bulk.get("VNM")).containsExactly("u1");
+        assertThat(bulk.get("HPG")).isEmpty();
+
+        verify(repository, times(0)).findBySymbol(any());
+        verify(streamBridge, times(2)).send(eq(WatchlistIndexService.INDEX_BINDING_NAME), any(Message.class));
+    }
+
+    @Test
+    void refreshReplacesSymbolAndPublishes() {
+        when(repository.findAll()).thenReturn(Flux.just(item("FPT", "u1")));
+        index.bootstrap();
+
+        when(repository.findBySymbol("FPT")).thenReturn(Flux.empty());
+        index.refresh("FPT").block();
+
+        assertThat(index.findUserIds("FPT").collectList().block()).isEmpty();
+        verify(streamBridge, times(2)).send(eq(WatchlistIndexService.INDEX_BINDING_NAME), any(Message.class));
+    }
+
+    @Test
+    void appliesEntriesFromOtherInstances() {
+        when(repository.findAll()).thenReturn(Flux.empty());
+        index.bootstrap();
+
+        long now = System.currentTimeMillis();
+        index.apply(new WatchlistSymbolMessage("VCB", Set.of("u3"), now + 1), now + 1);
+        assertThat(index.findUserIds("VCB").collectList().block()).containsExactly("u3");
+
+        index.apply(new WatchlistSymbolMessage("VCB", Set.of(), now + 2), now + 2);
+        assertThat(index.findUserIds("VCB").collectList().block()).isEmpty();
+    }
+
+    @Test
+    void ignoresEntriesReadBeforeTheStoredOne() {
+        when(repository.findAll()).thenReturn(Flux.empty());
+        index.bootstrap();
+        long now = System.currentTimeMillis();
+
+        index.apply(new WatchlistSymbolMessage("VCB", Set.of("u1", "u2"), now + 200), now + 300);
+        // a refresh that read before the one above, delivered after it
+        index.apply(new WatchlistSymbolMessage("VCB", Set.of("u1"), now + 100), now + 400);
+
+        assertThat(index.findUserIds("VCB").collectList().block()).containsExactlyInAnyOrder("u1", "u2");
+    }
+
+    @Test
+    void ignoresItsOwnEntriesEchoedBackAfterANewerRefresh() throws Exception {
+        when(repository.findAll()).thenReturn(Flux.empty());
+        index.bootstrap();
+        when(repository.findBySymbol("FPT")).thenReturn(Flux.just(item("FPT", "u1")));
+        index.refresh("FPT").block();
+        ArgumentCaptor<Message<String>> published = ArgumentCaptor.forClass(Message.class);
+        verify(streamBridge).send(eq(WatchlistIndexService.INDEX_BINDING_NAME), published.capture());
+        WatchlistSymbolMessage echo = new ObjectMapper().readValue(published.getValue().getPayload(), WatchlistSymbolMessage.class);
+
+        when(repository.findBySymbol("FPT")).thenReturn(Flux.just(item("FPT", "u1"), item("FPT", "u2")));
+        index.refresh("FPT").block();
+        index.apply(echo, System.currentTimeMillis());
+
+        assertThat(index.findUserIds("FPT").collectList().block()).containsExactlyInAnyOrder("u1", "u2");
+    }
+
+    @Test
+    void snapshotReplacesReplayedEntriesButKeepsUpdatesMadeWhileLoading() {
+        Sinks.Many<WatchlistItem> snapshot = Sinks.many().unicast().onBackpressureBuffer();
+        when(repository.findAll()).thenReturn(snapshot.asFlux());
+        index.bootstrap();
+
+        // replayed from the compacted topic, published long before the snapshot
+        index.apply(new WatchlistSymbolMessage("FPT", Set.of("unwatched"), null), 0L);
+        index.apply(new WatchlistSymbolMessage("HPG", Set.of("unwatched"), 0L), 0L);
+        // written while the snapshot was loading
+        when(repository.findBySymbol("VNM")).thenReturn(Flux.just(item("VNM", "new-watcher")));
+        index.refresh("VNM").block();
+
+        snapshot.tryEmitNext(item("FPT", "u1"));
+        snapshot.tryEmitNext(item("VNM", "stale-watcher"));
+        snapshot.tryEmitComplete();
+
+        assertThat(index.findUserIds("FPT").collectList().block()).containsExactly("u1");
+        assertThat(index.findUserIds("HPG").collectList().block()).isEmpty();
+        assertThat(index.findUserIds("VNM").collectList().block()).containsExactly("new-watcher");
+    }
+
+    private static WatchlistItem item(String symbol, String userId) {
+        WatchlistItem item = new WatchlistItem();
+        item.setSymbol(symbol);
+        item.setUserId(userId);
+        return item;
+    }
+}
@@ -0,0 +1,65 @@
+package com.stockapp.userservice.service.util;
+
+import com.stockapp.userservice.service.SessionService.DeviceInfo;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * User-Agent parsing throughput over {@link UserAgentCorpus}: {@link DeviceInfoParser} with its
+ * cache, the compiled {@link UserAgentClassifier} alone (every call a cache miss), and the previous
+ * parser ({@code legacy}). Allocation per operation is reported by the GC profiler.
+ * <p>
+ * Not part of the test suite; run with
+ * {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.stockapp.userservice.service.util.DeviceInfoParserBenchmark}
+ * or from the IDE.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class DeviceInfoParserBenchmark {
+
+    private static final List<String> USER_AGENTS = UserAgentCorpus.USER_AGENTS;
+
+    private int next;
+
+    private String nextUserAgent() {
+        next = (next + 1) % USER_AGENTS.size();
+        return USER_AGENTS.get(next);
+    }
+
+    @Benchmark
+    public DeviceInfo cached() {
+        return DeviceInfoParser.parse(nextUserAgent(), null, null);
+    }
+
+    @Benchmark
+    public UserAgentClassifier.Classification compiled() {
+        return UserAgentClassifier.classify(nextUserAgent());
+    }
+
+    @Benchmark
+    public DeviceInfo legacy() {
+        return LegacyDeviceInfoParser.parse(nextUserAgent(), null, null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DeviceInfoParserBenchmark.class.getSimpleName()).addProfiler("gc").build()).run();
+    }
+}
@@ -0,0 +1,55 @@
+package com.stockapp.userservice.service.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.stockapp.userservice.domain.enumeration.DeviceType;
+import com.stockapp.userservice.service.SessionService.DeviceInfo;
+import org.junit.jupiter.api.Test;
+
+class DeviceInfoParserTest {
+
+    @Test
+    void matchesPreviousParserOnCorpus() {
+        for (String userAgent : UserAgentCorpus.USER_AGENTS) {
+            DeviceInfo expected = LegacyDeviceInfoParser.parse(userAgent, null, "Hanoi");
+            for (int i = 0; i < 2; i++) {
+                // second round is served from the cache
+                assertThat(DeviceInfoParser.parse(userAgent, null, "Hanoi")).as(userAgent).usingRecursiveComparison().isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void classifiesCommonClients() {
+        DeviceInfo iphone = DeviceInfoParser.parse(UserAgentCorpus.USER_AGENTS.get(14), "device-1", null);
+        assertThat(iphone.getDeviceId()).isEqualTo("device-1");
+        assertThat(iphone.getDeviceType()).isEqualTo(DeviceType.MOBILE_IOS);
+        assertThat(iphone.getOsVersion()).isEqualTo("17.4.1");
+        assertThat(iphone.getDeviceName()).isEqualTo("Safari on iOS");
+
+        DeviceInfo edge = DeviceInfoParser.parse(UserAgentCorpus.USER_AGENTS.get(1), null, null);
+        assertThat(edge.getBrowserName()).isEqualTo("Edge");
+        assertThat(edge.getBrowserVersion()).isEqualTo("124.0.2478.67");
+        assertThat(edge.getOsVersion()).isEqualTo("10/11");
+    }
+
+    @Test
+    void returnsIndependentInstancesForCachedAgents() {
+        String userAgent = UserAgentCorpus.USER_AGENTS.get(0);
+        DeviceInfo first = DeviceInfoParser.parse(userAgent, null, "Hanoi");
+        DeviceInfo second = DeviceInfoParser.parse(userAgent, "device-2", "Da Nang");
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(first.getLocation()).isEqualTo("Hanoi");
+        assertThat(second.getDeviceId()).isEqualTo("device-2");
+        assertThat(second.getLocation()).isEqualTo("Da Nang");
+    }
+
+    @Test
+    void handlesMissingUserAgent() {
+        DeviceInfo info = DeviceInfoParser.parse(" ", null, null);
+        assertThat(info.getDeviceType()).isEqualTo(DeviceType.WEB);
+        assertThat(info.getDeviceName()).isEqualTo("Unknown Device");
+        assertThat(info.getDeviceId()).isNotBlank();
+    }
+}